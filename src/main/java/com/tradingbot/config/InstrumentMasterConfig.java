@@ -0,0 +1,60 @@
+package com.tradingbot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalTime;
+
+/**
+ * Configuration for the on-disk instrument master used by {@code InstrumentCacheService}.
+ *
+ * <h2>Daily Versioning</h2>
+ * Kite publishes the instrument dump once per day before the open, and it does not change
+ * intraday. Each exchange's dump is therefore fetched at most once per trading day, written to a
+ * compact binary file stamped with that day, and memory-mapped on the next start instead of
+ * being downloaded and parsed again.
+ *
+ * @since 6.3
+ */
+@Configuration
+@ConfigurationProperties(prefix = "instrument-master")
+@Data
+public class InstrumentMasterConfig {
+
+    /**
+     * Persist instrument dumps to disk and load them at startup.
+     * When disabled, dumps are still versioned per trading day but held in memory only.
+     */
+    private boolean persistEnabled = true;
+
+    /**
+     * Directory for the daily binary files ({@code <EXCHANGE>-<yyyyMMdd>.bin}).
+     * Default: "data/instrument-master" (relative to the working directory).
+     */
+    private String directory = "data/instrument-master";
+
+    /**
+     * IST time after which Kite's dump for the current day is available.
+     * A dump fetched before this time is stamped with the previous day and replaced after it.
+     * Default: 08:30.
+     */
+    private LocalTime dumpPublishTime = LocalTime.of(8, 30);
+
+    /**
+     * Number of daily versions kept per exchange; older files are deleted when a new one is written.
+     * Default: 3.
+     */
+    private int retainVersions = 3;
+
+    /**
+     * Exchanges loaded from disk at startup (comma-separated). No API call is made at startup —
+     * an exchange without a current file is fetched on first use.
+     * Default: "NFO,NSE".
+     */
+    private String startupExchanges = "NFO,NSE";
+
+    public String[] getStartupExchangesArray() {
+        return startupExchanges.split(",");
+    }
+}
@@ -101,10 +101,11 @@ public class MarketDataEngineConfig {
 
     /**
      * Number of threads for the MarketDataEngine background refresh pool.
-     * Each data type runs its own scheduled task.
-     * Default: 4 (spot, delta, VWAP, candles — option chain piggybacks on instrument cache).
+     * Spot prices and option chains run as engine-wide tasks; delta, VWAP and candles are
+     * scheduled per instrument so one index's refresh never delays another's.
+     * Default: 0 — size from the instrument count (2 + 3 per instrument, one thread per task).
      */
-    private int threadPoolSize = 4;
+    private int threadPoolSize = 0;
 
     // ==================== SUPPORTED INSTRUMENTS ====================
 
@@ -117,8 +118,9 @@ public class MarketDataEngineConfig {
     // ==================== DELTA PRE-COMPUTATION ====================
 
     /**
-     * Comma-separated list of target delta values to pre-compute strikes for.
-     * Must cover all strategy requirements:
+     * Comma-separated list of reference delta targets reported (as CE/PE strikes) in the engine
+     * cache stats. Strike-by-delta lookups are binary searches over the option chain snapshot,
+     * so strategies are not limited to these values. Typical strategy requirements:
      * - 0.5: ATM straddle sell legs
      * - 0.4: Short strangle sell legs (shortStrangleSellDelta)
      * - 0.3: Near-ATM analysis
@@ -143,6 +145,102 @@ public class MarketDataEngineConfig {
      */
     private int deltaStrikeRangeFarOtm = 30;
 
+    // ==================== TICK FEED ====================
+
+    /**
+     * Enable the engine's own KiteTicker feed for spot and option prices.
+     * When enabled, index tokens and ATM±N option strikes are subscribed in LTP mode and
+     * every tick updates a lock-free price table. REST LTP polling only runs as a fallback
+     * when the feed is disconnected or quiet.
+     * <p>
+     * Opt-in: the feed opens one more WebSocket on the shared API key (with the first active
+     * user's session), which counts against Kite's per-key connection limit.
+     * Default: false
+     */
+    private boolean tickFeedEnabled = false;
+
+    /**
+     * Number of option strikes on each side of ATM subscribed on the tick feed (CE and PE).
+     * Default: 10
+     */
+    private int tickFeedStrikeRange = 10;
+
+    /**
+     * Maximum silence on an index token before the spot refresh falls back to REST polling.
+     * Default: 3000ms (3 seconds) — NIFTY ticks arrive several times per second in market hours.
+     */
+    private long tickFeedQuietMs = 3000;
+
+    // ==================== LOCAL CANDLE BUILDER ====================
+
+    /**
+     * Build 1-minute index candles in-process from the tick feed (requires {@code tickFeedEnabled}).
+     * Bars close on IST minute boundaries and are published as soon as the closing tick arrives;
+     * {@code getHistoricalData} is only called to backfill at startup or after a feed gap.
+     * Default: true
+     */
+    private boolean candleBuilderEnabled = true;
+
+    /**
+     * Finalized 1-minute bars kept per index token (ring buffer).
+     * Default: 400 — a full NSE session is 375 bars.
+     */
+    private int candleBufferCapacity = 400;
+
+    // ==================== ADAPTIVE REFRESH ====================
+
+    /**
+     * Adapt delta and VWAP refresh intervals to market speed and consumer demand.
+     * Tightens on fast spot moves and on expiry day, backs off when no strategy has read the
+     * output recently. Independently of this switch, per-instrument tasks sleep until the next
+     * market open outside market hours.
+     * Default: true
+     */
+    private boolean adaptiveRefreshEnabled = true;
+
+    /**
+     * Spot move (basis points per minute, measured between consecutive refreshes) above which
+     * delta and VWAP refresh tighten.
+     * Default: 10 bps/min (~22 points/min on NIFTY at 22,000).
+     */
+    private double adaptiveFastMoveBpsPerMinute = 10.0;
+
+    /**
+     * Interval multiplier while spot is moving fast.
+     * Default: 0.5 (delta 5s → 2.5s).
+     */
+    private double adaptiveFastMoveFactor = 0.5;
+
+    /**
+     * Interval multiplier on the instrument's expiry day (gamma is highest, deltas move fastest).
+     * Default: 0.5
+     */
+    private double adaptiveExpiryDayFactor = 0.5;
+
+    /**
+     * Floor for tightened intervals.
+     * Default: 1000ms — keeps a fast-moving expiry day within the quote API budget.
+     */
+    private long adaptiveMinIntervalMs = 1000;
+
+    /**
+     * A task's output counts as unread after this long without a strategy read.
+     * Default: 60000ms (1 minute).
+     */
+    private long adaptiveIdleAfterMs = 60000;
+
+    /**
+     * Interval multiplier while unread. A read of stale data wakes the task immediately.
+     * Default: 4.0 (delta 5s → 20s).
+     */
+    private double adaptiveIdleFactor = 4.0;
+
+    /**
+     * Cap on the backed-off interval.
+     * Default: 30000ms (30 seconds).
+     */
+    private long adaptiveMaxIdleIntervalMs = 30000;
+
     /**
      * Returns the supported instruments as an array.
      */
@@ -106,6 +106,58 @@ public class StrategyConfig {
      */
     private double stopLossExpansionPct = 7;
 
+    // ==================== PROTECTIVE STOP CONFIGURATION ====================
+
+    /**
+     * Place an exchange-resident stop order for every short leg once monitoring starts, at the
+     * price where that leg alone would take the position to its stop level. The stop fills on the
+     * exchange without waiting for tick delivery, evaluation and an exit round-trip; the
+     * in-process monitor remains as the backup. Paper trading simulates the stops locally.
+     * Default: false
+     */
+    private boolean protectiveStopsEnabled = false;
+
+    /**
+     * Order type for protective stops: "SL-M" (market on trigger) or "SL" (limit on trigger,
+     * priced {@link #protectiveStopLimitBufferPoints} beyond the trigger) where SL-M is not
+     * accepted for the instrument.
+     * Default: SL-M
+     */
+    private String protectiveStopOrderType = "SL-M";
+
+    /**
+     * Limit buffer (points above the trigger) for "SL" protective stops.
+     * Default: 5.0
+     */
+    private double protectiveStopLimitBufferPoints = 5.0;
+
+    /**
+     * Interval at which resting stops are reconciled with the monitors' stop levels and, in paper
+     * mode, checked against the monitors' latest leg prices.
+     * Default: 250 ms
+     */
+    private long protectiveStopSyncIntervalMs = 250;
+
+    /**
+     * Minimum time between two modifications of the same stop order, so trailing or premium level
+     * moves do not spend the order-rate budget.
+     * Default: 3000 ms
+     */
+    private long protectiveStopModifyIntervalMs = 3_000;
+
+    /**
+     * A stop is modified only when its target trigger has moved by at least this many points.
+     * Default: 0.5
+     */
+    private double protectiveStopMinMovePoints = 0.5;
+
+    /**
+     * Maximum modifications per stop order (the broker caps modifications per order at 25);
+     * once reached, the stop stays where it is and the monitor covers the rest.
+     * Default: 20
+     */
+    private int protectiveStopMaxModifications = 20;
+
     // ==================== SHORT STRANGLE CONFIGURATION ====================
 
     // ==================== DAILY P&L THRESHOLD CONFIGURATION ====================
@@ -0,0 +1,68 @@
+package com.tradingbot.config;
+
+import com.tradingbot.service.strategy.monitoring.SubscriptionModeRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the tick journal — an append-only, memory-mapped record of every tick
+ * received on the WebSocket feeds, one file per trading day.
+ *
+ * <h2>Hot Path</h2>
+ * The socket thread only copies primitives into a per-feed ring; a single journal writer thread
+ * appends them to the mapped file. A full ring drops (and counts) journal records — it never
+ * delays tick processing.
+ *
+ * <h2>Subscription Mode</h2>
+ * Position monitors and the market data feed otherwise subscribe in LTP mode, whose 8-byte packets
+ * carry no volume, OI or exchange time. While journaling, they subscribe in
+ * {@link #subscriptionMode} instead so those fields are recorded.
+ *
+ * @since 6.3
+ */
+@Configuration
+@ConfigurationProperties(prefix = "tick-journal")
+@Data
+public class TickJournalConfig {
+
+    /**
+     * Record every received tick to disk.
+     * Default: false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory for the daily journal files ({@code ticks-<yyyyMMdd>-<part>.jnl}).
+     * Default: "data/tick-journal" (relative to the working directory).
+     */
+    private String directory = "data/tick-journal";
+
+    /**
+     * Per-feed ring capacity in ticks, rounded up to a power of two.
+     * Default: 65536.
+     */
+    private int ringSize = 65_536;
+
+    /**
+     * Size of each memory-mapped file segment; the file grows one segment at a time.
+     * Default: 64 MB.
+     */
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * Trading days of journal files kept; older files are deleted when a day rolls.
+     * Default: 10.
+     */
+    private int retainDays = 10;
+
+    /**
+     * Ticker mode for monitored and market-data tokens while the journal is enabled. FULL
+     * (184-byte packets) carries volume, OI and exchange time; QUOTE (44 bytes) carries volume
+     * only; LTP (8 bytes) none of them. FULL costs about 23x the socket bytes of LTP, and
+     * KiteTicker parses each packet's market depth on the ticker thread (the binary decoder skips
+     * it). Ignored when the journal is disabled.
+     * Default: FULL.
+     */
+    private SubscriptionModeRegistry.Mode subscriptionMode = SubscriptionModeRegistry.Mode.FULL;
+}
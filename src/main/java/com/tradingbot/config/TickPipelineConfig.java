@@ -0,0 +1,146 @@
+package com.tradingbot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the path from the KiteTicker callback to PositionMonitorV2 exit evaluation.
+ *
+ * <h2>Ring Buffer Handoff</h2>
+ * By default, monitors are evaluated directly on KiteTicker's socket thread, so a slow evaluation
+ * delays reading the next frame. With {@code ringBufferEnabled}, the socket thread only copies
+ * (token, LTP, timestamp) into a preallocated single-producer ring, and a dedicated evaluator
+ * thread per user drains it in batches and runs the monitors.
+ *
+ * <h2>Binary Decoder</h2>
+ * With {@code binaryDecoderEnabled}, the Kite WebSocket is read by an in-house client that decodes
+ * frames directly into primitive arrays instead of KiteTicker's {@code Tick} objects.
+ *
+ * <h2>Conflation</h2>
+ * With {@code conflationEnabled}, bursts of ticks for the same token within one batch are collapsed
+ * to the last one before evaluation, so each leg price is applied once per batch.
+ *
+ * <h2>Sharded Evaluation</h2>
+ * With {@code shardedEvaluationEnabled}, monitors of all users are evaluated on a shared pool of
+ * {@code evaluatorShards} threads (one per core by default). Each monitor is owned by the shard its
+ * execution id hashes to, and each user's socket thread routes ticks into per-shard rings. Takes
+ * precedence over {@code ringBufferEnabled}.
+ *
+ * <h2>Latency Tracing</h2>
+ * With {@code latencyTracingEnabled}, every batch opens a {@code LatencyTracer} trace from the
+ * tick receive time, and dispatch, evaluation, exit callback, order submit/ack and fill are
+ * recorded per stage and per user.
+ *
+ * <h2>Order Updates</h2>
+ * With {@code orderUpdatesEnabled}, order updates pushed over the same WebSocket (and the
+ * equivalent paper trading transitions) feed {@code OrderStateCache}. Fill-price lookups wait up
+ * to {@code orderUpdateTimeoutMs} for the final update and only then poll order history.
+ *
+ * @since 6.3
+ */
+@Configuration
+@ConfigurationProperties(prefix = "tick-pipeline")
+@Data
+public class TickPipelineConfig {
+
+    public static final String WAIT_BUSY_SPIN = "BUSY_SPIN";
+    public static final String WAIT_PARK = "PARK";
+
+    /**
+     * Hand ticks to a dedicated evaluator thread through a ring buffer instead of evaluating
+     * monitors on the KiteTicker thread.
+     * Default: false (direct evaluation, legacy behavior).
+     */
+    private boolean ringBufferEnabled = false;
+
+    /**
+     * Ring capacity in ticks, rounded up to a power of two. When the ring is full the socket
+     * thread waits for the evaluator (never drops a tick) and the stall is counted.
+     * Default: 8192.
+     */
+    private int ringBufferSize = 8192;
+
+    /**
+     * Maximum ticks drained into one evaluation batch. Larger batches amortize exit evaluation
+     * under bursts; smaller ones bound the delay of the first tick in a batch.
+     * Default: 256.
+     */
+    private int maxBatchSize = 256;
+
+    /**
+     * Evaluator wait strategy when the ring is empty: "BUSY_SPIN" (lowest latency, burns a core
+     * per connected user) or "PARK" (sleeps {@code parkNanos} between polls).
+     * Default: "PARK".
+     */
+    private String waitStrategy = WAIT_PARK;
+
+    /**
+     * Park duration for the "PARK" wait strategy, in nanoseconds.
+     * Default: 50000 (50µs).
+     */
+    private long parkNanos = 50_000;
+
+    /**
+     * Collapse each tick batch to the latest tick per instrument token before monitor evaluation
+     * (latest value wins). Applies to both the direct and the ring-buffer path.
+     * Default: false.
+     */
+    private boolean conflationEnabled = false;
+
+    /**
+     * Use the in-house binary WebSocket client ({@code KiteBinaryTickClient}) instead of KiteTicker.
+     * Frames are decoded straight into reused primitive arrays — no {@code Tick} objects.
+     * Default: false (KiteTicker).
+     */
+    private boolean binaryDecoderEnabled = false;
+
+    /**
+     * Kite WebSocket endpoint for the binary decoder; api_key and access_token are appended.
+     * Default: "wss://ws.kite.trade".
+     */
+    private String binaryDecoderUrl = "wss://ws.kite.trade";
+
+    /**
+     * Evaluate monitors on the shared {@code MonitorShardPool} instead of one thread per user.
+     * Default: false.
+     */
+    private boolean shardedEvaluationEnabled = false;
+
+    /**
+     * Number of shard threads; 0 means one per available processor. Capped at 64.
+     * Default: 0.
+     */
+    private int evaluatorShards = 0;
+
+    /**
+     * Ring capacity in ticks of each (user, shard) lane, rounded up to a power of two. Kept small
+     * because every connected user gets one lane per shard.
+     * Default: 1024.
+     */
+    private int shardRingSize = 1024;
+
+    /**
+     * Record tick-to-exit-order stage latencies into per-user histograms ({@code /actuator/latency}).
+     * Costs a few lock-free increments per batch and per evaluated monitor.
+     * Default: true.
+     */
+    private boolean latencyTracingEnabled = true;
+
+    /**
+     * Resolve order fills from the WebSocket order-update stream instead of polling order history.
+     * Default: true.
+     */
+    private boolean orderUpdatesEnabled = true;
+
+    /**
+     * Max wait for an order's final update while the stream is connected, before falling back to
+     * one {@code getOrderHistory} poll.
+     * Default: 1500.
+     */
+    private long orderUpdateTimeoutMs = 1_500;
+
+    public boolean isBusySpin() {
+        return WAIT_BUSY_SPIN.equalsIgnoreCase(waitStrategy);
+    }
+}
@@ -3,7 +3,9 @@ package com.tradingbot.controller;
 import com.tradingbot.dto.ApiResponse;
 import com.tradingbot.service.InstrumentCacheService;
 import com.tradingbot.service.RateLimiterService;
+import com.tradingbot.service.TradingService;
 import com.tradingbot.service.greeks.DeltaCacheService;
+import com.tradingbot.service.journal.TickJournal;
 import com.tradingbot.service.persistence.PersistenceBufferService;
 import com.tradingbot.service.persistence.SystemHealthMonitorService;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
@@ -31,9 +33,11 @@ public class MonitoringController {
     private final WebSocketService webSocketService;
     private final DeltaCacheService deltaCacheService;
     private final RateLimiterService rateLimiterService;
+    private final TradingService tradingService;
     private final InstrumentCacheService instrumentCacheService;
     private final PersistenceBufferService persistenceBufferService;
     private final SystemHealthMonitorService systemHealthMonitorService;
+    private final TickJournal tickJournal;
 
     @GetMapping("/status")
     @Operation(summary = "Get WebSocket connection status",
@@ -135,6 +139,47 @@ public class MonitoringController {
         return ResponseEntity.ok(ApiResponse.success(stats));
     }
 
+    @GetMapping("/quote-coalescing")
+    @Operation(summary = "Get Quote Coalescing Status",
+               description = "Returns single-flight statistics for getQuote/getLTP. Concurrent identical requests " +
+                           "(same user, same instruments) share one Kite call; 'deduplicated' counts the callers " +
+                           "that were served by another caller's in-flight request.")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Quote coalescing statistics returned"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getQuoteCoalescingStatus() {
+        Map<String, Object> stats = tradingService.getQuoteCoalescingStats();
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @GetMapping("/tick-pipeline")
+    @Operation(summary = "Get Tick Pipeline Status",
+               description = "Returns the current user's tick evaluation mode (DIRECT on the KiteTicker thread or " +
+                           "RING_BUFFER with a dedicated evaluator) plus ring and conflation counters. " +
+                           "'conflatedTicks' counts ticks collapsed into a later tick for the same token.")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Tick pipeline statistics returned"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Missing X-User-Id header"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTickPipelineStatus() {
+        Map<String, Object> stats = webSocketService.getTickPipelineStats();
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    @GetMapping("/tick-journal")
+    @Operation(summary = "Get Tick Journal Status",
+               description = "Returns the memory-mapped tick journal state: current file, records written, " +
+                           "per-feed ring depth and 'droppedTicks' (ticks lost because the writer fell behind).")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Tick journal statistics returned"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTickJournalStatus() {
+        return ResponseEntity.ok(ApiResponse.success(tickJournal.getStats()));
+    }
+
     @GetMapping("/instrument-cache")
     @Operation(summary = "Get Instrument Cache Status",
                description = "Returns statistics about the instrument cache. Shows cached exchanges, " +
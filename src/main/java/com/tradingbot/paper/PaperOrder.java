@@ -1,12 +1,16 @@
 package com.tradingbot.paper;
 
 import com.tradingbot.paper.entity.OrderCharges;
+import com.tradingbot.util.TradingClock;
+import com.zerodhatech.models.Order;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 
 import static com.tradingbot.service.TradingConstants.*;
 
@@ -82,7 +86,7 @@ public class PaperOrder {
                 .cancelledQuantity(0)
                 .disclosedQuantity(disclosedQuantity != null ? disclosedQuantity : 0)
                 .validity(validity)
-                .orderTimestamp(LocalDateTime.now())
+                .orderTimestamp(TradingClock.localDateTime())
                 .statusMessage(MSG_ORDER_PLACED_SUCCESS)
                 .brokerageCharges(0.0)
                 .taxes(0.0)
@@ -128,4 +132,39 @@ public class PaperOrder {
                 .chargesBreakdown(this.chargesBreakdown)
                 .build();
     }
+
+    /**
+     * Convert to the Kite {@link Order} model (order book, order history and order updates)
+     */
+    public Order toKiteOrder() {
+        Order order = new Order();
+        order.orderId = this.orderId;
+        order.exchangeOrderId = this.exchangeOrderId;
+        order.status = this.status;
+        order.tradingSymbol = this.tradingSymbol;
+        order.exchange = this.exchange;
+        order.transactionType = this.transactionType;
+        order.orderType = this.orderType;
+        order.product = this.product;
+        order.quantity = safeToString(this.quantity);
+        order.price = safeToString(this.price);
+        order.triggerPrice = safeToString(this.triggerPrice);
+        order.averagePrice = safeToString(this.averagePrice);
+        order.filledQuantity = safeToString(this.filledQuantity);
+        order.pendingQuantity = safeToString(this.pendingQuantity);
+        order.disclosedQuantity = safeToString(this.disclosedQuantity);
+        order.validity = this.validity;
+        order.orderTimestamp = this.orderTimestamp != null ?
+                              Date.from(this.orderTimestamp.atZone(ZoneId.systemDefault()).toInstant()) : null;
+        order.exchangeTimestamp = this.exchangeTimestamp != null ?
+                                 Date.from(this.exchangeTimestamp.atZone(ZoneId.systemDefault()).toInstant()) : null;
+        order.statusMessage = this.statusMessage;
+        order.parentOrderId = this.parentOrderId;
+        order.tag = this.tag;
+        return order;
+    }
+
+    private static String safeToString(Object value) {
+        return value != null ? value.toString() : "0";
+    }
 }
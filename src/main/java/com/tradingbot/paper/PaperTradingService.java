@@ -11,7 +11,9 @@ import com.tradingbot.entity.TradeEntity;
 import com.tradingbot.entity.OrderTimingEntity;
 import com.tradingbot.paper.entity.OrderCharges;
 import com.tradingbot.service.TradingService;
+import com.tradingbot.service.order.OrderStateCache;
 import com.tradingbot.service.persistence.TradePersistenceService;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.LTPQuote;
 import lombok.RequiredArgsConstructor;
@@ -42,6 +44,7 @@ public class PaperTradingService {
     private final ZerodhaChargeCalculator chargeCalculator;
     private final PersistenceConfig persistenceConfig;
     private final TradePersistenceService persistenceService;
+    private final OrderStateCache orderStateCache;
 
     // In-memory storage for paper trading
     private final Map<String, PaperOrder> orders = new ConcurrentHashMap<>();
@@ -49,6 +52,8 @@ public class PaperTradingService {
     // Per-user positions: userId -> (positionKey -> PaperPosition)
     private final Map<String, Map<String, PaperPosition>> positionsByUser = new ConcurrentHashMap<>();
     private final Map<String, PaperAccount> accounts = new ConcurrentHashMap<>();
+    // Untriggered SL / SL-M orders, checked against prices by onPriceUpdate()
+    private final Map<String, PaperOrder> restingStops = new ConcurrentHashMap<>();
 
     private final AtomicLong orderIdGenerator = new AtomicLong(System.currentTimeMillis());
 
@@ -441,10 +446,58 @@ public class PaperTradingService {
             order.setStatus(STATUS_OPEN);
             order.setStatusMessage(MSG_TRIGGER_PENDING);
             addToHistory(order.getOrderId(), order);
+            restingStops.put(order.getOrderId(), order);
             log.info("[PAPER TRADING] SL order open: {} waiting for trigger {}", order.getOrderId(), triggerPrice);
         }
     }
 
+    /**
+     * Resting stop simulation: execute every open SL / SL-M order on {@code tradingSymbol} whose
+     * trigger {@code lastPrice} has reached, as the exchange would. SL-M fills at
+     * {@code lastPrice}; SL follows the limit rules and stays open if the limit is not marketable.
+     * <p>
+     * Paper orders are otherwise only checked when placed, so callers holding live prices for
+     * symbols with resting stops (e.g. ProtectiveStopService) feed them in here.
+     *
+     * @param tradingSymbol trading symbol the price belongs to
+     * @param lastPrice     last traded price
+     * @return ids of the stop orders that triggered
+     */
+    public List<String> onPriceUpdate(String tradingSymbol, double lastPrice) {
+        if (restingStops.isEmpty() || lastPrice <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> triggered = null;
+        for (PaperOrder order : restingStops.values()) {
+            if (!tradingSymbol.equals(order.getTradingSymbol())) continue;
+
+            double triggerPrice = order.getTriggerPrice();
+            boolean hit = TRANSACTION_BUY.equals(order.getTransactionType())
+                    ? lastPrice >= triggerPrice
+                    : lastPrice <= triggerPrice;
+            if (!hit) continue;
+
+            synchronized (order) {
+                // Claim the order: a concurrent cancel or trigger that removed it first wins
+                if (!restingStops.remove(order.getOrderId(), order)) continue;
+
+                PaperAccount account = getOrCreateAccount(order.getPlacedBy());
+                if (ORDER_TYPE_SL_M.equals(order.getOrderType())) {
+                    executeMarketOrder(order, account, lastPrice);
+                } else {
+                    executeLimitOrder(order, account, lastPrice);
+                }
+            }
+            log.info("[PAPER TRADING] Resting stop {} triggered @ {} (trigger {})",
+                    order.getOrderId(), lastPrice, triggerPrice);
+            if (triggered == null) {
+                triggered = new ArrayList<>(2);
+            }
+            triggered.add(order.getOrderId());
+        }
+        return triggered != null ? triggered : Collections.emptyList();
+    }
+
     /**
      * Complete an order with execution price
      */
@@ -456,7 +509,7 @@ public class PaperTradingService {
         order.setExecutionPrice(executionPrice);
         order.setFilledQuantity(order.getQuantity());
         order.setPendingQuantity(0);
-        order.setExchangeTimestamp(LocalDateTime.now());
+        order.setExchangeTimestamp(TradingClock.localDateTime());
         order.setStatusMessage(MSG_ORDER_COMPLETED);
 
         // Calculate charges
@@ -529,7 +582,7 @@ public class PaperTradingService {
     private void rejectOrder(PaperOrder order, String reason) {
         order.setStatus(STATUS_REJECTED);
         order.setStatusMessage(reason);
-        order.setExchangeTimestamp(LocalDateTime.now());
+        order.setExchangeTimestamp(TradingClock.localDateTime());
         addToHistory(order.getOrderId(), order);
 
         log.warn("[PAPER TRADING] Order rejected: {} - {}", order.getOrderId(), reason);
@@ -598,7 +651,7 @@ public class PaperTradingService {
                 .build());
 
         position.setLastPrice(executionPrice);
-        position.setLastUpdated(LocalDateTime.now());
+        position.setLastUpdated(TradingClock.localDateTime());
 
         if (TRANSACTION_BUY.equals(order.getTransactionType())) {
             // BUY could either open/extend a long or close an existing short
@@ -716,20 +769,24 @@ public class PaperTradingService {
             return new OrderResponse(orderId, STATUS_FAILED, ERR_UNAUTHORIZED);
         }
 
-        if (STATUS_COMPLETE.equals(order.getStatus()) || STATUS_CANCELLED.equals(order.getStatus())) {
-            return new OrderResponse(orderId, STATUS_FAILED, ERR_ORDER_CANNOT_BE_CANCELLED);
-        }
+        // Serialized with onPriceUpdate(): a resting stop is either triggered or cancelled, never both
+        synchronized (order) {
+            if (STATUS_COMPLETE.equals(order.getStatus()) || STATUS_CANCELLED.equals(order.getStatus())) {
+                return new OrderResponse(orderId, STATUS_FAILED, ERR_ORDER_CANNOT_BE_CANCELLED);
+            }
+            restingStops.remove(orderId);
 
-        // Release margin if buy order
-        releasePendingMargin(order, userId);
+            // Release margin if buy order
+            releasePendingMargin(order, userId);
 
-        order.setStatus(STATUS_CANCELLED);
-        order.setCancelledQuantity(order.getPendingQuantity());
-        order.setPendingQuantity(0);
-        order.setStatusMessage(MSG_ORDER_CANCELLED_BY_USER);
-        order.setExchangeTimestamp(LocalDateTime.now());
+            order.setStatus(STATUS_CANCELLED);
+            order.setCancelledQuantity(order.getPendingQuantity());
+            order.setPendingQuantity(0);
+            order.setStatusMessage(MSG_ORDER_CANCELLED_BY_USER);
+            order.setExchangeTimestamp(TradingClock.localDateTime());
 
-        addToHistory(orderId, order);
+            addToHistory(orderId, order);
+        }
 
         log.info("[PAPER TRADING] Order cancelled: {}", orderId);
         return new OrderResponse(orderId, STATUS_SUCCESS, MSG_ORDER_CANCELLED_SUCCESS);
@@ -830,6 +887,7 @@ public class PaperTradingService {
     public void resetAccount(String userId) {
         // Remove user's orders and related history only for that user
         orders.entrySet().removeIf(e -> e.getValue().getPlacedBy().equals(userId));
+        restingStops.values().removeIf(o -> o.getPlacedBy().equals(userId));
         orderHistory.entrySet().removeIf(e -> {
             List<PaperOrder> hist = e.getValue();
             return !hist.isEmpty() && userId.equals(hist.get(0).getPlacedBy());
@@ -860,8 +918,13 @@ public class PaperTradingService {
         return Optional.of(order.copy());
     }
 
+    /**
+     * Record an order state change. Every transition is also published to {@link OrderStateCache},
+     * mirroring the order updates Kite pushes over the WebSocket for live orders.
+     */
     private void addToHistory(String orderId, PaperOrder order) {
         orderHistory.computeIfAbsent(orderId, k -> new ArrayList<>()).add(order.copy());
+        orderStateCache.onOrderUpdate(order.getPlacedBy(), order.toKiteOrder());
     }
 
     private String validateOrder(PaperOrder order) {
@@ -0,0 +1,30 @@
+package com.tradingbot.replay.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for session replay.
+ * All properties are prefixed with "replay." in application.yml.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "replay")
+@Data
+public class ReplayConfig {
+
+    /** Global enable/disable switch for the replay API. */
+    private boolean enabled = false;
+
+    /** User context the replay runs as. Must not be a real logged-in user. */
+    private String userId = "replay";
+
+    /** Journal directory to read; null or blank uses tick-journal.directory. */
+    private String directory;
+
+    /** Max wall time to wait for async monitor setup or a leg replacement to finish. */
+    private long settleTimeoutMs = 5_000;
+
+    /** Distinct instruments the replay market can price (paper fills, leg-replacement candidates). */
+    private int maxTokens = 16_384;
+}
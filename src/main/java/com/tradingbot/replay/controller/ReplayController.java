@@ -0,0 +1,99 @@
+package com.tradingbot.replay.controller;
+
+import com.tradingbot.dto.ApiResponse;
+import com.tradingbot.replay.dto.ReplayRequest;
+import com.tradingbot.replay.dto.ReplayResult;
+import com.tradingbot.replay.engine.ReplayException;
+import com.tradingbot.replay.service.ReplayService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for session replay.
+ * <p>
+ * Replays a recorded tick journal day through the live monitoring stack on a virtual clock,
+ * with the paper broker filling orders at recorded prices.
+ */
+@RestController
+@RequestMapping("/api/replay")
+@ConditionalOnProperty(name = "replay.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Session Replay", description = "Replay recorded tick journals through the live exit and leg-replacement stack")
+public class ReplayController {
+
+    private final ReplayService replayService;
+
+    @PostMapping("/run")
+    @Operation(summary = "Replay a recorded day",
+               description = "Stream a tick journal day through WebSocketService dispatch, PositionMonitorV2, exit strategies "
+                       + "and leg replacement, and wait for the result. Paper trading mode only.")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Replay finished (check status field for COMPLETED/FAILED)"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request, missing journal, live mode or replay already running"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<ReplayResult>> run(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Day, entry legs, exit parameters and pacing", required = true)
+            @Valid @RequestBody ReplayRequest request) {
+
+        log.info("Replay request: day={}, CE={}, PE={}, speed={}",
+                request.getTradingDay(), request.getCallSymbol(), request.getPutSymbol(), request.getSpeed());
+
+        ReplayResult result = replayService.run(request);
+
+        String message = result.getStatus() == ReplayResult.ReplayStatus.COMPLETED
+                ? "Replay completed"
+                : "Replay failed: " + result.getErrorMessage();
+        return ResponseEntity.ok(ApiResponse.success(message, result));
+    }
+
+    @PostMapping("/run-async")
+    @Operation(summary = "Replay a recorded day in the background",
+               description = "Start a replay and return its id. Poll /api/replay/result/{id} for the result.")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Replay started, returns replay ID for polling"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid request, missing journal, live mode or replay already running"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<String>> runAsync(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Day, entry legs, exit parameters and pacing", required = true)
+            @Valid @RequestBody ReplayRequest request) {
+
+        String replayId = replayService.runAsync(request);
+        return ResponseEntity.ok(ApiResponse.success(
+                "Replay started. Poll /api/replay/result/" + replayId + " for results.", replayId));
+    }
+
+    @GetMapping("/result/{replayId}")
+    @Operation(summary = "Get replay result by ID", description = "Retrieve a running or finished replay from the in-memory cache")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Replay result returned"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Replay result not found in cache"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<ApiResponse<ReplayResult>> getResult(
+            @Parameter(description = "Replay ID", required = true) @PathVariable String replayId) {
+        ReplayResult result = replayService.getResult(replayId);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ApiResponse.success(result));
+    }
+
+    // ==================== EXCEPTION HANDLING ====================
+
+    @ExceptionHandler(ReplayException.class)
+    public ResponseEntity<ApiResponse<Void>> handleReplayException(ReplayException e) {
+        log.warn("Replay error [{}]: {}", e.getErrorCode(), e.getMessage());
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+}
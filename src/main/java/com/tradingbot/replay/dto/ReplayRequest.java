@@ -0,0 +1,87 @@
+package com.tradingbot.replay.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO for replaying one recorded trading day through the live monitoring stack.
+ * <p>
+ * The entry legs are given explicitly: VIX, neutral-market and delta inputs come from Kite REST
+ * and are not in the tick journal, so strike selection and entry gates are not replayed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to replay a recorded tick journal day through the SELL_ATM_STRADDLE monitoring stack")
+public class ReplayRequest {
+
+    @NotNull(message = "Trading day is required")
+    @PastOrPresent(message = "Trading day must not be in the future")
+    @Schema(description = "Recorded trading day to replay", example = "2026-03-10", requiredMode = Schema.RequiredMode.REQUIRED)
+    private LocalDate tradingDay;
+
+    @Schema(description = "Journal source id to replay (see /api/monitoring/tick-journal). Null replays every source — "
+            + "choose one when several feeds carried the same instruments", example = "0")
+    private Integer source;
+
+    @NotBlank(message = "Instrument type is required")
+    @Schema(description = "Underlying index: NIFTY or BANKNIFTY", example = "NIFTY", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String instrumentType;
+
+    @Schema(description = "Expiry of the entry legs (yyyy-MM-dd)", example = "2026-03-12")
+    private String expiry;
+
+    @NotBlank(message = "Call symbol is required")
+    @Schema(description = "CE leg to sell at entry", example = "NIFTY2631222500CE", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String callSymbol;
+
+    @NotBlank(message = "Put symbol is required")
+    @Schema(description = "PE leg to sell at entry", example = "NIFTY2631222500PE", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String putSymbol;
+
+    @Builder.Default
+    @Schema(description = "Number of lots (default: 1)", example = "1")
+    private int lots = 1;
+
+    // ==================== SL/TARGET CONFIGURATION ====================
+
+    @Schema(description = "Exit mode: 'points' or 'premium'", example = "premium")
+    private String slTargetMode;
+
+    @Schema(description = "Stop loss in points (when mode = points)", example = "50.0")
+    private Double stopLossPoints;
+
+    @Schema(description = "Target in points (when mode = points)", example = "50.0")
+    private Double targetPoints;
+
+    @Schema(description = "Target decay % for premium-based exit", example = "5.0")
+    private Double targetDecayPct;
+
+    @Schema(description = "Stop loss expansion % for premium-based exit", example = "10.0")
+    private Double stopLossExpansionPct;
+
+    // ==================== TIME & PACING ====================
+
+    @Builder.Default
+    @Schema(description = "Entry time in HH:mm IST; ticks before it only warm the price table (default: 09:20)", example = "09:20")
+    private String entryTime = "09:20";
+
+    @Builder.Default
+    @Schema(description = "Stop replaying at HH:mm IST (default: 15:30)", example = "15:30")
+    private String endTime = "15:30";
+
+    @Builder.Default
+    @PositiveOrZero
+    @Schema(description = "Pacing: 0 = as fast as possible, 1 = recorded speed, 10 = ten times faster", example = "0")
+    private double speed = 0;
+}
@@ -0,0 +1,96 @@
+package com.tradingbot.replay.dto;
+
+import com.tradingbot.model.StrategyExecution;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Result of one session replay: the paper execution as the live stack left it, plus
+ * replay throughput and tick-to-evaluation latency.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of replaying a recorded trading day through the live monitoring stack")
+public class ReplayResult {
+
+    // ==================== IDENTIFICATION ====================
+
+    @Schema(description = "Unique replay identifier", example = "rp-a1b2c3d4")
+    private String replayId;
+
+    @Schema(description = "The recorded day that was replayed", example = "2026-03-10")
+    private LocalDate tradingDay;
+
+    @Schema(description = "Replay status")
+    private ReplayStatus status;
+
+    @Schema(description = "Error message if the replay failed")
+    private String errorMessage;
+
+    // ==================== STRATEGY OUTCOME ====================
+
+    @Schema(description = "Paper execution id created for the replay")
+    private String executionId;
+
+    @Schema(description = "Final execution status", example = "COMPLETED")
+    private String executionStatus;
+
+    @Schema(description = "Why the execution completed (null if still open at end time)", example = "TARGET_HIT")
+    private String completionReason;
+
+    @Schema(description = "Virtual IST time of entry", example = "09:20:00.153")
+    private String entryTime;
+
+    @Schema(description = "Virtual IST time the execution completed", example = "11:42:07.918")
+    private String exitTime;
+
+    @Schema(description = "Realized P&L in INR over all closed legs", example = "1250.00")
+    private double realizedPnl;
+
+    @Schema(description = "Number of leg replacements performed", example = "1")
+    private int legReplacements;
+
+    @Schema(description = "Order legs as recorded by the strategy, including replacements")
+    private List<StrategyExecution.OrderLeg> legs;
+
+    // ==================== REPLAY METRICS ====================
+
+    @Schema(description = "Journal records read", example = "1843221")
+    private long ticksRead;
+
+    @Schema(description = "Tick batches dispatched to the monitoring stack", example = "412877")
+    private long batchesDispatched;
+
+    @Schema(description = "Median wall time to evaluate one batch (µs)", example = "3")
+    private long dispatchP50Micros;
+
+    @Schema(description = "99th percentile wall time to evaluate one batch (µs)", example = "18")
+    private long dispatchP99Micros;
+
+    @Schema(description = "Slowest batch evaluation (µs)", example = "2400")
+    private long dispatchMaxMicros;
+
+    @Schema(description = "Recorded session time covered (ms)", example = "22200000")
+    private long virtualDurationMs;
+
+    @Schema(description = "Wall time the replay took (ms)", example = "5400")
+    private long wallDurationMs;
+
+    /**
+     * Status of a replay run.
+     */
+    @Schema(description = "Replay status")
+    public enum ReplayStatus {
+        COMPLETED,
+        FAILED,
+        RUNNING
+    }
+}
@@ -0,0 +1,370 @@
+package com.tradingbot.replay.engine;
+
+import com.tradingbot.dto.StrategyExecutionResponse;
+import com.tradingbot.dto.StrategyRequest;
+import com.tradingbot.model.StrategyCompletionReason;
+import com.tradingbot.model.StrategyExecution;
+import com.tradingbot.model.StrategyStatus;
+import com.tradingbot.model.StrategyType;
+import com.tradingbot.replay.dto.ReplayRequest;
+import com.tradingbot.replay.dto.ReplayResult;
+import com.tradingbot.service.StrategyService;
+import com.tradingbot.service.journal.TickJournalReader;
+import com.tradingbot.service.strategy.SellATMStraddleStrategy;
+import com.tradingbot.service.strategy.monitoring.DecodedTickBatch;
+import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
+import com.tradingbot.service.strategy.monitoring.WebSocketService;
+import com.tradingbot.util.StrategyConstants;
+import com.tradingbot.util.TradingClock;
+import com.tradingbot.util.VirtualClock;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Instrument;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams one recorded tick journal day through the live monitoring stack.
+ *
+ * <h2>Pipeline</h2>
+ * Records are read in file order and grouped into one {@link DecodedTickBatch} per original
+ * socket frame (same source, same receive nanos). For each batch the engine:
+ * <ol>
+ *   <li>advances the {@link VirtualClock} to the batch's receive time</li>
+ *   <li>updates {@link ReplayMarket}, which answers {@code TradingService.getLTP} for the replay user</li>
+ *   <li>at the entry time, sells the requested CE/PE through
+ *       {@link SellATMStraddleStrategy#executeWithInstruments} (paper broker, real monitor setup)</li>
+ *   <li>hands the batch to {@link WebSocketService#replayTicks} — conflation, dispatch table,
+ *       {@link PositionMonitorV2}, exit strategies</li>
+ *   <li>waits for asynchronous exit orders and leg replacements to settle before the next batch,
+ *       so results do not depend on executor scheduling</li>
+ * </ol>
+ *
+ * <h2>Not replayed</h2>
+ * Entry gates and strike selection (VIX, neutral market, delta — Kite REST inputs absent from the
+ * journal) and auto-restart: the engine's completion callback records the outcome without
+ * publishing a completion event.
+ *
+ * <p>NOT thread-safe — one instance per run; the virtual clock is process-wide.
+ *
+ * @since 6.3
+ */
+@Slf4j
+public class ReplayEngine {
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final long SETTLE_PARK_NANOS = 50_000L;
+
+    private final String userId;
+    private final List<Path> journalFiles;
+    private final Instrument callInstrument;
+    private final Instrument putInstrument;
+    private final long settleTimeoutNanos;
+    private final WebSocketService webSocketService;
+    private final ReplayMarket replayMarket;
+    private final SellATMStraddleStrategy strategy;
+    private final StrategyService strategyService;
+
+    private VirtualClock clock;
+    private long firstEpochNanos;
+    private long lastEpochNanos;
+    private long wallStartNanos;
+
+    private StrategyExecution execution;
+    private PositionMonitorV2 monitor;
+    private long entryEpochNanos;
+    private volatile boolean completed;
+    private volatile StrategyCompletionReason completionReason;
+    private volatile long completedEpochNanos;
+
+    private long ticksRead;
+    private final LongArrayList dispatchNanos = new LongArrayList(1 << 16);
+
+    /**
+     * @param journalFiles the day's journal parts in order (see {@code TickJournal.filesFor})
+     */
+    public ReplayEngine(String userId, List<Path> journalFiles, Instrument callInstrument, Instrument putInstrument,
+                        long settleTimeoutMs, WebSocketService webSocketService, ReplayMarket replayMarket,
+                        SellATMStraddleStrategy strategy, StrategyService strategyService) {
+        this.userId = userId;
+        this.journalFiles = journalFiles;
+        this.callInstrument = callInstrument;
+        this.putInstrument = putInstrument;
+        this.settleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settleTimeoutMs);
+        this.webSocketService = webSocketService;
+        this.replayMarket = replayMarket;
+        this.strategy = strategy;
+        this.strategyService = strategyService;
+    }
+
+    /**
+     * Run the replay on the calling thread, which must carry the replay user's context with the
+     * replay feed attached and the replay market open.
+     */
+    public ReplayResult run(ReplayRequest request, String replayId) {
+        final LocalTime entryTime = LocalTime.parse(request.getEntryTime(), HH_MM);
+        final LocalTime endTime = LocalTime.parse(request.getEndTime(), HH_MM);
+        final Integer sourceFilter = request.getSource();
+        final double speed = request.getSpeed();
+        final StrategyRequest strategyRequest = toStrategyRequest(request);
+
+        DecodedTickBatch batch = new DecodedTickBatch(256);
+        long batchReceiveNanos = 0;
+        long batchEpochNanos = 0;
+        int batchSource = -1;
+
+        try {
+            replay:
+            for (Path file : journalFiles) {
+                try (TickJournalReader reader = new TickJournalReader(file)) {
+                    log.info("[replay={}] Reading {} ({} records)", replayId, file.getFileName(), reader.recordCount());
+                    while (reader.next()) {
+                        final int source = reader.source();
+                        if (sourceFilter != null && source != sourceFilter) {
+                            continue;
+                        }
+                        ticksRead++;
+                        final long receiveNanos = reader.receiveNanos();
+                        if (batch.size() > 0 && (receiveNanos != batchReceiveNanos || source != batchSource)) {
+                            final boolean more = step(batch, batchEpochNanos, entryTime, endTime, speed, strategyRequest);
+                            batch.clear();
+                            if (!more) {
+                                break replay;
+                            }
+                        }
+                        if (batch.size() == 0) {
+                            batchReceiveNanos = receiveNanos;
+                            batchSource = source;
+                            batchEpochNanos = reader.receiveEpochNanos();
+                        }
+                        batch.add(reader.instrumentToken(), reader.lastTradedPrice(), batchEpochNanos,
+                                reader.exchangeTimestamp(), reader.volume(), reader.openInterest());
+                    }
+                }
+            }
+            if (batch.size() > 0) {
+                step(batch, batchEpochNanos, entryTime, endTime, speed, strategyRequest);
+            }
+            return buildResult(request, replayId, ReplayResult.ReplayStatus.COMPLETED, null);
+        } catch (ReplayException e) {
+            log.warn("[replay={}] Replay stopped: {}", replayId, e.getMessage());
+            return buildResult(request, replayId, ReplayResult.ReplayStatus.FAILED, e.getMessage());
+        } catch (IOException e) {
+            log.error("[replay={}] Journal read failed: {}", replayId, e.getMessage(), e);
+            return buildResult(request, replayId, ReplayResult.ReplayStatus.FAILED, "Journal read failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Process one recorded frame.
+     *
+     * @return false once the replay should stop (end time reached or the execution completed)
+     */
+    private boolean step(DecodedTickBatch batch, long epochNanos, LocalTime entryTime, LocalTime endTime,
+                         double speed, StrategyRequest strategyRequest) {
+        if (clock == null) {
+            // Re-checked here: a strategy may have started between submit and the first frame
+            final int activeMonitors = webSocketService.getTotalActiveMonitorsCount();
+            if (activeMonitors > 0) {
+                throw new ReplayException(ReplayException.ErrorCode.MONITORS_ACTIVE,
+                        activeMonitors + " position monitor(s) became active before the virtual clock was installed");
+            }
+            clock = new VirtualClock(epochNanos);
+            TradingClock.install(clock);
+            firstEpochNanos = epochNanos;
+            wallStartNanos = System.nanoTime();
+        } else {
+            clock.advanceTo(epochNanos);
+        }
+        lastEpochNanos = Math.max(lastEpochNanos, epochNanos);
+
+        final LocalTime now = TradingClock.timeIst();
+        if (!now.isBefore(endTime)) {
+            return false;
+        }
+        if (speed > 0) {
+            pace(epochNanos, speed);
+        }
+
+        final int count = batch.size();
+        final long[] tokens = batch.tokens();
+        final double[] prices = batch.prices();
+        final long epochMillis = epochNanos / 1_000_000L;
+        for (int i = 0; i < count; i++) {
+            replayMarket.onTick(tokens[i], prices[i], epochMillis);
+        }
+
+        if (execution == null) {
+            if (now.isBefore(entryTime)) {
+                return true;
+            }
+            enter(strategyRequest);
+        }
+
+        final long start = System.nanoTime();
+        webSocketService.replayTicks(batch);
+        dispatchNanos.add(System.nanoTime() - start);
+
+        settle();
+        return !completed;
+    }
+
+    /** Sell the requested legs on the paper broker and wait until the feed routes ticks to the live monitor. */
+    private void enter(StrategyRequest strategyRequest) {
+        execution = strategyService.createAndRegisterExecution(strategyRequest, userId, null);
+        final String executionId = execution.getExecutionId();
+        entryEpochNanos = clock.epochNanos();
+        log.info("[replay] Entering {} at {} IST: CE={}, PE={}", executionId,
+                formatTime(entryEpochNanos), callInstrument.tradingsymbol, putInstrument.tradingsymbol);
+
+        StrategyExecutionResponse response;
+        try {
+            response = strategy.executeWithInstruments(strategyRequest, executionId,
+                    callInstrument, putInstrument, this::onStrategyCompleted);
+        } catch (KiteException | RuntimeException e) {
+            execution.setStatus(StrategyStatus.FAILED);
+            execution.setMessage("Replay entry failed: " + e.getMessage());
+            throw new ReplayException(ReplayException.ErrorCode.REPLAY_ERROR, "Entry failed: " + e.getMessage(), e);
+        }
+        execution.setStatus(StrategyStatus.ACTIVE);
+        execution.setMessage(StrategyConstants.MSG_STRATEGY_ACTIVE);
+        if (response.getOrders() != null && !response.getOrders().isEmpty()) {
+            strategyService.updateOrderLegs(executionId, response.getOrders());
+        }
+
+        // Monitor setup validates the fills asynchronously before registering with the feed; wait
+        // until ticks are routed to it, or the first batches after entry would depend on scheduling
+        final long deadline = System.nanoTime() + settleTimeoutNanos;
+        Optional<PositionMonitorV2> registered;
+        while ((registered = webSocketService.getRoutedMonitor(executionId)).isEmpty()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new ReplayException(ReplayException.ErrorCode.REPLAY_ERROR,
+                        "Position monitor for " + executionId + " was not registered");
+            }
+            LockSupport.parkNanos(SETTLE_PARK_NANOS);
+        }
+        monitor = registered.get();
+    }
+
+    /**
+     * Completion callback handed to the strategy in place of {@code StrategyService.handleStrategyCompletion}:
+     * records the outcome in memory only — no persistence, daily P&L gate or restart event.
+     */
+    private void onStrategyCompleted(String executionId, StrategyCompletionReason reason) {
+        StrategyExecution e = strategyService.getStrategyByIdInternal(executionId);
+        if (e != null) {
+            e.setStatus(StrategyStatus.COMPLETED);
+            e.setCompletionReason(reason);
+            e.setMessage("Strategy completed - " + reason);
+        }
+        completionReason = reason;
+        completedEpochNanos = TradingClock.nanoTime();
+        completed = true;
+    }
+
+    /**
+     * Wait until the previous batch's side effects are done: a leg replacement in flight, or an
+     * exit triggered whose completion has not been recorded yet.
+     */
+    private void settle() {
+        if (monitor == null) {
+            return;
+        }
+        final long deadline = System.nanoTime() + settleTimeoutNanos;
+        while (monitor.isLegReplacementInProgress() || (!monitor.isActive() && !completed)) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new ReplayException(ReplayException.ErrorCode.REPLAY_ERROR,
+                        "Timed out at " + formatTime(clock.epochNanos()) + " IST waiting for "
+                                + (monitor.isLegReplacementInProgress() ? "leg replacement" : "exit orders"));
+            }
+            LockSupport.parkNanos(SETTLE_PARK_NANOS);
+        }
+    }
+
+    /** Hold the replay thread until wall time catches up with recorded time divided by {@code speed}. */
+    private void pace(long epochNanos, double speed) {
+        final long dueAt = wallStartNanos + (long) ((epochNanos - firstEpochNanos) / speed);
+        long remaining;
+        while ((remaining = dueAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private ReplayResult buildResult(ReplayRequest request, String replayId,
+                                     ReplayResult.ReplayStatus status, String errorMessage) {
+        ReplayResult.ReplayResultBuilder result = ReplayResult.builder()
+                .replayId(replayId)
+                .tradingDay(request.getTradingDay())
+                .status(status)
+                .errorMessage(errorMessage)
+                .ticksRead(ticksRead)
+                .batchesDispatched(dispatchNanos.size())
+                .virtualDurationMs(clock == null ? 0 : (lastEpochNanos - firstEpochNanos) / 1_000_000L)
+                .wallDurationMs(clock == null ? 0 : (System.nanoTime() - wallStartNanos) / 1_000_000L);
+
+        if (!dispatchNanos.isEmpty()) {
+            long[] sorted = dispatchNanos.toSortedArray();
+            result.dispatchP50Micros(percentile(sorted, 0.50) / 1_000L)
+                    .dispatchP99Micros(percentile(sorted, 0.99) / 1_000L)
+                    .dispatchMaxMicros(sorted[sorted.length - 1] / 1_000L);
+        }
+
+        if (execution == null) {
+            if (status == ReplayResult.ReplayStatus.COMPLETED) {
+                result.errorMessage("Journal ended before entry time " + request.getEntryTime());
+            }
+            return result.build();
+        }
+
+        List<StrategyExecution.OrderLeg> legs = execution.getOrderLegs();
+        double realizedPnl = 0.0;
+        for (StrategyExecution.OrderLeg leg : legs) {
+            if (leg.getRealizedPnl() != null) {
+                realizedPnl += leg.getRealizedPnl();
+            }
+        }
+        return result.executionId(execution.getExecutionId())
+                .executionStatus(execution.getStatus() != null ? execution.getStatus().name() : null)
+                .completionReason(completionReason != null ? completionReason.name() : null)
+                .entryTime(formatTime(entryEpochNanos))
+                .exitTime(completed ? formatTime(completedEpochNanos) : null)
+                .realizedPnl(realizedPnl)
+                .legReplacements(Math.max(0, legs.size() - 2))
+                .legs(legs)
+                .build();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String formatTime(long epochNanos) {
+        return Instant.ofEpochSecond(0, epochNanos).atZone(TradingClock.IST).toLocalTime().format(TIME_FORMAT);
+    }
+
+    private static StrategyRequest toStrategyRequest(ReplayRequest request) {
+        StrategyRequest strategyRequest = new StrategyRequest();
+        strategyRequest.setStrategyType(StrategyType.SELL_ATM_STRADDLE);
+        strategyRequest.setInstrumentType(request.getInstrumentType());
+        strategyRequest.setExpiry(request.getExpiry());
+        strategyRequest.setLots(request.getLots());
+        strategyRequest.setSlTargetMode(request.getSlTargetMode());
+        strategyRequest.setStopLossPoints(request.getStopLossPoints());
+        strategyRequest.setTargetPoints(request.getTargetPoints());
+        strategyRequest.setTargetDecayPct(request.getTargetDecayPct());
+        strategyRequest.setStopLossExpansionPct(request.getStopLossExpansionPct());
+        strategyRequest.setHedgeEnabled(false);
+        return strategyRequest;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tradingbot.replay.engine;
+
+/**
+ * Exception for session replay errors.
+ * Carries a structured error code for API responses.
+ */
+public class ReplayException extends RuntimeException {
+
+    public enum ErrorCode {
+        REPLAY_DISABLED,
+        REPLAY_IN_PROGRESS,
+        MONITORS_ACTIVE,
+        LIVE_TRADING_MODE,
+        JOURNAL_NOT_FOUND,
+        INSTRUMENT_NOT_FOUND,
+        INVALID_REQUEST,
+        REPLAY_ERROR
+    }
+
+    private final ErrorCode errorCode;
+
+    public ReplayException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public ReplayException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,134 @@
+package com.tradingbot.replay.engine;
+
+import com.tradingbot.replay.config.ReplayConfig;
+import com.tradingbot.service.marketdata.PriceSource;
+import com.tradingbot.service.marketdata.TickPriceTable;
+import com.zerodhatech.models.LTPQuote;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recorded last-traded prices served in place of Kite's LTP API while a replay runs.
+ * <p>
+ * The {@link PriceSource} behind {@code TradingService.getLTP} for the replay user, so paper
+ * fills, exit fills and leg-replacement candidate pricing all read the journal's prices as of
+ * the current virtual time. Other users are never affected.
+ *
+ * <h2>Threading</h2>
+ * {@link #onTick} is called by the replay thread only (the {@link TickPriceTable} single writer);
+ * {@link #getLTP} may be called from any thread, including exit and monitoring executors.
+ *
+ * @since 6.3
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReplayMarket implements PriceSource {
+
+    private static final long ANY_AGE_MS = Long.MAX_VALUE;
+
+    private final ReplayConfig replayConfig;
+
+    private volatile Session session;
+
+    private static final class Session {
+        final String userId;
+        final TickPriceTable prices;
+        final Map<String, Long> tokenBySymbol = new ConcurrentHashMap<>();
+
+        Session(String userId, int capacity) {
+            this.userId = userId;
+            this.prices = new TickPriceTable(capacity);
+        }
+    }
+
+    /**
+     * Start serving prices for {@code userId}.
+     *
+     * @throws IllegalStateException if a replay market is already open
+     */
+    public synchronized void open(String userId) {
+        if (session != null) {
+            throw new IllegalStateException("Replay market already open for " + session.userId);
+        }
+        session = new Session(userId, replayConfig.getMaxTokens());
+    }
+
+    public synchronized void close() {
+        session = null;
+    }
+
+    /** True while a replay is open for {@code userId}. One volatile read when no replay runs. */
+    @Override
+    public boolean isActiveFor(String userId) {
+        Session s = session;
+        return s != null && s.userId.equals(userId);
+    }
+
+    /**
+     * Make {@code tradingSymbol} priceable. Call before replay starts — registration copies the
+     * token table.
+     *
+     * @return false if the table is full
+     */
+    public boolean registerSymbol(String tradingSymbol, long instrumentToken) {
+        Session s = requireSession();
+        if (!s.prices.register(instrumentToken)) {
+            return false;
+        }
+        s.tokenBySymbol.put(tradingSymbol, instrumentToken);
+        return true;
+    }
+
+    /** Record a replayed tick. Replay thread only; unregistered tokens are ignored. */
+    public void onTick(long instrumentToken, double lastTradedPrice, long epochMillis) {
+        Session s = session;
+        if (s != null) {
+            s.prices.update(instrumentToken, lastTradedPrice, epochMillis);
+        }
+    }
+
+    /**
+     * Kite-shaped LTP lookup. Keys are {@code EXCHANGE:SYMBOL} as passed in; instruments that are
+     * unknown or have not ticked yet are left out, as Kite does for unknown instruments.
+     */
+    @Override
+    public Map<String, LTPQuote> getLTP(String[] instruments) {
+        Session s = requireSession();
+        Map<String, LTPQuote> quotes = new HashMap<>(instruments.length * 2);
+        for (String instrument : instruments) {
+            int colon = instrument.indexOf(':');
+            Long token = s.tokenBySymbol.get(colon >= 0 ? instrument.substring(colon + 1) : instrument);
+            if (token == null) {
+                continue;
+            }
+            double price = s.prices.getPrice(token, ANY_AGE_MS);
+            if (Double.isNaN(price)) {
+                continue;
+            }
+            LTPQuote quote = new LTPQuote();
+            quote.instrumentToken = token;
+            quote.lastPrice = price;
+            quotes.put(instrument, quote);
+        }
+        return quotes;
+    }
+
+    public int size() {
+        Session s = session;
+        return s == null ? 0 : s.prices.size();
+    }
+
+    private Session requireSession() {
+        Session s = session;
+        if (s == null) {
+            throw new IllegalStateException("Replay market is not open");
+        }
+        return s;
+    }
+}
@@ -0,0 +1,290 @@
+package com.tradingbot.replay.service;
+
+import com.tradingbot.config.TickJournalConfig;
+import com.tradingbot.paper.PaperTradingService;
+import com.tradingbot.replay.config.ReplayConfig;
+import com.tradingbot.replay.dto.ReplayRequest;
+import com.tradingbot.replay.dto.ReplayResult;
+import com.tradingbot.replay.engine.ReplayEngine;
+import com.tradingbot.replay.engine.ReplayException;
+import com.tradingbot.replay.engine.ReplayMarket;
+import com.tradingbot.service.InstrumentCacheService;
+import com.tradingbot.service.StrategyService;
+import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.journal.TickJournal;
+import com.tradingbot.service.strategy.SellATMStraddleStrategy;
+import com.tradingbot.service.strategy.monitoring.WebSocketService;
+import com.tradingbot.util.CurrentUserContext;
+import com.tradingbot.util.TradingClock;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Instrument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Orchestrates session replay: validates the request, prepares the replay user's paper book,
+ * feed and price source, runs one {@link ReplayEngine} and tears everything down.
+ * <p>
+ * Replays run one at a time on a dedicated thread, because the {@link TradingClock} is
+ * process-wide while a replay runs: forced exits, leg-replacement timeouts and paper fill times
+ * of every monitor would follow it. A replay is therefore refused while any position monitor is
+ * active, and {@code StrategyService} refuses new executions until it finishes. Only allowed in
+ * paper trading mode — order placement goes through the regular paper broker.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplayService implements DisposableBean {
+
+    private static final DateTimeFormatter HH_MM = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String EXCHANGE_NFO = "NFO";
+    private static final int MAX_CACHED_RESULTS = 20;
+
+    private final ReplayConfig replayConfig;
+    private final TickJournalConfig tickJournalConfig;
+    private final ReplayMarket replayMarket;
+    private final WebSocketService webSocketService;
+    private final SellATMStraddleStrategy strategy;
+    private final StrategyService strategyService;
+    private final InstrumentCacheService instrumentCacheService;
+    private final PaperTradingService paperTradingService;
+    private final UnifiedTradingService unifiedTradingService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, ReplayResult> resultCache = new ConcurrentHashMap<>();
+    private final Deque<String> resultOrder = new ArrayDeque<>();
+
+    private final ExecutorService replayExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "session-replay");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ==================== RUN ====================
+
+    /**
+     * Replay synchronously; the caller blocks until the run finishes.
+     */
+    public ReplayResult run(ReplayRequest request) {
+        Future<ReplayResult> future = submit(request, UUID.randomUUID().toString());
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReplayException(ReplayException.ErrorCode.REPLAY_ERROR, "Interrupted while waiting for replay");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ReplayException replayException) {
+                throw replayException;
+            }
+            throw new ReplayException(ReplayException.ErrorCode.REPLAY_ERROR,
+                    "Replay failed: " + (cause != null ? cause.getMessage() : e.getMessage()), cause);
+        }
+    }
+
+    /**
+     * Start a replay in the background. Poll {@link #getResult} with the returned id.
+     */
+    public String runAsync(ReplayRequest request) {
+        String replayId = UUID.randomUUID().toString();
+        submit(request, replayId);
+        return replayId;
+    }
+
+    public ReplayResult getResult(String replayId) {
+        return resultCache.get(replayId);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private Future<ReplayResult> submit(ReplayRequest request, String replayId) {
+        if (!replayConfig.isEnabled()) {
+            throw new ReplayException(ReplayException.ErrorCode.REPLAY_DISABLED, "Session replay is disabled in configuration");
+        }
+        if (!unifiedTradingService.isPaperTradingEnabled()) {
+            throw new ReplayException(ReplayException.ErrorCode.LIVE_TRADING_MODE,
+                    "Session replay places orders through the paper broker and is refused in live trading mode");
+        }
+        validateTimes(request);
+        List<Path> files = journalFiles(request);
+        Instrument call = resolveInstrument(request.getCallSymbol());
+        Instrument put = resolveInstrument(request.getPutSymbol());
+
+        if (!running.compareAndSet(false, true)) {
+            throw new ReplayException(ReplayException.ErrorCode.REPLAY_IN_PROGRESS, "Another replay is already running");
+        }
+        int activeMonitors = webSocketService.getTotalActiveMonitorsCount();
+        if (activeMonitors > 0) {
+            running.set(false);
+            throw new ReplayException(ReplayException.ErrorCode.MONITORS_ACTIVE, "Session replay moves the process-wide "
+                    + "trading clock and is refused while " + activeMonitors + " position monitor(s) are active");
+        }
+        cacheResult(ReplayResult.builder()
+                .replayId(replayId)
+                .tradingDay(request.getTradingDay())
+                .status(ReplayResult.ReplayStatus.RUNNING)
+                .build());
+        try {
+            return replayExecutor.submit(() -> {
+                try {
+                    ReplayResult result = execute(request, replayId, files, call, put);
+                    cacheResult(result);
+                    return result;
+                } catch (RuntimeException e) {
+                    log.error("Replay {} failed: {}", replayId, e.getMessage(), e);
+                    cacheResult(ReplayResult.builder()
+                            .replayId(replayId)
+                            .tradingDay(request.getTradingDay())
+                            .status(ReplayResult.ReplayStatus.FAILED)
+                            .errorMessage(e.getMessage())
+                            .build());
+                    throw e;
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    /** Replay thread: set up the replay user's feed, prices and paper book, run, tear down. */
+    private ReplayResult execute(ReplayRequest request, String replayId, List<Path> files,
+                                 Instrument call, Instrument put) {
+        final String userId = replayConfig.getUserId();
+        log.info("Starting replay {}: day={}, files={}, CE={}, PE={}, speed={}", replayId,
+                request.getTradingDay(), files.size(), call.tradingsymbol, put.tradingsymbol, request.getSpeed());
+
+        CurrentUserContext.setUserId(userId);
+        paperTradingService.resetAccount(userId);
+        strategyService.clearUserStrategies(userId);
+        replayMarket.open(userId);
+        boolean feedAttached = false;
+        try {
+            registerInstruments(call, put);
+            webSocketService.attachReplayFeed();
+            feedAttached = true;
+
+            ReplayEngine engine = new ReplayEngine(userId, files, call, put, replayConfig.getSettleTimeoutMs(),
+                    webSocketService, replayMarket, strategy, strategyService);
+            ReplayResult result = engine.run(request, replayId);
+            log.info("Replay {} finished: status={}, completion={}, pnl={}, batches={}, wallMs={}", replayId,
+                    result.getStatus(), result.getCompletionReason(), result.getRealizedPnl(),
+                    result.getBatchesDispatched(), result.getWallDurationMs());
+            return result;
+        } finally {
+            if (feedAttached) {
+                webSocketService.detachReplayFeed();
+            }
+            replayMarket.close();
+            TradingClock.reset();
+            strategyService.clearUserStrategies(userId);
+            CurrentUserContext.clear();
+        }
+    }
+
+    /**
+     * Make the entry legs and every other strike of the same underlying and expiry priceable,
+     * so leg replacement can search candidates exactly as live.
+     */
+    private void registerInstruments(Instrument call, Instrument put) {
+        replayMarket.registerSymbol(call.tradingsymbol, call.instrument_token);
+        replayMarket.registerSymbol(put.tradingsymbol, put.instrument_token);
+        try {
+            int registered = 2;
+            for (Instrument instrument : instrumentCacheService.getInstruments(EXCHANGE_NFO)) {
+                if (Objects.equals(instrument.name, call.name) && Objects.equals(instrument.expiry, call.expiry)
+                        && replayMarket.registerSymbol(instrument.tradingsymbol, instrument.instrument_token)) {
+                    registered++;
+                }
+            }
+            log.info("Replay market pricing {} instruments of {}", registered, call.name);
+        } catch (KiteException | IOException e) {
+            log.warn("Could not load NFO instruments for leg-replacement candidates: {}", e.getMessage());
+        }
+    }
+
+    // ==================== VALIDATION ====================
+
+    private static void validateTimes(ReplayRequest request) {
+        try {
+            LocalTime entry = LocalTime.parse(request.getEntryTime(), HH_MM);
+            LocalTime end = LocalTime.parse(request.getEndTime(), HH_MM);
+            if (!entry.isBefore(end)) {
+                throw new ReplayException(ReplayException.ErrorCode.INVALID_REQUEST,
+                        "Entry time " + entry + " must be before end time " + end);
+            }
+        } catch (DateTimeParseException e) {
+            throw new ReplayException(ReplayException.ErrorCode.INVALID_REQUEST,
+                    "Times must be HH:mm: " + e.getParsedString());
+        }
+    }
+
+    private List<Path> journalFiles(ReplayRequest request) {
+        String directory = replayConfig.getDirectory();
+        if (directory == null || directory.isBlank()) {
+            directory = tickJournalConfig.getDirectory();
+        }
+        try {
+            List<Path> files = TickJournal.filesFor(Path.of(directory), request.getTradingDay());
+            if (files.isEmpty()) {
+                throw new ReplayException(ReplayException.ErrorCode.JOURNAL_NOT_FOUND,
+                        "No tick journal for " + request.getTradingDay() + " in " + directory);
+            }
+            return files;
+        } catch (IOException e) {
+            throw new ReplayException(ReplayException.ErrorCode.JOURNAL_NOT_FOUND,
+                    "Cannot list tick journal directory " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Instrument resolveInstrument(String tradingSymbol) {
+        try {
+            return instrumentCacheService.findInstrument(EXCHANGE_NFO, tradingSymbol)
+                    .orElseThrow(() -> new ReplayException(ReplayException.ErrorCode.INSTRUMENT_NOT_FOUND,
+                            "Unknown NFO instrument: " + tradingSymbol));
+        } catch (KiteException | IOException e) {
+            throw new ReplayException(ReplayException.ErrorCode.INSTRUMENT_NOT_FOUND,
+                    "Instrument lookup failed for " + tradingSymbol + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void cacheResult(ReplayResult result) {
+        synchronized (resultOrder) {
+            if (resultCache.put(result.getReplayId(), result) == null) {
+                resultOrder.addLast(result.getReplayId());
+                while (resultOrder.size() > MAX_CACHED_RESULTS) {
+                    resultCache.remove(resultOrder.removeFirst());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replayExecutor.shutdownNow();
+    }
+}
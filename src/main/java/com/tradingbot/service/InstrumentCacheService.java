@@ -1,13 +1,21 @@
 package com.tradingbot.service;
 
+import com.tradingbot.config.InstrumentMasterConfig;
+import com.tradingbot.service.instrument.InstrumentMasterFile;
+import com.tradingbot.service.instrument.InstrumentMasterStore;
+import com.tradingbot.service.instrument.InstrumentRegistry;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Instrument;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -18,25 +26,33 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * Instrument Cache Service for reducing API calls to Kite.
  *
- * The getInstruments() API returns a large dataset (~100K+ instruments) and
- * doesn't change frequently during the day. This service caches the instrument
- * data and refreshes it periodically to avoid rate limit issues.
+ * The getInstruments() API returns a large dataset (~100K+ instruments) that
+ * Kite publishes once per day and that does not change intraday. This service
+ * caches each exchange's dump for its trading day and persists it to disk so a
+ * restart does not download and parse it again.
  *
  * Key Features:
  * - Cache per exchange (NFO, NSE, BSE, etc.)
- * - Automatic refresh every 5 minutes during market hours
+ * - Daily versioning: a dump is valid for its trading day; no intraday TTL refreshes
+ * - Persisted as a compact binary file per exchange and day, memory-mapped at startup
+ *   (see {@link InstrumentMasterStore})
+ * - Columnar {@link InstrumentRegistry} per cached dump for O(1) token, symbol and option
+ *   contract lookups instead of scanning the list
  * - Thread-safe access with read-write locks
- * - Reduces getInstruments() calls from ~dozens/minute to ~1/5 minutes
+ * - Reduces getInstruments() calls to ~1 per exchange per day
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class InstrumentCacheService {
 
-    private final TradingService tradingService;
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final String ALL_INSTRUMENTS = "ALL";
+    private static final String SOURCE_DISK = "disk";
+    private static final String SOURCE_API = "api";
 
-    // Cache TTL in milliseconds (5 minutes)
-    private static final long CACHE_TTL_MS = 5 * 60 * 1000;
+    private final TradingService tradingService;
+    private final InstrumentMasterConfig config;
+    private final InstrumentMasterStore store;
 
     // Per-exchange instrument cache
     private final Map<String, CachedInstruments> exchangeCache = new ConcurrentHashMap<>();
@@ -47,6 +63,33 @@ public class InstrumentCacheService {
     // Lock for thread-safe updates
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
+    public InstrumentCacheService(TradingService tradingService, InstrumentMasterConfig config) {
+        this.tradingService = tradingService;
+        this.config = config;
+        this.store = new InstrumentMasterStore(Path.of(config.getDirectory()),
+                config.getDumpPublishTime(), config.getRetainVersions());
+    }
+
+    /**
+     * Load today's persisted dumps so the first lookups after a restart are served from disk.
+     * Makes no API call: there may be no user session yet.
+     */
+    @PostConstruct
+    public void loadPersisted() {
+        if (!config.isPersistEnabled()) {
+            return;
+        }
+        LocalDate tradingDay = currentTradingDay();
+        for (String exchange : config.getStartupExchangesArray()) {
+            String key = exchange.trim().toUpperCase();
+            if (key.isEmpty()) continue;
+            CachedInstruments loaded = loadFromDisk(key, tradingDay);
+            if (loaded != null) {
+                exchangeCache.put(key, loaded);
+            }
+        }
+    }
+
     /**
      * Get instruments for a specific exchange, using cache if available.
      *
@@ -57,12 +100,11 @@ public class InstrumentCacheService {
         CachedInstruments cached = exchangeCache.get(exchange);
 
         if (cached != null && !cached.isExpired()) {
-            log.debug("Instrument cache HIT for exchange: {} (age: {}ms)",
-                    exchange, System.currentTimeMillis() - cached.timestamp);
+            log.debug("Instrument cache HIT for exchange: {} (version: {})", exchange, cached.tradingDay);
             return cached.instruments;
         }
 
-        log.info("Instrument cache MISS for exchange: {} - fetching from API", exchange);
+        log.info("Instrument cache MISS for exchange: {} - loading today's version", exchange);
         return refreshExchangeCache(exchange);
     }
 
@@ -73,28 +115,51 @@ public class InstrumentCacheService {
         CachedInstruments cached = allInstrumentsCache;
 
         if (cached != null && !cached.isExpired()) {
-            log.debug("All instruments cache HIT (age: {}ms)",
-                    System.currentTimeMillis() - cached.timestamp);
+            log.debug("All instruments cache HIT (version: {})", cached.tradingDay);
             return cached.instruments;
         }
 
-        log.info("All instruments cache MISS - fetching from API");
+        log.info("All instruments cache MISS - loading today's version");
         return refreshAllInstrumentsCache();
     }
 
+    /**
+     * Get the primitive-keyed registry over an exchange's instruments (same version as
+     * {@link #getInstruments(String)}). Prefer this over scanning the list.
+     *
+     * @param exchange Exchange name (e.g., "NFO", "NSE")
+     */
+    public InstrumentRegistry getRegistry(String exchange) throws KiteException, IOException {
+        CachedInstruments cached = currentExchange(exchange);
+        return cached != null ? cached.registry : InstrumentRegistry.empty();
+    }
+
     /**
      * Get a specific instrument by trading symbol and exchange.
      */
     public Optional<Instrument> findInstrument(String exchange, String tradingSymbol)
             throws KiteException, IOException {
-        List<Instrument> instruments = getInstruments(exchange);
-        return instruments.stream()
-                .filter(i -> tradingSymbol.equals(i.tradingsymbol))
-                .findFirst();
+        CachedInstruments cached = currentExchange(exchange);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        // Registry rows are positions in the cached list
+        int row = cached.registry.rowOfSymbol(tradingSymbol);
+        return row != InstrumentRegistry.NOT_FOUND ? Optional.of(cached.instruments.get(row)) : Optional.empty();
+    }
+
+    private CachedInstruments currentExchange(String exchange) throws KiteException, IOException {
+        CachedInstruments cached = exchangeCache.get(exchange);
+        if (cached == null || cached.isExpired()) {
+            refreshExchangeCache(exchange);
+            cached = exchangeCache.get(exchange);
+        }
+        return cached;
     }
 
     /**
-     * Force refresh the cache for a specific exchange.
+     * Load today's version of an exchange's instruments into the cache (disk first, then API).
+     * A no-op when the cache already holds today's version.
      */
     public List<Instrument> refreshExchangeCache(String exchange) throws KiteException, IOException {
         lock.writeLock().lock();
@@ -105,18 +170,11 @@ public class InstrumentCacheService {
                 return cached.instruments;
             }
 
-            log.info("Refreshing instrument cache for exchange: {}", exchange);
-            long startTime = System.currentTimeMillis();
-
-            List<Instrument> instruments = tradingService.getInstruments(exchange);
-
-            if (instruments != null && !instruments.isEmpty()) {
-                exchangeCache.put(exchange, new CachedInstruments(instruments));
-                log.info("Instrument cache refreshed for {}: {} instruments in {}ms",
-                        exchange, instruments.size(), System.currentTimeMillis() - startTime);
-                return instruments;
+            CachedInstruments loaded = loadTradingDay(exchange, () -> tradingService.getInstruments(exchange));
+            if (loaded != null) {
+                exchangeCache.put(exchange, loaded);
+                return loaded.instruments;
             }
-
             return Collections.emptyList();
         } finally {
             lock.writeLock().unlock();
@@ -124,7 +182,8 @@ public class InstrumentCacheService {
     }
 
     /**
-     * Force refresh the all instruments cache.
+     * Load today's version of all instruments into the cache (disk first, then API).
+     * A no-op when the cache already holds today's version.
      */
     public List<Instrument> refreshAllInstrumentsCache() throws KiteException, IOException {
         lock.writeLock().lock();
@@ -135,27 +194,67 @@ public class InstrumentCacheService {
                 return cached.instruments;
             }
 
-            log.info("Refreshing all instruments cache");
-            long startTime = System.currentTimeMillis();
-
-            List<Instrument> instruments = tradingService.getInstruments();
-
-            if (instruments != null && !instruments.isEmpty()) {
-                allInstrumentsCache = new CachedInstruments(instruments);
-                log.info("All instruments cache refreshed: {} instruments in {}ms",
-                        instruments.size(), System.currentTimeMillis() - startTime);
-                return instruments;
+            CachedInstruments loaded = loadTradingDay(ALL_INSTRUMENTS, tradingService::getInstruments);
+            if (loaded != null) {
+                allInstrumentsCache = loaded;
+                return loaded.instruments;
             }
-
             return Collections.emptyList();
         } finally {
             lock.writeLock().unlock();
         }
     }
 
+    @FunctionalInterface
+    private interface InstrumentFetch {
+        List<Instrument> fetch() throws KiteException, IOException;
+    }
+
+    /**
+     * Today's version from disk if persisted, otherwise from the API (then persisted).
+     * Caller holds the write lock.
+     */
+    private CachedInstruments loadTradingDay(String key, InstrumentFetch fetch) throws KiteException, IOException {
+        LocalDate tradingDay = currentTradingDay();
+        if (config.isPersistEnabled()) {
+            CachedInstruments persisted = loadFromDisk(key, tradingDay);
+            if (persisted != null) {
+                return persisted;
+            }
+        }
+
+        log.info("Fetching instrument dump for {} (version {})", key, tradingDay);
+        long startTime = System.currentTimeMillis();
+        List<Instrument> instruments = fetch.fetch();
+        if (instruments == null || instruments.isEmpty()) {
+            return null;
+        }
+        log.info("Instrument dump fetched for {}: {} instruments in {}ms",
+                key, instruments.size(), System.currentTimeMillis() - startTime);
+        if (config.isPersistEnabled() && store.save(key, tradingDay, instruments)) {
+            log.info("Instrument master {} persisted to {}", key, store.pathFor(key, tradingDay));
+        }
+        return new CachedInstruments(instruments, tradingDay, SOURCE_API);
+    }
+
+    private CachedInstruments loadFromDisk(String key, LocalDate tradingDay) {
+        long startTime = System.currentTimeMillis();
+        InstrumentMasterFile.Contents contents = store.load(key, tradingDay);
+        if (contents == null || contents.instruments().isEmpty()) {
+            return null;
+        }
+        log.info("Instrument master {} loaded from disk (version {}): {} instruments in {}ms",
+                key, tradingDay, contents.instruments().size(), System.currentTimeMillis() - startTime);
+        return new CachedInstruments(contents.instruments(), tradingDay, SOURCE_DISK);
+    }
+
+    private LocalDate currentTradingDay() {
+        return store.tradingDay(ZonedDateTime.now(IST));
+    }
+
     /**
-     * Scheduled task to pre-warm the NFO instruments cache during market hours.
-     * Runs every 5 minutes to keep the cache fresh.
+     * Scheduled task to load the day's NFO instruments during market hours.
+     * Runs every 5 minutes but only does work once the cached version is from a previous day.
      */
     @Scheduled(fixedRate = 300000, initialDelay = 60000) // 5 minutes
     public void prewarmNfoCache() {
@@ -165,10 +264,9 @@ public class InstrumentCacheService {
         }
 
         try {
-            // Only prewarm if cache is about to expire (within 1 minute of TTL)
             CachedInstruments cached = exchangeCache.get("NFO");
-            if (cached != null && (System.currentTimeMillis() - cached.timestamp) < (CACHE_TTL_MS - 60000)) {
-                log.debug("NFO cache still fresh, skipping prewarm");
+            if (cached != null && !cached.isExpired()) {
+                log.debug("NFO cache holds today's version, skipping prewarm");
                 return;
             }
 
@@ -202,20 +300,14 @@ public class InstrumentCacheService {
         Map<String, Object> stats = new ConcurrentHashMap<>();
         stats.put("totalExchangesCached", exchangeCache.size());
 
-        exchangeCache.forEach((exchange, cached) -> {
-            Map<String, Object> exchangeStats = new ConcurrentHashMap<>();
-            exchangeStats.put("instrumentCount", cached.instruments.size());
-            exchangeStats.put("ageMs", System.currentTimeMillis() - cached.timestamp);
-            exchangeStats.put("expired", cached.isExpired());
-            stats.put(exchange, exchangeStats);
-        });
+        stats.put("currentVersion", currentTradingDay().toString());
+        stats.put("persistEnabled", config.isPersistEnabled());
 
-        if (allInstrumentsCache != null) {
-            Map<String, Object> allStats = new ConcurrentHashMap<>();
-            allStats.put("instrumentCount", allInstrumentsCache.instruments.size());
-            allStats.put("ageMs", System.currentTimeMillis() - allInstrumentsCache.timestamp);
-            allStats.put("expired", allInstrumentsCache.isExpired());
-            stats.put("ALL", allStats);
+        exchangeCache.forEach((exchange, cached) -> stats.put(exchange, cached.toStats()));
+
+        CachedInstruments all = allInstrumentsCache;
+        if (all != null) {
+            stats.put(ALL_INSTRUMENTS, all.toStats());
         }
 
         return stats;
@@ -232,19 +324,39 @@ public class InstrumentCacheService {
     }
 
     /**
-     * Internal class to hold cached instruments with timestamp.
+     * Internal class to hold one trading day's instruments.
      */
-    private static class CachedInstruments {
+    private class CachedInstruments {
         final List<Instrument> instruments;
+        final InstrumentRegistry registry;
+        final LocalDate tradingDay;
+        final String source;
         final long timestamp;
+        /** Next day's dump publish time — instruments are static intraday, so this is the only expiry. */
+        final long expiresAtMs;
 
-        CachedInstruments(List<Instrument> instruments) {
+        CachedInstruments(List<Instrument> instruments, LocalDate tradingDay, String source) {
             this.instruments = Collections.unmodifiableList(instruments);
+            this.registry = InstrumentRegistry.build(instruments);
+            this.tradingDay = tradingDay;
+            this.source = source;
             this.timestamp = System.currentTimeMillis();
+            this.expiresAtMs = tradingDay.plusDays(1).atTime(config.getDumpPublishTime())
+                    .atZone(IST).toInstant().toEpochMilli();
         }
 
         boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_TTL_MS;
+            return System.currentTimeMillis() >= expiresAtMs;
+        }
+
+        Map<String, Object> toStats() {
+            Map<String, Object> stats = new ConcurrentHashMap<>();
+            stats.put("instrumentCount", instruments.size());
+            stats.put("version", tradingDay.toString());
+            stats.put("source", source);
+            stats.put("ageMs", System.currentTimeMillis() - timestamp);
+            stats.put("expired", isExpired());
+            return stats;
         }
     }
 }
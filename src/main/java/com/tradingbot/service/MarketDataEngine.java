@@ -1,6 +1,18 @@
 package com.tradingbot.service;
 
 import com.tradingbot.config.MarketDataEngineConfig;
+import com.tradingbot.service.greeks.GreeksKernel;
+import com.tradingbot.service.greeks.ImpliedVolSeeds;
+import com.tradingbot.service.greeks.ImpliedVolatilitySolver;
+import com.tradingbot.service.instrument.InstrumentRegistry;
+import com.tradingbot.service.marketdata.AdaptiveRefreshPolicy;
+import com.tradingbot.service.marketdata.MarketDataTickFeed;
+import com.tradingbot.service.marketdata.MinuteBarAggregator;
+import com.tradingbot.service.marketdata.OptionChainIndex;
+import com.tradingbot.service.marketdata.OptionChainSnapshot;
+import com.tradingbot.service.marketdata.RefreshTaskStats;
+import com.tradingbot.service.marketdata.TickPriceTable;
+import com.tradingbot.service.marketdata.VwapAccumulator;
 import com.tradingbot.service.session.UserSessionManager;
 import com.tradingbot.util.CurrentUserContext;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
@@ -8,7 +20,9 @@ import com.zerodhatech.models.HistoricalData;
 import com.zerodhatech.models.Instrument;
 import com.zerodhatech.models.LTPQuote;
 import com.zerodhatech.models.Quote;
+import com.zerodhatech.models.Tick;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -19,6 +33,7 @@ import java.math.RoundingMode;
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.tradingbot.service.TradingConstants.*;
@@ -33,13 +48,16 @@ import static com.tradingbot.service.TradingConstants.*;
  *
  * <h2>Responsibilities</h2>
  * <ol>
- *   <li>{@link #getIndexPrice(String)} — Cached spot price of NIFTY/SENSEX</li>
+ *   <li>{@link #getIndexPrice(String)} — Tick-fed (or cached) spot price of NIFTY/SENSEX</li>
+ *   <li>{@link #getLivePrice(long)} — Tick-fed LTP of index and near-ATM option tokens</li>
  *   <li>{@link #getOptionChain(String, String)} — Pre-fetched option chain for index/expiry</li>
  *   <li>{@link #getCandles(String)} — Cached OHLCV candle data for a symbol</li>
  *   <li>{@link #getVWAP(String)} — Pre-computed VWAP from candle data</li>
+ *   <li>{@link #getOptionChainSnapshot(String)} — Immutable strike-indexed chain (mid, IV, delta arrays)</li>
+ *   <li>{@link #getOptionChainIndex(String, Date)} — Shared immutable instrument index for the nearest weekly expiry</li>
  *   <li>{@link #getPrecomputedATMStrike(String)} — Pre-computed ATM strike by delta</li>
  *   <li>{@link #getPrecomputedDelta(String, double)} — Pre-computed delta for a strike</li>
- *   <li>{@link #getPrecomputedStrikeByDelta(String, double, String)} — Pre-computed strike for target delta</li>
+ *   <li>{@link #getPrecomputedStrikeByDelta(String, double, String)} — Strike for target delta (binary search)</li>
  * </ol>
  *
  * <h2>Design</h2>
@@ -53,7 +71,8 @@ import static com.tradingbot.service.TradingConstants.*;
  *
  * <h2>Concurrency & Staleness Risks</h2>
  * <ul>
- *   <li>Spot price: 1s refresh, 2s TTL — max 2s stale. Acceptable for ATM strike rounding.</li>
+ *   <li>Spot price: tick-fed via {@link MarketDataTickFeed} (milliseconds stale). REST polling
+ *       (1s refresh, 2s TTL) only runs while the feed is down or quiet for {@code tickFeedQuietMs}.</li>
  *   <li>Delta: 5s refresh, 10s TTL — max 10s stale. Delta moves slowly near ATM.</li>
  *   <li>Option chain: 60s refresh, 120s TTL — instruments are static intraday.</li>
  *   <li>VWAP: 5s refresh, 10s TTL — VWAP changes slowly during session.</li>
@@ -71,37 +90,87 @@ public class MarketDataEngine {
     private final TradingService tradingService;
     private final InstrumentCacheService instrumentCacheService;
     private final UserSessionManager userSessionManager;
+    private final MarketDataTickFeed tickFeed;
 
     // ==================== CACHE STORES ====================
 
+    /**
+     * Tick-fed last prices for index and near-ATM option tokens.
+     * Written only by the tick feed thread; read lock-free by strategies.
+     */
+    private final TickPriceTable tickPriceTable = new TickPriceTable(TICK_PRICE_TABLE_CAPACITY);
+
+    /** Current tick-feed option window per instrument (spot refresh thread only). */
+    private final ConcurrentHashMap<String, FeedWindow> feedWindows = new ConcurrentHashMap<>();
+
     /** Spot prices: key = instrumentType (e.g., "NIFTY"), value = CacheEntry<Double> */
     private final ConcurrentHashMap<String, CacheEntry<Double>> spotPriceCache = new ConcurrentHashMap<>();
 
     /** Option chains: key = "NIFTY_WEEKLY" or "NIFTY_2025-03-20", value = CacheEntry<List<Instrument>> */
     private final ConcurrentHashMap<String, CacheEntry<List<Instrument>>> optionChainCache = new ConcurrentHashMap<>();
 
-    /** Pre-computed ATM strikes: key = instrumentType, value = CacheEntry<Double> */
-    private final ConcurrentHashMap<String, CacheEntry<Double>> atmStrikeCache = new ConcurrentHashMap<>();
+    /**
+     * Option chain snapshots (nearest weekly expiry): key = instrumentType.
+     * Each delta refresh publishes a new immutable snapshot carrying ATM strike, per-strike
+     * mid/IV/delta arrays — replaces the former boxed delta map and string-keyed strike-by-delta cache.
+     */
+    private final ConcurrentHashMap<String, OptionChainSnapshot> chainSnapshots = new ConcurrentHashMap<>();
 
-    /** Per-strike deltas: key = "NIFTY", value = CacheEntry<Map<Double, Double>> (strike → delta) */
-    private final ConcurrentHashMap<String, CacheEntry<Map<Double, Double>>> deltaMapCache = new ConcurrentHashMap<>();
+    /**
+     * Instrument indexes (nearest weekly expiry): key = instrumentType.
+     * Built once per option chain refresh and shared by every strategy execution and leg replacement.
+     */
+    private final ConcurrentHashMap<String, OptionChainIndex> chainIndexes = new ConcurrentHashMap<>();
 
-    /** Pre-computed strike-by-delta: key = "NIFTY_0.1_CE", value = CacheEntry<Double> */
-    private final ConcurrentHashMap<String, CacheEntry<Double>> strikeByDeltaCache = new ConcurrentHashMap<>();
+    /** Previous cycle's per-strike IVs, used to warm-start the IV solver. Key = instrumentType_expiryMillis. */
+    private final ImpliedVolSeeds ivSeeds = new ImpliedVolSeeds();
 
     /** VWAP values: key = instrumentType, value = CacheEntry<BigDecimal> */
     private final ConcurrentHashMap<String, CacheEntry<BigDecimal>> vwapCache = new ConcurrentHashMap<>();
 
+    /**
+     * Running session VWAP sums per instrument: key = instrumentType.
+     * Only touched by the VWAP refresh task; each refresh folds in the newly finalized candles.
+     */
+    private final ConcurrentHashMap<String, VwapAccumulator> vwapAccumulators = new ConcurrentHashMap<>();
+
     /** Candle data: key = "NSE:NIFTY 50_minute", value = CacheEntry<List<HistoricalData>> */
     private final ConcurrentHashMap<String, CacheEntry<List<HistoricalData>>> candleCache = new ConcurrentHashMap<>();
 
+    /** Tick-built 1-minute bars for index tokens; REST history only backfills it. */
+    private final MinuteBarAggregator minuteBars;
+
+    /** Index token → instrumentType for tokens with a local candle series. Written once in {@link #start()}. */
+    private volatile LongObjectHashMap<String> candleInstrumentByToken = new LongObjectHashMap<>();
+
     /** Nearest weekly expiry per instrument: key = instrumentType, value = CacheEntry<Date> */
     private final ConcurrentHashMap<String, CacheEntry<Date>> nearestExpiryCache = new ConcurrentHashMap<>();
 
     // ==================== THREAD POOL ====================
 
+    /** Engine-wide refresh tasks: spot prices, option chains. */
+    private static final int SHARED_REFRESH_TASKS = 2;
+    /** Refresh tasks scheduled per instrument: delta, VWAP, candles. */
+    private static final int PER_INSTRUMENT_REFRESH_TASKS = 3;
+    /** Offset between instruments' first runs so their REST calls do not burst together. */
+    private static final long INSTRUMENT_STAGGER_MS = 250;
+    /** Poll granularity of refresh tasks; a poll that is not due is one timestamp compare. */
+    private static final long REFRESH_POLL_MS = 250;
+
     private ScheduledExecutorService scheduler;
 
+    private final AdaptiveRefreshPolicy adaptivePolicy;
+
+    /** Engine-wide refresh tasks (spot prices, option chains). Written in {@link #start()}. */
+    private final List<RefreshTask> sharedTasks = new CopyOnWriteArrayList<>();
+
+    /** Per-instrument refresh tasks: key = instrumentType, value = tasks in schedule order. Written in {@link #start()}. */
+    private final ConcurrentHashMap<String, List<RefreshTask>> instrumentTasks = new ConcurrentHashMap<>();
+
+    /** Delta / VWAP tasks by instrumentType — read paths mark demand on these. */
+    private final ConcurrentHashMap<String, RefreshTask> deltaTasks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RefreshTask> vwapTasks = new ConcurrentHashMap<>();
+
     // ==================== METRICS ====================
 
     private final AtomicLong spotPriceRefreshCount = new AtomicLong(0);
@@ -110,20 +179,34 @@ public class MarketDataEngine {
     private final AtomicLong vwapRefreshCount = new AtomicLong(0);
     private final AtomicLong cacheHitCount = new AtomicLong(0);
     private final AtomicLong cacheMissCount = new AtomicLong(0);
+    private final AtomicLong feedTickCount = new AtomicLong(0);
+    private final AtomicLong spotRestFallbackCount = new AtomicLong(0);
+    private final AtomicLong spotRestSkippedCount = new AtomicLong(0);
+    private final AtomicLong candleRestFetchCount = new AtomicLong(0);
+    private final AtomicLong candleRestSkippedCount = new AtomicLong(0);
 
     // ==================== CONSTANTS ====================
 
     private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
     private static final double RISK_FREE_RATE = 0.065;
+    /** Bounds the live subscription only: slots of dropped tokens are released (retainOnly) and reused. */
+    private static final int TICK_PRICE_TABLE_CAPACITY = 4096;
 
     public MarketDataEngine(MarketDataEngineConfig config,
                             TradingService tradingService,
                             InstrumentCacheService instrumentCacheService,
-                            UserSessionManager userSessionManager) {
+                            UserSessionManager userSessionManager,
+                            MarketDataTickFeed tickFeed) {
         this.config = config;
         this.tradingService = tradingService;
         this.instrumentCacheService = instrumentCacheService;
         this.userSessionManager = userSessionManager;
+        this.tickFeed = tickFeed;
+        this.minuteBars = new MinuteBarAggregator(Math.max(1, config.getCandleBufferCapacity()));
+        this.adaptivePolicy = new AdaptiveRefreshPolicy(config.getAdaptiveFastMoveBpsPerMinute(),
+                config.getAdaptiveFastMoveFactor(), config.getAdaptiveExpiryDayFactor(),
+                config.getAdaptiveMinIntervalMs(), config.getAdaptiveIdleAfterMs(),
+                config.getAdaptiveIdleFactor(), config.getAdaptiveMaxIdleIntervalMs());
     }
 
     // ==================== LIFECYCLE ====================
@@ -135,34 +218,68 @@ public class MarketDataEngine {
             return;
         }
 
+        String[] instruments = config.getSupportedInstrumentsArray();
+        int poolSize = resolveThreadPoolSize(instruments.length);
         log.info("MarketDataEngine starting with config: spotRefresh={}ms, deltaRefresh={}ms, " +
                         "optionChainRefresh={}ms, vwapRefresh={}ms, candleRefresh={}ms, threads={}",
                 config.getSpotPriceRefreshMs(), config.getDeltaRefreshMs(),
                 config.getOptionChainRefreshMs(), config.getVwapRefreshMs(),
-                config.getCandleRefreshMs(), config.getThreadPoolSize());
+                config.getCandleRefreshMs(), poolSize);
 
-        scheduler = Executors.newScheduledThreadPool(config.getThreadPoolSize(), r -> {
-            Thread t = new Thread(r, "mkt-data-engine");
+        if (config.isTickFeedEnabled()) {
+            for (String instrument : config.getSupportedInstrumentsArray()) {
+                long indexToken = getIndexToken(instrument.trim());
+                if (indexToken > 0) {
+                    tickPriceTable.register(indexToken);
+                }
+            }
+            if (config.isCandleBuilderEnabled()) {
+                LongObjectHashMap<String> byToken = new LongObjectHashMap<>();
+                for (String instrument : config.getSupportedInstrumentsArray()) {
+                    String instType = instrument.trim().toUpperCase();
+                    long indexToken = getIndexToken(instType);
+                    if (indexToken > 0) {
+                        minuteBars.register(indexToken);
+                        byToken.put(indexToken, instType);
+                    }
+                }
+                candleInstrumentByToken = byToken;
+            }
+            tickFeed.setTickListener(this::onFeedTicks);
+            log.info("MarketDataEngine tick feed enabled: strikeRange=±{}, quietFallback={}ms",
+                    config.getTickFeedStrikeRange(), config.getTickFeedQuietMs());
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "mkt-data-engine-" + threadIndex.incrementAndGet());
             t.setDaemon(true);
             t.setPriority(Thread.NORM_PRIORITY + 1);
             return t;
         });
 
-        // Schedule refresh tasks with staggered initial delays to avoid API burst
-        scheduler.scheduleAtFixedRate(this::refreshSpotPrices,
-                500, config.getSpotPriceRefreshMs(), TimeUnit.MILLISECONDS);
-
-        scheduler.scheduleAtFixedRate(this::refreshOptionChains,
-                2000, config.getOptionChainRefreshMs(), TimeUnit.MILLISECONDS);
-
-        scheduler.scheduleAtFixedRate(this::refreshDeltas,
-                3000, config.getDeltaRefreshMs(), TimeUnit.MILLISECONDS);
+        // Schedule refresh tasks with staggered initial delays to avoid API burst.
+        // Every task sleeps until the next market open outside market hours.
+        sharedTasks.add(scheduleRefresh(new RefreshTask("spot", this::refreshSpotPrices,
+                config.getSpotPriceRefreshMs(), this::disconnectTickFeed), 500));
+        sharedTasks.add(scheduleRefresh(new RefreshTask("optionChains", this::refreshOptionChains,
+                config.getOptionChainRefreshMs(), null), 2000));
 
-        scheduler.scheduleAtFixedRate(this::refreshVWAP,
-                4000, config.getVwapRefreshMs(), TimeUnit.MILLISECONDS);
-
-        scheduler.scheduleAtFixedRate(this::refreshCandles,
-                5000, config.getCandleRefreshMs(), TimeUnit.MILLISECONDS);
+        // Per-instrument tasks: one slow or failing index never delays or cancels another's refresh.
+        // Delta and VWAP adapt to spot speed, expiry day and consumer demand.
+        for (int i = 0; i < instruments.length; i++) {
+            String instType = instruments[i].trim().toUpperCase();
+            long stagger = i * INSTRUMENT_STAGGER_MS;
+            RefreshTask delta = scheduleRefresh(new RefreshTask(instType, "delta", this::refreshDeltas,
+                    config.getDeltaRefreshMs(), true), 3000 + stagger);
+            RefreshTask vwap = scheduleRefresh(new RefreshTask(instType, "vwap", this::refreshVWAP,
+                    config.getVwapRefreshMs(), true), 4000 + stagger);
+            RefreshTask candles = scheduleRefresh(new RefreshTask(instType, "candles", this::refreshCandles,
+                    config.getCandleRefreshMs(), false), 5000 + stagger);
+            instrumentTasks.put(instType, List.of(delta, vwap, candles));
+            deltaTasks.put(instType, delta);
+            vwapTasks.put(instType, vwap);
+        }
 
         log.info("MarketDataEngine started successfully. Supported instruments: {}",
                 config.getSupportedInstruments());
@@ -170,6 +287,7 @@ public class MarketDataEngine {
 
     @PreDestroy
     public void stop() {
+        tickFeed.disconnect();
         if (scheduler != null) {
             log.info("MarketDataEngine shutting down...");
             scheduler.shutdownNow();
@@ -187,23 +305,37 @@ public class MarketDataEngine {
     // ==================== PUBLIC READ API (zero latency, cache-only) ====================
 
     /**
-     * Get cached spot price for an index instrument.
+     * Get spot price for an index instrument.
+     * Prefers the tick-fed price; falls back to the REST-polled cache entry.
      * Returns Optional.empty() if data is stale or unavailable.
      *
      * @param instrumentType "NIFTY" or "SENSEX"
-     * @return Cached spot price or empty
+     * @return Spot price or empty
      */
     public Optional<Double> getIndexPrice(String instrumentType) {
-        CacheEntry<Double> entry = spotPriceCache.get(instrumentType.toUpperCase());
-        if (entry != null && !entry.isExpired(config.getSpotPriceTtlMs())) {
+        double price = resolveSpotPrice(instrumentType.toUpperCase(), config.getSpotPriceTtlMs());
+        if (!Double.isNaN(price)) {
             cacheHitCount.incrementAndGet();
-            return Optional.of(entry.value);
+            return Optional.of(price);
         }
         cacheMissCount.incrementAndGet();
         log.debug("Spot price cache MISS for {}", instrumentType);
         return Optional.empty();
     }
 
+    /**
+     * Get the tick-fed last traded price for an instrument token subscribed on the engine feed
+     * (index tokens and ATM±{@code tickFeedStrikeRange} option strikes of the weekly chain).
+     *
+     * @param instrumentToken Kite instrument token
+     * @return LTP no older than the spot price TTL, or empty
+     */
+    public Optional<Double> getLivePrice(long instrumentToken) {
+        if (!config.isTickFeedEnabled()) return Optional.empty();
+        double price = tickPriceTable.getPrice(instrumentToken, config.getSpotPriceTtlMs());
+        return Double.isNaN(price) ? Optional.empty() : Optional.of(price);
+    }
+
     /**
      * Get cached option chain for an instrument and expiry.
      *
@@ -230,10 +362,11 @@ public class MarketDataEngine {
      * @return Cached ATM strike or empty
      */
     public Optional<Double> getPrecomputedATMStrike(String instrumentType) {
-        CacheEntry<Double> entry = atmStrikeCache.get(instrumentType.toUpperCase());
-        if (entry != null && !entry.isExpired(config.getDeltaTtlMs())) {
+        markRead(deltaTasks, instrumentType);
+        OptionChainSnapshot snapshot = freshSnapshot(instrumentType);
+        if (snapshot != null) {
             cacheHitCount.incrementAndGet();
-            return Optional.of(entry.value);
+            return Optional.of(snapshot.getAtmStrike());
         }
         cacheMissCount.incrementAndGet();
         log.debug("ATM strike cache MISS for {}", instrumentType);
@@ -248,10 +381,11 @@ public class MarketDataEngine {
      * @return Cached delta or empty
      */
     public Optional<Double> getPrecomputedDelta(String instrumentType, double strike) {
-        CacheEntry<Map<Double, Double>> entry = deltaMapCache.get(instrumentType.toUpperCase());
-        if (entry != null && !entry.isExpired(config.getDeltaTtlMs())) {
-            Double delta = entry.value.get(strike);
-            if (delta != null) {
+        markRead(deltaTasks, instrumentType);
+        OptionChainSnapshot snapshot = freshSnapshot(instrumentType);
+        if (snapshot != null) {
+            double delta = snapshot.callDeltaForStrike(strike);
+            if (!Double.isNaN(delta)) {
                 cacheHitCount.incrementAndGet();
                 return Optional.of(delta);
             }
@@ -261,39 +395,58 @@ public class MarketDataEngine {
     }
 
     /**
-     * Get the full pre-computed delta map (strike → callDelta) for an instrument.
-     * Allows consumers to do arbitrary delta lookups at read time without engine code changes.
+     * Get the shared instrument index for an instrument's nearest weekly expiry.
      *
      * @param instrumentType "NIFTY"
-     * @return Cached delta map or empty
+     * @param expiry expiry the caller trades; the index is only returned if it describes this expiry
+     * @return Index published by the last option chain refresh, or empty
      */
-    public Optional<Map<Double, Double>> getPrecomputedDeltaMap(String instrumentType) {
-        CacheEntry<Map<Double, Double>> entry = deltaMapCache.get(instrumentType.toUpperCase());
-        if (entry != null && !entry.isExpired(config.getDeltaTtlMs())) {
+    public Optional<OptionChainIndex> getOptionChainIndex(String instrumentType, Date expiry) {
+        OptionChainIndex index = chainIndexes.get(instrumentType.toUpperCase());
+        if (index != null && !index.isEmpty() && index.isSameExpiry(expiry)) {
             cacheHitCount.incrementAndGet();
-            return Optional.of(entry.value);
+            return Optional.of(index);
         }
         cacheMissCount.incrementAndGet();
         return Optional.empty();
     }
 
     /**
-     * Get pre-computed strike for a target delta and option type.
+     * Get the latest option chain snapshot (strike-sorted mid/IV/delta arrays) for an instrument.
+     * Allows consumers to do arbitrary delta/premium lookups at read time without engine code changes.
+     *
+     * @param instrumentType "NIFTY"
+     * @return Snapshot no older than the delta TTL, or empty
+     */
+    public Optional<OptionChainSnapshot> getOptionChainSnapshot(String instrumentType) {
+        markRead(deltaTasks, instrumentType);
+        OptionChainSnapshot snapshot = freshSnapshot(instrumentType);
+        if (snapshot != null) {
+            cacheHitCount.incrementAndGet();
+            return Optional.of(snapshot);
+        }
+        cacheMissCount.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * Get strike for a target delta and option type. Any target is supported — the lookup is a
+     * binary search over the current snapshot, not limited to the configured delta targets.
      *
      * @param instrumentType "NIFTY"
      * @param targetDelta Target absolute delta (e.g., 0.1, 0.4)
      * @param optionType "CE" or "PE"
-     * @return Cached strike or empty
+     * @return Strike or empty
      */
     public Optional<Double> getPrecomputedStrikeByDelta(String instrumentType, double targetDelta, String optionType) {
-        String key = buildStrikeByDeltaKey(instrumentType, targetDelta, optionType);
-        CacheEntry<Double> entry = strikeByDeltaCache.get(key);
-        if (entry != null && !entry.isExpired(config.getDeltaTtlMs())) {
+        markRead(deltaTasks, instrumentType);
+        OptionChainSnapshot snapshot = freshSnapshot(instrumentType);
+        if (snapshot != null && !snapshot.isEmpty()) {
             cacheHitCount.incrementAndGet();
-            return Optional.of(entry.value);
+            return Optional.of(snapshot.findStrikeForDelta(targetDelta, OPTION_TYPE_CE.equals(optionType)));
         }
         cacheMissCount.incrementAndGet();
-        log.debug("StrikeByDelta cache MISS for {}", key);
+        log.debug("StrikeByDelta cache MISS for {} {} {}", instrumentType, targetDelta, optionType);
         return Optional.empty();
     }
 
@@ -304,6 +457,7 @@ public class MarketDataEngine {
      * @return Cached VWAP or empty
      */
     public Optional<BigDecimal> getVWAP(String instrumentType) {
+        markRead(vwapTasks, instrumentType);
         CacheEntry<BigDecimal> entry = vwapCache.get(instrumentType.toUpperCase());
         if (entry != null && !entry.isExpired(config.getVwapTtlMs())) {
             cacheHitCount.incrementAndGet();
@@ -355,7 +509,7 @@ public class MarketDataEngine {
         if (!config.isEnabled()) return false;
         for (String inst : config.getSupportedInstrumentsArray()) {
             String key = inst.trim().toUpperCase();
-            if (!spotPriceCache.containsKey(key)) return false;
+            if (!spotPriceCache.containsKey(key) && !hasTickPrice(key)) return false;
         }
         return true;
     }
@@ -369,12 +523,8 @@ public class MarketDataEngine {
     public boolean isDeltaWarmedUp() {
         if (!isWarmedUp()) return false;
         for (String inst : config.getSupportedInstrumentsArray()) {
-            String key = inst.trim().toUpperCase();
-            CacheEntry<Double> atm = atmStrikeCache.get(key);
-            CacheEntry<Map<Double, Double>> deltas = deltaMapCache.get(key);
-            if (atm != null && !atm.isExpired(config.getDeltaTtlMs())
-                    && deltas != null && !deltas.isExpired(config.getDeltaTtlMs())
-                    && !deltas.value.isEmpty()) {
+            OptionChainSnapshot snapshot = freshSnapshot(inst.trim());
+            if (snapshot != null && !snapshot.isEmpty()) {
                 return true;
             }
         }
@@ -395,6 +545,20 @@ public class MarketDataEngine {
         stats.put("vwapRefreshCount", vwapRefreshCount.get());
         stats.put("totalCacheHits", cacheHitCount.get());
         stats.put("totalCacheMisses", cacheMissCount.get());
+        stats.put("tickFeedEnabled", config.isTickFeedEnabled());
+        stats.put("tickFeedConnected", tickFeed.isConnected());
+        stats.put("tickFeedSubscribedTokens", tickFeed.getSubscribedTokenCount());
+        stats.put("tickFeedTickCount", feedTickCount.get());
+        stats.put("spotRestFallbackCount", spotRestFallbackCount.get());
+        stats.put("spotRestSkippedCount", spotRestSkippedCount.get());
+        stats.put("candleBuilderEnabled", config.isTickFeedEnabled() && config.isCandleBuilderEnabled());
+        stats.put("candleBarsFinalized", minuteBars.getBarsFinalized());
+        stats.put("candleRestFetchCount", candleRestFetchCount.get());
+        stats.put("candleRestSkippedCount", candleRestSkippedCount.get());
+        stats.put("refreshThreadPoolSize", scheduler instanceof ThreadPoolExecutor pool ? pool.getCorePoolSize() : 0);
+        stats.put("adaptiveRefreshEnabled", config.isAdaptiveRefreshEnabled());
+        long nowMs = System.currentTimeMillis();
+        stats.put("sharedRefreshTasks", refreshTaskStats(sharedTasks, nowMs));
 
         // Per-instrument details
         for (String inst : config.getSupportedInstrumentsArray()) {
@@ -405,13 +569,27 @@ public class MarketDataEngine {
             instStats.put("spotPrice", spot != null ? spot.value : null);
             instStats.put("spotPriceAgeMs", spot != null ? spot.ageMs() : null);
             instStats.put("spotPriceStale", spot == null || spot.isExpired(config.getSpotPriceTtlMs()));
-
-            CacheEntry<Double> atm = atmStrikeCache.get(key);
-            instStats.put("atmStrike", atm != null ? atm.value : null);
-            instStats.put("atmStrikeAgeMs", atm != null ? atm.ageMs() : null);
-
-            CacheEntry<Map<Double, Double>> deltas = deltaMapCache.get(key);
-            instStats.put("deltaStrikeCount", deltas != null ? deltas.value.size() : 0);
+            long tickTs = tickPriceTable.getLastUpdateMs(getIndexToken(key));
+            instStats.put("spotTickAgeMs", tickTs > 0 ? System.currentTimeMillis() - tickTs : null);
+            long indexToken = getIndexToken(key);
+            instStats.put("localCandleCount", minuteBars.getBarCount(indexToken));
+            instStats.put("localCandlesComplete", minuteBars.isComplete(indexToken));
+
+            OptionChainSnapshot snapshot = chainSnapshots.get(key);
+            instStats.put("atmStrike", snapshot != null ? snapshot.getAtmStrike() : null);
+            instStats.put("atmStrikeAgeMs", snapshot != null ? snapshot.ageMs() : null);
+            instStats.put("deltaStrikeCount", snapshot != null ? snapshot.size() : 0);
+            OptionChainIndex chainIndex = chainIndexes.get(key);
+            instStats.put("chainIndexSize", chainIndex != null ? chainIndex.size() : 0);
+            if (snapshot != null && !snapshot.isEmpty()) {
+                Map<String, Object> strikesByDelta = new LinkedHashMap<>();
+                for (double target : config.getDeltaTargetsArray()) {
+                    strikesByDelta.put(String.valueOf(target), new double[]{
+                            snapshot.findStrikeForDelta(target, true),
+                            snapshot.findStrikeForDelta(target, false)});
+                }
+                instStats.put("strikesByDelta", strikesByDelta);
+            }
 
             CacheEntry<BigDecimal> vwap = vwapCache.get(key);
             instStats.put("vwap", vwap != null ? vwap.value : null);
@@ -420,25 +598,242 @@ public class MarketDataEngine {
             CacheEntry<List<Instrument>> chain = optionChainCache.get(chainKey);
             instStats.put("optionChainSize", chain != null ? chain.value.size() : 0);
 
+            List<RefreshTask> tasks = instrumentTasks.get(key);
+            if (tasks != null) {
+                instStats.put("refreshTasks", refreshTaskStats(tasks, nowMs));
+            }
+
             stats.put(key, instStats);
         }
 
         return stats;
     }
 
+    private static Map<String, Object> refreshTaskStats(List<RefreshTask> tasks, long nowMs) {
+        Map<String, Object> byName = new LinkedHashMap<>();
+        for (RefreshTask task : tasks) {
+            byName.put(task.name, task.stats.toMap(nowMs));
+        }
+        return byName;
+    }
+
     // ==================== BACKGROUND REFRESH TASKS ====================
 
+    /**
+     * One instrument's refresh body.
+     * Returns false when the cycle was skipped (inputs not ready, nothing to fetch).
+     */
+    @FunctionalInterface
+    private interface InstrumentRefresh {
+        boolean refresh(String instType) throws KiteException, IOException;
+    }
+
+    /**
+     * Pool size: {@code threadPoolSize} when set, otherwise one thread per scheduled task
+     * (2 shared + 3 per instrument) so no task ever waits for a thread behind another's REST call.
+     */
+    private int resolveThreadPoolSize(int instrumentCount) {
+        int configured = config.getThreadPoolSize();
+        return configured > 0 ? configured : SHARED_REFRESH_TASKS + PER_INSTRUMENT_REFRESH_TASKS * instrumentCount;
+    }
+
+    private RefreshTask scheduleRefresh(RefreshTask task, long initialDelayMs) {
+        task.nextDueMs = System.currentTimeMillis() + initialDelayMs;
+        scheduler.scheduleAtFixedRate(task, initialDelayMs, REFRESH_POLL_MS, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    /**
+     * A refresh task (per instrument, or engine-wide when {@code instType} is null).
+     * <p>
+     * Polled every {@link #REFRESH_POLL_MS} on the engine pool; a poll that is not due returns
+     * immediately. When due, the task runs and then picks its own next due time:
+     * <ul>
+     *   <li>outside market hours — the next market open (the task is paused, no API calls)</li>
+     *   <li>adaptive tasks — {@link AdaptiveRefreshPolicy} from the spot move since the previous run,
+     *       expiry day and the time since a strategy last read the output</li>
+     *   <li>otherwise — the configured base interval</li>
+     * </ul>
+     * A read of a backed-off task's output makes it due on the next poll.
+     * <p>
+     * Engine-wide tasks manage their own user context and errors; only their latency is recorded.
+     * <p>
+     * Thread safety: runs never overlap (fixed-rate polling); {@code nextDueMs}, {@code lastReadMs}
+     * and {@code backedOff} are also written by reader threads, the spot sample only by runs.
+     */
+    private final class RefreshTask implements Runnable {
+        final String instType;
+        final String name;
+        final InstrumentRefresh refresh;
+        final Runnable sharedRefresh;
+        final long baseMs;
+        final boolean adaptive;
+        final Runnable onMarketClosed;
+        final RefreshTaskStats stats = new RefreshTaskStats();
+
+        volatile long nextDueMs;
+        volatile long lastReadMs = System.currentTimeMillis();
+        volatile boolean backedOff;
+
+        private double lastSpot = Double.NaN;
+        private long lastSpotMs;
+
+        /** Per-instrument task. */
+        RefreshTask(String instType, String name, InstrumentRefresh refresh, long baseMs, boolean adaptive) {
+            this.instType = instType;
+            this.name = name;
+            this.refresh = refresh;
+            this.sharedRefresh = null;
+            this.baseMs = baseMs;
+            this.adaptive = adaptive;
+            this.onMarketClosed = null;
+        }
+
+        /** Engine-wide task; {@code onMarketClosed} runs each time the task finds the market closed. */
+        RefreshTask(String name, Runnable sharedRefresh, long baseMs, Runnable onMarketClosed) {
+            this.instType = null;
+            this.name = name;
+            this.refresh = null;
+            this.sharedRefresh = sharedRefresh;
+            this.baseMs = baseMs;
+            this.adaptive = false;
+            this.onMarketClosed = onMarketClosed;
+        }
+
+        @Override
+        public void run() {
+            long startMs = System.currentTimeMillis();
+            if (startMs < nextDueMs) return;
+
+            if (!isMarketHours()) {
+                if (onMarketClosed != null) onMarketClosed.run();
+                long untilOpen = AdaptiveRefreshPolicy.millisUntilMarketOpen(ZonedDateTime.now(IST));
+                nextDueMs = startMs + Math.max(untilOpen, REFRESH_POLL_MS);
+                stats.recordInterval(untilOpen, "market-closed");
+                return;
+            }
+
+            if (refresh != null) {
+                runRefresh(instType, name, refresh, stats);
+            } else {
+                long startNanos = System.nanoTime();
+                try {
+                    sharedRefresh.run();
+                    stats.recordCompleted(System.nanoTime() - startNanos, System.currentTimeMillis());
+                } catch (RuntimeException e) {
+                    stats.recordFailed(System.nanoTime() - startNanos, System.currentTimeMillis(), e.getMessage());
+                    log.warn("Failed to refresh {}: {}", name, e.getMessage());
+                }
+            }
+
+            long intervalMs = baseMs;
+            String reason = "base";
+            if (adaptive && config.isAdaptiveRefreshEnabled()) {
+                AdaptiveRefreshPolicy.Interval interval = adaptivePolicy.next(baseMs, sampleSpotMove(startMs),
+                        isExpiryDay(instType), startMs - lastReadMs);
+                intervalMs = interval.ms();
+                reason = interval.reason();
+            }
+            backedOff = intervalMs > baseMs;
+            nextDueMs = startMs + intervalMs;
+            stats.recordInterval(intervalMs, reason);
+        }
+
+        /** Called on the read path; wakes a backed-off task so the next poll refreshes. */
+        void markRead(long nowMs) {
+            lastReadMs = nowMs;
+            if (backedOff) {
+                backedOff = false;
+                nextDueMs = 0;
+            }
+        }
+
+        private double sampleSpotMove(long nowMs) {
+            double spot = resolveSpotPrice(instType, config.getSpotPriceTtlMs() * 5);
+            double move = AdaptiveRefreshPolicy.moveBpsPerMinute(lastSpot, spot, nowMs - lastSpotMs);
+            if (!Double.isNaN(spot)) {
+                lastSpot = spot;
+                lastSpotMs = nowMs;
+            }
+            return move;
+        }
+    }
+
+    /**
+     * Run one refresh under the active user's context and record its outcome.
+     * Never throws: an exception escaping a fixed-rate task would silently cancel all its future runs.
+     */
+    private void runRefresh(String instType, String task, InstrumentRefresh refresh, RefreshTaskStats stats) {
+        String userId = getActiveUserId();
+        if (userId == null) return;
+
+        long startNanos = System.nanoTime();
+        try {
+            boolean ran = CurrentUserContext.callWithUserContext(userId, () -> {
+                try {
+                    return refresh.refresh(instType);
+                } catch (KiteException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            if (ran) {
+                stats.recordCompleted(System.nanoTime() - startNanos, System.currentTimeMillis());
+            } else {
+                stats.recordSkipped(System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            stats.recordFailed(System.nanoTime() - startNanos, System.currentTimeMillis(), cause.getMessage());
+            log.warn("Failed to refresh {} for {}: {}", task, instType, cause.getMessage());
+        }
+    }
+
+    /** True when today (IST) is the instrument's cached nearest expiry date. */
+    private boolean isExpiryDay(String instType) {
+        CacheEntry<Date> expiry = nearestExpiryCache.get(instType);
+        return expiry != null
+                && LocalDate.ofInstant(expiry.value.toInstant(), IST).equals(LocalDate.now(IST));
+    }
+
+    /** Market closed — drop the engine tick feed until the next session. */
+    private void disconnectTickFeed() {
+        if (tickFeed.isConnected()) {
+            log.info("Market closed — disconnecting MarketDataEngine tick feed");
+            tickFeed.disconnect();
+            feedWindows.clear();
+        }
+    }
+
     /**
      * Refresh spot prices for all supported instruments.
      * Frequency: every 1 second (configurable).
-     * API calls: 1 batch LTP call for all instruments.
+     * <p>
+     * With the tick feed enabled this cycle only maintains the feed (connect + ATM window
+     * subscriptions) and skips the REST call while every index token ticked within
+     * {@code tickFeedQuietMs}. API calls: 1 batch LTP call for all instruments, fallback only.
      */
     private void refreshSpotPrices() {
-        if (!isMarketHours()) return;
+        if (!isMarketHours()) {
+            disconnectTickFeed();
+            return;
+        }
 
         String userId = getActiveUserId();
         if (userId == null) return;
 
+        if (config.isTickFeedEnabled()) {
+            try {
+                maintainTickFeed(userId);
+            } catch (Exception e) {
+                log.warn("Error maintaining tick feed: {}", e.getMessage());
+            }
+            if (isTickFeedFresh()) {
+                spotRestSkippedCount.incrementAndGet();
+                return;
+            }
+            spotRestFallbackCount.incrementAndGet();
+        }
+
         try {
             CurrentUserContext.runWithUserContext(userId, () -> {
                 try {
@@ -465,10 +860,100 @@ public class MarketDataEngine {
         }
     }
 
+    /**
+     * Connect the engine tick feed and keep its subscriptions at index tokens + ATM±N strikes.
+     * The option window is rebuilt only when the rounded ATM or the cached chain changes.
+     */
+    private void maintainTickFeed(String userId) {
+        tickFeed.ensureConnected(userId);
+        if (!tickFeed.isConnected()) return;
+
+        Set<Long> desired = new HashSet<>();
+        for (String instrument : config.getSupportedInstrumentsArray()) {
+            String instType = instrument.trim().toUpperCase();
+            long indexToken = getIndexToken(instType);
+            if (indexToken > 0) desired.add(indexToken);
+
+            double spot = resolveSpotPrice(instType, config.getSpotPriceTtlMs() * 5);
+            CacheEntry<List<Instrument>> chainEntry = optionChainCache.get(instType + "_WEEKLY");
+            if (Double.isNaN(spot) || chainEntry == null) continue;
+
+            double strikeInterval = getStrikeInterval(instType);
+            double atm = Math.round(spot / strikeInterval) * strikeInterval;
+
+            FeedWindow window = feedWindows.get(instType);
+            if (window == null || window.atm() != atm || window.chain() != chainEntry.value) {
+                double halfWidth = config.getTickFeedStrikeRange() * strikeInterval;
+                Set<Long> optionTokens = new HashSet<>();
+                for (Instrument inst : chainEntry.value) {
+                    try {
+                        if (Math.abs(Double.parseDouble(inst.strike) - atm) <= halfWidth) {
+                            optionTokens.add(inst.instrument_token);
+                        }
+                    } catch (NumberFormatException ignored) {}
+                }
+                window = new FeedWindow(atm, chainEntry.value, optionTokens);
+                feedWindows.put(instType, window);
+                log.debug("Tick feed window for {} re-centred at ATM {} ({} option tokens)",
+                        instType, atm, optionTokens.size());
+            }
+            desired.addAll(window.tokens());
+        }
+
+        // Release tokens that left the window first, so their slots are free for the new ones
+        int released = tickPriceTable.retainOnly(desired);
+        if (released > 0) {
+            log.debug("Tick price table released {} slots of tokens outside the feed window", released);
+        }
+        for (Long token : desired) {
+            if (!tickPriceTable.register(token)) {
+                log.warn("Tick price table full ({} slots) — token {} not tracked",
+                        tickPriceTable.capacity(), token);
+            }
+        }
+        tickFeed.updateSubscriptions(desired);
+    }
+
+    /**
+     * True when every supported index token has ticked within {@code tickFeedQuietMs}.
+     */
+    private boolean isTickFeedFresh() {
+        if (!tickFeed.isConnected()) return false;
+        long now = System.currentTimeMillis();
+        for (String instrument : config.getSupportedInstrumentsArray()) {
+            long token = getIndexToken(instrument.trim());
+            if (token <= 0) return false;
+            long ts = tickPriceTable.getLastUpdateMs(token);
+            if (ts == 0 || now - ts > config.getTickFeedQuietMs()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tick feed listener. HFT critical path: runs on KiteTicker's thread for every batch.
+     * Indexed loop, no allocation — one primitive table write per tick, plus a bar update for index
+     * tokens. The candle list is only rebuilt when a tick closes a minute bar (once per minute).
+     */
+    private void onFeedTicks(ArrayList<Tick> ticks) {
+        final long nowMs = System.currentTimeMillis();
+        final int count = ticks.size();
+        for (int i = 0; i < count; i++) {
+            final Tick tick = ticks.get(i);
+            final long token = tick.getInstrumentToken();
+            final double price = tick.getLastTradedPrice();
+            tickPriceTable.update(token, price, nowMs);
+            if (minuteBars.onTick(token, price, nowMs)) {
+                publishLocalCandles(token);
+            }
+        }
+        feedTickCount.addAndGet(count);
+    }
+
     /**
      * Refresh option chains for all supported instruments.
      * Frequency: every 60 seconds (configurable).
-     * API calls: 1 getInstruments("NFO") call (cached by InstrumentCacheService).
+     * API calls: 1 getInstruments("NFO") call (cached by InstrumentCacheService); chains are read
+     * from the NFO {@link InstrumentRegistry} by (underlying, expiry), not by scanning the dump.
      */
     private void refreshOptionChains() {
         if (!isMarketHours()) return;
@@ -479,25 +964,22 @@ public class MarketDataEngine {
         try {
             CurrentUserContext.runWithUserContext(userId, () -> {
                 try {
-                    List<Instrument> allNfo = instrumentCacheService.getInstruments(EXCHANGE_NFO);
+                    InstrumentRegistry nfo = instrumentCacheService.getRegistry(EXCHANGE_NFO);
 
                     for (String instrument : config.getSupportedInstrumentsArray()) {
                         String instType = instrument.trim().toUpperCase();
                         String underlyingName = mapToUnderlyingName(instType);
 
-                        // Filter weekly expiry instruments
+                        // Walk this underlying's expiries instead of the whole NFO dump
                         List<Instrument> weeklyChain = new ArrayList<>();
                         Date nearestExpiry = null;
 
-                        for (Instrument inst : allNfo) {
-                            if (!underlyingName.equals(inst.name)) continue;
-                            String optType = inst.instrument_type;
-                            if (!OPTION_TYPE_CE.equals(optType) && !OPTION_TYPE_PE.equals(optType)) continue;
-                            if (inst.expiry != null && isNearestWeeklyExpiry(inst.expiry)) {
-                                weeklyChain.add(inst);
-                                if (nearestExpiry == null) {
-                                    nearestExpiry = inst.expiry;
-                                }
+                        for (long expiryMs : nfo.optionExpiries(underlyingName)) {
+                            Date expiry = new Date(expiryMs);
+                            if (!isNearestWeeklyExpiry(expiry)) continue;
+                            weeklyChain.addAll(nfo.instruments(nfo.optionChainRows(underlyingName, expiryMs)));
+                            if (nearestExpiry == null) {
+                                nearestExpiry = expiry;
                             }
                         }
 
@@ -506,6 +988,7 @@ public class MarketDataEngine {
                                     new CacheEntry<>(Collections.unmodifiableList(weeklyChain)));
                             if (nearestExpiry != null) {
                                 nearestExpiryCache.put(instType, new CacheEntry<>(nearestExpiry));
+                                chainIndexes.put(instType, OptionChainIndex.of(underlyingName, nearestExpiry, weeklyChain));
                             }
                         }
                     }
@@ -522,10 +1005,10 @@ public class MarketDataEngine {
     }
 
     /**
-     * Refresh delta calculations for all supported instruments.
+     * Refresh delta calculations for one instrument (scheduled per instrument).
      * Pre-computes: ATM strike, per-strike delta map, and strike-by-delta for all configured targets.
      * Frequency: every 5 seconds (configurable).
-     * API calls: 1 batch quote call per instrument.
+     * API calls: 1 batch quote call.
      *
      * <h2>Key optimizations over legacy BaseStrategy synchronous path:</h2>
      * <ul>
@@ -534,184 +1017,192 @@ public class MarketDataEngine {
      *   <li>Model-based fallback IV for far OTM strikes where market quotes are unavailable</li>
      *   <li>Config-driven delta targets — no code change needed when strategy deltas change</li>
      * </ul>
+     *
+     * @return false if the cycle was skipped before any API call (inputs not ready)
      */
-    private void refreshDeltas() {
-        if (!isMarketHours()) return;
-
-        String userId = getActiveUserId();
-        if (userId == null) return;
-
-        for (String instrument : config.getSupportedInstrumentsArray()) {
-            String instType = instrument.trim().toUpperCase();
-
-            try {
-                CurrentUserContext.runWithUserContext(userId, () -> {
-                    try {
-                        // Get spot price from our own cache (avoid API call)
-                        CacheEntry<Double> spotEntry = spotPriceCache.get(instType);
-                        if (spotEntry == null || spotEntry.isExpired(config.getSpotPriceTtlMs() * 5)) {
-                            log.debug("Skipping delta refresh for {} — no spot price available", instType);
-                            return;
-                        }
-                        double spotPrice = spotEntry.value;
-
-                        // Get nearest expiry from our option chain cache
-                        CacheEntry<Date> expiryEntry = nearestExpiryCache.get(instType);
-                        if (expiryEntry == null) {
-                            log.debug("Skipping delta refresh for {} — no expiry available", instType);
-                            return;
-                        }
-                        Date expiry = expiryEntry.value;
-
-                        // Get option chain from our cache
-                        String chainKey = instType + "_WEEKLY";
-                        CacheEntry<List<Instrument>> chainEntry = optionChainCache.get(chainKey);
-                        if (chainEntry == null || chainEntry.value.isEmpty()) {
-                            log.debug("Skipping delta refresh for {} — no option chain available", instType);
-                            return;
-                        }
-
-                        double strikeInterval = getStrikeInterval(instType);
-                        double approximateATM = Math.round(spotPrice / strikeInterval) * strikeInterval;
-
-                        // Use wider strike range to cover far OTM delta targets (0.1Δ, 0.05Δ hedges)
-                        int farRange = config.getDeltaStrikeRangeFarOtm();
-                        Set<Double> strikesToCheck = new LinkedHashSet<>();
-                        for (int i = -farRange; i <= farRange; i++) {
-                            strikesToCheck.add(approximateATM + i * strikeInterval);
-                        }
-
-                        // Build batch quote identifiers from cached option chain
-                        List<String> identifiers = new ArrayList<>();
-                        for (Instrument inst : chainEntry.value) {
-                            String optType = inst.instrument_type;
-                            if (!OPTION_TYPE_CE.equals(optType) && !OPTION_TYPE_PE.equals(optType)) continue;
-                            try {
-                                double instStrike = Double.parseDouble(inst.strike);
-                                if (strikesToCheck.contains(instStrike)) {
-                                    identifiers.add(inst.exchange + ":" + inst.tradingsymbol);
-                                }
-                            } catch (NumberFormatException ignored) {}
-                        }
-
-                        if (identifiers.isEmpty()) {
-                            log.debug("No quote identifiers for {} delta refresh", instType);
-                            return;
-                        }
-
-                        // Batch fetch quotes (1 API call for all instruments)
-                        Map<String, Quote> quotes = tradingService.getQuote(
-                                identifiers.toArray(new String[0]));
-
-                        // Calculate time to expiry
-                        double timeToExpiry = calculateTimeToExpiry(expiry);
-                        if (timeToExpiry <= 0) {
-                            log.debug("Expiry passed for {}, skipping delta refresh", instType);
-                            return;
-                        }
-
-                        // Extract mid prices
-                        Map<Double, double[]> midPrices = extractMidPricesFromQuotes(
-                                quotes, instType, strikesToCheck);
+    private boolean refreshDeltas(String instType) throws KiteException, IOException {
+        // Get spot price from the tick feed / our own cache (avoid API call)
+        double spotPrice = resolveSpotPrice(instType, config.getSpotPriceTtlMs() * 5);
+        if (Double.isNaN(spotPrice)) {
+            log.debug("Skipping delta refresh for {} — no spot price available", instType);
+            return false;
+        }
 
-                        if (midPrices.isEmpty()) {
-                            log.debug("No mid prices extracted for {} delta refresh", instType);
-                            return;
-                        }
+        // Get nearest expiry from our option chain cache
+        CacheEntry<Date> expiryEntry = nearestExpiryCache.get(instType);
+        if (expiryEntry == null) {
+            log.debug("Skipping delta refresh for {} — no expiry available", instType);
+            return false;
+        }
+        Date expiry = expiryEntry.value;
+
+        // Get option chain from our cache
+        String chainKey = instType + "_WEEKLY";
+        CacheEntry<List<Instrument>> chainEntry = optionChainCache.get(chainKey);
+        if (chainEntry == null || chainEntry.value.isEmpty()) {
+            log.debug("Skipping delta refresh for {} — no option chain available", instType);
+            return false;
+        }
 
-                        // Calculate implied forward price
-                        double forwardPrice = calculateImpliedForward(spotPrice, midPrices, timeToExpiry);
+        double strikeInterval = getStrikeInterval(instType);
+        double approximateATM = Math.round(spotPrice / strikeInterval) * strikeInterval;
 
-                        // Phase 1: Compute market-data-based deltas and collect IVs
-                        Map<Double, Double> deltaMap = new HashMap<>();
-                        Map<Double, Double> computedIVs = new HashMap<>();
-                        double sqrtT = Math.sqrt(timeToExpiry);
+        // Use wider strike range to cover far OTM delta targets (0.1Δ, 0.05Δ hedges)
+        int farRange = config.getDeltaStrikeRangeFarOtm();
+        Set<Double> strikesToCheck = new LinkedHashSet<>();
+        for (int i = -farRange; i <= farRange; i++) {
+            strikesToCheck.add(approximateATM + i * strikeInterval);
+        }
 
-                        for (Map.Entry<Double, double[]> e : midPrices.entrySet()) {
-                            double strike = e.getKey();
-                            double[] prices = e.getValue(); // [callMid, putMid]
-                            if (prices[0] <= 0) continue;
+        // Build batch quote identifiers from cached option chain
+        List<String> identifiers = new ArrayList<>();
+        for (Instrument inst : chainEntry.value) {
+            String optType = inst.instrument_type;
+            if (!OPTION_TYPE_CE.equals(optType) && !OPTION_TYPE_PE.equals(optType)) continue;
+            try {
+                double instStrike = Double.parseDouble(inst.strike);
+                if (strikesToCheck.contains(instStrike)) {
+                    identifiers.add(inst.exchange + ":" + inst.tradingsymbol);
+                }
+            } catch (NumberFormatException ignored) {}
+        }
 
-                            double iv = solveIV(prices[0], forwardPrice, strike, timeToExpiry);
-                            if (Double.isNaN(iv) || iv <= 1e-4 || iv > 3.0) continue;
+        if (identifiers.isEmpty()) {
+            log.debug("No quote identifiers for {} delta refresh", instType);
+            return false;
+        }
 
-                            double d1 = (Math.log(forwardPrice / strike) + 0.5 * iv * iv * timeToExpiry) / (iv * sqrtT);
-                            double delta = cumulativeNormalDistribution(d1);
-                            deltaMap.put(strike, delta);
-                            computedIVs.put(strike, iv);
-                        }
+        // Calculate time to expiry
+        double timeToExpiry = calculateTimeToExpiry(expiry);
+        if (timeToExpiry <= 0) {
+            log.debug("Expiry passed for {}, skipping delta refresh", instType);
+            return false;
+        }
 
-                        // Phase 2: Model-based fallback for far OTM strikes without market data
-                        // This is critical for 0.1Δ and 0.05Δ hedge legs that are typically 15-30 strikes from ATM
-                        double fallbackIV = estimateFallbackIV(computedIVs, approximateATM, strikeInterval);
-                        int fallbackCount = 0;
+        // Batch fetch quotes (1 API call for all instruments)
+        Map<String, Quote> quotes = tradingService.getQuote(
+                identifiers.toArray(new String[0]));
 
-                        for (Double strike : strikesToCheck) {
-                            if (deltaMap.containsKey(strike)) continue;
+        // Extract mid prices
+        Map<Double, double[]> midPrices = extractMidPricesFromQuotes(
+                quotes, instType, strikesToCheck);
 
-                            double d1 = (Math.log(forwardPrice / strike) + 0.5 * fallbackIV * fallbackIV * timeToExpiry)
-                                    / (fallbackIV * sqrtT);
-                            double modelDelta = cumulativeNormalDistribution(d1);
+        if (midPrices.isEmpty()) {
+            log.debug("No mid prices extracted for {} delta refresh", instType);
+            return true;
+        }
 
-                            // Only add if delta is in a reasonable range (excludes deep ITM/OTM noise)
-                            if (modelDelta > 0.001 && modelDelta < 0.999) {
-                                deltaMap.put(strike, modelDelta);
-                                fallbackCount++;
-                            }
-                        }
+        // Flatten mid prices into strike-indexed primitive arrays for the greeks kernel
+        int priced = midPrices.size();
+        double[] pricedStrikes = new double[priced];
+        double[] pricedCalls = new double[priced];
+        double[] pricedPuts = new double[priced];
+        int p = 0;
+        for (Map.Entry<Double, double[]> e : midPrices.entrySet()) {
+            double[] prices = e.getValue(); // [callMid, putMid]
+            pricedStrikes[p] = e.getKey();
+            pricedCalls[p] = prices[0];
+            pricedPuts[p] = prices[1];
+            p++;
+        }
 
-                        if (deltaMap.isEmpty()) {
-                            log.debug("Delta computation produced no results for {}", instType);
-                            return;
-                        }
+        // Calculate implied forward price
+        double forwardPrice = GreeksKernel.impliedForward(spotPrice, pricedStrikes,
+                pricedCalls, pricedPuts, priced, timeToExpiry, RISK_FREE_RATE);
+
+        // Phase 1: Solve IVs for all quoted strikes in one batch, warm-started from
+        // the previous cycle, then compute market-data-based deltas in one kernel pass
+        int quoted = 0;
+        double[] quotedStrikes = new double[priced];
+        double[] quotedCalls = new double[priced];
+        for (int i = 0; i < priced; i++) {
+            if (pricedCalls[i] <= 0) continue;
+            quotedStrikes[quoted] = pricedStrikes[i];
+            quotedCalls[quoted] = pricedCalls[i];
+            quoted++;
+        }
+        double[] solvedIVs = new double[quoted];
+        String seedKey = instType + "_" + expiry.getTime();
+        ivSeeds.fill(seedKey, quotedStrikes, quoted, solvedIVs);
+        ImpliedVolatilitySolver.solveChain(quotedStrikes, quotedCalls, quoted, forwardPrice,
+                timeToExpiry, RISK_FREE_RATE, solvedIVs, solvedIVs);
+        ivSeeds.update(seedKey, quotedStrikes, solvedIVs, quoted);
+        double[] quotedDeltas = new double[quoted];
+        GreeksKernel.callDeltas(forwardPrice, timeToExpiry, quotedStrikes, solvedIVs, quoted,
+                quotedDeltas);
+
+        Map<Double, Double> deltaMap = new HashMap<>();
+        Map<Double, Double> computedIVs = new HashMap<>();
+
+        for (int q = 0; q < quoted; q++) {
+            double iv = solvedIVs[q];
+            if (Double.isNaN(iv) || iv <= 1e-4 || iv > 3.0) continue;
+            deltaMap.put(quotedStrikes[q], quotedDeltas[q]);
+            computedIVs.put(quotedStrikes[q], iv);
+        }
 
-                        if (fallbackCount > 0) {
-                            log.debug("Delta refresh for {}: {} market-based + {} model-based (fallbackIV={}) = {} total strikes",
-                                    instType, deltaMap.size() - fallbackCount, fallbackCount,
-                                    String.format("%.4f", fallbackIV), deltaMap.size());
-                        }
+        // Phase 2: Model-based fallback for far OTM strikes without market data
+        // This is critical for 0.1Δ and 0.05Δ hedge legs that are typically 15-30 strikes from ATM
+        double fallbackIV = estimateFallbackIV(computedIVs, approximateATM, strikeInterval);
+        int missing = 0;
+        double[] missingStrikes = new double[strikesToCheck.size()];
+        for (Double strike : strikesToCheck) {
+            if (!deltaMap.containsKey(strike)) missingStrikes[missing++] = strike;
+        }
+        double[] fallbackIVs = new double[missing];
+        Arrays.fill(fallbackIVs, fallbackIV);
+        double[] modelDeltas = new double[missing];
+        GreeksKernel.callDeltas(forwardPrice, timeToExpiry, missingStrikes, fallbackIVs, missing,
+                modelDeltas);
+
+        int fallbackCount = 0;
+        for (int m = 0; m < missing; m++) {
+            double modelDelta = modelDeltas[m];
+            // Only add if delta is in a reasonable range (excludes deep ITM/OTM noise)
+            if (modelDelta > 0.001 && modelDelta < 0.999) {
+                deltaMap.put(missingStrikes[m], modelDelta);
+                fallbackCount++;
+            }
+        }
 
-                        // Store delta map
-                        deltaMapCache.put(instType, new CacheEntry<>(Collections.unmodifiableMap(new HashMap<>(deltaMap))));
-
-                        // Find ATM strike (closest to 0.5 delta)
-                        double bestStrike = approximateATM;
-                        double minDiff = Double.MAX_VALUE;
-                        for (Map.Entry<Double, Double> e : deltaMap.entrySet()) {
-                            double diff = Math.abs(e.getValue() - 0.5);
-                            if (diff < minDiff) {
-                                minDiff = diff;
-                                bestStrike = e.getKey();
-                            }
-                        }
-                        atmStrikeCache.put(instType, new CacheEntry<>(bestStrike));
-
-                        // Pre-compute strikes for all configured target deltas
-                        double[] targetDeltas = config.getDeltaTargetsArray();
-                        for (double targetDelta : targetDeltas) {
-                            // CE: find strike where callDelta ≈ targetDelta
-                            double bestCE = findStrikeForDelta(deltaMap, targetDelta, true, approximateATM);
-                            strikeByDeltaCache.put(buildStrikeByDeltaKey(instType, targetDelta, OPTION_TYPE_CE),
-                                    new CacheEntry<>(bestCE));
-
-                            // PE: find strike where |putDelta| ≈ targetDelta (i.e., 1 - callDelta ≈ targetDelta)
-                            double bestPE = findStrikeForDelta(deltaMap, targetDelta, false, approximateATM);
-                            strikeByDeltaCache.put(buildStrikeByDeltaKey(instType, targetDelta, OPTION_TYPE_PE),
-                                    new CacheEntry<>(bestPE));
-                        }
+        if (deltaMap.isEmpty()) {
+            log.debug("Delta computation produced no results for {}", instType);
+            return true;
+        }
 
-                        deltaRefreshCount.incrementAndGet();
-                        log.debug("Delta refresh complete for {}: ATM={}, deltaStrikes={}, targets={}",
-                                instType, bestStrike, deltaMap.size(), targetDeltas.length);
+        if (fallbackCount > 0) {
+            log.debug("Delta refresh for {}: {} market-based + {} model-based (fallbackIV={}) = {} total strikes",
+                    instType, deltaMap.size() - fallbackCount, fallbackCount,
+                    String.format("%.4f", fallbackIV), deltaMap.size());
+        }
 
-                    } catch (KiteException | IOException e) {
-                        log.warn("Failed to refresh deltas for {}: {}", instType, e.getMessage());
-                    }
-                });
-            } catch (Exception e) {
-                log.warn("Error in delta refresh for {}: {}", instType, e.getMessage());
-            }
+        // Publish immutable strike-indexed snapshot (single atomic put)
+        int n = deltaMap.size();
+        double[] strikes = new double[n];
+        double[] callMids = new double[n];
+        double[] putMids = new double[n];
+        double[] ivs = new double[n];
+        double[] callDeltas = new double[n];
+        int idx = 0;
+        for (Map.Entry<Double, Double> e : deltaMap.entrySet()) {
+            double strike = e.getKey();
+            double[] prices = midPrices.get(strike);
+            strikes[idx] = strike;
+            callMids[idx] = prices != null ? prices[0] : 0.0;
+            putMids[idx] = prices != null ? prices[1] : 0.0;
+            ivs[idx] = computedIVs.getOrDefault(strike, fallbackIV);
+            callDeltas[idx] = e.getValue();
+            idx++;
         }
+        OptionChainSnapshot snapshot = OptionChainSnapshot.of(instType, expiry, spotPrice,
+                forwardPrice, timeToExpiry, approximateATM,
+                strikes, callMids, putMids, ivs, callDeltas);
+        chainSnapshots.put(instType, snapshot);
+
+        deltaRefreshCount.incrementAndGet();
+        log.debug("Delta refresh complete for {}: ATM={}, deltaStrikes={}",
+                instType, snapshot.getAtmStrike(), n);
+        return true;
     }
 
     /**
@@ -763,121 +1254,114 @@ public class MarketDataEngine {
     }
 
     /**
-     * Refresh VWAP for all supported instruments.
+     * Refresh VWAP for one instrument (scheduled per instrument).
      * Frequency: every 5 seconds (configurable).
-     * API calls: 1 getHistoricalData per instrument (uses existing session candles when possible).
+     * API calls: none — reads the cached session candles and folds newly finalized bars into a
+     * running {@link VwapAccumulator} (O(new bars) per refresh instead of a full-session walk).
+     *
+     * @return false if no candles are cached yet
      */
-    private void refreshVWAP() {
-        if (!isMarketHours()) return;
-
-        String userId = getActiveUserId();
-        if (userId == null) return;
-
-        for (String instrument : config.getSupportedInstrumentsArray()) {
-            String instType = instrument.trim().toUpperCase();
-            try {
-                CurrentUserContext.runWithUserContext(userId, () -> {
-                    try {
-                        // Use candle data to compute VWAP
-                        String candleKey = instType + "_minute";
-                        CacheEntry<List<HistoricalData>> candleEntry = candleCache.get(candleKey);
-                        if (candleEntry == null || candleEntry.value.isEmpty()) {
-                            log.trace("No candle data for VWAP calculation of {}", instType);
-                            return;
-                        }
+    private boolean refreshVWAP(String instType) {
+        // Use candle data to compute VWAP
+        String candleKey = instType + "_minute";
+        CacheEntry<List<HistoricalData>> candleEntry = candleCache.get(candleKey);
+        if (candleEntry == null || candleEntry.value.isEmpty()) {
+            log.trace("No candle data for VWAP calculation of {}", instType);
+            return false;
+        }
 
-                        BigDecimal vwap = computeVWAPFromCandles(candleEntry.value);
-                        if (vwap != null && vwap.compareTo(BigDecimal.ZERO) > 0) {
-                            vwapCache.put(instType, new CacheEntry<>(vwap));
-                        }
+        // Incremental: only candles finalized since the last refresh are folded in
+        VwapAccumulator accumulator = vwapAccumulators.computeIfAbsent(
+                instType, k -> VwapAccumulator.sessionAnchored());
+        accumulator.sync(candleEntry.value);
+        double vwapValue = accumulator.getVwap();
 
-                        vwapRefreshCount.incrementAndGet();
-                        log.trace("VWAP refreshed for {}: {}", instType, vwap);
-                    } catch (Exception e) {
-                        log.warn("Failed to refresh VWAP for {}: {}", instType, e.getMessage());
-                    }
-                });
-            } catch (Exception e) {
-                log.warn("Error in VWAP refresh for {}: {}", instType, e.getMessage());
-            }
+        BigDecimal vwap = null;
+        if (vwapValue > 0) {
+            vwap = BigDecimal.valueOf(vwapValue).setScale(4, RoundingMode.HALF_UP);
+            vwapCache.put(instType, new CacheEntry<>(vwap));
         }
+
+        vwapRefreshCount.incrementAndGet();
+        log.trace("VWAP refreshed for {}: {}", instType, vwap);
+        return true;
     }
 
     /**
-     * Refresh candle data for all supported instruments.
+     * Refresh candle data for one instrument (scheduled per instrument).
      * Frequency: every 60 seconds (configurable).
-     * API calls: 1 getHistoricalData per instrument.
+     * API calls: none while the local candle builder is complete and its feed is live; otherwise
+     * 1 getHistoricalData, which also backfills the builder (startup / after a gap).
+     *
+     * @return false if the cycle was skipped before any API call (served locally / not ready)
      */
-    private void refreshCandles() {
-        if (!isMarketHours()) return;
-
-        String userId = getActiveUserId();
-        if (userId == null) return;
+    private boolean refreshCandles(String instType) throws KiteException, IOException {
+        String instrumentToken = getInstrumentToken(instType);
+        if (instrumentToken == null) {
+            log.trace("No instrument token for {}, skipping candle refresh", instType);
+            return false;
+        }
 
-        for (String instrument : config.getSupportedInstrumentsArray()) {
-            String instType = instrument.trim().toUpperCase();
-            try {
-                CurrentUserContext.runWithUserContext(userId, () -> {
-                    try {
-                        String instrumentToken = getInstrumentToken(instType);
-                        if (instrumentToken == null) {
-                            log.trace("No instrument token for {}, skipping candle refresh", instType);
-                            return;
-                        }
+        long indexToken = Long.parseLong(instrumentToken);
+        boolean localBars = minuteBars.isRegistered(indexToken);
+        if (localBars) {
+            long nowMs = System.currentTimeMillis();
+            if (minuteBars.rollover(indexToken, nowMs)) {
+                publishLocalCandles(indexToken);
+            }
+            long lastTick = tickPriceTable.getLastUpdateMs(indexToken);
+            boolean feedLive = lastTick > 0 && nowMs - lastTick <= config.getTickFeedQuietMs();
+            if (feedLive && minuteBars.isComplete(indexToken)) {
+                publishLocalCandles(indexToken);
+                candleRestSkippedCount.incrementAndGet();
+                return false;
+            }
+        }
 
-                        // Fetch today's 1-minute candles from market open
-                        ZonedDateTime now = ZonedDateTime.now(IST);
-                        ZonedDateTime marketOpen = now.withHour(9).withMinute(15).withSecond(0).withNano(0);
+        // Fetch today's 1-minute candles from market open
+        ZonedDateTime now = ZonedDateTime.now(IST);
+        ZonedDateTime marketOpen = now.withHour(9).withMinute(15).withSecond(0).withNano(0);
 
-                        if (now.isBefore(marketOpen)) return;
+        if (now.isBefore(marketOpen)) return false;
 
-                        Date from = Date.from(marketOpen.toInstant());
-                        Date to = Date.from(now.toInstant());
+        Date from = Date.from(marketOpen.toInstant());
+        Date to = Date.from(now.toInstant());
 
-                        HistoricalData data = tradingService.getHistoricalData(
-                                from, to, instrumentToken, "minute", false, false);
+        HistoricalData data = tradingService.getHistoricalData(
+                from, to, instrumentToken, "minute", false, false);
+        candleRestFetchCount.incrementAndGet();
 
-                        if (data != null && data.dataArrayList != null && !data.dataArrayList.isEmpty()) {
-                            String candleKey = instType + "_minute";
-                            candleCache.put(candleKey,
-                                    new CacheEntry<>(Collections.unmodifiableList(
-                                            new ArrayList<>(data.dataArrayList))));
-                            log.debug("Candle data refreshed for {}: {} candles", instType, data.dataArrayList.size());
-                        }
-                    } catch (KiteException | IOException e) {
-                        log.warn("Failed to refresh candles for {}: {}", instType, e.getMessage());
-                    }
-                });
-            } catch (Exception e) {
-                log.warn("Error in candle refresh for {}: {}", instType, e.getMessage());
+        if (data != null && data.dataArrayList != null && !data.dataArrayList.isEmpty()) {
+            if (localBars) {
+                minuteBars.backfill(indexToken, data.dataArrayList, System.currentTimeMillis());
+                publishLocalCandles(indexToken);
+                log.debug("Candle builder backfilled for {}: {} candles, complete={}",
+                        instType, data.dataArrayList.size(), minuteBars.isComplete(indexToken));
+                return true;
             }
+            String candleKey = instType + "_minute";
+            candleCache.put(candleKey,
+                    new CacheEntry<>(Collections.unmodifiableList(
+                            new ArrayList<>(data.dataArrayList))));
+            log.debug("Candle data refreshed for {}: {} candles", instType, data.dataArrayList.size());
         }
+        return true;
     }
 
-    // ==================== COMPUTATION HELPERS ====================
-
-    private BigDecimal computeVWAPFromCandles(List<HistoricalData> candles) {
-        if (candles == null || candles.isEmpty()) return null;
-
-        BigDecimal cumulativeTPV = BigDecimal.ZERO; // Typical Price × Volume
-        BigDecimal cumulativeVolume = BigDecimal.ZERO;
-
-        for (HistoricalData candle : candles) {
-            double typicalPrice = (candle.high + candle.low + candle.close) / 3.0;
-            long volume = candle.volume;
-            if (volume <= 0) continue;
-
-            BigDecimal tp = BigDecimal.valueOf(typicalPrice);
-            BigDecimal vol = BigDecimal.valueOf(volume);
-            cumulativeTPV = cumulativeTPV.add(tp.multiply(vol));
-            cumulativeVolume = cumulativeVolume.add(vol);
+    /**
+     * Publish the local bar series of an index token as the instrument's cached candle list.
+     */
+    private void publishLocalCandles(long indexToken) {
+        String instType = candleInstrumentByToken.get(indexToken);
+        if (instType == null) return;
+        List<HistoricalData> bars = minuteBars.snapshot(indexToken);
+        if (!bars.isEmpty()) {
+            candleCache.put(instType + "_minute", new CacheEntry<>(bars));
         }
-
-        if (cumulativeVolume.compareTo(BigDecimal.ZERO) == 0) return null;
-
-        return cumulativeTPV.divide(cumulativeVolume, 4, RoundingMode.HALF_UP);
     }
 
+    // ==================== COMPUTATION HELPERS ====================
+
     private Map<Double, double[]> extractMidPricesFromQuotes(Map<String, Quote> quotes,
                                                               String instrumentType,
                                                               Set<Double> strikes) {
@@ -953,81 +1437,6 @@ public class MarketDataEngine {
         }
     }
 
-    private double calculateImpliedForward(double spotPrice, Map<Double, double[]> midPrices, double timeToExpiry) {
-        List<Double> forwardEstimates = new ArrayList<>();
-        double discountFactor = Math.exp(RISK_FREE_RATE * timeToExpiry);
-
-        for (Map.Entry<Double, double[]> entry : midPrices.entrySet()) {
-            double strike = entry.getKey();
-            double[] prices = entry.getValue();
-            if (prices[0] > 0 && prices[1] > 0) {
-                double forward = strike + (prices[0] - prices[1]) * discountFactor;
-                forwardEstimates.add(forward);
-            }
-        }
-
-        if (forwardEstimates.isEmpty()) {
-            return spotPrice * Math.exp(RISK_FREE_RATE * timeToExpiry);
-        }
-
-        Collections.sort(forwardEstimates);
-        int size = forwardEstimates.size();
-        return size % 2 == 1 ? forwardEstimates.get(size / 2)
-                : (forwardEstimates.get(size / 2 - 1) + forwardEstimates.get(size / 2)) / 2.0;
-    }
-
-    private double solveIV(double callPrice, double forward, double strike, double T) {
-        if (T <= 0 || callPrice <= 0) return 0.0;
-        double discountFactor = Math.exp(-RISK_FREE_RATE * T);
-        double intrinsic = Math.max(0, forward - strike) * discountFactor;
-        if (callPrice <= intrinsic * 1.001) return 0.01;
-
-        double sigma = 0.2;
-        double sqrtT = Math.sqrt(T);
-
-        for (int i = 0; i < 50; i++) {
-            double d1 = (Math.log(forward / strike) + 0.5 * sigma * sigma * T) / (sigma * sqrtT);
-            double d2 = d1 - sigma * sqrtT;
-            double nd1 = cumulativeNormalDistribution(d1);
-            double nd2 = cumulativeNormalDistribution(d2);
-            double theoreticalPrice = discountFactor * (forward * nd1 - strike * nd2);
-            double vega = discountFactor * forward * normalPDF(d1) * sqrtT;
-            double priceDiff = theoreticalPrice - callPrice;
-
-            if (Math.abs(priceDiff) < 0.01) return sigma;
-            if (vega < 1e-10) break;
-
-            sigma = sigma - 0.5 * priceDiff / vega;
-            sigma = Math.max(0.01, Math.min(3.0, sigma));
-        }
-        return sigma;
-    }
-
-    private double findStrikeForDelta(Map<Double, Double> deltaMap, double targetDelta,
-                                       boolean isCE, double approximateATM) {
-        double bestStrike = approximateATM;
-        double minDiff = Double.MAX_VALUE;
-
-        for (Map.Entry<Double, Double> e : deltaMap.entrySet()) {
-            double strike = e.getKey();
-            double callDelta = e.getValue();
-            double effectiveDelta = isCE ? callDelta : (1.0 - callDelta);
-            double diff = Math.abs(effectiveDelta - targetDelta);
-
-            // For OTM targets (< 0.4), enforce correct OTM side
-            if (targetDelta < 0.4) {
-                if (isCE && strike < approximateATM) continue;
-                if (!isCE && strike > approximateATM) continue;
-            }
-
-            if (diff < minDiff) {
-                minDiff = diff;
-                bestStrike = strike;
-            }
-        }
-        return bestStrike;
-    }
-
     private double calculateTimeToExpiry(Date expiry) {
         Calendar now = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
         Calendar expiryCal = Calendar.getInstance(TimeZone.getTimeZone("Asia/Kolkata"));
@@ -1043,6 +1452,40 @@ public class MarketDataEngine {
 
     // ==================== UTILITY ====================
 
+    /**
+     * Latest spot price no older than {@code maxAgeMs}: tick-fed price first, REST cache second.
+     *
+     * @return spot price, or NaN if neither source is fresh
+     */
+    private double resolveSpotPrice(String instrumentType, long maxAgeMs) {
+        if (config.isTickFeedEnabled()) {
+            long token = getIndexToken(instrumentType);
+            if (token > 0) {
+                double tickPrice = tickPriceTable.getPrice(token, maxAgeMs);
+                if (!Double.isNaN(tickPrice)) return tickPrice;
+            }
+        }
+        CacheEntry<Double> entry = spotPriceCache.get(instrumentType);
+        if (entry != null && !entry.isExpired(maxAgeMs)) return entry.value;
+        return Double.NaN;
+    }
+
+    /** Strategy read path: record demand for the adaptive task that produces this output. */
+    private static void markRead(Map<String, RefreshTask> tasks, String instrumentType) {
+        RefreshTask task = tasks.get(instrumentType.toUpperCase());
+        if (task != null) task.markRead(System.currentTimeMillis());
+    }
+
+    private OptionChainSnapshot freshSnapshot(String instrumentType) {
+        OptionChainSnapshot snapshot = chainSnapshots.get(instrumentType.toUpperCase());
+        return snapshot != null && !snapshot.isExpired(config.getDeltaTtlMs()) ? snapshot : null;
+    }
+
+    private boolean hasTickPrice(String instrumentType) {
+        return config.isTickFeedEnabled()
+                && tickPriceTable.getLastUpdateMs(getIndexToken(instrumentType)) > 0;
+    }
+
     private String getActiveUserId() {
         Set<String> activeUsers = userSessionManager.getActiveUserIds();
         if (activeUsers.isEmpty()) {
@@ -1091,10 +1534,9 @@ public class MarketDataEngine {
         };
     }
 
-    private String buildStrikeByDeltaKey(String instrumentType, double targetDelta, String optionType) {
-        // Use long representation to avoid floating-point key issues
-        long deltaScaled = Math.round(targetDelta * 1000);
-        return instrumentType.toUpperCase() + "_" + deltaScaled + "_" + optionType;
+    private long getIndexToken(String instrumentType) {
+        String token = getInstrumentToken(instrumentType);
+        return token != null ? Long.parseLong(token) : -1L;
     }
 
     private boolean isNearestWeeklyExpiry(Date expiry) {
@@ -1121,23 +1563,8 @@ public class MarketDataEngine {
         return currentMinutes >= marketOpen && currentMinutes <= marketClose;
     }
 
-    private double cumulativeNormalDistribution(double x) {
-        return 0.5 * (1.0 + erf(x / Math.sqrt(2.0)));
-    }
-
-    private double erf(double x) {
-        double a1 = 0.254829592, a2 = -0.284496736, a3 = 1.421413741;
-        double a4 = -1.453152027, a5 = 1.061405429, p = 0.3275911;
-        int sign = x < 0 ? -1 : 1;
-        x = Math.abs(x);
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
-        return sign * y;
-    }
-
-    private double normalPDF(double x) {
-        return (1.0 / Math.sqrt(2.0 * Math.PI)) * Math.exp(-0.5 * x * x);
-    }
+    /** ATM-centred option token window subscribed on the tick feed. */
+    private record FeedWindow(double atm, List<Instrument> chain, Set<Long> tokens) {}
 
     // ==================== CACHE ENTRY ====================
 
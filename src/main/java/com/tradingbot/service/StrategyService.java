@@ -9,12 +9,16 @@ import com.tradingbot.model.StrategyCompletionReason;
 import com.tradingbot.model.StrategyExecution;
 import com.tradingbot.model.StrategyStatus;
 import com.tradingbot.model.StrategyExecution.LegLifecycleState;
+import com.tradingbot.service.latency.LatencyStage;
+import com.tradingbot.service.latency.LatencyTracer;
 import com.tradingbot.service.persistence.TradePersistenceService;
+import com.tradingbot.service.strategy.ProtectiveStopService;
 import com.tradingbot.service.strategy.StrategyFactory;
 import com.tradingbot.service.strategy.TradingStrategy;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
 import com.tradingbot.util.CurrentUserContext;
 import com.tradingbot.util.StrategyConstants;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Order;
 import com.zerodhatech.models.Instrument;
@@ -33,8 +37,17 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.tradingbot.service.TradingConstants.*;
@@ -57,6 +70,7 @@ public class StrategyService {
     @org.springframework.beans.factory.annotation.Qualifier("persistenceExecutor")
     private final Executor persistenceExecutor;
     private final com.tradingbot.service.strategy.DailyPnlGateService dailyPnlGateService;
+    private final ProtectiveStopService protectiveStopService;
 
     /*
      * CYCLE A: StrategyService ↔ StrategyRestartScheduler (bidirectional).
@@ -71,6 +85,9 @@ public class StrategyService {
     // Keyed by executionId but owned by userId; maintain both maps for efficient lookups
     private final Map<String, StrategyExecution> executionsById = new ConcurrentHashMap<>();
 
+    /** Hedge phase wait for the short legs' fills; {@value #SHORT_FILL_WAIT_MS} ms unless overridden. */
+    private volatile long shortFillWaitMs = SHORT_FILL_WAIT_MS;
+
     // HFT-safe ThreadLocal date formatter (IST timezone)
     private static final ThreadLocal<SimpleDateFormat> SDF_EXPIRY =
             ThreadLocal.withInitial(() -> {
@@ -81,6 +98,30 @@ public class StrategyService {
 
     private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
 
+    // ==================== HFT Thread Pool Configuration (exitAllLegs) ====================
+    private static final int LEG_EXIT_POOL_SIZE = 8;
+    private static final int FILL_RESOLUTION_POOL_SIZE = 2;
+    /** Longest the hedge phase waits for the short legs' fill resolution before closing hedges anyway. */
+    private static final long SHORT_FILL_WAIT_MS = 10_000;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+
+    private static ThreadFactory exitThreadFactory(String prefix, int priority) {
+        return r -> {
+            Thread t = new Thread(r, prefix + THREAD_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(priority);
+            return t;
+        };
+    }
+
+    /** Exit order placement: all legs of one phase are sent concurrently. */
+    private static final ExecutorService LEG_EXIT_EXECUTOR = Executors.newFixedThreadPool(
+            LEG_EXIT_POOL_SIZE, exitThreadFactory("hft-leg-exit-", Thread.MAX_PRIORITY));
+
+    /** Exit fill-price lookups, kept off the exit critical path. */
+    private static final ExecutorService FILL_RESOLUTION_EXECUTOR = Executors.newFixedThreadPool(
+            FILL_RESOLUTION_POOL_SIZE, exitThreadFactory("exit-fill-", Thread.NORM_PRIORITY));
+
     /**
      * Create and register a new StrategyExecution for the given request.
      * If parentExecutionId is non-null, link this execution into an auto-restart chain.
@@ -94,7 +135,7 @@ public class StrategyService {
         execution.setInstrumentType(request.getInstrumentType());
         execution.setExpiry(request.getExpiry());
         execution.setStatus(StrategyStatus.EXECUTING);
-        execution.setTimestamp(System.currentTimeMillis());
+        execution.setTimestamp(TradingClock.currentTimeMillis());
         execution.setStopLossPoints(request.getStopLossPoints());
         execution.setTargetPoints(request.getTargetPoints());
         execution.setLots(request.getLots());
@@ -137,6 +178,10 @@ public class StrategyService {
      */
     public StrategyExecutionResponse executeStrategy(StrategyRequest request) throws KiteException, IOException {
         String userId = CurrentUserContext.getRequiredUserId();
+        if (TradingClock.isVirtual()) {
+            // The replay clock is process-wide: a live monitor would time its exits by replayed time
+            throw new IllegalStateException("A session replay is running; new strategies are refused until it finishes");
+        }
         log.info("Executing strategy: {} for instrument: {} by user {}", request.getStrategyType(), request.getInstrumentType(), userId);
 
         StrategyExecution execution = createAndRegisterExecution(request, userId, null);
@@ -617,7 +662,7 @@ public class StrategyService {
                     .quantity(od.getQuantity())
                     .entryPrice(od.getPrice())
                     .entryTransactionType(resolveEntryTransactionType(od))
-                    .entryTimestamp(System.currentTimeMillis())
+                    .entryTimestamp(TradingClock.currentTimeMillis())
                     .build())
                 .collect(Collectors.toList());
             execution.setOrderLegs(orderLegs);
@@ -633,6 +678,12 @@ public class StrategyService {
      * Exit sequence: SELL (SHORT) legs are closed first (buy-back ATM), then HEDGE legs.
      * This prevents momentary naked short exposure and potential margin spikes.
      * Non-hedged strategies (no _HEDGE legs) execute as a single pass.
+     * <p>
+     * HFT: Exit orders within a phase are placed concurrently. The hedge phase starts once the
+     * short legs' fills are resolved (see {@link #resolveExitFillAsync}) — the same point the
+     * sequential exit used to wait for — bounded by {@value #SHORT_FILL_WAIT_MS} ms. Hedge fills
+     * are resolved off the critical path, so the exit costs three round-trips instead of two REST
+     * calls per leg.
      */
     private Map<String, Object> exitAllLegs(String executionId, List<StrategyExecution.OrderLeg> orderLegs) throws KiteException {
         String tradingMode = unifiedTradingService.isPaperTradingEnabled() ? StrategyConstants.TRADING_MODE_PAPER : StrategyConstants.TRADING_MODE_LIVE;
@@ -652,30 +703,30 @@ public class StrategyService {
 
         log.debug("Partitioned {} legs: {} SELL/SHORT, {} HEDGE", orderLegs.size(), sellLegs.size(), hedgeLegs.size());
 
-        List<Map<String, String>> exitOrders = new ArrayList<>();
+        List<Map<String, String>> exitOrders = new ArrayList<>(orderLegs.size());
         int successCount = 0;
         int failureCount = 0;
 
         // Phase 1: Close SELL (SHORT) legs first — buy back ATM short positions
         if (!sellLegs.isEmpty()) {
             log.info("[{} MODE] Phase 1: Closing {} SELL ATM leg(s) for execution {}", tradingMode, sellLegs.size(), executionId);
-            for (StrategyExecution.OrderLeg leg : sellLegs) {
-                int[] result = processLegExitSequential(leg, exitOrders);
-                successCount += result[0];
-                failureCount += result[1];
+            List<CompletableFuture<Double>> shortFills = Collections.synchronizedList(new ArrayList<>(sellLegs.size()));
+            int[] result = processLegExitsConcurrently(sellLegs, exitOrders, shortFills);
+            successCount += result[0];
+            failureCount += result[1];
+            log.info("[{} MODE] Phase 1 complete: {} closed, {} failed", tradingMode, result[0], result[1]);
+            if (!hedgeLegs.isEmpty()) {
+                awaitShortLegFills(executionId, shortFills);
             }
-            log.info("[{} MODE] Phase 1 complete: {} processed", tradingMode, sellLegs.size());
         }
 
         // Phase 2: Close HEDGE (BUY) legs — sell the protective positions
         if (!hedgeLegs.isEmpty()) {
             log.info("[{} MODE] Phase 2: Closing {} HEDGE leg(s) for execution {}", tradingMode, hedgeLegs.size(), executionId);
-            for (StrategyExecution.OrderLeg leg : hedgeLegs) {
-                int[] result = processLegExitSequential(leg, exitOrders);
-                successCount += result[0];
-                failureCount += result[1];
-            }
-            log.info("[{} MODE] Phase 2 complete: {} processed", tradingMode, hedgeLegs.size());
+            int[] result = processLegExitsConcurrently(hedgeLegs, exitOrders, null);
+            successCount += result[0];
+            failureCount += result[1];
+            log.info("[{} MODE] Phase 2 complete: {} closed, {} failed", tradingMode, result[0], result[1]);
         }
 
         // Stop monitoring for this execution
@@ -706,17 +757,98 @@ public class StrategyService {
     }
 
     /**
-     * Process a single leg exit sequentially.
+     * Place the exit orders for one phase concurrently and wait until every order is acknowledged.
+     * Results are appended to {@code exitOrders} in leg order.
      *
-     * @param workingLeg  the leg to close
+     * @param legs        legs of one exit phase
      * @param exitOrders  accumulator for exit order results
-     * @return int array: [successCount, failureCount] (either [1,0] or [0,1])
+     * @param fills       receives each placed order's fill resolution (thread-safe), or null if not needed
+     * @return int array: [successCount, failureCount]
+     */
+    private int[] processLegExitsConcurrently(List<StrategyExecution.OrderLeg> legs,
+                                              List<Map<String, String>> exitOrders,
+                                              List<CompletableFuture<Double>> fills) {
+        List<CompletableFuture<Map<String, String>>> futures = new ArrayList<>(legs.size());
+        final Consumer<CompletableFuture<Double>> fillSink = fills != null ? fills::add : null;
+        for (StrategyExecution.OrderLeg leg : legs) {
+            futures.add(CompletableFuture.supplyAsync(
+                    CurrentUserContext.wrapSupplier(LatencyTracer.wrapSupplier(() -> processLegExit(leg, fillSink))),
+                    LEG_EXIT_EXECUTOR));
+        }
+
+        int successCount = 0;
+        int failureCount = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Map<String, String> orderResult;
+            try {
+                orderResult = futures.get(i).join();
+            } catch (Exception e) {
+                // processLegExit handles its own errors; this only covers executor failures
+                orderResult = handleLegExitError(legs.get(i), e);
+            }
+            exitOrders.add(orderResult);
+            if (STATUS_SUCCESS.equals(orderResult.get("status"))) {
+                successCount++;
+            } else {
+                failureCount++;
+            }
+        }
+        return new int[]{successCount, failureCount};
+    }
+
+    /**
+     * Hold the hedge phase until the short legs' exit fills are resolved, so hedges are never
+     * sold while a short may still be open (margin / naked exposure). Bounded: a fill that is not
+     * resolved in {@value #SHORT_FILL_WAIT_MS} ms does not keep the hedges open indefinitely.
+     */
+    private void awaitShortLegFills(String executionId, List<CompletableFuture<Double>> shortFills) {
+        if (shortFills.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(shortFills.toArray(new CompletableFuture<?>[0]))
+                    .get(shortFillWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Short-leg exit fills for {} not resolved within {} ms — closing hedges anyway",
+                    executionId, shortFillWaitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted waiting for short-leg exit fills of {} — closing hedges", executionId);
+        } catch (ExecutionException e) {
+            log.warn("Short-leg exit fill resolution failed for {}: {} — closing hedges",
+                    executionId, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+    }
+
+    /**
+     * Override the hedge phase's wait for short-leg fills (package-private for testing).
      */
-    private int[] processLegExitSequential(StrategyExecution.OrderLeg workingLeg,
-                                           List<Map<String, String>> exitOrders) {
+    void setShortFillWaitMs(long shortFillWaitMs) {
+        this.shortFillWaitMs = shortFillWaitMs;
+    }
+
+    /**
+     * Place the exit order for a single leg. The fill price is resolved asynchronously.
+     *
+     * @param workingLeg  the leg to close
+     * @param fillSink    receives the fill resolution of a placed exit order, or null
+     * @return exit order result (tradingSymbol, optionType, exitOrderId, status, message)
+     */
+    private Map<String, String> processLegExit(StrategyExecution.OrderLeg workingLeg,
+                                               Consumer<CompletableFuture<Double>> fillSink) {
         try {
             workingLeg.setLifecycleState(LegLifecycleState.EXIT_PENDING);
-            workingLeg.setExitRequestedAt(System.currentTimeMillis());
+            workingLeg.setExitRequestedAt(TradingClock.currentTimeMillis());
+
+            if (closeLegFromProtectiveStop(workingLeg)) {
+                Map<String, String> orderResult = new HashMap<>();
+                orderResult.put("tradingSymbol", workingLeg.getTradingSymbol());
+                orderResult.put("optionType", workingLeg.getOptionType());
+                orderResult.put("exitOrderId", workingLeg.getExitOrderId());
+                orderResult.put("status", STATUS_SUCCESS);
+                orderResult.put("message", workingLeg.getExitMessage());
+                return orderResult;
+            }
 
             String exitTransactionType = determineExitTransactionType(workingLeg);
 
@@ -736,12 +868,11 @@ public class StrategyService {
             workingLeg.setExitQuantity(workingLeg.getQuantity());
             workingLeg.setExitStatus(response.getStatus());
             workingLeg.setExitMessage(response.getMessage());
-            workingLeg.setExitTimestamp(System.currentTimeMillis());
+            workingLeg.setExitTimestamp(TradingClock.currentTimeMillis());
 
-            Double exitPrice = resolveOrderFillPrice(response.getOrderId());
-            if (exitPrice != null) {
-                workingLeg.setExitPrice(exitPrice);
-                workingLeg.setRealizedPnl(calculateRealizedPnl(workingLeg, exitPrice));
+            CompletableFuture<Double> fill = resolveExitFillAsync(workingLeg, response.getOrderId());
+            if (fillSink != null && STATUS_SUCCESS.equals(response.getStatus())) {
+                fillSink.accept(fill);
             }
 
             Map<String, String> orderResult = new HashMap<>();
@@ -750,29 +881,50 @@ public class StrategyService {
             orderResult.put("exitOrderId", response.getOrderId());
             orderResult.put("status", response.getStatus());
             orderResult.put("message", response.getMessage());
-            exitOrders.add(orderResult);
 
             if (STATUS_SUCCESS.equals(response.getStatus())) {
                 workingLeg.setLifecycleState(LegLifecycleState.EXITED);
-                return new int[]{1, 0};
             } else {
                 workingLeg.setLifecycleState(LegLifecycleState.EXIT_FAILED);
                 log.error("Failed to close {} leg: {} - {}", workingLeg.getOptionType(), workingLeg.getTradingSymbol(), response.getMessage());
-                return new int[]{0, 1};
             }
+            return orderResult;
 
         } catch (KiteException | IOException e) {
-            return handleLegExitError(workingLeg, e, exitOrders);
+            return handleLegExitError(workingLeg, e);
         } catch (Exception e) {
-            return handleLegExitError(workingLeg, e, exitOrders);
+            return handleLegExitError(workingLeg, e);
         }
     }
 
     /**
-     * Handle error during single leg exit in the sequential path.
+     * Resolve an exit order's fill price on the fill-resolution pool and record exit price and
+     * realized P&L on the leg once it is known. Exit completion does not wait for this.
+     *
+     * @param leg     leg whose exit order was placed
+     * @param orderId exit order ID (ignored if null)
+     * @return future completing with the fill price, or null if it could not be resolved
      */
-    private int[] handleLegExitError(StrategyExecution.OrderLeg workingLeg, Throwable e,
-                                     List<Map<String, String>> exitOrders) {
+    private CompletableFuture<Double> resolveExitFillAsync(StrategyExecution.OrderLeg leg, String orderId) {
+        if (orderId == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(
+                CurrentUserContext.wrapSupplier(LatencyTracer.wrapSupplier(() -> {
+                    Double exitPrice = resolveOrderFillPrice(orderId);
+                    if (exitPrice != null) {
+                        leg.setExitPrice(exitPrice);
+                        leg.setRealizedPnl(calculateRealizedPnl(leg, exitPrice));
+                    }
+                    return exitPrice;
+                })),
+                FILL_RESOLUTION_EXECUTOR);
+    }
+
+    /**
+     * Handle error during single leg exit.
+     */
+    private Map<String, String> handleLegExitError(StrategyExecution.OrderLeg workingLeg, Throwable e) {
         workingLeg.setLifecycleState(LegLifecycleState.EXIT_FAILED);
         log.error("Error closing {} leg: {}", workingLeg.getOptionType(), workingLeg.getTradingSymbol(), e);
         Map<String, String> orderResult = new HashMap<>();
@@ -780,8 +932,35 @@ public class StrategyService {
         orderResult.put("optionType", workingLeg.getOptionType());
         orderResult.put("status", STATUS_FAILED);
         orderResult.put("message", "Exception: " + e.getMessage());
-        exitOrders.add(orderResult);
-        return new int[]{0, 1};
+        return orderResult;
+    }
+
+    /**
+     * Release the leg's exchange-resident protective stop ahead of its exit order. If the stop
+     * has already filled, the leg is recorded as exited by that fill and no exit order is needed.
+     *
+     * @param leg leg about to be exited (lifecycle EXIT_PENDING)
+     * @return true if the protective stop closed the leg
+     */
+    public boolean closeLegFromProtectiveStop(StrategyExecution.OrderLeg leg) {
+        ProtectiveStopService.Release release = protectiveStopService.release(leg.getOrderId());
+        if (!release.filled()) {
+            return false;
+        }
+        leg.setExitOrderId(release.stopOrderId());
+        leg.setExitTransactionType(determineExitTransactionType(leg));
+        leg.setExitQuantity(leg.getQuantity());
+        leg.setExitStatus(STATUS_SUCCESS);
+        leg.setExitMessage("Closed by protective stop");
+        leg.setExitTimestamp(TradingClock.currentTimeMillis());
+        if (release.fillPrice() != null) {
+            leg.setExitPrice(release.fillPrice());
+            leg.setRealizedPnl(calculateRealizedPnl(leg, release.fillPrice()));
+        }
+        leg.setLifecycleState(LegLifecycleState.EXITED);
+        log.info("Leg {} already closed by protective stop {} @ {}",
+                leg.getTradingSymbol(), release.stopOrderId(), release.fillPrice());
+        return true;
     }
 
     public String determineExitTransactionType(StrategyExecution.OrderLeg leg) {
@@ -811,16 +990,21 @@ public class StrategyService {
         return TRANSACTION_BUY;
     }
 
+    /**
+     * Fill price of an order: average price, else order price. Read from the order-update stream,
+     * polling order history only if no final update arrives in time
+     * ({@link UnifiedTradingService#getFinalOrderState}).
+     */
     public Double resolveOrderFillPrice(String orderId) {
         if (orderId == null) {
             return null;
         }
         try {
-            List<Order> history = unifiedTradingService.getOrderHistory(orderId);
-            if (history == null || history.isEmpty()) {
+            Order latest = unifiedTradingService.getFinalOrderState(orderId);
+            if (latest == null) {
                 return null;
             }
-            Order latest = history.get(history.size() - 1);
+            LatencyTracer.mark(LatencyStage.FILL);
             if (latest.averagePrice != null && !latest.averagePrice.isEmpty()) {
                 try {
                     return Double.parseDouble(latest.averagePrice);
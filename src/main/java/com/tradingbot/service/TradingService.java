@@ -6,7 +6,10 @@ import com.tradingbot.dto.BasketOrderResponse;
 import com.tradingbot.dto.OrderChargesResponse;
 import com.tradingbot.dto.OrderRequest;
 import com.tradingbot.dto.OrderResponse;
+import com.tradingbot.service.marketdata.PriceSource;
+import com.tradingbot.service.marketdata.SingleFlight;
 import com.tradingbot.service.session.UserSessionManager;
+import com.tradingbot.util.CurrentUserContext;
 import com.zerodhatech.kiteconnect.KiteConnect;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.*;
@@ -17,7 +20,9 @@ import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +39,8 @@ public class TradingService {
     private final KiteConfig kiteConfig;
     private final UserSessionManager sessionManager;
     private final RateLimiterService rateLimiterService;
+    /** Prices that replace Kite's LTP for some users (session replay). */
+    private final PriceSource priceSource;
 
     // ============ INSTRUMENTS CACHE ============
     // Kite instruments API has strict rate limits (1 req/sec).
@@ -44,6 +51,13 @@ public class TradingService {
     private final Map<String, AtomicLong> instrumentsCacheTimestamp = new ConcurrentHashMap<>();
     private final Object instrumentsCacheLock = new Object();
 
+    // ============ SINGLE-FLIGHT QUOTE READS ============
+    // After a restart or a cache miss, strategies, detectors and caches often ask for the same
+    // quotes at the same moment. Concurrent identical getQuote/getLTP calls (same user, same
+    // instrument set) share one in-flight Kite request; see SingleFlight.
+    private final SingleFlight<Map<String, Quote>> quoteFlights = new SingleFlight<>();
+    private final SingleFlight<Map<String, LTPQuote>> ltpFlights = new SingleFlight<>();
+
     /**
      * Generate login URL for Kite Connect authentication
      */
@@ -423,13 +437,16 @@ public class TradingService {
     }
 
     /**
-     * Get quote for instruments
+     * Get quote for instruments.
+     * Concurrent calls for the same instruments share one request; the result is read-only.
      */
     public Map<String, Quote> getQuote(String[] instruments) throws KiteException, IOException {
-        log.debug("Fetching quotes for {} instruments", instruments.length);
-        Map<String, Quote> quotes = kc().getQuote(instruments);
-        log.debug("Fetched quotes for {} instruments", quotes != null ? quotes.size() : 0);
-        return quotes;
+        return quoteFlights.execute(flightKey(instruments), () -> {
+            log.debug("Fetching quotes for {} instruments", instruments.length);
+            Map<String, Quote> quotes = kc().getQuote(instruments);
+            log.debug("Fetched quotes for {} instruments", quotes != null ? quotes.size() : 0);
+            return quotes;
+        });
     }
 
     /**
@@ -443,13 +460,41 @@ public class TradingService {
     }
 
     /**
-     * Get LTP (Last Traded Price)
+     * Get LTP (Last Traded Price).
+     * Concurrent calls for the same instruments share one request; the result is read-only.
      */
     public Map<String, LTPQuote> getLTP(String[] instruments) throws KiteException, IOException {
-        log.debug("Fetching LTP for {} instruments", instruments.length);
-        Map<String, LTPQuote> ltp = kc().getLTP(instruments);
-        log.debug("Fetched LTP for {} instruments", ltp != null ? ltp.size() : 0);
-        return ltp;
+        if (priceSource.isActiveFor(CurrentUserContext.getUserId())) {
+            // e.g. session replay: recorded prices at the current virtual time, never Kite
+            return priceSource.getLTP(instruments);
+        }
+        return ltpFlights.execute(flightKey(instruments), () -> {
+            log.debug("Fetching LTP for {} instruments", instruments.length);
+            Map<String, LTPQuote> ltp = kc().getLTP(instruments);
+            log.debug("Fetched LTP for {} instruments", ltp != null ? ltp.size() : 0);
+            return ltp;
+        });
+    }
+
+    /**
+     * Single-flight key: the current user (calls run on that user's session) plus the instrument
+     * set, order-insensitive.
+     */
+    private static String flightKey(String[] instruments) {
+        String[] sorted = instruments.clone();
+        Arrays.sort(sorted);
+        return CurrentUserContext.getUserId() + "|" + String.join(",", sorted);
+    }
+
+    /**
+     * Single-flight statistics for getQuote/getLTP: calls issued vs. callers deduplicated.
+     */
+    public Map<String, Object> getQuoteCoalescingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("quote", quoteFlights.toMap());
+        stats.put("ltp", ltpFlights.toMap());
+        stats.put("totalDeduplicated", quoteFlights.getDeduplicated() + ltpFlights.getDeduplicated());
+        return stats;
     }
 
     /**
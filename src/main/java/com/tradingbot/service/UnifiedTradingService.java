@@ -12,6 +12,9 @@ import com.tradingbot.paper.PaperAccount;
 import com.tradingbot.paper.PaperOrder;
 import com.tradingbot.paper.PaperPosition;
 import com.tradingbot.paper.PaperTradingService;
+import com.tradingbot.service.latency.LatencyStage;
+import com.tradingbot.service.latency.LatencyTracer;
+import com.tradingbot.service.order.OrderStateCache;
 import com.tradingbot.service.persistence.TradePersistenceService;
 import com.tradingbot.util.CurrentUserContext;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
@@ -27,7 +30,6 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -50,19 +52,25 @@ public class UnifiedTradingService {
     private final TradingService liveTradingService;
     private final PersistenceConfig persistenceConfig;
     private final TradePersistenceService persistenceService;
+    private final OrderStateCache orderStateCache;
 
     /**
-     * Place order - routes to paper or live trading based on config
+     * Place order - routes to paper or live trading based on config.
+     * Tick-triggered exit orders record submit and acknowledgement in {@link LatencyTracer}.
      */
     public OrderResponse placeOrder(OrderRequest orderRequest) throws KiteException, IOException {
         String userId = getUserId();
+        LatencyTracer.mark(LatencyStage.ORDER_SUBMIT);
+        OrderResponse response;
         if (isPaperTradingEnabled()) {
             logPaperMode("Placing paper order for user=" + userId);
-            return paperTradingService.placeOrder(orderRequest, userId);
+            response = paperTradingService.placeOrder(orderRequest, userId);
         } else {
             logLiveMode("Placing live order for user=" + userId);
-            return liveTradingService.placeOrder(orderRequest);
+            response = liveTradingService.placeOrder(orderRequest);
         }
+        LatencyTracer.mark(LatencyStage.ORDER_ACK);
+        return response;
     }
 
     /**
@@ -138,6 +146,50 @@ public class UnifiedTradingService {
         }
     }
 
+    /**
+     * Final state of an order (COMPLETE / REJECTED / CANCELLED) for fill-price resolution.
+     * Taken from the order-update stream when it arrives in time (see {@link OrderStateCache});
+     * otherwise the latest entry of one {@link #getOrderHistory} poll, which is cached as well.
+     *
+     * @return final (or, when polled, latest) order state, or null if the order has no history
+     */
+    public Order getFinalOrderState(String orderId) throws KiteException, IOException {
+        String userId = getUserId();
+        Order streamed = orderStateCache.awaitFinalState(userId, orderId);
+        if (streamed != null) {
+            return streamed;
+        }
+        List<Order> history = getOrderHistory(orderId);
+        if (history == null || history.isEmpty()) {
+            return null;
+        }
+        Order latest = history.get(history.size() - 1);
+        orderStateCache.onOrderUpdate(userId, latest);
+        return latest;
+    }
+
+    /**
+     * Latest known state of an order, without waiting for a final one. Paper orders and, while the
+     * order-update stream is connected, live orders are read from {@link OrderStateCache}; otherwise
+     * one {@link #getOrderHistory} poll when {@code pollIfNotStreamed}, else whatever is cached.
+     *
+     * @return latest order state, or null if none is known
+     */
+    public Order getLatestOrderState(String orderId, boolean pollIfNotStreamed) throws KiteException, IOException {
+        String userId = getUserId();
+        Order cached = orderStateCache.latest(userId, orderId);
+        if (!pollIfNotStreamed || isPaperTradingEnabled() || orderStateCache.isStreamLive(userId)) {
+            return cached;
+        }
+        List<Order> history = getOrderHistory(orderId);
+        if (history == null || history.isEmpty()) {
+            return cached;
+        }
+        Order latest = history.get(history.size() - 1);
+        orderStateCache.onOrderUpdate(userId, latest);
+        return latest;
+    }
+
     /**
      * Get positions
      */
@@ -279,38 +331,10 @@ public class UnifiedTradingService {
 
     private List<Order> convertPaperOrdersToKiteOrders(List<PaperOrder> paperOrders) {
         return paperOrders.stream()
-                .map(this::convertPaperOrderToKiteOrder)
+                .map(PaperOrder::toKiteOrder)
                 .collect(Collectors.toList());
     }
 
-    private Order convertPaperOrderToKiteOrder(PaperOrder paperOrder) {
-        Order order = new Order();
-        order.orderId = paperOrder.getOrderId();
-        order.exchangeOrderId = paperOrder.getExchangeOrderId();
-        order.status = paperOrder.getStatus();
-        order.tradingSymbol = paperOrder.getTradingSymbol();
-        order.exchange = paperOrder.getExchange();
-        order.transactionType = paperOrder.getTransactionType();
-        order.orderType = paperOrder.getOrderType();
-        order.product = paperOrder.getProduct();
-        order.quantity = safeToString(paperOrder.getQuantity());
-        order.price = safeToString(paperOrder.getPrice());
-        order.triggerPrice = safeToString(paperOrder.getTriggerPrice());
-        order.averagePrice = safeToString(paperOrder.getAveragePrice());
-        order.filledQuantity = safeToString(paperOrder.getFilledQuantity());
-        order.pendingQuantity = safeToString(paperOrder.getPendingQuantity());
-        order.disclosedQuantity = safeToString(paperOrder.getDisclosedQuantity());
-        order.validity = paperOrder.getValidity();
-        order.orderTimestamp = paperOrder.getOrderTimestamp() != null ?
-                              Date.from(paperOrder.getOrderTimestamp().atZone(ZoneId.systemDefault()).toInstant()) : null;
-        order.exchangeTimestamp = paperOrder.getExchangeTimestamp() != null ?
-                                 Date.from(paperOrder.getExchangeTimestamp().atZone(ZoneId.systemDefault()).toInstant()) : null;
-        order.statusMessage = paperOrder.getStatusMessage();
-        order.parentOrderId = paperOrder.getParentOrderId();
-        order.tag = paperOrder.getTag();
-        return order;
-    }
-
     private Map<String, List<Position>> convertPaperPositionsToKitePositions(List<PaperPosition> paperPositions) {
         List<Position> netPositions = paperPositions.stream()
                 .map(this::convertPaperPositionToKitePosition)
@@ -0,0 +1,122 @@
+package com.tradingbot.service.greeks;
+
+/**
+ * Black-76 (forward-measure) primitives shared by the IV solver and {@link GreeksKernel}.
+ * <p>
+ * Call price: {@code C = e^(-rT) · [F·N(d1) − K·N(d2)]}, {@code d1 = (ln(F/K) + σ²T/2) / (σ√T)},
+ * {@code d2 = d1 − σ√T}. Pure static functions over primitives — no allocation.
+ * <p>
+ * Two normal CDFs: {@link #normCdf} is accurate to ~1e-14 and is used wherever a price is
+ * computed (the IV solver compares prices against a ₹1e-4 tolerance, and at index-level forwards
+ * a CDF error is multiplied by F). {@link #normCdfFast} uses the cheaper rational {@link #erf}
+ * (|error| ≤ 1.5e-7) and is only used for deltas, where that error is irrelevant to strike selection.
+ *
+ * @since 6.3
+ */
+public final class BlackScholes {
+
+    private static final double INV_SQRT_2 = 1.0 / Math.sqrt(2.0);
+    private static final double INV_SQRT_2PI = 1.0 / Math.sqrt(2.0 * Math.PI);
+    private static final double SQRT_2PI = Math.sqrt(2.0 * Math.PI);
+
+    /** |x| above which the rational branch of {@link #normCdf} switches to the continued fraction. */
+    private static final double CDF_RATIONAL_LIMIT = 7.07106781186547;
+    /** |x| above which N(x) is 0 or 1 in double precision. */
+    private static final double CDF_CUTOFF = 37.0;
+
+    // Hart (1968) double-precision rational approximation, numerator and denominator
+    private static final double CDF_N0 = 220.206867912376;
+    private static final double CDF_N1 = 221.213596169931;
+    private static final double CDF_N2 = 112.079291497871;
+    private static final double CDF_N3 = 33.912866078383;
+    private static final double CDF_N4 = 6.37396220353165;
+    private static final double CDF_N5 = 0.700383064443688;
+    private static final double CDF_N6 = 3.52624965998911e-02;
+    private static final double CDF_D0 = 440.413735824752;
+    private static final double CDF_D1 = 793.826512519948;
+    private static final double CDF_D2 = 637.333633378831;
+    private static final double CDF_D3 = 296.564248779674;
+    private static final double CDF_D4 = 86.7807322029461;
+    private static final double CDF_D5 = 16.064177579207;
+    private static final double CDF_D6 = 1.75566716318264;
+    private static final double CDF_D7 = 8.83883476483184e-02;
+
+    // A&S 7.1.28 coefficients
+    private static final double ERF_A1 = 0.0705230784;
+    private static final double ERF_A2 = 0.0422820123;
+    private static final double ERF_A3 = 0.0092705272;
+    private static final double ERF_A4 = 0.0001520143;
+    private static final double ERF_A5 = 0.0002765672;
+    private static final double ERF_A6 = 0.0000430638;
+
+    private BlackScholes() {}
+
+    /** d1 for forward {@code F}, strike {@code K}, volatility {@code sigma} and {@code sqrtT = √T}. */
+    public static double d1(double forward, double strike, double sigma, double T, double sqrtT) {
+        return (Math.log(forward / strike) + 0.5 * sigma * sigma * T) / (sigma * sqrtT);
+    }
+
+    /** Discounted Black-76 call price. {@code discountFactor = e^(-rT)}. */
+    public static double callPrice(double forward, double strike, double sigma, double T,
+                                   double sqrtT, double discountFactor) {
+        double d1 = d1(forward, strike, sigma, T, sqrtT);
+        double d2 = d1 - sigma * sqrtT;
+        return discountFactor * (forward * normCdf(d1) - strike * normCdf(d2));
+    }
+
+    /**
+     * Standard normal CDF, Hart (1968) as given by West (2005): |error| &lt; 1e-13 over the whole
+     * range. One {@code exp} and a degree-6/7 rational function; the tail beyond
+     * {@code |x| = 5√2} uses a short continued fraction.
+     */
+    public static double normCdf(double x) {
+        double ax = Math.abs(x);
+        double tail;
+        if (ax > CDF_CUTOFF) {
+            tail = 0.0;
+        } else {
+            double e = Math.exp(-0.5 * ax * ax);
+            if (ax < CDF_RATIONAL_LIMIT) {
+                double num = ((((((CDF_N6 * ax + CDF_N5) * ax + CDF_N4) * ax + CDF_N3) * ax + CDF_N2) * ax
+                        + CDF_N1) * ax + CDF_N0);
+                double den = (((((((CDF_D7 * ax + CDF_D6) * ax + CDF_D5) * ax + CDF_D4) * ax + CDF_D3) * ax
+                        + CDF_D2) * ax + CDF_D1) * ax + CDF_D0);
+                tail = e * num / den;
+            } else {
+                double cf = ax + 0.65;
+                cf = ax + 1.0 / cf;
+                cf = ax + 2.0 / cf;
+                cf = ax + 3.0 / cf;
+                cf = ax + 4.0 / cf;
+                tail = e / (cf * SQRT_2PI);
+            }
+        }
+        return x > 0 ? 1.0 - tail : tail;
+    }
+
+    /** Standard normal CDF via the rational {@link #erf} (|error| ≤ 1.5e-7). Deltas only. */
+    public static double normCdfFast(double x) {
+        return 0.5 * (1.0 + erf(x * INV_SQRT_2));
+    }
+
+    /** Standard normal PDF. */
+    public static double normPdf(double x) {
+        return INV_SQRT_2PI * Math.exp(-0.5 * x * x);
+    }
+
+    /**
+     * Error function, Abramowitz &amp; Stegun 7.1.28: {@code 1 − 1 / (1 + a1·x + … + a6·x⁶)^16}
+     * (|error| ≤ 3e-7). A degree-6 polynomial and four squarings — no {@code exp}, no branch beyond
+     * the sign, so it is cheap enough for the per-strike delta kernel. Too coarse for prices:
+     * use {@link #normCdf} there.
+     */
+    public static double erf(double x) {
+        double ax = Math.abs(x);
+        double p = 1.0 + ax * (ERF_A1 + ax * (ERF_A2 + ax * (ERF_A3 + ax * (ERF_A4 + ax * (ERF_A5 + ax * ERF_A6)))));
+        p *= p; // ^2
+        p *= p; // ^4
+        p *= p; // ^8
+        p *= p; // ^16
+        return Math.copySign(1.0 - 1.0 / p, x);
+    }
+}
@@ -2,6 +2,7 @@ package com.tradingbot.service.greeks;
 
 import com.tradingbot.config.PersistenceConfig;
 import com.tradingbot.entity.DeltaSnapshotEntity;
+import com.tradingbot.service.InstrumentCacheService;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.service.persistence.TradePersistenceService;
 import com.tradingbot.service.session.UserSessionManager;
@@ -42,6 +43,7 @@ import static com.tradingbot.service.TradingConstants.*;
 public class DeltaCacheService {
 
     private final TradingService tradingService;
+    private final InstrumentCacheService instrumentCacheService;
     private final UserSessionManager userSessionManager;
     private final PersistenceConfig persistenceConfig;
     private final TradePersistenceService persistenceService;
@@ -50,6 +52,9 @@ public class DeltaCacheService {
     // Key format: "NIFTY_2024-12-19" (instrumentType_expiryDate)
     private final ConcurrentHashMap<String, DeltaCacheEntry> deltaCache = new ConcurrentHashMap<>();
 
+    // Previous refresh's per-strike IVs (warm-start seeds), same keys as deltaCache
+    private final ImpliedVolSeeds ivSeeds = new ImpliedVolSeeds();
+
     // Cache for instruments by expiry
     private final ConcurrentHashMap<String, List<Instrument>> instrumentCache = new ConcurrentHashMap<>();
 
@@ -88,10 +93,12 @@ public class DeltaCacheService {
     // HFT: ThreadLocal Calendar instances
     private static final ThreadLocal<Calendar> CALENDAR_IST = ThreadLocal.withInitial(() -> Calendar.getInstance(IST));
 
-    public DeltaCacheService(TradingService tradingService, UserSessionManager userSessionManager,
+    public DeltaCacheService(TradingService tradingService, InstrumentCacheService instrumentCacheService,
+                              UserSessionManager userSessionManager,
                               PersistenceConfig persistenceConfig,
                               TradePersistenceService persistenceService) {
         this.tradingService = tradingService;
+        this.instrumentCacheService = instrumentCacheService;
         this.userSessionManager = userSessionManager;
         this.persistenceConfig = persistenceConfig;
         this.persistenceService = persistenceService;
@@ -297,11 +304,26 @@ public class DeltaCacheService {
             return approximateATM;
         }
 
+        // Flatten strikes with both mids into primitive arrays for the greeks kernel
+        int n = 0;
+        double[] strikes = new double[midPriceMap.size()];
+        double[] callMids = new double[midPriceMap.size()];
+        double[] putMids = new double[midPriceMap.size()];
+        for (Map.Entry<Double, MidPrices> entry : midPriceMap.entrySet()) {
+            MidPrices prices = entry.getValue();
+            if (!prices.valid()) continue;
+            strikes[n] = entry.getKey();
+            callMids[n] = prices.callMid;
+            putMids[n] = prices.putMid;
+            n++;
+        }
+
         // Calculate forward price
-        double forwardPrice = calculateImpliedForwardPrice(spotPrice, midPriceMap, timeToExpiry);
+        double forwardPrice = GreeksKernel.impliedForward(spotPrice, strikes, callMids, putMids, n,
+                timeToExpiry, RISK_FREE_RATE);
 
         // Compute deltas
-        Map<Double, Double> deltas = computeDeltas(midPriceMap, forwardPrice, timeToExpiry);
+        Map<Double, Double> deltas = computeDeltas(cacheKey, strikes, callMids, n, forwardPrice, timeToExpiry);
 
         if (deltas.isEmpty()) {
             log.warn("Delta computation failed for {}, using simple ATM", cacheKey);
@@ -551,90 +573,29 @@ public class DeltaCacheService {
         }
     }
 
-    private Map<Double, Double> computeDeltas(Map<Double, MidPrices> midPriceMap, double forwardPrice, double timeToExpiry) {
-        Map<Double, Double> deltas = new HashMap<>();
-        double sqrtT = Math.sqrt(timeToExpiry);
-
-        for (Map.Entry<Double, MidPrices> entry : midPriceMap.entrySet()) {
-            double strike = entry.getKey();
-            MidPrices prices = entry.getValue();
+    private Map<Double, Double> computeDeltas(String cacheKey, double[] strikes, double[] callMids, int n,
+                                              double forwardPrice, double timeToExpiry) {
+        // Batch IV solve for all valid strikes, warm-started from the previous refresh
+        double[] ivs = new double[n];
+        ivSeeds.fill(cacheKey, strikes, n, ivs);
+        ImpliedVolatilitySolver.solveChain(strikes, callMids, n, forwardPrice, timeToExpiry,
+                RISK_FREE_RATE, ivs, ivs);
+        ivSeeds.update(cacheKey, strikes, ivs, n);
 
-            if (!prices.valid()) continue;
+        // Delta: N(d1), one kernel pass over the chain
+        double[] callDeltas = new double[n];
+        GreeksKernel.callDeltas(forwardPrice, timeToExpiry, strikes, ivs, n, callDeltas);
 
-            // Calculate IV
-            double iv = solveIV(prices.callMid, forwardPrice, strike, timeToExpiry);
+        Map<Double, Double> deltas = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            double iv = ivs[i];
             if (Double.isNaN(iv) || iv <= 1e-4 || iv > 3.0) continue;
-
-            // Calculate delta: N(d1)
-            double d1 = (Math.log(forwardPrice / strike) + 0.5 * iv * iv * timeToExpiry) / (iv * sqrtT);
-            double delta = cumulativeNormalDistribution(d1);
-
-            deltas.put(strike, delta);
+            deltas.put(strikes[i], callDeltas[i]);
         }
 
         return deltas;
     }
 
-    private double solveIV(double callPrice, double forward, double strike, double T) {
-        if (T <= 0 || callPrice <= 0) return 0.0;
-
-        double discountFactor = Math.exp(-RISK_FREE_RATE * T);
-        double intrinsic = Math.max(0, forward - strike) * discountFactor;
-
-        if (callPrice <= intrinsic * 1.001) return 0.01;
-
-        double sigma = 0.2;
-        double sqrtT = Math.sqrt(T);
-
-        // Newton-Raphson with early termination for speed
-        for (int i = 0; i < 50; i++) { // Reduced iterations for speed
-            double d1 = (Math.log(forward / strike) + 0.5 * sigma * sigma * T) / (sigma * sqrtT);
-            double d2 = d1 - sigma * sqrtT;
-
-            double nd1 = cumulativeNormalDistribution(d1);
-            double nd2 = cumulativeNormalDistribution(d2);
-
-            double theoreticalPrice = discountFactor * (forward * nd1 - strike * nd2);
-            double vega = discountFactor * forward * normalPDF(d1) * sqrtT;
-
-            double priceDiff = theoreticalPrice - callPrice;
-
-            if (Math.abs(priceDiff) < 0.01) { // Looser tolerance for speed
-                return sigma;
-            }
-
-            if (vega < 1e-10) break;
-
-            sigma = sigma - 0.5 * priceDiff / vega;
-            sigma = Math.max(0.01, Math.min(3.0, sigma));
-        }
-
-        return sigma;
-    }
-
-    private double calculateImpliedForwardPrice(double spotPrice, Map<Double, MidPrices> midPriceMap, double timeToExpiry) {
-        List<Double> forwardEstimates = new ArrayList<>();
-        double discountFactor = Math.exp(RISK_FREE_RATE * timeToExpiry);
-
-        for (Map.Entry<Double, MidPrices> entry : midPriceMap.entrySet()) {
-            double strike = entry.getKey();
-            MidPrices prices = entry.getValue();
-            if (prices.valid()) {
-                double forward = strike + (prices.callMid - prices.putMid) * discountFactor;
-                forwardEstimates.add(forward);
-            }
-        }
-
-        if (forwardEstimates.isEmpty()) {
-            return spotPrice * Math.exp(RISK_FREE_RATE * timeToExpiry);
-        }
-
-        Collections.sort(forwardEstimates);
-        int size = forwardEstimates.size();
-        return size % 2 == 1 ? forwardEstimates.get(size / 2) :
-               (forwardEstimates.get(size / 2 - 1) + forwardEstimates.get(size / 2)) / 2.0;
-    }
-
     // ==================== Helper Methods ====================
 
     /**
@@ -657,7 +618,7 @@ public class DeltaCacheService {
      * HFT OPTIMIZED: Get weekly expiry instruments using indexed loop and ThreadLocal Calendar.
      */
     private List<Instrument> getWeeklyExpiryInstruments(String instrumentType) throws KiteException, IOException {
-        List<Instrument> allInstruments = tradingService.getInstruments(EXCHANGE_NFO);
+        List<Instrument> allInstruments = instrumentCacheService.getInstruments(EXCHANGE_NFO);
         String underlyingName = getUnderlyingName(instrumentType);
         Calendar today = CALENDAR_IST.get();
         today.setTimeInMillis(System.currentTimeMillis()); // Reset to current time
@@ -692,7 +653,7 @@ public class DeltaCacheService {
             return cached;
         }
 
-        List<Instrument> allInstruments = tradingService.getInstruments(EXCHANGE_NFO);
+        List<Instrument> allInstruments = instrumentCacheService.getInstruments(EXCHANGE_NFO);
         String underlyingName = getUnderlyingName(instrumentType);
         String expiryStr = sdf.format(expiry);
 
@@ -818,31 +779,6 @@ public class DeltaCacheService {
         return currentMinutes >= marketOpen && currentMinutes <= marketClose;
     }
 
-    private double cumulativeNormalDistribution(double x) {
-        return 0.5 * (1.0 + erf(x / Math.sqrt(2.0)));
-    }
-
-    private double erf(double x) {
-        double a1 = 0.254829592;
-        double a2 = -0.284496736;
-        double a3 = 1.421413741;
-        double a4 = -1.453152027;
-        double a5 = 1.061405429;
-        double p = 0.3275911;
-
-        int sign = x < 0 ? -1 : 1;
-        x = Math.abs(x);
-
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
-
-        return sign * y;
-    }
-
-    private double normalPDF(double x) {
-        return (1.0 / Math.sqrt(2.0 * Math.PI)) * Math.exp(-0.5 * x * x);
-    }
-
     // ==================== Inner Classes ====================
 
     private static final class MidPrices {
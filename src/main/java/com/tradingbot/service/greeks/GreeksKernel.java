@@ -0,0 +1,101 @@
+package com.tradingbot.service.greeks;
+
+import java.util.Arrays;
+
+/**
+ * Chain-wide Black-76 deltas over primitive arrays — the single implementation behind
+ * {@code MarketDataEngine}, {@link DeltaCacheService} and {@code BaseStrategy}.
+ *
+ * <h2>Layout</h2>
+ * Every chain method takes parallel arrays indexed by strike ({@code strikes[i]}, {@code ivs[i]}) plus
+ * a count {@code n}, and writes into caller-owned output arrays. Terms shared by the whole chain
+ * ({@code ln F}, {@code √T}) are hoisted out of the loop; the loop body is a straight-line,
+ * branch-free pass with no allocation, so one refresh costs one {@code log} call per strike and
+ * nothing else. The normal CDF is
+ * {@link BlackScholes#normCdfFast} (rational A&amp;S 7.1.28 erf, no {@code exp}): its 1.5e-7
+ * error is far below what strike selection can resolve. Prices use {@link BlackScholes#normCdf}.
+ *
+ * <h2>Conventions</h2>
+ * Delta is the undiscounted forward call delta {@code N(d1)}, as used for ATM/Δ-strike selection
+ * throughout the bot. Put delta is {@code callDelta − 1}.
+ * Entries with {@code σ ≤ 0} produce NaN or infinite outputs; callers filter on IV validity as before.
+ * {@code T ≤ 0} fills the outputs with NaN.
+ *
+ * @since 6.3
+ */
+public final class GreeksKernel {
+
+    private GreeksKernel() {}
+
+    /**
+     * Call delta {@code N(d1)} only — the hot path for Δ-based strike selection. No {@code exp}.
+     *
+     * @param forward  forward price
+     * @param T        time to expiry in years
+     * @param strikes  strikes (any order)
+     * @param ivs      implied volatility per strike
+     * @param n        number of leading entries to compute
+     * @param outDelta receives {@code N(d1)}; may be the same array as {@code ivs}
+     */
+    public static void callDeltas(double forward, double T, double[] strikes, double[] ivs, int n,
+                                  double[] outDelta) {
+        if (!(T > 0)) {
+            fillNaN(outDelta, n);
+            return;
+        }
+        final double sqrtT = Math.sqrt(T);
+        final double halfT = 0.5 * T;
+        final double logF = Math.log(forward);
+        for (int i = 0; i < n; i++) {
+            double sigma = ivs[i];
+            double d1 = (logF - Math.log(strikes[i]) + sigma * sigma * halfT) / (sigma * sqrtT);
+            outDelta[i] = BlackScholes.normCdfFast(d1);
+        }
+    }
+
+    /** Single-strike call delta {@code N(d1)}. */
+    public static double callDelta(double forward, double strike, double sigma, double T) {
+        if (!(T > 0)) return Double.NaN;
+        double sqrtT = Math.sqrt(T);
+        return BlackScholes.normCdfFast(BlackScholes.d1(forward, strike, sigma, T, sqrtT));
+    }
+
+    /**
+     * Implied forward from put-call parity: the median over strikes of
+     * {@code F = K + e^(rT)·(C − P)}. Strikes where either mid is not positive are ignored; with none
+     * left, falls back to the cost-of-carry forward {@code S·e^(rT)}. The median keeps one stale or
+     * crossed quote from moving the whole chain.
+     *
+     * @param spot         spot price, used only for the fallback
+     * @param strikes      strikes
+     * @param callMids     call mid per strike
+     * @param putMids      put mid per strike
+     * @param n            number of leading entries to use
+     * @param T            time to expiry in years
+     * @param riskFreeRate annual risk-free rate
+     * @return implied forward price
+     */
+    public static double impliedForward(double spot, double[] strikes, double[] callMids, double[] putMids,
+                                        int n, double T, double riskFreeRate) {
+        double growth = Math.exp(riskFreeRate * T);
+        double[] estimates = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double c = callMids[i];
+            double p = putMids[i];
+            if (c > 0 && p > 0) {
+                estimates[count++] = strikes[i] + (c - p) * growth;
+            }
+        }
+        if (count == 0) {
+            return spot * growth;
+        }
+        Arrays.sort(estimates, 0, count);
+        int mid = count >>> 1;
+        return (count & 1) == 1 ? estimates[mid] : 0.5 * (estimates[mid - 1] + estimates[mid]);
+    }
+
+    private static void fillNaN(double[] out, int n) {
+        for (int i = 0; i < n; i++) out[i] = Double.NaN;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tradingbot.service.greeks;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last solved IV per strike, per chain — the warm-start seeds for {@link ImpliedVolatilitySolver}.
+ * <p>
+ * Keyed by a caller-chosen chain key that must include the expiry (e.g. {@code "NIFTY_2025-01-16"}) so
+ * a roll to the next expiry starts cold. Each chain is an immutable pair of strike-sorted primitive
+ * arrays swapped in atomically by {@link #update}; lookups are binary searches.
+ *
+ * @since 6.3
+ */
+public final class ImpliedVolSeeds {
+
+    private final ConcurrentHashMap<String, Chain> chains = new ConcurrentHashMap<>();
+
+    /**
+     * Fill {@code outSeeds[i]} with the previous IV of {@code strikes[i]}, or NaN if unknown.
+     */
+    public void fill(String chainKey, double[] strikes, int n, double[] outSeeds) {
+        Chain chain = chains.get(chainKey);
+        for (int i = 0; i < n; i++) {
+            outSeeds[i] = chain != null ? chain.ivFor(strikes[i]) : Double.NaN;
+        }
+    }
+
+    /**
+     * Record this cycle's solved IVs. Entries that are not usable seeds (≤ 0 or NaN) are dropped.
+     */
+    public void update(String chainKey, double[] strikes, double[] ivs, int n) {
+        double[] s = new double[n];
+        double[] v = new double[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (ivs[i] > 0) {
+                s[count] = strikes[i];
+                v[count] = ivs[i];
+                count++;
+            }
+        }
+        chains.put(chainKey, Chain.sorted(Arrays.copyOf(s, count), Arrays.copyOf(v, count)));
+    }
+
+    public void clear() {
+        chains.clear();
+    }
+
+    public int size() {
+        return chains.size();
+    }
+
+    private record Chain(double[] strikes, double[] ivs) {
+
+        static Chain sorted(double[] strikes, double[] ivs) {
+            // Insertion sort: strikes usually arrive sorted or nearly so
+            for (int i = 1; i < strikes.length; i++) {
+                double ks = strikes[i];
+                double kv = ivs[i];
+                int j = i - 1;
+                while (j >= 0 && strikes[j] > ks) {
+                    strikes[j + 1] = strikes[j];
+                    ivs[j + 1] = ivs[j];
+                    j--;
+                }
+                strikes[j + 1] = ks;
+                ivs[j + 1] = kv;
+            }
+            return new Chain(strikes, ivs);
+        }
+
+        double ivFor(double strike) {
+            int i = Arrays.binarySearch(strikes, strike);
+            return i >= 0 ? ivs[i] : Double.NaN;
+        }
+    }
+}
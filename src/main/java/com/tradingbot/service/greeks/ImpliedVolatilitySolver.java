@@ -0,0 +1,128 @@
+package com.tradingbot.service.greeks;
+
+/**
+ * Implied volatility from call prices under the forward (Black-76) model.
+ *
+ * <h2>Algorithm</h2>
+ * Safeguarded Newton: each iteration takes a full Newton step {@code σ -= (C(σ) − C) / vega}.
+ * Call price is increasing in σ, so every evaluation also tightens a bracket {@code [lo, hi]}
+ * (initially {@link #MIN_VOL}..{@link #MAX_VOL}); whenever the Newton step leaves the bracket or
+ * vega vanishes, the solver bisects instead. Convergence is quadratic near the root and can never
+ * diverge or oscillate.
+ *
+ * <h2>Warm Start</h2>
+ * Callers pass the previous cycle's IV for the same strike as the seed (see {@link ImpliedVolSeeds}).
+ * Between refreshes a few seconds apart IV barely moves, so a seeded solve usually converges in one
+ * or two iterations. Without a seed the Brenner–Subrahmanyam ATM approximation
+ * {@code σ ≈ √(2π/T) · C / (F·e^(-rT))} is used.
+ *
+ * <h2>Edge Cases</h2>
+ * Matches the per-strike solvers it replaces: {@code 0.0} when {@code T ≤ 0} or the price is not
+ * positive, {@link #MIN_VOL} when the price is at (or below) discounted intrinsic value, and the
+ * result is clamped to {@code [MIN_VOL, MAX_VOL]}.
+ *
+ * @since 6.3
+ */
+public final class ImpliedVolatilitySolver {
+
+    public static final double MIN_VOL = 0.01;
+    public static final double MAX_VOL = 3.0;
+
+    /** Absolute price tolerance (₹). */
+    static final double PRICE_TOLERANCE = 1e-4;
+    /** Bracket width at which the solve stops even if the price tolerance is not met. */
+    static final double VOL_TOLERANCE = 1e-8;
+    static final int MAX_ITERATIONS = 40;
+
+    private static final double SQRT_2PI = Math.sqrt(2.0 * Math.PI);
+
+    private ImpliedVolatilitySolver() {}
+
+    /**
+     * Solve a single strike.
+     *
+     * @param callPrice    observed call price (mid)
+     * @param forward      forward price of the underlying
+     * @param strike       strike price
+     * @param T            time to expiry in years
+     * @param riskFreeRate annual risk-free rate (continuous)
+     * @param seed         previous IV for this strike, or NaN / ≤ 0 for a cold start
+     * @return implied volatility
+     */
+    public static double solve(double callPrice, double forward, double strike, double T,
+                               double riskFreeRate, double seed) {
+        if (T <= 0 || callPrice <= 0) return 0.0;
+        double sqrtT = Math.sqrt(T);
+        double discountFactor = Math.exp(-riskFreeRate * T);
+        return solveOne(callPrice, forward, strike, T, sqrtT, discountFactor, seed);
+    }
+
+    /**
+     * Solve every strike of a chain in one pass. Shared terms (√T, discount factor) are computed once;
+     * no allocation.
+     *
+     * @param strikes      strikes (any order)
+     * @param callPrices   call price per strike; entries ≤ 0 yield 0.0
+     * @param n            number of leading entries to solve
+     * @param forward      forward price
+     * @param T            time to expiry in years
+     * @param riskFreeRate annual risk-free rate
+     * @param seeds        previous IV per strike (NaN / ≤ 0 = cold start); may be null
+     * @param out          receives the IV per strike; may be the same array as {@code seeds}
+     */
+    public static void solveChain(double[] strikes, double[] callPrices, int n, double forward, double T,
+                                  double riskFreeRate, double[] seeds, double[] out) {
+        if (T <= 0) {
+            for (int i = 0; i < n; i++) out[i] = 0.0;
+            return;
+        }
+        final double sqrtT = Math.sqrt(T);
+        final double discountFactor = Math.exp(-riskFreeRate * T);
+        for (int i = 0; i < n; i++) {
+            double price = callPrices[i];
+            double seed = seeds != null ? seeds[i] : Double.NaN;
+            out[i] = price > 0
+                    ? solveOne(price, forward, strikes[i], T, sqrtT, discountFactor, seed)
+                    : 0.0;
+        }
+    }
+
+    private static double solveOne(double callPrice, double forward, double strike, double T,
+                                   double sqrtT, double discountFactor, double seed) {
+        double intrinsic = Math.max(0, forward - strike) * discountFactor;
+        if (callPrice <= intrinsic * 1.001) return MIN_VOL;
+
+        double sigma = seed > MIN_VOL && seed < MAX_VOL
+                ? seed
+                : coldStart(callPrice, forward, sqrtT, discountFactor);
+        double lo = MIN_VOL;
+        double hi = MAX_VOL;
+
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double d1 = BlackScholes.d1(forward, strike, sigma, T, sqrtT);
+            double d2 = d1 - sigma * sqrtT;
+            double price = discountFactor * (forward * BlackScholes.normCdf(d1) - strike * BlackScholes.normCdf(d2));
+            double diff = price - callPrice;
+            if (Math.abs(diff) < PRICE_TOLERANCE) return sigma;
+
+            if (diff > 0) {
+                hi = sigma;
+            } else {
+                lo = sigma;
+            }
+            if (hi - lo < VOL_TOLERANCE) return sigma;
+
+            double vega = discountFactor * forward * BlackScholes.normPdf(d1) * sqrtT;
+            double next = vega > 1e-10 ? sigma - diff / vega : Double.NaN;
+            sigma = next > lo && next < hi ? next : 0.5 * (lo + hi);
+        }
+        return sigma;
+    }
+
+    /** Brenner–Subrahmanyam ATM approximation, clamped into the solver's range. */
+    private static double coldStart(double callPrice, double forward, double sqrtT, double discountFactor) {
+        double guess = SQRT_2PI * callPrice / (forward * discountFactor * sqrtT);
+        if (!(guess > MIN_VOL)) return 0.2;
+        return Math.min(guess, 1.0);
+    }
+}
@@ -0,0 +1,192 @@
+package com.tradingbot.service.instrument;
+
+import com.zerodhatech.models.Instrument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of one exchange's instrument dump, read back through a memory map.
+ *
+ * <h2>Layout (big-endian)</h2>
+ * <pre>
+ *   int    magic ("KIM1")
+ *   int    format version
+ *   long   trading day (epoch day, IST) — the dump's version stamp
+ *   long   written-at epoch millis
+ *   int    string count, int record count
+ *   string table: per entry u16 length + UTF-8 bytes
+ *   records: fixed {@value #RECORD_BYTES} bytes each —
+ *            instrument_token, exchange_token, last_price, tick_size, expiry epoch ms (long/double),
+ *            lot_size (int), then string-table refs (-1 = null) for tradingsymbol, name,
+ *            instrument_type, segment, exchange, strike
+ * </pre>
+ * Names, types, segments, exchanges and strikes repeat across tens of thousands of rows, so the
+ * string table stores each distinct value once and the loaded instruments share those instances.
+ * Files are written to a temp file and atomically moved into place, so a reader never sees a
+ * partial file.
+ *
+ * @since 6.3
+ */
+public final class InstrumentMasterFile {
+
+    private static final int MAGIC = 0x4B494D31;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    static final int RECORD_BYTES = 5 * 8 + 4 + 6 * 4;
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+
+    /** Decoded file: the version stamp plus the instruments. */
+    public record Contents(LocalDate tradingDay, long writtenAtMs, List<Instrument> instruments) {}
+
+    private InstrumentMasterFile() {}
+
+    /**
+     * Write {@code instruments} stamped with {@code tradingDay}, replacing {@code file} atomically.
+     */
+    public static void write(Path file, LocalDate tradingDay, List<Instrument> instruments) throws IOException {
+        Map<String, Integer> refs = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int n = instruments.size();
+        int[] stringRefs = new int[n * 6];
+        for (int i = 0; i < n; i++) {
+            Instrument inst = instruments.get(i);
+            int base = i * 6;
+            stringRefs[base] = intern(inst.tradingsymbol, refs, strings);
+            stringRefs[base + 1] = intern(inst.name, refs, strings);
+            stringRefs[base + 2] = intern(inst.instrument_type, refs, strings);
+            stringRefs[base + 3] = intern(inst.segment, refs, strings);
+            stringRefs[base + 4] = intern(inst.exchange, refs, strings);
+            stringRefs[base + 5] = intern(inst.strike, refs, strings);
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(tradingDay.toEpochDay());
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(strings.size());
+                out.writeInt(n);
+                for (byte[] s : strings) {
+                    out.writeShort(s.length);
+                    out.write(s);
+                }
+                for (int i = 0; i < n; i++) {
+                    Instrument inst = instruments.get(i);
+                    out.writeLong(inst.instrument_token);
+                    out.writeLong(inst.exchange_token);
+                    out.writeDouble(inst.last_price);
+                    out.writeDouble(inst.tick_size);
+                    out.writeLong(inst.expiry != null ? inst.expiry.getTime() : NO_EXPIRY);
+                    out.writeInt(inst.lot_size);
+                    int base = i * 6;
+                    for (int f = 0; f < 6; f++) {
+                        out.writeInt(stringRefs[base + f]);
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Memory-map and decode {@code file}.
+     *
+     * @throws IOException if the file cannot be read or is not a valid instrument master file
+     */
+    public static Contents read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("Instrument master file too short: " + file);
+            }
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not an instrument master file (or unsupported version): " + file);
+            }
+            LocalDate tradingDay = LocalDate.ofEpochDay(buf.getLong());
+            long writtenAtMs = buf.getLong();
+            int stringCount = buf.getInt();
+            int n = buf.getInt();
+            if (stringCount < 0 || n < 0) {
+                throw new IOException("Corrupt instrument master header: " + file);
+            }
+
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < stringCount; i++) {
+                int len = Short.toUnsignedInt(buf.getShort());
+                if (len > scratch.length) scratch = new byte[len];
+                buf.get(scratch, 0, len);
+                strings[i] = new String(scratch, 0, len, StandardCharsets.UTF_8);
+            }
+            if (buf.remaining() != (long) n * RECORD_BYTES) {
+                throw new IOException("Corrupt instrument master records: " + file);
+            }
+
+            List<Instrument> instruments = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                Instrument inst = new Instrument();
+                inst.instrument_token = buf.getLong();
+                inst.exchange_token = buf.getLong();
+                inst.last_price = buf.getDouble();
+                inst.tick_size = buf.getDouble();
+                long expiryMs = buf.getLong();
+                inst.expiry = expiryMs != NO_EXPIRY ? new Date(expiryMs) : null;
+                inst.lot_size = buf.getInt();
+                inst.tradingsymbol = lookup(strings, buf.getInt());
+                inst.name = lookup(strings, buf.getInt());
+                inst.instrument_type = lookup(strings, buf.getInt());
+                inst.segment = lookup(strings, buf.getInt());
+                inst.exchange = lookup(strings, buf.getInt());
+                inst.strike = lookup(strings, buf.getInt());
+                instruments.add(inst);
+            }
+            return new Contents(tradingDay, writtenAtMs, instruments);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt instrument master file: " + file, e);
+        }
+    }
+
+    private static int intern(String s, Map<String, Integer> refs, List<byte[]> strings) {
+        if (s == null) return -1;
+        Integer ref = refs.get(s);
+        if (ref != null) return ref;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Instrument field too long: " + bytes.length + " bytes");
+        }
+        int next = strings.size();
+        strings.add(bytes);
+        refs.put(s, next);
+        return next;
+    }
+
+    private static String lookup(String[] strings, int ref) {
+        return ref >= 0 ? strings[ref] : null;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tradingbot.service.instrument;
+
+import com.zerodhatech.models.Instrument;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Daily-versioned instrument dumps on local disk, one file per exchange per trading day.
+ *
+ * <h2>Versioning</h2>
+ * The version of a dump is the trading day it belongs to: the IST date, or the previous date
+ * when fetched before {@code dumpPublishTime} (Kite has not published today's dump yet).
+ * A file is only served for its own trading day, so the first fetch after the publish time
+ * replaces it.
+ *
+ * <h2>Failure Handling</h2>
+ * Disk problems never fail a lookup: an unreadable or corrupt file is logged and deleted, and
+ * the caller falls back to the API. Write errors are logged and the dump stays in memory only.
+ *
+ * @since 6.3
+ */
+@Slf4j
+public final class InstrumentMasterStore {
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final LocalTime dumpPublishTime;
+    private final int retainVersions;
+
+    public InstrumentMasterStore(Path directory, LocalTime dumpPublishTime, int retainVersions) {
+        this.directory = directory;
+        this.dumpPublishTime = dumpPublishTime;
+        this.retainVersions = Math.max(1, retainVersions);
+    }
+
+    /**
+     * Trading day whose dump is current at {@code now} (IST).
+     */
+    public LocalDate tradingDay(ZonedDateTime now) {
+        LocalDate date = now.toLocalDate();
+        return now.toLocalTime().isBefore(dumpPublishTime) ? date.minusDays(1) : date;
+    }
+
+    public Path pathFor(String exchange, LocalDate tradingDay) {
+        return directory.resolve(exchange + "-" + FILE_DATE.format(tradingDay) + SUFFIX);
+    }
+
+    /**
+     * Load the dump for {@code exchange} stamped {@code tradingDay}, or null if there is none.
+     */
+    public InstrumentMasterFile.Contents load(String exchange, LocalDate tradingDay) {
+        Path file = pathFor(exchange, tradingDay);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            InstrumentMasterFile.Contents contents = InstrumentMasterFile.read(file);
+            if (!tradingDay.equals(contents.tradingDay())) {
+                log.warn("Instrument master {} is stamped {} — ignoring", file, contents.tradingDay());
+                return null;
+            }
+            return contents;
+        } catch (IOException e) {
+            log.warn("Discarding unreadable instrument master {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Persist the dump and prune versions beyond {@code retainVersions}. Returns false on failure.
+     */
+    public boolean save(String exchange, LocalDate tradingDay, List<Instrument> instruments) {
+        Path file = pathFor(exchange, tradingDay);
+        try {
+            InstrumentMasterFile.write(file, tradingDay, instruments);
+            prune(exchange);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to persist instrument master {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private void prune(String exchange) throws IOException {
+        List<Path> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, exchange + "-*" + SUFFIX)) {
+            files.forEach(versions::add);
+        }
+        if (versions.size() <= retainVersions) {
+            return;
+        }
+        // yyyyMMdd names sort chronologically
+        Collections.sort(versions);
+        for (int i = 0; i < versions.size() - retainVersions; i++) {
+            deleteQuietly(versions.get(i));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.tradingbot.service.instrument;
+
+import com.zerodhatech.models.Instrument;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, columnar index over one exchange's instrument dump.
+ *
+ * <h2>Layout</h2>
+ * Every instrument is a row; each field is a primitive column (token, strike, expiry, lot size, ...).
+ * Low-cardinality strings (underlying name, instrument type, segment, exchange, strike text) are
+ * stored once in small tables and referenced by id. Only the trading symbol is per row. Compared
+ * with {@code List<Instrument>} from the Kite CSV parser, this drops a per-row object and
+ * {@code Date}, plus the duplicate copy of every repeated string.
+ *
+ * <h2>Indexes (all O(1))</h2>
+ * <ul>
+ *   <li>token → row ({@link LongIntHashMap})</li>
+ *   <li>trading symbol → row ({@link ObjectIntHashMap})</li>
+ *   <li>option contract → row, keyed by {@link #contractKey} — (underlying, expiry day,
+ *       strike×100, CE/PE) packed into a {@code long}</li>
+ *   <li>(underlying, expiry day) → option chain rows sorted by strike (CE before PE)</li>
+ *   <li>underlying → distinct option expiries, ascending</li>
+ * </ul>
+ * Rows are positions in the source list, exposed as {@code int}s so hot callers can read columns
+ * without allocating; {@link #instrument(int)} materializes a Kite {@link Instrument} when needed.
+ *
+ * <h2>Thread Safety</h2>
+ * Built once per dump and never mutated: safe to share across threads.
+ *
+ * @since 6.3
+ */
+public final class InstrumentRegistry {
+
+    public static final int NOT_FOUND = -1;
+
+    /** IST has no DST: a fixed offset maps epoch millis to the IST calendar day without allocation. */
+    private static final long IST_OFFSET_MS = (5 * 60 + 30) * 60_000L;
+    private static final long DAY_MS = 86_400_000L;
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+
+    private static final String OPTION_TYPE_CE = "CE";
+    private static final String OPTION_TYPE_PE = "PE";
+    private static final long[] NO_EXPIRIES = new long[0];
+    private static final int[] NO_ROWS = new int[0];
+
+    // ==================== Columns ====================
+
+    private final long[] tokens;
+    private final long[] exchangeTokens;
+    private final String[] tradingSymbols;
+    private final long[] expiryMs;
+    private final double[] strikes;
+    private final double[] tickSizes;
+    private final double[] lastPrices;
+    private final int[] lotSizes;
+    private final int[] underlyingIds;
+    private final short[] typeIds;
+    private final short[] segmentIds;
+    private final short[] exchangeIds;
+    private final int[] strikeTextIds;
+
+    // ==================== String tables ====================
+
+    private final String[] underlyings;
+    private final String[] types;
+    private final String[] segments;
+    private final String[] exchanges;
+    private final String[] strikeTexts;
+    private final ObjectIntHashMap<String> underlyingIdByName;
+
+    // ==================== Indexes ====================
+
+    private final LongIntHashMap rowByToken;
+    private final ObjectIntHashMap<String> rowBySymbol;
+    private final LongIntHashMap rowByContract;
+    private final LongObjectHashMap<int[]> chainRows;
+    private final long[][] expiriesByUnderlying;
+
+    private InstrumentRegistry(Builder b) {
+        this.tokens = b.tokens;
+        this.exchangeTokens = b.exchangeTokens;
+        this.tradingSymbols = b.tradingSymbols;
+        this.expiryMs = b.expiryMs;
+        this.strikes = b.strikes;
+        this.tickSizes = b.tickSizes;
+        this.lastPrices = b.lastPrices;
+        this.lotSizes = b.lotSizes;
+        this.underlyingIds = b.underlyingIds;
+        this.typeIds = b.typeIds;
+        this.segmentIds = b.segmentIds;
+        this.exchangeIds = b.exchangeIds;
+        this.strikeTextIds = b.strikeTextIds;
+        this.underlyings = b.underlyings.toArray(new String[0]);
+        this.types = b.types.toArray(new String[0]);
+        this.segments = b.segments.toArray(new String[0]);
+        this.exchanges = b.exchanges.toArray(new String[0]);
+        this.strikeTexts = b.strikeTexts.toArray(new String[0]);
+        this.underlyingIdByName = b.underlyingIdByName;
+        this.rowByToken = b.rowByToken;
+        this.rowBySymbol = b.rowBySymbol;
+        this.rowByContract = b.rowByContract;
+        this.chainRows = b.chainRows;
+        this.expiriesByUnderlying = b.expiriesByUnderlying;
+    }
+
+    /**
+     * Build the registry for one exchange's dump. O(n log n) once per trading day.
+     */
+    public static InstrumentRegistry build(List<Instrument> instruments) {
+        return new Builder(instruments).build();
+    }
+
+    /** Registry with no instruments. */
+    public static InstrumentRegistry empty() {
+        return build(Collections.emptyList());
+    }
+
+    // ==================== Keys ====================
+
+    /** IST calendar day (epoch day) of an epoch-millis timestamp. */
+    public static int istEpochDay(long epochMs) {
+        return (int) Math.floorDiv(epochMs + IST_OFFSET_MS, DAY_MS);
+    }
+
+    /**
+     * Packed option contract key: underlying id (16 bits) | IST expiry epoch day (16 bits) |
+     * strike×100 (31 bits) | put flag (1 bit).
+     */
+    public static long contractKey(int underlyingId, int expiryDay, double strike, boolean put) {
+        long strikeCents = Math.round(strike * 100.0);
+        return ((long) underlyingId << 48)
+                | ((long) (expiryDay & 0xFFFF) << 32)
+                | ((strikeCents & 0x7FFF_FFFFL) << 1)
+                | (put ? 1L : 0L);
+    }
+
+    private static long chainKey(int underlyingId, int expiryDay) {
+        return ((long) underlyingId << 32) | (expiryDay & 0xFFFF_FFFFL);
+    }
+
+    // ==================== Lookups ====================
+
+    public int size() {
+        return tokens.length;
+    }
+
+    /** Row of an instrument token, or {@link #NOT_FOUND}. */
+    public int rowOfToken(long token) {
+        return rowByToken.getIfAbsent(token, NOT_FOUND);
+    }
+
+    /** Row of a trading symbol (e.g. "NIFTY25MAR22000CE"), or {@link #NOT_FOUND}. */
+    public int rowOfSymbol(String tradingSymbol) {
+        return tradingSymbol != null ? rowBySymbol.getIfAbsent(tradingSymbol, NOT_FOUND) : NOT_FOUND;
+    }
+
+    /** Id of an underlying name (e.g. "NIFTY"), or {@link #NOT_FOUND}. */
+    public int underlyingId(String underlying) {
+        return underlying != null ? underlyingIdByName.getIfAbsent(underlying, NOT_FOUND) : NOT_FOUND;
+    }
+
+    /**
+     * Row of an option contract, or {@link #NOT_FOUND}.
+     *
+     * @param expiryEpochMs any instant on the expiry's IST calendar day
+     */
+    public int findOption(String underlying, long expiryEpochMs, double strike, boolean put) {
+        int id = underlyingId(underlying);
+        if (id == NOT_FOUND) return NOT_FOUND;
+        return rowByContract.getIfAbsent(contractKey(id, istEpochDay(expiryEpochMs), strike, put), NOT_FOUND);
+    }
+
+    /**
+     * Distinct option expiries (epoch millis as published by Kite) for an underlying, ascending.
+     * The returned array is shared — do not modify.
+     */
+    public long[] optionExpiries(String underlying) {
+        int id = underlyingId(underlying);
+        return id != NOT_FOUND ? expiriesByUnderlying[id] : NO_EXPIRIES;
+    }
+
+    /**
+     * CE and PE rows of one expiry, sorted by strike (CE before PE at each strike).
+     * The returned array is shared — do not modify.
+     */
+    public int[] optionChainRows(String underlying, long expiryEpochMs) {
+        int id = underlyingId(underlying);
+        if (id == NOT_FOUND) return NO_ROWS;
+        int[] rows = chainRows.get(chainKey(id, istEpochDay(expiryEpochMs)));
+        return rows != null ? rows : NO_ROWS;
+    }
+
+    // ==================== Columns ====================
+
+    public long token(int row) {
+        return tokens[row];
+    }
+
+    public String tradingSymbol(int row) {
+        return tradingSymbols[row];
+    }
+
+    public String exchange(int row) {
+        return exchanges[exchangeIds[row]];
+    }
+
+    public String underlying(int row) {
+        int id = underlyingIds[row];
+        return id != NOT_FOUND ? underlyings[id] : null;
+    }
+
+    public String instrumentType(int row) {
+        return types[typeIds[row]];
+    }
+
+    public double strike(int row) {
+        return strikes[row];
+    }
+
+    public long expiryEpochMs(int row) {
+        return expiryMs[row];
+    }
+
+    public int lotSize(int row) {
+        return lotSizes[row];
+    }
+
+    /**
+     * Materialize a Kite {@link Instrument} for a row. Allocates — use column accessors on hot paths.
+     */
+    public Instrument instrument(int row) {
+        Instrument inst = new Instrument();
+        inst.instrument_token = tokens[row];
+        inst.exchange_token = exchangeTokens[row];
+        inst.tradingsymbol = tradingSymbols[row];
+        inst.name = underlying(row);
+        inst.last_price = lastPrices[row];
+        inst.tick_size = tickSizes[row];
+        inst.instrument_type = types[typeIds[row]];
+        inst.segment = segments[segmentIds[row]];
+        inst.exchange = exchanges[exchangeIds[row]];
+        int strikeText = strikeTextIds[row];
+        inst.strike = strikeText != NOT_FOUND ? strikeTexts[strikeText] : null;
+        inst.lot_size = lotSizes[row];
+        inst.expiry = expiryMs[row] != NO_EXPIRY ? new Date(expiryMs[row]) : null;
+        return inst;
+    }
+
+    /** Materialize several rows, in order. */
+    public List<Instrument> instruments(int[] rows) {
+        List<Instrument> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(instrument(row));
+        }
+        return result;
+    }
+
+    // ==================== Builder ====================
+
+    private static final class Builder {
+        final List<Instrument> source;
+        final int n;
+
+        final long[] tokens;
+        final long[] exchangeTokens;
+        final String[] tradingSymbols;
+        final long[] expiryMs;
+        final double[] strikes;
+        final double[] tickSizes;
+        final double[] lastPrices;
+        final int[] lotSizes;
+        final int[] underlyingIds;
+        final short[] typeIds;
+        final short[] segmentIds;
+        final short[] exchangeIds;
+        final int[] strikeTextIds;
+
+        final List<String> underlyings = new ArrayList<>();
+        final List<String> types = new ArrayList<>();
+        final List<String> segments = new ArrayList<>();
+        final List<String> exchanges = new ArrayList<>();
+        final List<String> strikeTexts = new ArrayList<>();
+        final ObjectIntHashMap<String> underlyingIdByName = new ObjectIntHashMap<>();
+        final Map<String, Integer> smallIds = new HashMap<>();
+
+        final LongIntHashMap rowByToken;
+        final ObjectIntHashMap<String> rowBySymbol;
+        final LongIntHashMap rowByContract = new LongIntHashMap();
+        final LongObjectHashMap<int[]> chainRows = new LongObjectHashMap<>();
+        long[][] expiriesByUnderlying;
+
+        Builder(List<Instrument> source) {
+            this.source = source;
+            this.n = source.size();
+            tokens = new long[n];
+            exchangeTokens = new long[n];
+            tradingSymbols = new String[n];
+            expiryMs = new long[n];
+            strikes = new double[n];
+            tickSizes = new double[n];
+            lastPrices = new double[n];
+            lotSizes = new int[n];
+            underlyingIds = new int[n];
+            typeIds = new short[n];
+            segmentIds = new short[n];
+            exchangeIds = new short[n];
+            strikeTextIds = new int[n];
+            rowByToken = new LongIntHashMap(n);
+            rowBySymbol = new ObjectIntHashMap<>(n);
+        }
+
+        InstrumentRegistry build() {
+            Map<Long, IntArrayList> chains = new HashMap<>();
+            for (int row = 0; row < n; row++) {
+                Instrument inst = source.get(row);
+                tokens[row] = inst.instrument_token;
+                exchangeTokens[row] = inst.exchange_token;
+                tradingSymbols[row] = inst.tradingsymbol;
+                expiryMs[row] = inst.expiry != null ? inst.expiry.getTime() : NO_EXPIRY;
+                strikes[row] = parseStrike(inst.strike);
+                tickSizes[row] = inst.tick_size;
+                lastPrices[row] = inst.last_price;
+                lotSizes[row] = inst.lot_size;
+                underlyingIds[row] = inst.name != null ? underlyingId(inst.name) : NOT_FOUND;
+                typeIds[row] = smallId("t", inst.instrument_type, types);
+                segmentIds[row] = smallId("s", inst.segment, segments);
+                exchangeIds[row] = smallId("e", inst.exchange, exchanges);
+                strikeTextIds[row] = inst.strike != null ? textId("k", inst.strike, strikeTexts) : NOT_FOUND;
+
+                rowByToken.put(inst.instrument_token, row);
+                if (inst.tradingsymbol != null) {
+                    rowBySymbol.put(inst.tradingsymbol, row);
+                }
+
+                boolean call = OPTION_TYPE_CE.equals(inst.instrument_type);
+                boolean put = OPTION_TYPE_PE.equals(inst.instrument_type);
+                if ((call || put) && underlyingIds[row] != NOT_FOUND && inst.expiry != null
+                        && !Double.isNaN(strikes[row])) {
+                    int day = istEpochDay(expiryMs[row]);
+                    rowByContract.put(contractKey(underlyingIds[row], day, strikes[row], put), row);
+                    chains.computeIfAbsent(chainKey(underlyingIds[row], day), k -> new IntArrayList()).add(row);
+                }
+            }
+
+            List<List<Long>> expiries = new ArrayList<>();
+            for (int i = 0; i < underlyings.size(); i++) expiries.add(new ArrayList<>());
+            for (Map.Entry<Long, IntArrayList> chain : chains.entrySet()) {
+                int[] rows = sortByStrike(chain.getValue().toArray());
+                chainRows.put(chain.getKey(), rows);
+                int underlyingId = (int) (chain.getKey() >>> 32);
+                expiries.get(underlyingId).add(expiryMs[rows[0]]);
+            }
+            expiriesByUnderlying = new long[underlyings.size()][];
+            for (int i = 0; i < expiriesByUnderlying.length; i++) {
+                long[] sorted = expiries.get(i).stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(sorted);
+                expiriesByUnderlying[i] = sorted;
+            }
+            return new InstrumentRegistry(this);
+        }
+
+        private int underlyingId(String name) {
+            int id = underlyingIdByName.getIfAbsent(name, NOT_FOUND);
+            if (id == NOT_FOUND) {
+                id = underlyings.size();
+                underlyings.add(name);
+                underlyingIdByName.put(name, id);
+            }
+            return id;
+        }
+
+        /** Id of {@code value} in a string table, adding it on first sight. */
+        private int textId(String table, String value, List<String> values) {
+            String key = table + value;
+            Integer id = smallIds.get(key);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                smallIds.put(key, id);
+            }
+            return id;
+        }
+
+        /**
+         * {@link #textId} for the low-cardinality tables stored in {@code short} columns (type,
+         * segment, exchange). Fails the build rather than wrapping into a negative or
+         * {@link #NOT_FOUND} id; strike texts can be numerous and use {@code int} ids.
+         */
+        private short smallId(String table, String value, List<String> values) {
+            int id = textId(table, value, values);
+            if (id > Short.MAX_VALUE) {
+                throw new IllegalStateException("Instrument string table '" + table + "' exceeds "
+                        + (Short.MAX_VALUE + 1) + " distinct values");
+            }
+            return (short) id;
+        }
+
+        /** Sort rows by (strike, CE before PE) using packed primitive keys (row in the low 21 bits). */
+        private int[] sortByStrike(int[] rows) {
+            long[] keys = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                int row = rows[i];
+                long strikeCents = Math.round(strikes[row] * 100.0);
+                long putBit = OPTION_TYPE_PE.equals(types.get(typeIds[row])) ? 1L : 0L;
+                keys[i] = (((strikeCents << 1) | putBit) << 21) | row;
+            }
+            Arrays.sort(keys);
+            int[] sorted = new int[rows.length];
+            for (int i = 0; i < keys.length; i++) {
+                sorted[i] = (int) (keys[i] & 0x1F_FFFF);
+            }
+            return sorted;
+        }
+
+        private static double parseStrike(String strike) {
+            if (strike == null || strike.isEmpty()) return Double.NaN;
+            try {
+                return Double.parseDouble(strike);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+    }
+}
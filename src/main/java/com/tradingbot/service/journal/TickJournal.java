@@ -0,0 +1,365 @@
+package com.tradingbot.service.journal;
+
+import com.tradingbot.config.TickJournalConfig;
+import com.tradingbot.service.strategy.monitoring.DecodedTickBatch;
+import com.tradingbot.service.strategy.monitoring.SubscriptionModeRegistry;
+import com.zerodhatech.models.Tick;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only record of every tick received on the WebSocket feeds, one memory-mapped
+ * {@link TickJournalFile} per trading day.
+ *
+ * <h2>Single Writer</h2>
+ * Each feed (a user's ticker, the engine's market data feed) registers a {@link Producer} and
+ * copies (token, exchange time, receive nanos, LTP, volume, OI) into the producer's preallocated
+ * single-producer ring on its socket thread. One daemon writer thread drains every ring into
+ * the current file and publishes the record count after each pass. A full ring drops journal
+ * records (counted) instead of blocking the socket thread.
+ *
+ * <h2>Daily Roll</h2>
+ * Files are named {@code ticks-<yyyyMMdd>-<part>.jnl}; the part increments when the application
+ * restarts during a day, so every file has a single clock anchor. The writer rolls at IST
+ * midnight and deletes files older than {@code retainDays} trading days.
+ *
+ * @since 6.3
+ */
+@Service
+@Slf4j
+public class TickJournal implements DisposableBean {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String PREFIX = "ticks-";
+    private static final String SUFFIX = ".jnl";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TickJournalConfig config;
+    private final Map<String, Producer> producersByName = new ConcurrentHashMap<>();
+    private volatile Producer[] producers = new Producer[0];
+
+    private final AtomicLong writtenRecords = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    // Writer-thread state
+    private TickJournalFile file;
+    private LocalDate fileDay;
+    private long nextRollEpochMillis;
+
+    public TickJournal(TickJournalConfig config) {
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Ticker mode journaled feeds should subscribe in: {@code tick-journal.subscription-mode} while
+     * the journal is enabled, otherwise LTP.
+     */
+    public SubscriptionModeRegistry.Mode subscriptionMode() {
+        return config.isEnabled() ? config.getSubscriptionMode() : SubscriptionModeRegistry.Mode.LTP;
+    }
+
+    /**
+     * Producer for the feed {@code name}, created on first use. Returns null when the journal is
+     * disabled. One thread at a time may append to a producer.
+     */
+    public Producer producer(String name) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        Producer producer = producersByName.computeIfAbsent(name, n -> {
+            synchronized (this) {
+                Producer p = new Producer(n, producers.length, config.getRingSize());
+                Producer[] grown = Arrays.copyOf(producers, producers.length + 1);
+                grown[grown.length - 1] = p;
+                producers = grown;
+                log.info("Tick journal source {} = {}", p.source, n);
+                return p;
+            }
+        });
+        startWriter();
+        return producer;
+    }
+
+    private synchronized void startWriter() {
+        if (running) return;
+        running = true;
+        Thread t = new Thread(this::writeLoop, "tick-journal-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    // ==================== PRODUCER ====================
+
+    /** Per-feed SPSC ring of primitive journal records. */
+    public static final class Producer {
+        private final String name;
+        private final int source;
+        private final int mask;
+        private final long[] tokens;
+        private final long[] exchangeTimestamps;
+        private final long[] receiveNanos;
+        private final double[] prices;
+        private final long[] volumes;
+        private final long[] openInterests;
+        private final AtomicLong producerSequence = new AtomicLong();
+        private final AtomicLong consumerSequence = new AtomicLong();
+        private long cachedConsumerSequence;
+        private final AtomicLong dropped = new AtomicLong();
+
+        Producer(String name, int source, int requestedCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+            this.name = name;
+            this.source = source;
+            this.mask = capacity - 1;
+            this.tokens = new long[capacity];
+            this.exchangeTimestamps = new long[capacity];
+            this.receiveNanos = new long[capacity];
+            this.prices = new double[capacity];
+            this.volumes = new long[capacity];
+            this.openInterests = new long[capacity];
+        }
+
+        /** Copy one tick into the ring; dropped (and counted) when the ring is full. */
+        public void append(long token, long exchangeTimestamp, long receivedAtNanos,
+                           double ltp, long volume, long openInterest) {
+            final long sequence = producerSequence.get();
+            if (sequence - cachedConsumerSequence > mask) {
+                cachedConsumerSequence = consumerSequence.get();
+                if (sequence - cachedConsumerSequence > mask) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+            final int i = (int) sequence & mask;
+            tokens[i] = token;
+            exchangeTimestamps[i] = exchangeTimestamp;
+            receiveNanos[i] = receivedAtNanos;
+            prices[i] = ltp;
+            volumes[i] = volume;
+            openInterests[i] = openInterest;
+            producerSequence.lazySet(sequence + 1);
+        }
+
+        /** Journal a KiteTicker batch. Volume/OI are 0 in LTP mode. */
+        public void append(ArrayList<Tick> ticks) {
+            final long receivedAt = System.nanoTime();
+            final int count = ticks.size();
+            for (int i = 0; i < count; i++) {
+                final Tick tick = ticks.get(i);
+                final Date exchangeTime = tick.getTickTimestamp();
+                append(tick.getInstrumentToken(), exchangeTime != null ? exchangeTime.getTime() : 0L, receivedAt,
+                        tick.getLastTradedPrice(), (long) tick.getVolumeTradedToday(), (long) tick.getOi());
+            }
+        }
+
+        /** Journal a binary-decoder batch. Must run before the batch is conflated. */
+        public void append(DecodedTickBatch batch) {
+            final int count = batch.size();
+            final long[] t = batch.tokens();
+            final double[] p = batch.prices();
+            final long[] r = batch.timestamps();
+            final long[] e = batch.exchangeTimestamps();
+            final long[] v = batch.volumes();
+            final long[] o = batch.openInterests();
+            for (int i = 0; i < count; i++) {
+                append(t[i], e[i], r[i], p[i], v[i], o[i]);
+            }
+        }
+
+        /** Drain into {@code file}. Writer thread only. */
+        int drainTo(TickJournalFile file) throws IOException {
+            final long from = consumerSequence.get();
+            final long to = producerSequence.get();
+            for (long s = from; s < to; s++) {
+                final int i = (int) s & mask;
+                file.append(tokens[i], source, exchangeTimestamps[i], receiveNanos[i],
+                        prices[i], volumes[i], openInterests[i]);
+                // Release each slot as soon as it is copied so a long drain frees space early
+                consumerSequence.lazySet(s + 1);
+            }
+            return (int) (to - from);
+        }
+
+        /** Discard pending records (writer has no file). Writer thread only. */
+        void skipPending() {
+            consumerSequence.lazySet(producerSequence.get());
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+
+    // ==================== WRITER ====================
+
+    private void writeLoop() {
+        while (running) {
+            int written = drainOnce();
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drainOnce();
+        closeFile();
+    }
+
+    private int drainOnce() {
+        final Producer[] snapshot = producers;
+        try {
+            rollIfDue();
+            if (file == null) {
+                for (Producer p : snapshot) p.skipPending();
+                return 0;
+            }
+            int written = 0;
+            for (Producer p : snapshot) {
+                written += p.drainTo(file);
+            }
+            if (written > 0) {
+                file.commit();
+                writtenRecords.addAndGet(written);
+            }
+            return written;
+        } catch (IOException | RuntimeException e) {
+            writeErrors.incrementAndGet();
+            log.error("Tick journal write failed, reopening on the next pass: {}", e.getMessage(), e);
+            closeFile();
+            nextRollEpochMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            return 0;
+        }
+    }
+
+    private void rollIfDue() throws IOException {
+        // Due at IST midnight, or when the back-off after a write error has passed
+        if (System.currentTimeMillis() < nextRollEpochMillis) {
+            return;
+        }
+        ZonedDateTime istNow = ZonedDateTime.now(IST);
+        LocalDate today = istNow.toLocalDate();
+        nextRollEpochMillis = today.plusDays(1).atStartOfDay(IST).toInstant().toEpochMilli();
+        if (file != null && today.equals(fileDay)) {
+            return;
+        }
+        closeFile();
+        Path directory = Paths.get(config.getDirectory());
+        Files.createDirectories(directory);
+        Path path = nextPartPath(directory, today);
+        file = TickJournalFile.create(path, today, config.getSegmentBytes());
+        fileDay = today;
+        log.info("Tick journal opened {}", path);
+        pruneOldFiles(directory, today);
+    }
+
+    private static Path nextPartPath(Path directory, LocalDate day) {
+        String stem = PREFIX + FILE_DATE.format(day) + "-";
+        int part = 1;
+        while (Files.exists(directory.resolve(stem + part + SUFFIX))) {
+            part++;
+        }
+        return directory.resolve(stem + part + SUFFIX);
+    }
+
+    /** Journal files for {@code day} in part order — the input for replay. */
+    public static List<Path> filesFor(Path directory, LocalDate day) throws IOException {
+        List<Path> parts = new ArrayList<>();
+        String stem = PREFIX + FILE_DATE.format(day) + "-";
+        for (int part = 1; Files.exists(directory.resolve(stem + part + SUFFIX)); part++) {
+            parts.add(directory.resolve(stem + part + SUFFIX));
+        }
+        return parts;
+    }
+
+    private void pruneOldFiles(Path directory, LocalDate today) {
+        LocalDate oldestKept = today.minusDays(Math.max(1, config.getRetainDays()) - 1L);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    LocalDate day = LocalDate.parse(name.substring(PREFIX.length(), PREFIX.length() + 8), FILE_DATE);
+                    if (day.isBefore(oldestKept)) {
+                        Files.deleteIfExists(path);
+                        log.info("Tick journal pruned {}", path);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    log.debug("Tick journal prune skipped {}: {}", name, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Tick journal prune failed: {}", e.getMessage());
+        }
+    }
+
+    private void closeFile() {
+        TickJournalFile current = file;
+        file = null;
+        if (current != null) {
+            try {
+                current.close();
+                log.info("Tick journal closed {} ({} records)", current.path(), current.recordCount());
+            } catch (IOException e) {
+                log.warn("Tick journal close failed for {}: {}", current.path(), e.getMessage());
+            }
+        }
+    }
+
+    // ==================== STATS / LIFECYCLE ====================
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("writtenRecords", writtenRecords.get());
+        stats.put("writeErrors", writeErrors.get());
+        Map<String, Object> sources = new LinkedHashMap<>();
+        for (Producer p : producers) {
+            Map<String, Object> source = new LinkedHashMap<>();
+            source.put("source", p.source);
+            source.put("pending", p.producerSequence.get() - p.consumerSequence.get());
+            source.put("dropped", p.dropped.get());
+            sources.put(p.name, source);
+        }
+        stats.put("sources", sources);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        Thread t = writer;
+        if (t == null) return;
+        running = false;
+        LockSupport.unpark(t);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.tradingbot.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * One append-only, memory-mapped tick journal file. Single writer.
+ *
+ * <h2>Layout</h2>
+ * <pre>
+ * Header (64 bytes, little-endian)
+ *   0  int   magic "TJNL"      4  int  version     8  int  record size (48)
+ *   12 int   trading day (yyyyMMdd)
+ *   16 long  epoch millis at open      24 long System.nanoTime() at open
+ *   32 long  committed record count
+ * Record (48 bytes)
+ *   0  int   instrument token (unsigned)   4  int   source (feed id)
+ *   8  long  exchange timestamp, epoch millis (0 if the packet has none)
+ *   16 long  receive System.nanoTime()
+ *   24 double LTP    32 long volume    40 long OI
+ * </pre>
+ * The file grows by mapping one more segment when the current one is full. Records are visible to
+ * readers once {@link #commit()} publishes the count; records past the count (e.g. after a crash)
+ * are ignored. Receive times convert to wall-clock via the two open-time anchors.
+ *
+ * @since 6.3
+ */
+public final class TickJournalFile implements Closeable {
+
+    static final int MAGIC = 0x4C4E4A54; // "TJNL" little-endian
+    static final int VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+    public static final int RECORD_BYTES = 48;
+    static final int OFFSET_RECORD_COUNT = 32;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final long segmentBytes;
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long recordCount;
+
+    private TickJournalFile(Path path, FileChannel channel, MappedByteBuffer header, long segmentBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.header = header;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Create a new journal file (fails if {@code path} exists).
+     *
+     * @param segmentBytes mapping granularity, rounded down to whole records
+     */
+    public static TickJournalFile create(Path path, LocalDate tradingDay, long segmentBytes) throws IOException {
+        long alignedSegment = Math.max(RECORD_BYTES, segmentBytes - segmentBytes % RECORD_BYTES);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, RECORD_BYTES);
+            header.putInt(12, tradingDay.getYear() * 10_000 + tradingDay.getMonthValue() * 100 + tradingDay.getDayOfMonth());
+            header.putLong(16, System.currentTimeMillis());
+            header.putLong(24, System.nanoTime());
+            header.putLong(OFFSET_RECORD_COUNT, 0L);
+            TickJournalFile file = new TickJournalFile(path, channel, header, alignedSegment);
+            file.mapSegment(HEADER_BYTES);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void mapSegment(long start) throws IOException {
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, start, segmentBytes);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        segmentStart = start;
+    }
+
+    /** Append one record. Visible to readers after the next {@link #commit()}. */
+    public void append(long token, int source, long exchangeTimestamp, long receiveNanos,
+                       double ltp, long volume, long openInterest) throws IOException {
+        if (segment.remaining() < RECORD_BYTES) {
+            mapSegment(segmentStart + segmentBytes);
+        }
+        final MappedByteBuffer s = segment;
+        s.putInt((int) token);
+        s.putInt(source);
+        s.putLong(exchangeTimestamp);
+        s.putLong(receiveNanos);
+        s.putDouble(ltp);
+        s.putLong(volume);
+        s.putLong(openInterest);
+        recordCount++;
+    }
+
+    /** Publish the record count in the header. */
+    public void commit() {
+        header.putLong(OFFSET_RECORD_COUNT, recordCount);
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /** Commit, flush mapped pages to disk and close the channel. */
+    @Override
+    public void close() throws IOException {
+        commit();
+        segment.force();
+        header.force();
+        channel.close();
+    }
+}
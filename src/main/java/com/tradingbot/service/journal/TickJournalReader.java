@@ -0,0 +1,127 @@
+package com.tradingbot.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Sequential cursor over a {@link TickJournalFile}, read through a memory map.
+ * <p>
+ * Flyweight: {@link #next()} advances to the next committed record and the accessors read its
+ * fields — nothing is allocated per record. Not thread-safe.
+ *
+ * @since 6.3
+ */
+public final class TickJournalReader implements Closeable {
+
+    /** Records mapped per window, keeping each mapping well under 2 GB. */
+    private static final long WINDOW_RECORDS = 1L << 22;
+
+    private final FileChannel channel;
+    private final LocalDate tradingDay;
+    private final long epochMillisAtOpen;
+    private final long nanoTimeAtOpen;
+    private final long recordCount;
+
+    private MappedByteBuffer window;
+    private long windowFirstRecord;
+    private long windowRecords;
+    private long index = -1;
+    private int offset;
+
+    public TickJournalReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TickJournalFile.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != TickJournalFile.MAGIC || header.getInt(4) != TickJournalFile.VERSION
+                    || header.getInt(8) != TickJournalFile.RECORD_BYTES) {
+                throw new IOException("Not a tick journal (v" + TickJournalFile.VERSION + "): " + path);
+            }
+            int day = header.getInt(12);
+            this.tradingDay = LocalDate.of(day / 10_000, day / 100 % 100, day % 100);
+            this.epochMillisAtOpen = header.getLong(16);
+            this.nanoTimeAtOpen = header.getLong(24);
+            long committed = header.getLong(TickJournalFile.OFFSET_RECORD_COUNT);
+            long onDisk = (channel.size() - TickJournalFile.HEADER_BYTES) / TickJournalFile.RECORD_BYTES;
+            this.recordCount = Math.max(0, Math.min(committed, onDisk));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Advance to the next record. Returns false at the end of the committed records. */
+    public boolean next() throws IOException {
+        if (index + 1 >= recordCount) {
+            return false;
+        }
+        index++;
+        if (window == null || index >= windowFirstRecord + windowRecords) {
+            windowFirstRecord = index;
+            windowRecords = Math.min(WINDOW_RECORDS, recordCount - index);
+            window = channel.map(FileChannel.MapMode.READ_ONLY,
+                    TickJournalFile.HEADER_BYTES + index * TickJournalFile.RECORD_BYTES,
+                    windowRecords * TickJournalFile.RECORD_BYTES);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        offset = (int) ((index - windowFirstRecord) * TickJournalFile.RECORD_BYTES);
+        return true;
+    }
+
+    public long instrumentToken() {
+        return window.getInt(offset) & 0xFFFF_FFFFL;
+    }
+
+    public int source() {
+        return window.getInt(offset + 4);
+    }
+
+    public long exchangeTimestamp() {
+        return window.getLong(offset + 8);
+    }
+
+    public long receiveNanos() {
+        return window.getLong(offset + 16);
+    }
+
+    /** Receive time as epoch millis, via the file's open-time anchors. */
+    public long receiveEpochMillis() {
+        return epochMillisAtOpen + (receiveNanos() - nanoTimeAtOpen) / 1_000_000L;
+    }
+
+    /** Receive time as epoch nanos (millisecond-accurate anchor, nanosecond spacing between records). */
+    public long receiveEpochNanos() {
+        return epochMillisAtOpen * 1_000_000L + (receiveNanos() - nanoTimeAtOpen);
+    }
+
+    public double lastTradedPrice() {
+        return window.getDouble(offset + 24);
+    }
+
+    public long volume() {
+        return window.getLong(offset + 32);
+    }
+
+    public long openInterest() {
+        return window.getLong(offset + 40);
+    }
+
+    public LocalDate tradingDay() {
+        return tradingDay;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradingbot.service.latency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Actuator endpoint for tick-to-exit-order latency ({@code /actuator/latency}).
+ * <ul>
+ *   <li>{@code GET /actuator/latency} — every stage over all users, plus each user</li>
+ *   <li>{@code GET /actuator/latency/{userId}} — one user's stages (404 if never traced)</li>
+ * </ul>
+ * Values are nanoseconds since the tick was received, see {@link LatencyStage}. Read-only, and
+ * web-exposed outside {@code prod} only: the actuator has no authentication and the body lists
+ * every user ID.
+ *
+ * @since 6.3
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        Map<String, Object> users = new LinkedHashMap<>();
+        for (String userId : new TreeSet<>(LatencyTracer.users())) {
+            users.put(userId, toStages(LatencyTracer.snapshot(userId)));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("unit", "nanoseconds");
+        body.put("stages", toStages(LatencyTracer.snapshotAllUsers()));
+        body.put("users", users);
+        return body;
+    }
+
+    @ReadOperation
+    public Map<String, Object> userLatency(@Selector String userId) {
+        Map<LatencyStage, LatencyHistogram.Snapshot> snapshot = LatencyTracer.snapshot(userId);
+        if (snapshot == null) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("unit", "nanoseconds");
+        body.put("userId", userId);
+        body.put("stages", toStages(snapshot));
+        return body;
+    }
+
+    private static Map<String, Object> toStages(Map<LatencyStage, LatencyHistogram.Snapshot> snapshot) {
+        Map<String, Object> stages = new LinkedHashMap<>();
+        snapshot.forEach((stage, s) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("count", s.count());
+            values.put("mean", s.meanNanos());
+            values.put("p50", s.p50Nanos());
+            values.put("p99", s.p99Nanos());
+            values.put("p999", s.p999Nanos());
+            values.put("max", s.maxNanos());
+            stages.put(stage.key(), values);
+        });
+        return stages;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tradingbot.service.latency;
+
+/**
+ * Points on the tick-to-exit-order path. Each stage is measured as elapsed time since the
+ * oldest tick of the batch that caused it was received off the socket.
+ *
+ * @since 6.3
+ */
+public enum LatencyStage {
+
+    /** Batch handed to the dispatch table (after journal append, ring handoff and conflation). */
+    DISPATCH("dispatch"),
+
+    /** A monitor finished evaluating its exit strategies for the batch. */
+    EVALUATE("evaluate"),
+
+    /** An exit (all legs or one leg) was decided and the exit callback invoked. */
+    EXIT_CALLBACK("exitCallback"),
+
+    /** Exit order entered {@code UnifiedTradingService.placeOrder}. */
+    ORDER_SUBMIT("orderSubmit"),
+
+    /** Paper or live broker returned the exit order response. */
+    ORDER_ACK("orderAck"),
+
+    /** Exit fill price resolved from order history. */
+    FILL("fill");
+
+    private final String key;
+
+    LatencyStage(String key) {
+        this.key = key;
+    }
+
+    /** Name used in the actuator output. */
+    public String key() {
+        return key;
+    }
+}
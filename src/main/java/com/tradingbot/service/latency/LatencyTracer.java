@@ -0,0 +1,179 @@
+package com.tradingbot.service.latency;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Tick-to-exit-order latency tracing: per-user, per-{@link LatencyStage} {@link LatencyHistogram}s.
+ *
+ * <h2>Trace Propagation</h2>
+ * The tick thread opens a trace with {@link #beginTick(String, long)} before dispatching a batch
+ * and closes it with {@link #endTick()}. While it is open, {@link #mark(LatencyStage)} records
+ * {@code System.nanoTime() - receiveNanos} for the trace's user. Exit orders placed on executor
+ * threads keep the trace by wrapping the task with {@link #wrapSupplier(Supplier)}, the same way
+ * {@code CurrentUserContext.wrapSupplier} carries the user. Code not running under a trace (REST
+ * orders, scheduled jobs) records nothing, so the histograms contain only tick-triggered work.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>One reusable trace per thread; the user's histogram array is cached on it, so the tick
+ *       path does no map lookup while the user does not change</li>
+ *   <li>{@link #mark(LatencyStage)} is a thread-local read plus a lock-free histogram record</li>
+ *   <li>Only a wrapped exit task allocates (one trace copy per exit order)</li>
+ * </ul>
+ *
+ * <p>Static because the recording points include non-bean classes on the tick path
+ * ({@code PositionMonitorV2}, {@code TickEvaluator}). Replayed batches are never traced (their
+ * receive times are recorded epoch nanos, not {@link System#nanoTime()}); {@code WebSocketService}
+ * skips {@link #beginTick} for the replay feed only.
+ *
+ * @since 6.3
+ */
+public final class LatencyTracer {
+
+    private static final LatencyStage[] STAGES = LatencyStage.values();
+
+    private static final Map<String, LatencyHistogram[]> HISTOGRAMS_BY_USER = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Trace> CURRENT = ThreadLocal.withInitial(Trace::new);
+
+    private LatencyTracer() {}
+
+    // ==================== TRACE LIFECYCLE ====================
+
+    /**
+     * Open a trace on the current thread and record {@link LatencyStage#DISPATCH}.
+     *
+     * @param userId       owner of the tick feed
+     * @param receiveNanos {@link System#nanoTime()} when the oldest tick of the batch was received
+     */
+    public static void beginTick(String userId, long receiveNanos) {
+        if (userId == null) {
+            return;
+        }
+        final Trace trace = CURRENT.get();
+        if (!userId.equals(trace.userId)) {
+            trace.userId = userId;
+            trace.histograms = histogramsFor(userId);
+        }
+        trace.receiveNanos = receiveNanos;
+        trace.active = true;
+        trace.histograms[LatencyStage.DISPATCH.ordinal()].record(System.nanoTime() - receiveNanos);
+    }
+
+    /** Close the current thread's trace. Always call in a finally block after {@link #beginTick}. */
+    public static void endTick() {
+        CURRENT.get().active = false;
+    }
+
+    /**
+     * Record {@code stage} against the current thread's trace. No-op when no trace is open.
+     * HFT-SAFE: no locks, no allocation.
+     */
+    public static void mark(LatencyStage stage) {
+        final Trace trace = CURRENT.get();
+        if (trace.active) {
+            trace.histograms[stage.ordinal()].record(System.nanoTime() - trace.receiveNanos);
+        }
+    }
+
+    /**
+     * Wrap a supplier so it runs under the current thread's trace on another thread.
+     * Returns {@code supplier} unchanged when no trace is open.
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+        final Trace captured = CURRENT.get();
+        if (!captured.active) {
+            return supplier;
+        }
+        final String userId = captured.userId;
+        final LatencyHistogram[] histograms = captured.histograms;
+        final long receiveNanos = captured.receiveNanos;
+        return () -> {
+            final Trace trace = CURRENT.get();
+            final String previousUserId = trace.userId;
+            final LatencyHistogram[] previousHistograms = trace.histograms;
+            final long previousReceiveNanos = trace.receiveNanos;
+            final boolean previousActive = trace.active;
+            trace.userId = userId;
+            trace.histograms = histograms;
+            trace.receiveNanos = receiveNanos;
+            trace.active = true;
+            try {
+                return supplier.get();
+            } finally {
+                trace.userId = previousUserId;
+                trace.histograms = previousHistograms;
+                trace.receiveNanos = previousReceiveNanos;
+                trace.active = previousActive;
+            }
+        };
+    }
+
+    // ==================== READ SIDE ====================
+
+    /** Users traced at least once since startup. */
+    public static Set<String> users() {
+        return Collections.unmodifiableSet(HISTOGRAMS_BY_USER.keySet());
+    }
+
+    /** Per-stage snapshot for one user, or null if the user has no traces. */
+    public static Map<LatencyStage, LatencyHistogram.Snapshot> snapshot(String userId) {
+        final LatencyHistogram[] histograms = HISTOGRAMS_BY_USER.get(userId);
+        return histograms != null ? snapshotOf(histograms) : null;
+    }
+
+    /** Per-stage snapshot over all users. */
+    public static Map<LatencyStage, LatencyHistogram.Snapshot> snapshotAllUsers() {
+        final LatencyHistogram[] merged = newHistograms();
+        for (LatencyHistogram[] histograms : HISTOGRAMS_BY_USER.values()) {
+            for (int i = 0; i < STAGES.length; i++) {
+                merged[i].add(histograms[i]);
+            }
+        }
+        return snapshotOf(merged);
+    }
+
+    /** Clear all recorded values for every user. */
+    public static void reset() {
+        for (LatencyHistogram[] histograms : HISTOGRAMS_BY_USER.values()) {
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private static LatencyHistogram[] histogramsFor(String userId) {
+        return HISTOGRAMS_BY_USER.computeIfAbsent(userId, ignored -> newHistograms());
+    }
+
+    private static LatencyHistogram[] newHistograms() {
+        final LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    private static Map<LatencyStage, LatencyHistogram.Snapshot> snapshotOf(LatencyHistogram[] histograms) {
+        final Map<LatencyStage, LatencyHistogram.Snapshot> snapshot = new EnumMap<>(LatencyStage.class);
+        for (LatencyStage stage : STAGES) {
+            snapshot.put(stage, histograms[stage.ordinal()].snapshot());
+        }
+        return snapshot;
+    }
+
+    /** Mutable per-thread trace, reused across batches. */
+    private static final class Trace {
+        String userId;
+        LatencyHistogram[] histograms;
+        long receiveNanos;
+        boolean active;
+    }
+}
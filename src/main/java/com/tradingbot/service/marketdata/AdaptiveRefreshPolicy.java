@@ -0,0 +1,100 @@
+package com.tradingbot.service.marketdata;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Decides how long a market-data refresh task waits before its next run.
+ *
+ * <h2>Rules (in priority order)</h2>
+ * <ol>
+ *   <li><b>Idle</b> — nobody has read the task's output for {@code idleAfterMs}: stretch the base
+ *       interval by {@code idleFactor}, capped at {@code maxIdleIntervalMs} (never below base).
+ *       Demand wins over volatility: a fast market nobody trades is not worth API budget.</li>
+ *   <li><b>Tight</b> — spot is moving faster than {@code fastMoveBpsPerMinute}, or today is the
+ *       instrument's expiry day: shrink the base interval by the matching factor(s), floored at
+ *       {@code minIntervalMs}.</li>
+ *   <li><b>Base</b> — otherwise the configured interval.</li>
+ * </ol>
+ * Market-closed pausing is separate: see {@link #millisUntilMarketOpen}.
+ *
+ * <p>Immutable and allocation-light; evaluated once per task run, off the tick path.
+ *
+ * @since 6.3
+ */
+public final class AdaptiveRefreshPolicy {
+
+    private static final LocalTime MARKET_OPEN = LocalTime.of(9, 15);
+
+    /** Interval decision with a short reason for monitoring ({@code base}, {@code fast-move}, ...). */
+    public record Interval(long ms, String reason) {}
+
+    private final double fastMoveBpsPerMinute;
+    private final double fastMoveFactor;
+    private final double expiryDayFactor;
+    private final long minIntervalMs;
+    private final long idleAfterMs;
+    private final double idleFactor;
+    private final long maxIdleIntervalMs;
+
+    public AdaptiveRefreshPolicy(double fastMoveBpsPerMinute, double fastMoveFactor, double expiryDayFactor,
+                                 long minIntervalMs, long idleAfterMs, double idleFactor, long maxIdleIntervalMs) {
+        this.fastMoveBpsPerMinute = fastMoveBpsPerMinute;
+        this.fastMoveFactor = fastMoveFactor;
+        this.expiryDayFactor = expiryDayFactor;
+        this.minIntervalMs = minIntervalMs;
+        this.idleAfterMs = idleAfterMs;
+        this.idleFactor = idleFactor;
+        this.maxIdleIntervalMs = maxIdleIntervalMs;
+    }
+
+    /**
+     * @param baseMs            configured interval of the task
+     * @param moveBpsPerMinute  recent absolute spot move (see {@link #moveBpsPerMinute}); NaN if unknown
+     * @param expiryDay         today is the instrument's nearest expiry
+     * @param msSinceLastRead   time since a consumer last read the task's output
+     */
+    public Interval next(long baseMs, double moveBpsPerMinute, boolean expiryDay, long msSinceLastRead) {
+        if (msSinceLastRead >= idleAfterMs) {
+            long idle = Math.min((long) (baseMs * idleFactor), maxIdleIntervalMs);
+            return new Interval(Math.max(baseMs, idle), "idle");
+        }
+
+        boolean fastMove = moveBpsPerMinute >= fastMoveBpsPerMinute;
+        if (!fastMove && !expiryDay) {
+            return new Interval(baseMs, "base");
+        }
+        double factor = 1.0;
+        if (fastMove) factor *= fastMoveFactor;
+        if (expiryDay) factor *= expiryDayFactor;
+        long tight = Math.max(Math.min(minIntervalMs, baseMs), Math.round(baseMs * factor));
+        String reason = fastMove && expiryDay ? "fast-move+expiry" : fastMove ? "fast-move" : "expiry";
+        return new Interval(Math.min(baseMs, tight), reason);
+    }
+
+    /**
+     * Absolute spot move between two samples in basis points per minute; NaN if either sample is
+     * missing or no time has passed.
+     */
+    public static double moveBpsPerMinute(double previousSpot, double spot, long elapsedMs) {
+        if (!(previousSpot > 0) || !(spot > 0) || elapsedMs <= 0) return Double.NaN;
+        return Math.abs(spot - previousSpot) / previousSpot * 10_000.0 * (60_000.0 / elapsedMs);
+    }
+
+    /**
+     * Milliseconds from {@code now} (IST) until the next 09:15 weekday open; 0 if it is a weekday
+     * exactly at the open. Exchange holidays are not known here — a holiday costs one probe at 09:15.
+     */
+    public static long millisUntilMarketOpen(ZonedDateTime now) {
+        ZonedDateTime open = now.with(MARKET_OPEN);
+        if (now.isAfter(open)) {
+            open = open.plusDays(1);
+        }
+        while (open.getDayOfWeek() == DayOfWeek.SATURDAY || open.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            open = open.plusDays(1);
+        }
+        return Duration.between(now, open).toMillis();
+    }
+}
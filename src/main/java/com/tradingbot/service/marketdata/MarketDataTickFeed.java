@@ -0,0 +1,243 @@
+package com.tradingbot.service.marketdata;
+
+import com.tradingbot.config.KiteConfig;
+import com.tradingbot.service.journal.TickJournal;
+import com.tradingbot.service.session.UserSessionManager;
+import com.zerodhatech.kiteconnect.KiteConnect;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Tick;
+import com.zerodhatech.ticker.KiteTicker;
+import com.zerodhatech.ticker.OnError;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Dedicated KiteTicker connection for engine-level market data (index spot + near-ATM options).
+ *
+ * <h2>Architecture</h2>
+ * Separate from the per-user {@code WebSocketService} tickers that drive position monitors:
+ * the engine is user-agnostic and borrows the access token of any active session. Ticks are
+ * handed to a single registered listener (the {@code MarketDataEngine}) on KiteTicker's thread.
+ *
+ * <h2>Lifecycle</h2>
+ * <ul>
+ *   <li>{@link #ensureConnected(String)} is called from the engine's spot refresh cycle, which
+ *       doubles as the reconnection loop — no separate reconnect scheduler is needed</li>
+ *   <li>{@link #updateSubscriptions(Set)} diffs the desired token set against the current one and
+ *       only sends subscribe/unsubscribe frames for the delta</li>
+ *   <li>Subscriptions use LTP mode: the engine needs last price only, and LTP frames are the smallest.
+ *       While the tick journal is enabled they use {@code tick-journal.subscription-mode}, so the
+ *       journal records volume, OI and exchange time</li>
+ * </ul>
+ *
+ * @since 6.3
+ */
+@Component
+@Slf4j
+public class MarketDataTickFeed {
+
+    private final KiteConfig kiteConfig;
+    private final UserSessionManager userSessionManager;
+
+    private final AtomicBoolean connected = new AtomicBoolean(false);
+    private final AtomicBoolean connecting = new AtomicBoolean(false);
+    private final AtomicLong tickBatchCount = new AtomicLong(0);
+
+    /** Tokens currently subscribed on the ticker. Guarded by {@code this}. */
+    private final Set<Long> subscribedTokens = new HashSet<>();
+
+    private volatile KiteTicker ticker;
+    private volatile String connectedUserId;
+    private volatile Consumer<ArrayList<Tick>> tickListener;
+    /** Tick journal ring for this feed; null when tick-journal.enabled is false. */
+    private final TickJournal.Producer journal;
+    /** KiteTicker mode for new subscriptions. */
+    private final String subscriptionMode;
+
+    public MarketDataTickFeed(KiteConfig kiteConfig, UserSessionManager userSessionManager,
+                              TickJournal tickJournal) {
+        this.kiteConfig = kiteConfig;
+        this.userSessionManager = userSessionManager;
+        this.journal = tickJournal.producer("market-data-feed");
+        this.subscriptionMode = tickJournal.subscriptionMode().kiteMode();
+    }
+
+    /**
+     * Register the consumer for tick batches. Invoked on KiteTicker's thread; must not block.
+     */
+    public void setTickListener(Consumer<ArrayList<Tick>> listener) {
+        this.tickListener = listener;
+    }
+
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    public String getConnectedUserId() {
+        return connectedUserId;
+    }
+
+    public long getTickBatchCount() {
+        return tickBatchCount.get();
+    }
+
+    public synchronized int getSubscribedTokenCount() {
+        return subscribedTokens.size();
+    }
+
+    /**
+     * Connect the ticker using the given user's access token, if not already connected or connecting.
+     */
+    public void ensureConnected(String userId) {
+        if (connected.get() || !connecting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            KiteConnect kc = userSessionManager.getKiteForUserOrNull(userId);
+            String accessToken = kc != null ? kc.getAccessToken() : null;
+            if (accessToken == null || accessToken.isEmpty()) {
+                log.debug("MarketDataTickFeed: no access token for user {}, feed not started", userId);
+                connecting.set(false);
+                return;
+            }
+
+            KiteTicker previous = ticker;
+            ticker = null; // detach first so the old socket's callbacks are ignored
+            if (previous != null) {
+                try { previous.disconnect(); } catch (Exception ignore) {}
+            }
+
+            KiteTicker t = new KiteTicker(accessToken, kiteConfig.getApiKey());
+            t.setOnConnectedListener(() -> onConnected(t));
+            t.setOnDisconnectedListener(() -> onDisconnected(t));
+            t.setOnErrorListener(new OnError() {
+                @Override
+                public void onError(Exception e) { handleError(t, e.getMessage()); }
+                @Override
+                public void onError(KiteException e) { handleError(t, e.message); }
+                @Override
+                public void onError(String message) { handleError(t, message); }
+            });
+            t.setOnTickerArrivalListener(ticks -> onTicks(t, ticks));
+            t.setTryReconnection(false); // reconnection driven by the engine's refresh cycle
+
+            ticker = t;
+            connectedUserId = userId;
+            t.connect();
+            log.info("MarketDataTickFeed connecting with session of user {}", userId);
+        } catch (Exception e) {
+            log.warn("MarketDataTickFeed connect failed: {}", e.getMessage());
+            connecting.set(false);
+        }
+    }
+
+    /**
+     * Bring the ticker's subscriptions in line with {@code desired}. No-op when not connected;
+     * the full set is resubscribed on the next connect.
+     */
+    public synchronized void updateSubscriptions(Set<Long> desired) {
+        KiteTicker t = ticker;
+        if (!connected.get() || t == null) {
+            return;
+        }
+
+        ArrayList<Long> toAdd = new ArrayList<>();
+        for (Long token : desired) {
+            if (!subscribedTokens.contains(token)) toAdd.add(token);
+        }
+        ArrayList<Long> toRemove = new ArrayList<>();
+        for (Long token : subscribedTokens) {
+            if (!desired.contains(token)) toRemove.add(token);
+        }
+
+        try {
+            if (!toRemove.isEmpty()) {
+                t.unsubscribe(toRemove);
+                toRemove.forEach(subscribedTokens::remove);
+            }
+            if (!toAdd.isEmpty()) {
+                t.subscribe(toAdd);
+                t.setMode(toAdd, subscriptionMode);
+                subscribedTokens.addAll(toAdd);
+            }
+            if (!toAdd.isEmpty() || !toRemove.isEmpty()) {
+                log.debug("MarketDataTickFeed subscriptions: +{} -{} (total {})",
+                        toAdd.size(), toRemove.size(), subscribedTokens.size());
+            }
+        } catch (Exception e) {
+            log.warn("MarketDataTickFeed subscription update failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void disconnect() {
+        KiteTicker t = ticker;
+        if (t != null) {
+            try { t.disconnect(); } catch (Exception ignore) {}
+        }
+        ticker = null;
+        connected.set(false);
+        connecting.set(false);
+        synchronized (this) {
+            subscribedTokens.clear();
+        }
+    }
+
+    // ==================== TICKER CALLBACKS ====================
+    // Callbacks from a replaced ticker are ignored so a late disconnect or tick batch of the old
+    // socket cannot clobber the state of the new one.
+
+    private void onConnected(KiteTicker source) {
+        if (source != ticker) return;
+        connected.set(true);
+        connecting.set(false);
+        synchronized (this) {
+            subscribedTokens.clear(); // fresh socket has no subscriptions; engine resubscribes next cycle
+        }
+        log.info("MarketDataTickFeed connected (user={})", connectedUserId);
+    }
+
+    private void onDisconnected(KiteTicker source) {
+        if (source != ticker) return;
+        connected.set(false);
+        connecting.set(false);
+        log.warn("MarketDataTickFeed disconnected — REST polling fallback active until reconnect");
+    }
+
+    private void handleError(KiteTicker source, String message) {
+        if (source != ticker) return;
+        connected.set(false);
+        connecting.set(false);
+        log.warn("MarketDataTickFeed error: {}", message);
+    }
+
+    private void onTicks(KiteTicker source, ArrayList<Tick> ticks) {
+        // A replaced socket may still deliver a batch while the new one is live: the price table
+        // and the bar aggregator are single-writer, so only the current ticker may write
+        if (source != ticker) return;
+        Consumer<ArrayList<Tick>> listener = tickListener;
+        if (ticks == null || ticks.isEmpty()) {
+            return;
+        }
+        if (journal != null) {
+            journal.append(ticks);
+        }
+        if (listener == null) {
+            return;
+        }
+        tickBatchCount.incrementAndGet();
+        try {
+            listener.accept(ticks);
+        } catch (Exception e) {
+            log.warn("MarketDataTickFeed listener error: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.HistoricalData;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process 1-minute OHLCV bar builder fed by the engine's tick stream.
+ *
+ * <h2>Bar Boundaries</h2>
+ * Bars are keyed by IST epoch minute ({@code floorDiv(epochMs + 5:30, 60s)}); IST has no DST, so the
+ * fixed offset is exact. Only the NSE cash session is kept (09:15 ≤ bar start &lt; 15:30). A bar is
+ * finalized by the first tick of the next minute, or by {@link #rollover(long, long)} when the feed is
+ * quiet, and the owner is told so it can publish the new candle list immediately.
+ *
+ * <h2>Storage</h2>
+ * Per token, finalized bars live in a fixed-capacity primitive ring buffer (minute, O/H/L/C, volume).
+ * {@link HistoricalData} objects are only materialized for {@link #snapshot(long)} and cached per slot,
+ * so each finalized bar is allocated at most once.
+ *
+ * <h2>Completeness</h2>
+ * A series is <em>complete</em> when it covers the session from 09:15 without missing minutes — either
+ * because ticks have been seen since the open or because a REST backfill filled the history. A skipped
+ * minute (feed gap) or a mid-session start clears the flag; the owner then backfills once via REST.
+ *
+ * <h2>Thread Safety</h2>
+ * The token → series map is copy-on-write (registration is rare); each series is guarded by its own
+ * monitor — the ticker thread and the engine's refresh threads rarely contend on it.
+ *
+ * @since 6.3
+ */
+public final class MinuteBarAggregator {
+
+    static final long IST_OFFSET_MS = 19_800_000L;
+    static final long MINUTE_MS = 60_000L;
+    static final int MINUTES_PER_DAY = 1440;
+    /** 09:15 IST — first bar of the cash session (minute of day). */
+    static final int SESSION_OPEN_MINUTE = 9 * 60 + 15;
+    /** 15:30 IST — bars start strictly before this minute of day. */
+    static final int SESSION_CLOSE_MINUTE = 15 * 60 + 30;
+
+    /** Kite historical candle timestamp format, e.g. {@code 2025-01-15T09:15:00+0530}. */
+    private static final DateTimeFormatter KITE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ");
+    private static final ZoneOffset IST_OFFSET = ZoneOffset.ofHoursMinutes(5, 30);
+
+    private final int capacity;
+    private final AtomicLong barsFinalized = new AtomicLong(0);
+
+    private volatile LongObjectHashMap<BarSeries> seriesByToken = new LongObjectHashMap<>();
+
+    public MinuteBarAggregator(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Bar buffer capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /** Start building bars for {@code token}. Idempotent. */
+    public synchronized void register(long token) {
+        if (seriesByToken.containsKey(token)) return;
+        LongObjectHashMap<BarSeries> next = new LongObjectHashMap<>(seriesByToken);
+        next.put(token, new BarSeries(capacity));
+        seriesByToken = next;
+    }
+
+    public boolean isRegistered(long token) {
+        return seriesByToken.containsKey(token);
+    }
+
+    public long getBarsFinalized() {
+        return barsFinalized.get();
+    }
+
+    // ==================== FEED ====================
+
+    /**
+     * Apply a tick. HFT path: one map probe and a few primitive writes; no allocation.
+     *
+     * @return true if the tick closed the previous bar (caller should publish)
+     */
+    public boolean onTick(long token, double price, long nowMs) {
+        BarSeries series = seriesByToken.get(token);
+        if (series == null || !(price > 0)) return false;
+        boolean finalized = series.onTick(price, epochMinute(nowMs));
+        if (finalized) barsFinalized.incrementAndGet();
+        return finalized;
+    }
+
+    /**
+     * Finalize the forming bar if its minute has elapsed without a closing tick.
+     *
+     * @return true if a bar was finalized
+     */
+    public boolean rollover(long token, long nowMs) {
+        BarSeries series = seriesByToken.get(token);
+        if (series == null) return false;
+        boolean finalized = series.rollover(epochMinute(nowMs));
+        if (finalized) barsFinalized.incrementAndGet();
+        return finalized;
+    }
+
+    /**
+     * Replace the finalized history with REST candles (session bars of the current IST day before the
+     * forming minute). If no bar is forming yet, the REST list's partial last bar seeds it.
+     */
+    public void backfill(long token, List<HistoricalData> candles, long nowMs) {
+        BarSeries series = seriesByToken.get(token);
+        if (series == null || candles == null) return;
+        series.backfill(candles, epochMinute(nowMs));
+    }
+
+    /** True when the series covers the session from the open with no missing minutes. */
+    public boolean isComplete(long token) {
+        BarSeries series = seriesByToken.get(token);
+        return series != null && series.isComplete();
+    }
+
+    /** Number of finalized bars held for {@code token}. */
+    public int getBarCount(long token) {
+        BarSeries series = seriesByToken.get(token);
+        return series != null ? series.size() : 0;
+    }
+
+    /**
+     * Finalized bars oldest-first followed by the forming bar (if any), in the same shape as a
+     * {@code getHistoricalData} response fetched mid-minute. Unmodifiable.
+     */
+    public List<HistoricalData> snapshot(long token) {
+        BarSeries series = seriesByToken.get(token);
+        return series != null ? series.snapshot() : Collections.emptyList();
+    }
+
+    // ==================== TIME HELPERS ====================
+
+    static long epochMinute(long epochMs) {
+        return Math.floorDiv(epochMs + IST_OFFSET_MS, MINUTE_MS);
+    }
+
+    static boolean isSessionMinute(long epochMinute) {
+        int minuteOfDay = (int) Math.floorMod(epochMinute, (long) MINUTES_PER_DAY);
+        return minuteOfDay >= SESSION_OPEN_MINUTE && minuteOfDay < SESSION_CLOSE_MINUTE;
+    }
+
+    static long sessionDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, (long) MINUTES_PER_DAY);
+    }
+
+    static String formatTimestamp(long epochMinute) {
+        LocalDateTime ist = LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+        return ist.atOffset(IST_OFFSET).format(KITE_TIMESTAMP);
+    }
+
+    /** IST epoch minute of a Kite candle timestamp, or -1 if it cannot be parsed. */
+    static long parseEpochMinute(String timeStamp) {
+        if (timeStamp == null || timeStamp.isBlank()) return -1;
+        try {
+            OffsetDateTime odt;
+            try {
+                odt = OffsetDateTime.parse(timeStamp, KITE_TIMESTAMP);
+            } catch (DateTimeParseException e) {
+                odt = OffsetDateTime.parse(timeStamp); // "+05:30" form
+            }
+            return epochMinute(odt.toInstant().toEpochMilli());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    // ==================== PER-TOKEN SERIES ====================
+
+    private static final class BarSeries {
+        private final int capacity;
+        private final long[] minute;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final long[] volume;
+        /** Materialized candles per ring slot; null until first snapshot after the slot is written. */
+        private final HistoricalData[] materialized;
+        private int head; // next write slot
+        private int size;
+
+        private long sessionDay = Long.MIN_VALUE;
+        private boolean complete;
+
+        private long formingMinute = -1;
+        private double formingOpen;
+        private double formingHigh;
+        private double formingLow;
+        private double formingClose;
+        private long formingVolume;
+
+        BarSeries(int capacity) {
+            this.capacity = capacity;
+            this.minute = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+            this.materialized = new HistoricalData[capacity];
+        }
+
+        synchronized boolean onTick(double price, long tickMinute) {
+            boolean finalized = false;
+            if (formingMinute >= 0 && tickMinute > formingMinute) {
+                finalizeForming();
+                finalized = true;
+            }
+            if (!isSessionMinute(tickMinute)) {
+                return finalized;
+            }
+
+            long day = sessionDay(tickMinute);
+            if (day != sessionDay) {
+                startSession(day);
+            }
+
+            if (formingMinute < 0) {
+                if (size > 0 && tickMinute <= lastMinute()) {
+                    return finalized; // late tick for an already finalized minute
+                }
+                long expected = size > 0 ? lastMinute() + 1 : day * MINUTES_PER_DAY + SESSION_OPEN_MINUTE;
+                if (tickMinute != expected) {
+                    complete = false; // mid-session start or skipped minutes: needs REST backfill
+                } else if (size == 0) {
+                    complete = true;  // live since the open
+                }
+                formingMinute = tickMinute;
+                formingOpen = price;
+                formingHigh = price;
+                formingLow = price;
+                formingClose = price;
+                formingVolume = 0;
+            } else if (tickMinute == formingMinute) {
+                if (price > formingHigh) formingHigh = price;
+                if (price < formingLow) formingLow = price;
+                formingClose = price;
+            }
+            // tickMinute < formingMinute: late tick from a previous minute, ignored
+            return finalized;
+        }
+
+        synchronized boolean rollover(long nowMinute) {
+            if (formingMinute >= 0 && nowMinute > formingMinute) {
+                finalizeForming();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void backfill(List<HistoricalData> candles, long nowMinute) {
+            long day = sessionDay(nowMinute);
+            if (day != sessionDay) {
+                startSession(day);
+            }
+            long cutoff = formingMinute >= 0 ? formingMinute : nowMinute;
+
+            head = 0;
+            size = 0;
+            HistoricalData partial = null;
+            long partialMinute = -1;
+            for (int i = 0, n = candles.size(); i < n; i++) {
+                HistoricalData c = candles.get(i);
+                long m = parseEpochMinute(c.timeStamp);
+                if (m < 0 || sessionDay(m) != day || !isSessionMinute(m)) continue;
+                if (m < cutoff) {
+                    if (size > 0 && m <= lastMinute()) continue; // duplicate / out of order
+                    append(m, c.open, c.high, c.low, c.close, c.volume);
+                } else if (m == nowMinute && formingMinute < 0) {
+                    partial = c;
+                    partialMinute = m;
+                }
+            }
+            if (partial != null) {
+                formingMinute = partialMinute;
+                formingOpen = partial.open;
+                formingHigh = partial.high;
+                formingLow = partial.low;
+                formingClose = partial.close;
+                formingVolume = partial.volume;
+            }
+
+            long openMinute = day * MINUTES_PER_DAY + SESSION_OPEN_MINUTE;
+            if (size == 0) {
+                complete = formingMinute == openMinute;
+            } else {
+                long first = minute[(head - size + capacity) % capacity];
+                long nextExpected = formingMinute >= 0 ? formingMinute : nowMinute;
+                complete = first == openMinute && lastMinute() + 1 >= nextExpected;
+            }
+        }
+
+        synchronized boolean isComplete() {
+            return complete && sessionDay != Long.MIN_VALUE;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized List<HistoricalData> snapshot() {
+            ArrayList<HistoricalData> list = new ArrayList<>(size + 1);
+            int start = (head - size + capacity) % capacity;
+            for (int k = 0; k < size; k++) {
+                int slot = (start + k) % capacity;
+                HistoricalData c = materialized[slot];
+                if (c == null) {
+                    c = toCandle(minute[slot], open[slot], high[slot], low[slot], close[slot], volume[slot]);
+                    materialized[slot] = c;
+                }
+                list.add(c);
+            }
+            if (formingMinute >= 0) {
+                list.add(toCandle(formingMinute, formingOpen, formingHigh, formingLow, formingClose, formingVolume));
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        private void startSession(long day) {
+            sessionDay = day;
+            head = 0;
+            size = 0;
+            complete = false;
+            formingMinute = -1;
+        }
+
+        private long lastMinute() {
+            return minute[(head - 1 + capacity) % capacity];
+        }
+
+        private void finalizeForming() {
+            append(formingMinute, formingOpen, formingHigh, formingLow, formingClose, formingVolume);
+            formingMinute = -1;
+        }
+
+        private void append(long m, double o, double h, double l, double c, long v) {
+            minute[head] = m;
+            open[head] = o;
+            high[head] = h;
+            low[head] = l;
+            close[head] = c;
+            volume[head] = v;
+            materialized[head] = null;
+            head = head + 1 == capacity ? 0 : head + 1;
+            if (size < capacity) size++;
+        }
+
+        private static HistoricalData toCandle(long m, double o, double h, double l, double c, long v) {
+            HistoricalData candle = new HistoricalData();
+            candle.timeStamp = formatTimestamp(m);
+            candle.open = o;
+            candle.high = h;
+            candle.low = l;
+            candle.close = c;
+            candle.volume = v;
+            return candle;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.Instrument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable instrument index for one underlying/expiry option chain, shared by all strategies.
+ *
+ * <h2>Layout</h2>
+ * CE and PE contracts are held in two strike-sorted structure-of-arrays tables
+ * ({@code long} strike×100 keys parallel to the instruments), plus a trading-symbol map.
+ * Contracts of other expiries in the source list are dropped, so a lookup can never return
+ * a strike from the wrong week.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>Built once per option chain refresh by MarketDataEngine instead of on every strategy entry</li>
+ *   <li>Strike lookups and strike-range scans are binary searches over primitive arrays</li>
+ *   <li>Published atomically as a whole: readers never see a half-updated index</li>
+ * </ul>
+ *
+ * <h2>Thread Safety</h2>
+ * All fields are final and never mutated after construction; one instance can serve concurrent
+ * executions of any user.
+ *
+ * @since 6.3
+ */
+public final class OptionChainIndex {
+
+    private static final String OPTION_TYPE_CE = "CE";
+    private static final String OPTION_TYPE_PE = "PE";
+    /** IST has no DST: a fixed offset maps epoch millis to the IST calendar day. */
+    private static final long IST_OFFSET_MS = (5 * 60 + 30) * 60_000L;
+    private static final long DAY_MS = 86_400_000L;
+
+    private final String underlying;
+    private final Date expiry;
+    private final long timestampMs;
+
+    private final long[] callStrikeKeys;
+    private final Instrument[] calls;
+    private final long[] putStrikeKeys;
+    private final Instrument[] puts;
+    private final Map<String, Instrument> bySymbol;
+
+    private OptionChainIndex(String underlying, Date expiry, Side callSide, Side putSide,
+                             Map<String, Instrument> bySymbol) {
+        this.underlying = underlying;
+        this.expiry = expiry;
+        this.callStrikeKeys = callSide.keys;
+        this.calls = callSide.instruments;
+        this.putStrikeKeys = putSide.keys;
+        this.puts = putSide.instruments;
+        this.bySymbol = bySymbol;
+        this.timestampMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Build the index for {@code expiry} from an option chain list. Non-option rows, rows with an
+     * unparseable strike and rows of other expiries are skipped. A null expiry keeps every expiry.
+     */
+    public static OptionChainIndex of(String underlying, Date expiry, List<Instrument> chain) {
+        long expiryDay = expiry != null ? istEpochDay(expiry.getTime()) : Long.MIN_VALUE;
+        List<Instrument> callList = new ArrayList<>();
+        List<Instrument> putList = new ArrayList<>();
+        Map<String, Instrument> bySymbol = new HashMap<>();
+        for (int i = 0, n = chain.size(); i < n; i++) {
+            Instrument inst = chain.get(i);
+            boolean call = OPTION_TYPE_CE.equals(inst.instrument_type);
+            if (!call && !OPTION_TYPE_PE.equals(inst.instrument_type)) continue;
+            if (expiry != null && (inst.expiry == null || istEpochDay(inst.expiry.getTime()) != expiryDay)) continue;
+            if (Double.isNaN(parseStrike(inst.strike))) continue;
+            (call ? callList : putList).add(inst);
+            if (inst.tradingsymbol != null) {
+                bySymbol.put(inst.tradingsymbol, inst);
+            }
+        }
+        return new OptionChainIndex(underlying, expiry, Side.of(callList), Side.of(putList),
+                Collections.unmodifiableMap(bySymbol));
+    }
+
+    public String getUnderlying() {
+        return underlying;
+    }
+
+    public Date getExpiry() {
+        return expiry;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public long ageMs() {
+        return System.currentTimeMillis() - timestampMs;
+    }
+
+    public int size() {
+        return calls.length + puts.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** True if {@code other} falls on this index's expiry day (IST). */
+    public boolean isSameExpiry(Date other) {
+        return expiry != null && other != null
+                && istEpochDay(expiry.getTime()) == istEpochDay(other.getTime());
+    }
+
+    /**
+     * Contract at {@code strike}, or null.
+     *
+     * @param optionType "CE" or "PE"
+     */
+    public Instrument get(double strike, String optionType) {
+        long[] keys = keysFor(optionType);
+        int i = Arrays.binarySearch(keys, strikeKey(strike));
+        return i >= 0 ? instrumentsFor(optionType)[i] : null;
+    }
+
+    /** Contract with this trading symbol, or null. */
+    public Instrument bySymbol(String tradingSymbol) {
+        return tradingSymbol != null ? bySymbol.get(tradingSymbol) : null;
+    }
+
+    /** Strike of the contract with this trading symbol, or -1 if it is not in the index. */
+    public double strikeOf(String tradingSymbol) {
+        Instrument inst = bySymbol(tradingSymbol);
+        return inst != null ? parseStrike(inst.strike) : -1;
+    }
+
+    /**
+     * Contracts of one option type with {@code minStrike <= strike <= maxStrike}, ascending by
+     * strike. Returns a new mutable list.
+     */
+    public List<Instrument> inRange(String optionType, double minStrike, double maxStrike) {
+        long[] keys = keysFor(optionType);
+        Instrument[] instruments = instrumentsFor(optionType);
+        int from = lowerBound(keys, strikeKey(minStrike));
+        long maxKey = strikeKey(maxStrike);
+        List<Instrument> result = new ArrayList<>();
+        for (int i = from; i < keys.length && keys[i] <= maxKey; i++) {
+            result.add(instruments[i]);
+        }
+        return result;
+    }
+
+    // ==================== Internals ====================
+
+    private long[] keysFor(String optionType) {
+        return OPTION_TYPE_PE.equals(optionType) ? putStrikeKeys : callStrikeKeys;
+    }
+
+    private Instrument[] instrumentsFor(String optionType) {
+        return OPTION_TYPE_PE.equals(optionType) ? puts : calls;
+    }
+
+    private static long strikeKey(double strike) {
+        return Math.round(strike * 100.0);
+    }
+
+    private static long istEpochDay(long epochMs) {
+        return Math.floorDiv(epochMs + IST_OFFSET_MS, DAY_MS);
+    }
+
+    private static int lowerBound(long[] keys, long key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static double parseStrike(String strike) {
+        if (strike == null || strike.isEmpty()) return Double.NaN;
+        try {
+            return Double.parseDouble(strike);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /** One option type's strike-sorted table; duplicate strikes keep the last row, as a map would. */
+    private record Side(long[] keys, Instrument[] instruments) {
+        static Side of(List<Instrument> list) {
+            Instrument[] sorted = list.toArray(new Instrument[0]);
+            Arrays.sort(sorted, (a, b) -> Long.compare(strikeKey(parseStrike(a.strike)), strikeKey(parseStrike(b.strike))));
+            long[] keys = new long[sorted.length];
+            int n = 0;
+            for (Instrument inst : sorted) {
+                long key = strikeKey(parseStrike(inst.strike));
+                if (n > 0 && keys[n - 1] == key) {
+                    sorted[n - 1] = inst;
+                    continue;
+                }
+                keys[n] = key;
+                sorted[n++] = inst;
+            }
+            return new Side(Arrays.copyOf(keys, n), Arrays.copyOf(sorted, n));
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.tradingbot.service.marketdata;
+
+import java.util.Date;
+
+/**
+ * Immutable, strike-indexed view of one instrument/expiry option chain as computed by a
+ * single MarketDataEngine delta refresh cycle.
+ *
+ * <h2>Layout</h2>
+ * Structure-of-arrays: {@code strikes} is sorted ascending and every other array is parallel to it
+ * (index {@code i} describes strike {@code strikes[i]}). Missing market quotes are stored as 0.
+ * Put delta is not stored separately — under the forward measure it is {@code callDelta - 1}.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>All lookups are binary searches over primitive arrays — no boxing, no key building, no allocation</li>
+ *   <li>Published atomically as a whole: readers never see a half-updated chain</li>
+ * </ul>
+ *
+ * <h2>Thread Safety</h2>
+ * All fields are final and arrays are never mutated after construction. The factory takes
+ * ownership of the arrays passed in; callers must not retain or modify them.
+ *
+ * @since 6.3
+ */
+public final class OptionChainSnapshot {
+
+    /** Target deltas below this are OTM targets: CE must be at/above ATM, PE at/below ATM. */
+    private static final double OTM_TARGET_THRESHOLD = 0.4;
+
+    private final String instrumentType;
+    private final Date expiry;
+    private final double spotPrice;
+    private final double forwardPrice;
+    private final double timeToExpiry;
+    private final double approximateAtm;
+    private final double atmStrike;
+    private final long timestampMs;
+
+    private final double[] strikes;
+    private final double[] callMid;
+    private final double[] putMid;
+    private final double[] iv;
+    private final double[] callDelta;
+    /** True when call delta never increases with strike, i.e. the binary search is valid. */
+    private final boolean deltaMonotonic;
+
+    private OptionChainSnapshot(String instrumentType, Date expiry, double spotPrice, double forwardPrice,
+                                double timeToExpiry, double approximateAtm,
+                                double[] strikes, double[] callMid, double[] putMid,
+                                double[] iv, double[] callDelta) {
+        this.instrumentType = instrumentType;
+        this.expiry = expiry;
+        this.spotPrice = spotPrice;
+        this.forwardPrice = forwardPrice;
+        this.timeToExpiry = timeToExpiry;
+        this.approximateAtm = approximateAtm;
+        this.strikes = strikes;
+        this.callMid = callMid;
+        this.putMid = putMid;
+        this.iv = iv;
+        this.callDelta = callDelta;
+        this.deltaMonotonic = isNonIncreasing(callDelta);
+        this.atmStrike = computeAtmStrike(strikes, callDelta, approximateAtm);
+        this.timestampMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Build a snapshot from parallel arrays. Arrays are sorted by strike in place if needed.
+     *
+     * @throws IllegalArgumentException if the arrays are not all the same length
+     */
+    public static OptionChainSnapshot of(String instrumentType, Date expiry, double spotPrice,
+                                         double forwardPrice, double timeToExpiry, double approximateAtm,
+                                         double[] strikes, double[] callMid, double[] putMid,
+                                         double[] iv, double[] callDelta) {
+        int n = strikes.length;
+        if (callMid.length != n || putMid.length != n || iv.length != n || callDelta.length != n) {
+            throw new IllegalArgumentException("OptionChainSnapshot arrays must have equal length");
+        }
+        sortByStrike(strikes, callMid, putMid, iv, callDelta);
+        return new OptionChainSnapshot(instrumentType, expiry, spotPrice, forwardPrice, timeToExpiry,
+                approximateAtm, strikes, callMid, putMid, iv, callDelta);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    /**
+     * Index of an exact strike, or -1 if the strike is not in the chain.
+     */
+    public int indexOfStrike(double strike) {
+        int lo = 0;
+        int hi = strikes.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            double s = strikes[mid];
+            if (s < strike) {
+                lo = mid + 1;
+            } else if (s > strike) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Call delta for an exact strike, or NaN if the strike is not in the chain.
+     */
+    public double callDeltaForStrike(double strike) {
+        int i = indexOfStrike(strike);
+        return i < 0 ? Double.NaN : callDelta[i];
+    }
+
+    /**
+     * Mid price of the CE or PE at an exact strike, or 0 if not quoted / not in the chain.
+     */
+    public double midForStrike(double strike, boolean isCE) {
+        int i = indexOfStrike(strike);
+        if (i < 0) return 0.0;
+        return isCE ? callMid[i] : putMid[i];
+    }
+
+    /**
+     * Find the strike whose absolute delta is closest to {@code targetDelta}, using the
+     * snapshot's own approximate ATM for OTM-side enforcement.
+     */
+    public double findStrikeForDelta(double targetDelta, boolean isCE) {
+        return findStrikeForDelta(targetDelta, isCE, approximateAtm);
+    }
+
+    /**
+     * Find the strike whose absolute delta is closest to {@code targetDelta}.
+     * <p>
+     * Call delta decreases with strike, so the candidate is located by binary search and then
+     * refined over its immediate neighbours. The deltas mix market-implied values with model
+     * values for strikes without a usable quote, so monotonicity is checked once per snapshot;
+     * a chain whose deltas are not monotonic is searched linearly instead.
+     * For OTM targets (&lt; 0.4) the CE strike must be at/above and the PE strike at/below
+     * {@code approximateAtm}.
+     *
+     * @param targetDelta    target absolute delta (e.g., 0.4, 0.1)
+     * @param isCE           true for call, false for put (|put delta| = 1 - call delta)
+     * @param approximateAtm approximate ATM strike for OTM-side enforcement
+     * @return best strike, or {@code approximateAtm} if the chain is empty
+     */
+    public double findStrikeForDelta(double targetDelta, boolean isCE, double approximateAtm) {
+        final int n = strikes.length;
+        if (n == 0) return approximateAtm;
+
+        final double targetCallDelta = isCE ? targetDelta : 1.0 - targetDelta;
+        final boolean otmOnly = targetDelta < OTM_TARGET_THRESHOLD;
+
+        int from = 0;
+        int to = n - 1;
+        if (deltaMonotonic) {
+            // First index whose call delta is <= target (array is descending in delta)
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (callDelta[mid] > targetCallDelta) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            from = Math.max(0, lo - 2);
+            to = Math.min(n - 1, lo + 1);
+        }
+
+        double bestStrike = Double.NaN;
+        double minDiff = Double.MAX_VALUE;
+        for (int i = from; i <= to; i++) {
+            double strike = strikes[i];
+            if (otmOnly) {
+                if (isCE && strike < approximateAtm) continue;
+                if (!isCE && strike > approximateAtm) continue;
+            }
+            double diff = Math.abs(callDelta[i] - targetCallDelta);
+            if (diff < minDiff) {
+                minDiff = diff;
+                bestStrike = strike;
+            }
+        }
+        if (!Double.isNaN(bestStrike)) return bestStrike;
+
+        // Every neighbour is on the wrong side of ATM: the nearest allowed strike is the best match
+        int edge = isCE ? ceilingIndex(approximateAtm) : floorIndex(approximateAtm);
+        return edge >= 0 ? strikes[edge] : approximateAtm;
+    }
+
+    // ==================== ACCESSORS ====================
+
+    public int size() { return strikes.length; }
+    public boolean isEmpty() { return strikes.length == 0; }
+    public double strikeAt(int i) { return strikes[i]; }
+    public double callMidAt(int i) { return callMid[i]; }
+    public double putMidAt(int i) { return putMid[i]; }
+    public double ivAt(int i) { return iv[i]; }
+    public double callDeltaAt(int i) { return callDelta[i]; }
+    public double putDeltaAt(int i) { return callDelta[i] - 1.0; }
+
+    public String getInstrumentType() { return instrumentType; }
+    public Date getExpiry() { return expiry; }
+    public double getSpotPrice() { return spotPrice; }
+    public double getForwardPrice() { return forwardPrice; }
+    public double getTimeToExpiry() { return timeToExpiry; }
+    public double getApproximateAtm() { return approximateAtm; }
+    /** False when delta lookups fall back to a linear scan. */
+    public boolean isDeltaMonotonic() { return deltaMonotonic; }
+    /** Strike whose call delta is closest to 0.5. */
+    public double getAtmStrike() { return atmStrike; }
+    public long getTimestampMs() { return timestampMs; }
+
+    public boolean isExpired(long ttlMs) {
+        return System.currentTimeMillis() - timestampMs > ttlMs;
+    }
+
+    public long ageMs() {
+        return System.currentTimeMillis() - timestampMs;
+    }
+
+    // ==================== INTERNALS ====================
+
+    private int ceilingIndex(double value) {
+        for (int i = 0; i < strikes.length; i++) {
+            if (strikes[i] >= value) return i;
+        }
+        return -1;
+    }
+
+    private int floorIndex(double value) {
+        for (int i = strikes.length - 1; i >= 0; i--) {
+            if (strikes[i] <= value) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isNonIncreasing(double[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (!(values[i] <= values[i - 1])) return false; // NaN also breaks the ordering
+        }
+        return true;
+    }
+
+    private static double computeAtmStrike(double[] strikes, double[] callDelta, double fallback) {
+        double best = fallback;
+        double minDiff = Double.MAX_VALUE;
+        for (int i = 0; i < strikes.length; i++) {
+            double diff = Math.abs(callDelta[i] - 0.5);
+            if (diff < minDiff) {
+                minDiff = diff;
+                best = strikes[i];
+            }
+        }
+        return best;
+    }
+
+    /** Insertion sort on strike, permuting the parallel arrays; chains arrive (nearly) sorted. */
+    private static void sortByStrike(double[] strikes, double[]... parallel) {
+        for (int i = 1; i < strikes.length; i++) {
+            double key = strikes[i];
+            if (strikes[i - 1] <= key) continue;
+            double[] carried = new double[parallel.length];
+            for (int p = 0; p < parallel.length; p++) carried[p] = parallel[p][i];
+            int j = i - 1;
+            while (j >= 0 && strikes[j] > key) {
+                strikes[j + 1] = strikes[j];
+                for (double[] arr : parallel) arr[j + 1] = arr[j];
+                j--;
+            }
+            strikes[j + 1] = key;
+            for (int p = 0; p < parallel.length; p++) parallel[p][j + 1] = carried[p];
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.LTPQuote;
+
+import java.util.Map;
+
+/**
+ * Source of last-traded prices that takes precedence over Kite for some users.
+ * <p>
+ * {@code TradingService.getLTP} asks {@link #isActiveFor} for the current user before calling
+ * Kite; while it returns true, every LTP read for that user is answered by {@link #getLTP}
+ * instead. Implemented by session replay, which serves recorded prices at the virtual time.
+ * Keeps the core trading service independent of the components that provide the prices.
+ *
+ * @since 6.3
+ */
+public interface PriceSource {
+
+    /** True if this source answers LTP reads for {@code userId}. Must be cheap: called on every read. */
+    boolean isActiveFor(String userId);
+
+    /**
+     * Kite-shaped LTP lookup. Keys are {@code EXCHANGE:SYMBOL} as passed in; instruments without a
+     * price are left out, as Kite does for unknown instruments.
+     */
+    Map<String, LTPQuote> getLTP(String[] instruments);
+}
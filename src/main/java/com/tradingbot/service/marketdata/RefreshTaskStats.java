@@ -0,0 +1,127 @@
+package com.tradingbot.service.marketdata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency and outcome counters for one periodic refresh task (e.g. NIFTY delta refresh).
+ *
+ * <h2>Outcomes</h2>
+ * <ul>
+ *   <li><b>completed</b> — the task did its work (fetched / computed / published)</li>
+ *   <li><b>skipped</b> — nothing to do this cycle (inputs not ready, served locally); no latency recorded</li>
+ *   <li><b>failed</b> — the task threw; latency is still recorded so slow failures are visible</li>
+ * </ul>
+ * The interval the scheduler chose for the next run (and why) is kept alongside, so adaptive
+ * scheduling decisions are visible in the same place.
+ *
+ * <h2>Thread Safety</h2>
+ * Single writer: a scheduled task never overlaps itself, so only the thread currently
+ * running the task records. Fields are volatile so {@link #toMap(long)} readers see recent values;
+ * a reader may observe counters from two adjacent runs, which is fine for monitoring.
+ *
+ * @since 6.3
+ */
+public final class RefreshTaskStats {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private volatile long completed;
+    private volatile long skipped;
+    private volatile long failed;
+    private volatile long lastLatencyNanos;
+    private volatile long maxLatencyNanos;
+    private volatile long totalLatencyNanos;
+    private volatile long lastRunEpochMs;
+    private volatile String lastError;
+    private volatile long intervalMs;
+    private volatile String intervalReason;
+
+    public void recordCompleted(long latencyNanos, long nowMs) {
+        completed++;
+        recordLatency(latencyNanos, nowMs);
+    }
+
+    public void recordSkipped(long nowMs) {
+        skipped++;
+        lastRunEpochMs = nowMs;
+    }
+
+    public void recordFailed(long latencyNanos, long nowMs, String error) {
+        failed++;
+        lastError = error;
+        recordLatency(latencyNanos, nowMs);
+    }
+
+    /** Record the delay chosen until the next run. */
+    public void recordInterval(long intervalMs, String reason) {
+        this.intervalMs = intervalMs;
+        this.intervalReason = reason;
+    }
+
+    private void recordLatency(long latencyNanos, long nowMs) {
+        lastLatencyNanos = latencyNanos;
+        totalLatencyNanos += latencyNanos;
+        if (latencyNanos > maxLatencyNanos) {
+            maxLatencyNanos = latencyNanos;
+        }
+        lastRunEpochMs = nowMs;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public String getIntervalReason() {
+        return intervalReason;
+    }
+
+    /** Mean latency over completed and failed runs, in milliseconds (0 before the first run). */
+    public double getAvgLatencyMs() {
+        long runs = completed + failed;
+        return runs > 0 ? totalLatencyNanos / NANOS_PER_MILLI / runs : 0.0;
+    }
+
+    public double getLastLatencyMs() {
+        return lastLatencyNanos / NANOS_PER_MILLI;
+    }
+
+    public double getMaxLatencyMs() {
+        return maxLatencyNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Snapshot for cache stats / monitoring endpoints.
+     */
+    public Map<String, Object> toMap(long nowMs) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("completed", completed);
+        map.put("skipped", skipped);
+        map.put("failed", failed);
+        map.put("lastLatencyMs", round2(getLastLatencyMs()));
+        map.put("avgLatencyMs", round2(getAvgLatencyMs()));
+        map.put("maxLatencyMs", round2(getMaxLatencyMs()));
+        long lastRun = lastRunEpochMs;
+        map.put("lastRunAgeMs", lastRun > 0 ? nowMs - lastRun : null);
+        map.put("lastError", lastError);
+        map.put("intervalMs", intervalMs);
+        map.put("intervalReason", intervalReason);
+        return map;
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
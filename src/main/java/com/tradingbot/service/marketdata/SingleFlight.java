@@ -0,0 +1,151 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight coalescing for Kite read calls: concurrent callers for the same key share one
+ * in-flight request instead of each issuing an identical one.
+ *
+ * <h2>Semantics</h2>
+ * <ul>
+ *   <li>The first caller for a key (the <b>leader</b>) runs the call on its own thread</li>
+ *   <li>Callers arriving while it is in flight (<b>followers</b>) block on the leader's future and
+ *       receive the same result — or the same exception</li>
+ *   <li>Followers wait at most the follower timeout: a hung call fails its followers with a
+ *       {@link SocketTimeoutException} instead of blocking them for as long as the leader hangs</li>
+ *   <li>The key is released before the result is published, so a caller arriving after completion
+ *       always starts a fresh call: nothing is cached beyond the lifetime of one request</li>
+ * </ul>
+ * Results are shared between callers and must be treated as read-only.
+ *
+ * <h2>Thread Safety</h2>
+ * Lock-free: a {@link ConcurrentHashMap#putIfAbsent} race decides the leader.
+ *
+ * @param <V> result type
+ * @since 6.3
+ */
+public final class SingleFlight<V> {
+
+    /** A Kite read call. */
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws KiteException, IOException;
+    }
+
+    /** Default follower wait: above Kite's own HTTP timeouts, so only a hung call trips it. */
+    public static final long DEFAULT_FOLLOWER_TIMEOUT_MS = 10_000;
+
+    private final long followerTimeoutMs;
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong followerTimeouts = new AtomicLong();
+
+    public SingleFlight() {
+        this(DEFAULT_FOLLOWER_TIMEOUT_MS);
+    }
+
+    /**
+     * @param followerTimeoutMs longest a follower waits for the leader's call
+     */
+    public SingleFlight(long followerTimeoutMs) {
+        this.followerTimeoutMs = followerTimeoutMs;
+    }
+
+    /**
+     * Run {@code call} for {@code key}, or join the call already in flight for it.
+     */
+    public V execute(String key, Call<V> call) throws KiteException, IOException {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            deduplicated.incrementAndGet();
+            return await(key, existing);
+        }
+
+        executed.incrementAndGet();
+        try {
+            V result = call.call();
+            inFlight.remove(key, mine);
+            mine.complete(result);
+            return result;
+        } catch (KiteException | IOException | RuntimeException | Error e) {
+            failed.incrementAndGet();
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private V await(String key, CompletableFuture<V> future) throws KiteException, IOException {
+        try {
+            return future.get(followerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            followerTimeouts.incrementAndGet();
+            throw new SocketTimeoutException("No result within " + followerTimeoutMs
+                    + "ms from the in-flight call for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the in-flight call for " + key);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof KiteException kite) throw kite;
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException("In-flight call for " + key + " failed", cause);
+        }
+    }
+
+    /** Calls actually issued (one per leader). */
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    /** Callers served by another caller's in-flight call. */
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /** Followers that gave up waiting on a call still in flight. */
+    public long getFollowerTimeouts() {
+        return followerTimeouts.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Snapshot for monitoring endpoints.
+     */
+    public Map<String, Object> toMap() {
+        long calls = executed.get();
+        long dedup = deduplicated.get();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("executed", calls);
+        map.put("deduplicated", dedup);
+        map.put("failed", failed.get());
+        map.put("followerTimeouts", followerTimeouts.get());
+        map.put("inFlight", inFlight.size());
+        map.put("dedupRatio", calls + dedup > 0 ? Math.round(dedup * 10000.0 / (calls + dedup)) / 10000.0 : 0.0);
+        return map;
+    }
+}
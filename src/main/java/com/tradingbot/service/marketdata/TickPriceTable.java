@@ -0,0 +1,169 @@
+package com.tradingbot.service.marketdata;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free last-traded-price table keyed by instrument token.
+ *
+ * <h2>Design</h2>
+ * <ul>
+ *   <li>Each registered token owns a fixed slot in two preallocated {@link AtomicLongArray}s
+ *       (price as raw double bits, last update epoch millis)</li>
+ *   <li>Token → slot resolution uses a copy-on-write {@link LongIntHashMap}, swapped through a
+ *       volatile field on registration (rare, off the tick path)</li>
+ *   <li>{@link #retainOnly} releases the slots of tokens that left the subscription; freed slots
+ *       are reused by later registrations. Each slot records its owning token; a writer that still
+ *       holds the previous map re-checks the owner after writing and clears the timestamp if the
+ *       slot changed hands, so an old token's price is never left stored under the new owner
+ *       (a reader racing that one write may see it until the clear)</li>
+ * </ul>
+ *
+ * <h2>Thread Safety</h2>
+ * Single writer (the ticker callback thread) for {@link #update}, any number of readers.
+ * Price is written before the timestamp, so a reader that observes a fresh timestamp
+ * always observes a price at least as new. {@link #register} is synchronized.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>Zero allocation on {@link #update} and all read methods</li>
+ *   <li>Primitive long keys — no {@code Long} boxing on lookup</li>
+ * </ul>
+ *
+ * @since 6.3
+ */
+public final class TickPriceTable {
+
+    private static final int NO_SLOT = -1;
+
+    private final AtomicLongArray priceBits;
+    private final AtomicLongArray updatedAtMs;
+    private final AtomicLongArray tokenBySlot;
+    private volatile LongIntHashMap slotByToken = new LongIntHashMap();
+    private int nextSlot;
+    /** Released slots available for reuse. Guarded by {@code this}. */
+    private final IntArrayList freeSlots = new IntArrayList();
+
+    /** Epoch millis of the most recent update across all tokens. */
+    private volatile long lastUpdateMs;
+
+    public TickPriceTable(int capacity) {
+        this.priceBits = new AtomicLongArray(capacity);
+        this.updatedAtMs = new AtomicLongArray(capacity);
+        this.tokenBySlot = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Register a token so that ticks for it are stored. Idempotent.
+     *
+     * @return true if the token is (now) registered, false if the table is full
+     */
+    public synchronized boolean register(long token) {
+        if (slotByToken.containsKey(token)) {
+            return true;
+        }
+        final int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.removeAtIndex(freeSlots.size() - 1);
+        } else if (nextSlot < priceBits.length()) {
+            slot = nextSlot++;
+        } else {
+            return false;
+        }
+        updatedAtMs.set(slot, 0L);
+        tokenBySlot.set(slot, token);
+        LongIntHashMap copy = new LongIntHashMap(slotByToken);
+        copy.put(token, slot);
+        slotByToken = copy; // volatile write — publishes to ticker and reader threads
+        return true;
+    }
+
+    /**
+     * Release the slots of all registered tokens not in {@code keep}. Their prices are dropped and
+     * the slots become available to {@link #register}.
+     *
+     * @return number of slots released
+     */
+    public synchronized int retainOnly(Set<Long> keep) {
+        LongIntHashMap copy = null;
+        for (long token : slotByToken.keySet().toArray()) {
+            if (keep.contains(token)) {
+                continue;
+            }
+            if (copy == null) {
+                copy = new LongIntHashMap(slotByToken);
+            }
+            int slot = copy.removeKeyIfAbsent(token, NO_SLOT);
+            tokenBySlot.set(slot, 0L);
+            updatedAtMs.set(slot, 0L);
+            freeSlots.add(slot);
+        }
+        if (copy == null) {
+            return 0;
+        }
+        int released = slotByToken.size() - copy.size();
+        slotByToken = copy;
+        return released;
+    }
+
+    /**
+     * Store the latest price for a token. Ticks for unregistered tokens are ignored.
+     * Single-writer tick path.
+     */
+    public void update(long token, double price, long nowMs) {
+        int slot = slotByToken.getIfAbsent(token, NO_SLOT);
+        if (slot == NO_SLOT || price <= 0 || tokenBySlot.get(slot) != token) {
+            return;
+        }
+        priceBits.set(slot, Double.doubleToRawLongBits(price));
+        updatedAtMs.set(slot, nowMs);
+        // retainOnly may have released the slot since the check (and register reassigned it):
+        // undo so the new owner reads as "no price yet" instead of this token's price
+        if (tokenBySlot.get(slot) != token) {
+            updatedAtMs.compareAndSet(slot, nowMs, 0L);
+            return;
+        }
+        lastUpdateMs = nowMs;
+    }
+
+    /**
+     * Latest price for a token if it was updated within {@code maxAgeMs}, otherwise NaN.
+     */
+    public double getPrice(long token, long maxAgeMs) {
+        int slot = slotByToken.getIfAbsent(token, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return Double.NaN;
+        }
+        long ts = updatedAtMs.get(slot);
+        if (ts == 0 || System.currentTimeMillis() - ts > maxAgeMs) {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(priceBits.get(slot));
+    }
+
+    /**
+     * Epoch millis of the last update for a token, or 0 if never updated / not registered.
+     */
+    public long getLastUpdateMs(long token) {
+        int slot = slotByToken.getIfAbsent(token, NO_SLOT);
+        return slot == NO_SLOT ? 0L : updatedAtMs.get(slot);
+    }
+
+    /**
+     * Epoch millis of the most recent update across all tokens, or 0 if none yet.
+     */
+    public long getLastUpdateMs() {
+        return lastUpdateMs;
+    }
+
+    public int size() {
+        return slotByToken.size();
+    }
+
+    public int capacity() {
+        return priceBits.length();
+    }
+}
@@ -0,0 +1,232 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.HistoricalData;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Incremental VWAP over a stream of bars (or trades), kept as running primitive sums.
+ *
+ * <h2>Modes</h2>
+ * <ul>
+ *   <li><b>Session-anchored</b> ({@link #sessionAnchored()}) — Σ(price×volume) / Σvolume since session open.
+ *       Replaces the per-refresh BigDecimal walk over every session candle in MarketDataEngine.</li>
+ *   <li><b>Windowed</b> ({@link #windowed(int)}) — same sums over the last N bars, maintained with a
+ *       primitive ring buffer (add newest, subtract evicted). Used by the V3 detector's VWAP fallback.</li>
+ * </ul>
+ *
+ * <h2>Finalized vs. provisional bars</h2>
+ * A 1-minute candle list fetched mid-minute ends with a still-forming bar whose OHLCV will change.
+ * Finalized bars are folded into the running sums exactly once; the forming bar is held separately as
+ * a provisional contribution that is replaced on every update and added in at read time. The result is
+ * identical to recomputing the batch formula over the whole list.
+ *
+ * <h2>Semantics</h2>
+ * Matches the batch computations it replaces: typical price = (high + low + close) / 3, bars with
+ * volume &lt;= 0 contribute nothing to the volume-weighted sums but still count towards the
+ * typical-price mean (the volume-less index proxy).
+ *
+ * <h2>Thread Safety</h2>
+ * Not thread-safe. Owners either confine it to one refresh thread or guard it externally.
+ *
+ * @since 6.3
+ */
+public final class VwapAccumulator {
+
+    /** 0 = session-anchored (unbounded). */
+    private final int window;
+    private final double[] ringTp;
+    private final double[] ringPv;
+    private final double[] ringVol;
+    private int ringHead;
+    private int ringSize;
+
+    private double sumPv;
+    private double sumVol;
+    private double sumTp;
+    private int count;
+
+    private boolean hasProvisional;
+    private double provisionalTp;
+    private double provisionalVol;
+
+    // Candle-list sync state: timestamp of the session's first bar, number of finalized bars consumed,
+    // and the timestamp of the last consumed bar (guards against a replaced/rewritten list).
+    private String sessionKey;
+    private String lastBarKey;
+    private int consumedBars;
+
+    private VwapAccumulator(int window) {
+        this.window = window;
+        this.ringTp = window > 0 ? new double[window] : null;
+        this.ringPv = window > 0 ? new double[window] : null;
+        this.ringVol = window > 0 ? new double[window] : null;
+    }
+
+    /** VWAP since session open. */
+    public static VwapAccumulator sessionAnchored() {
+        return new VwapAccumulator(0);
+    }
+
+    /**
+     * VWAP over the most recent {@code bars} bars (the provisional bar counts as one of them).
+     *
+     * @throws IllegalArgumentException if {@code bars} is not positive
+     */
+    public static VwapAccumulator windowed(int bars) {
+        if (bars <= 0) {
+            throw new IllegalArgumentException("VWAP window must be positive: " + bars);
+        }
+        return new VwapAccumulator(bars);
+    }
+
+    // ==================== UPDATES ====================
+
+    /** Clear all sums and sync state — called at session open. */
+    public void reset() {
+        sumPv = 0;
+        sumVol = 0;
+        sumTp = 0;
+        count = 0;
+        ringHead = 0;
+        ringSize = 0;
+        hasProvisional = false;
+        sessionKey = null;
+        lastBarKey = null;
+        consumedBars = 0;
+    }
+
+    /** Fold a finalized OHLCV bar into the sums. */
+    public void addBar(double high, double low, double close, long volume) {
+        add((high + low + close) / 3.0, volume);
+    }
+
+    /**
+     * Fold one finalized (price, volume) observation into the sums — a bar's typical price or a
+     * trade's price with its traded quantity.
+     */
+    public void add(double price, double volume) {
+        double vol = volume > 0 ? volume : 0.0;
+        double pv = price * vol;
+        if (window > 0) {
+            if (ringSize == window) {
+                sumPv -= ringPv[ringHead];
+                sumVol -= ringVol[ringHead];
+                sumTp -= ringTp[ringHead];
+                count--;
+            } else {
+                ringSize++;
+            }
+            ringPv[ringHead] = pv;
+            ringVol[ringHead] = vol;
+            ringTp[ringHead] = price;
+            ringHead = ringHead + 1 == window ? 0 : ringHead + 1;
+        }
+        sumPv += pv;
+        sumVol += vol;
+        sumTp += price;
+        count++;
+    }
+
+    /** Replace the still-forming bar's contribution. */
+    public void setProvisionalBar(double high, double low, double close, long volume) {
+        hasProvisional = true;
+        provisionalTp = (high + low + close) / 3.0;
+        provisionalVol = volume > 0 ? volume : 0.0;
+    }
+
+    public void clearProvisional() {
+        hasProvisional = false;
+    }
+
+    /**
+     * Bring the sums in line with a session candle list whose last element is the forming bar.
+     * <p>
+     * When the list extends the one seen last time (same first bar, same bar at the consumed
+     * boundary) only the newly finalized bars are folded in — O(new bars). A different first bar means
+     * a new session (or a differently-anchored fetch) and triggers a reset and rebuild; windowed
+     * accumulators only rebuild from the last {@code window} bars.
+     */
+    public void sync(List<HistoricalData> candles) {
+        int n = candles == null ? 0 : candles.size();
+        if (n == 0) {
+            hasProvisional = false;
+            return;
+        }
+
+        String first = candles.get(0).timeStamp;
+        boolean extendsPrevious = first != null
+                && first.equals(sessionKey)
+                && consumedBars < n
+                && (consumedBars == 0 || Objects.equals(lastBarKey, candles.get(consumedBars - 1).timeStamp));
+        if (!extendsPrevious) {
+            reset();
+            sessionKey = first;
+            consumedBars = window > 0 ? Math.max(0, n - window) : 0;
+        }
+
+        for (int i = consumedBars; i < n - 1; i++) {
+            HistoricalData c = candles.get(i);
+            addBar(c.high, c.low, c.close, c.volume);
+        }
+        consumedBars = n - 1;
+        lastBarKey = n >= 2 ? candles.get(n - 2).timeStamp : null;
+
+        HistoricalData forming = candles.get(n - 1);
+        setProvisionalBar(forming.high, forming.low, forming.close, forming.volume);
+    }
+
+    // ==================== READS (O(1)) ====================
+
+    /** Volume-weighted average price, or NaN if no volume has been seen. */
+    public double getVwap() {
+        double pv = sumPv;
+        double vol = sumVol;
+        if (hasProvisional) {
+            if (window > 0 && ringSize == window) {
+                int oldest = ringHead;
+                pv -= ringPv[oldest];
+                vol -= ringVol[oldest];
+            }
+            pv += provisionalTp * provisionalVol;
+            vol += provisionalVol;
+        }
+        return vol > 0 ? pv / vol : Double.NaN;
+    }
+
+    /** Simple mean of typical prices (VWAP proxy for volume-less index series), or NaN if empty. */
+    public double getTypicalPriceMean() {
+        double tp = sumTp;
+        int n = count;
+        if (hasProvisional) {
+            if (window > 0 && ringSize == window) {
+                tp -= ringTp[ringHead];
+                n--;
+            }
+            tp += provisionalTp;
+            n++;
+        }
+        return n > 0 ? tp / n : Double.NaN;
+    }
+
+    /** Number of bars currently contributing, including the provisional one. */
+    public int getBarCount() {
+        if (!hasProvisional) return count;
+        return window > 0 && ringSize == window ? count : count + 1;
+    }
+
+    /** Window length in bars, or 0 for a session-anchored accumulator. */
+    public int getWindow() {
+        return window;
+    }
+
+    public double getVolume() {
+        double vol = sumVol;
+        if (hasProvisional) {
+            if (window > 0 && ringSize == window) vol -= ringVol[ringHead];
+            vol += provisionalVol;
+        }
+        return vol;
+    }
+}
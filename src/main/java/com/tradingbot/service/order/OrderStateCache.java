@@ -0,0 +1,205 @@
+package com.tradingbot.service.order;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.zerodhatech.models.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.tradingbot.service.TradingConstants.*;
+
+/**
+ * Per-user order state fed by order updates pushed over the Kite WebSocket (both the KiteTicker
+ * and the in-house binary client) and by paper trading, which publishes the same updates on every
+ * order state change.
+ *
+ * <h2>Why</h2>
+ * Fill prices used to be read by polling {@code getOrderHistory} once per order. Every poll costs a
+ * REST round-trip on the entry/exit path and draws from the ORDERS rate budget (3 requests/s).
+ * Kite already pushes each order transition over the ticker socket, so callers now wait on the
+ * order's final-state future and only poll when the stream stays silent.
+ *
+ * <h2>Semantics</h2>
+ * <ul>
+ *   <li>An order is final once its status is COMPLETE, REJECTED or CANCELLED; its future then
+ *       completes with that update</li>
+ *   <li>{@link #awaitFinalState} waits only while the user's stream is live (socket connected),
+ *       up to {@code tick-pipeline.order-update-timeout-ms}; otherwise it returns what is cached</li>
+ *   <li>Polled final states are recorded too, so a second caller for the same order does not
+ *       wait or poll again</li>
+ *   <li>Each user keeps at most {@value #MAX_ORDERS_PER_USER} orders; the oldest entry is evicted
+ *       first, final or not (an order that never reaches a final state still ages out)</li>
+ * </ul>
+ *
+ * @since 6.3
+ */
+@Slf4j
+@Service
+public class OrderStateCache {
+
+    /** Orders kept per user; inserting beyond this evicts the oldest. */
+    static final int MAX_ORDERS_PER_USER = 4096;
+
+    private final TickPipelineConfig config;
+    private final Map<String, UserOrders> users = new ConcurrentHashMap<>();
+
+    private final AtomicLong orderUpdates = new AtomicLong();
+    private final AtomicLong streamHits = new AtomicLong();
+    private final AtomicLong silentTimeouts = new AtomicLong();
+    private final AtomicLong notStreaming = new AtomicLong();
+
+    public OrderStateCache(TickPipelineConfig config) {
+        this.config = config;
+    }
+
+    /** One order: latest update seen and a future completed by its final state. */
+    private static final class OrderEntry {
+        volatile Order latest;
+        final CompletableFuture<Order> finalState = new CompletableFuture<>();
+    }
+
+    /** One user's orders in insertion order, so eviction by age is O(1). */
+    private static final class UserOrders {
+        /** Guarded by {@code this}. */
+        private final LinkedHashMap<String, OrderEntry> orders = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OrderEntry> eldest) {
+                return size() > MAX_ORDERS_PER_USER;
+            }
+        };
+        volatile boolean streamLive;
+
+        synchronized OrderEntry get(String orderId) {
+            return orders.get(orderId);
+        }
+
+        synchronized OrderEntry getOrCreate(String orderId) {
+            return orders.computeIfAbsent(orderId, k -> new OrderEntry());
+        }
+
+        synchronized int size() {
+            return orders.size();
+        }
+    }
+
+    private UserOrders user(String userId) {
+        return users.computeIfAbsent(userId, k -> new UserOrders());
+    }
+
+    private static boolean isFinal(String status) {
+        return STATUS_COMPLETE.equals(status) || STATUS_REJECTED.equals(status) || STATUS_CANCELLED.equals(status);
+    }
+
+    /**
+     * Record an order update for {@code userId}: a streamed update, a paper order transition or a
+     * polled final state. Non-final updates only refresh the cached state.
+     */
+    public void onOrderUpdate(String userId, Order order) {
+        if (userId == null || order == null || order.orderId == null || !config.isOrderUpdatesEnabled()) {
+            return;
+        }
+        orderUpdates.incrementAndGet();
+        OrderEntry entry = user(userId).getOrCreate(order.orderId);
+        // Updates can overtake each other; a final state is never replaced by a later open one
+        if (entry.finalState.isDone()) {
+            return;
+        }
+        entry.latest = order;
+        if (isFinal(order.status)) {
+            entry.finalState.complete(order);
+            log.debug("[user={}] Order {} final via update stream: {} @ {}",
+                    userId, order.orderId, order.status, order.averagePrice);
+        }
+    }
+
+    /**
+     * Final state of an order from the update stream.
+     * <p>
+     * Returns immediately if the order is already final or the user's stream is not live;
+     * otherwise blocks until the final update arrives or the timeout elapses.
+     *
+     * @return the final order update, or null if none arrived (caller should poll)
+     */
+    public Order awaitFinalState(String userId, String orderId) {
+        if (userId == null || orderId == null || !config.isOrderUpdatesEnabled()) {
+            return null;
+        }
+        UserOrders u = user(userId);
+        OrderEntry entry = u.getOrCreate(orderId);
+        Order done = entry.finalState.getNow(null);
+        if (done != null) {
+            streamHits.incrementAndGet();
+            return done;
+        }
+        if (!u.streamLive) {
+            notStreaming.incrementAndGet();
+            return null;
+        }
+        try {
+            Order order = entry.finalState.get(config.getOrderUpdateTimeoutMs(), TimeUnit.MILLISECONDS);
+            streamHits.incrementAndGet();
+            return order;
+        } catch (TimeoutException e) {
+            silentTimeouts.incrementAndGet();
+            log.debug("[user={}] No final update for order {} within {}ms, falling back to polling",
+                    userId, orderId, config.getOrderUpdateTimeoutMs());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /** Latest cached update for an order (final or not), or null. Never blocks. */
+    public Order latest(String userId, String orderId) {
+        UserOrders u = userId != null ? users.get(userId) : null;
+        OrderEntry entry = u != null && orderId != null ? u.get(orderId) : null;
+        return entry != null ? entry.latest : null;
+    }
+
+    /** Orders currently cached for a user. */
+    int size(String userId) {
+        UserOrders u = userId != null ? users.get(userId) : null;
+        return u != null ? u.size() : 0;
+    }
+
+    /** Mark whether the user's order-update stream (ticker socket) is connected. */
+    public void setStreamLive(String userId, boolean live) {
+        if (userId != null) {
+            user(userId).streamLive = live;
+        }
+    }
+
+    public boolean isStreamLive(String userId) {
+        UserOrders u = userId != null ? users.get(userId) : null;
+        return u != null && u.streamLive;
+    }
+
+    /** Drop all cached state for a user (logout). */
+    public void clear(String userId) {
+        if (userId != null) {
+            users.remove(userId);
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isOrderUpdatesEnabled());
+        stats.put("timeoutMs", config.getOrderUpdateTimeoutMs());
+        stats.put("updates", orderUpdates.get());
+        stats.put("finalStateHits", streamHits.get());
+        stats.put("silentTimeouts", silentTimeouts.get());
+        stats.put("notStreaming", notStreaming.get());
+        return stats;
+    }
+}
@@ -7,6 +7,12 @@ import com.tradingbot.service.MarketDataEngine;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.service.UnifiedTradingService;
 import com.tradingbot.service.greeks.DeltaCacheService;
+import com.tradingbot.service.greeks.GreeksKernel;
+import com.tradingbot.service.greeks.ImpliedVolSeeds;
+import com.tradingbot.service.greeks.ImpliedVolatilitySolver;
+import com.tradingbot.service.instrument.InstrumentRegistry;
+import com.tradingbot.service.marketdata.OptionChainIndex;
+import com.tradingbot.service.marketdata.OptionChainSnapshot;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Instrument;
 import com.zerodhatech.models.LTPQuote;
@@ -37,10 +43,11 @@ public abstract class BaseStrategy implements TradingStrategy {
     protected final MarketDataEngine marketDataEngine;
     protected final InstrumentCacheService instrumentCacheService;
 
+    /** Per-strike IVs from the previous synchronous delta computation (IV solver warm start). */
+    private final ImpliedVolSeeds ivSeeds = new ImpliedVolSeeds();
 
     // Constants for Black-Scholes calculation
     private static final double RISK_FREE_RATE = 0.065; // Approximate annual risk-free rate (6.5%)
-    private static final double DIVIDEND_YIELD = 0.0;   // Indices have near-zero dividend yield for short horizons
     private static final TimeZone IST = TimeZone.getTimeZone("Asia/Kolkata");
 
     // ==================== HFT OPTIMIZATION: ThreadLocal Date/Time Objects ====================
@@ -251,13 +258,13 @@ public abstract class BaseStrategy implements TradingStrategy {
                 return engineStrike.get();
             }
 
-            // TIER 1b: Exact target not pre-computed, but full delta map is available —
-            // do a lightweight in-memory scan (no API calls).
-            Optional<Map<Double, Double>> deltaMapOpt = marketDataEngine.getPrecomputedDeltaMap(instrumentType);
-            if (deltaMapOpt.isPresent() && !deltaMapOpt.get().isEmpty()) {
-                Map<Double, Double> deltaMap = deltaMapOpt.get();
-                double bestStrike = findBestStrikeFromDeltaMap(deltaMap, targetDelta, optionType, approximateATM);
-                log.debug("Using MarketDataEngine delta map scan for {} Δ={}: strike={}", optionType, targetDelta, bestStrike);
+            // TIER 1b: Engine lookup missed (empty chain) — try the snapshot again with this
+            // strategy's own ATM for OTM-side enforcement (binary search, no API calls).
+            Optional<OptionChainSnapshot> snapshotOpt = marketDataEngine.getOptionChainSnapshot(instrumentType);
+            if (snapshotOpt.isPresent() && !snapshotOpt.get().isEmpty()) {
+                double bestStrike = snapshotOpt.get().findStrikeForDelta(
+                        targetDelta, OPTION_TYPE_CE.equals(optionType), approximateATM);
+                log.debug("Using MarketDataEngine chain snapshot for {} Δ={}: strike={}", optionType, targetDelta, bestStrike);
                 return bestStrike;
             }
 
@@ -287,7 +294,8 @@ public abstract class BaseStrategy implements TradingStrategy {
      * Find the best strike for a target delta from a pre-computed delta map.
      * Pure in-memory scan — no API calls.
      *
-     * @param deltaMap       map of strike → call delta (from MarketDataEngine or DeltaCacheService)
+     * @param deltaMap       map of strike → call delta (from DeltaCacheService; engine data uses
+     *                       {@link OptionChainSnapshot#findStrikeForDelta(double, boolean, double)})
      * @param targetDelta    target absolute delta (e.g., 0.4, 0.1)
      * @param optionType     "CE" or "PE"
      * @param approximateATM approximate ATM strike for OTM-side enforcement
@@ -457,25 +465,50 @@ public abstract class BaseStrategy implements TradingStrategy {
             midPriceMap.put(strike, getBothMidPrices(instrumentType, strike, expiry));
         }
 
-        // 2. Calculate a stable forward price using put-call parity from liquid strikes
-        double forwardPrice = calculateImpliedForwardPrice(spotPrice, midPriceMap, timeToExpiry);
-        log.info("Using implied forward price: {}", String.format("%.2f", forwardPrice));
-
-        // 3. Compute delta for each strike, tracking IVs for fallback
-        Map<Double, Double> deltas = new HashMap<>();
-        Map<Double, Double> computedIVs = new HashMap<>();
+        // 2. Flatten priced strikes into primitive arrays for the greeks kernel
         int skippedNoPrices = 0;
         int skippedInvalidIV = 0;
-
+        int n = 0;
+        double[] pricedStrikes = new double[strikes.size()];
+        double[] callPrices = new double[strikes.size()];
+        double[] putPrices = new double[strikes.size()];
         for (double strike : strikes) {
             MidPrices prices = midPriceMap.get(strike);
             if (prices == null || !prices.valid()) {
                 skippedNoPrices++;
                 continue;
             }
+            pricedStrikes[n] = strike;
+            callPrices[n] = prices.callMid;
+            putPrices[n] = prices.putMid;
+            n++;
+        }
 
-            // Calculate strike-specific IV
-            double iv = solveIVForwardPerStrike(prices.callMid, forwardPrice, strike, timeToExpiry);
+        // 3. Calculate a stable forward price using put-call parity from liquid strikes
+        if (n == 0) {
+            log.warn("Could not calculate any forward price estimates from market data. Falling back to formula.");
+        }
+        double forwardPrice = GreeksKernel.impliedForward(spotPrice, pricedStrikes, callPrices, putPrices, n,
+                timeToExpiry, RISK_FREE_RATE);
+        log.info("Using implied forward price: {}", String.format("%.2f", forwardPrice));
+
+        // 4. Batch IV solve for all priced strikes, warm-started from the previous call for this expiry,
+        //    then one kernel pass for the deltas
+        double[] ivs = new double[n];
+        String seedKey = instrumentType + "_" + expiry.getTime();
+        ivSeeds.fill(seedKey, pricedStrikes, n, ivs);
+        ImpliedVolatilitySolver.solveChain(pricedStrikes, callPrices, n, forwardPrice, timeToExpiry,
+                RISK_FREE_RATE, ivs, ivs);
+        ivSeeds.update(seedKey, pricedStrikes, ivs, n);
+        double[] callDeltas = new double[n];
+        GreeksKernel.callDeltas(forwardPrice, timeToExpiry, pricedStrikes, ivs, n, callDeltas);
+
+        // 5. Collect deltas, tracking IVs for fallback
+        Map<Double, Double> deltas = new HashMap<>();
+        Map<Double, Double> computedIVs = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            double strike = pricedStrikes[i];
+            double iv = ivs[i];
             if (Double.isNaN(iv) || iv <= 1e-4 || iv > 3.0) {
                 skippedInvalidIV++;
                 log.debug("Unreliable IV ({}) for strike {}. Skipping.", String.format("%.4f", iv), strike);
@@ -484,16 +517,9 @@ public abstract class BaseStrategy implements TradingStrategy {
 
             // Track IV for fallback estimation
             computedIVs.put(strike, iv);
+            deltas.put(strike, callDeltas[i]);
 
-            // Calculate delta using the forward model: Delta = N(d1)
-            double d1 = (Math.log(forwardPrice / strike) + 0.5 * iv * iv * timeToExpiry) / (iv * Math.sqrt(timeToExpiry));
-            double delta = cumulativeNormalDistribution(d1);
-
-            // Round to 2 decimal places to match convention
-            double roundedDelta = Math.round(delta * 100.0) / 100.0;
-            deltas.put(strike, delta);
-
-            log.debug("Strike: {}, IV: {}, d1: {}, Delta: {}, Rounded Delta: {}",strike, iv, d1, delta, roundedDelta);
+            log.debug("Strike: {}, IV: {}, Delta: {}", strike, iv, callDeltas[i]);
         }
 
         if (skippedNoPrices > 0 || skippedInvalidIV > 0) {
@@ -511,35 +537,6 @@ public abstract class BaseStrategy implements TradingStrategy {
         return computeCallDeltasWithIVs(instrumentType, expiry, spotPrice, strikes, timeToExpiry).deltas();
     }
 
-    private double calculateImpliedForwardPrice(double spotPrice, Map<Double, MidPrices> midPriceMap, double timeToExpiry) {
-        List<Double> forwardEstimates = new ArrayList<>();
-        // F = K + e^(rT) * (C - P)
-        double discountFactor = Math.exp(RISK_FREE_RATE * timeToExpiry);
-
-        for (Map.Entry<Double, MidPrices> entry : midPriceMap.entrySet()) {
-            double strike = entry.getKey();
-            MidPrices prices = entry.getValue();
-            if (prices.valid()) {
-                double forward = strike + (prices.callMid - prices.putMid) * discountFactor;
-                forwardEstimates.add(forward);
-            }
-        }
-
-        if (forwardEstimates.isEmpty()) {
-            log.warn("Could not calculate any forward price estimates from market data. Falling back to formula.");
-            return spotPrice * Math.exp((RISK_FREE_RATE - DIVIDEND_YIELD) * timeToExpiry);
-        }
-
-        // Return the median for robustness
-        Collections.sort(forwardEstimates);
-        int size = forwardEstimates.size();
-        if (size % 2 == 1) {
-            return forwardEstimates.get(size / 2);
-        } else {
-            return (forwardEstimates.get(size / 2 - 1) + forwardEstimates.get(size / 2)) / 2.0;
-        }
-    }
-
     // Helper container for CE/PE mid prices
     private static final class MidPrices {
         final Double callMid;
@@ -585,54 +582,6 @@ public abstract class BaseStrategy implements TradingStrategy {
         return diffInMillis / (365.2425 * 24.0 * 60.0 * 60.0 * 1000.0);
     }
 
-    // IV solver for a specific strike using forward pricing
-    // Call price formula: C = e^(-rT) * [F * N(d1) - K * N(d2)]
-    private double solveIVForwardPerStrike(double callPrice, double forward, double strike, double T) {
-        if (T <= 0 || callPrice <= 0) return 0.0;
-
-        double discountFactor = Math.exp(-RISK_FREE_RATE * T);
-        double intrinsic = Math.max(0, forward - strike) * discountFactor;
-
-        // If call price is at intrinsic, IV is very low
-        if (callPrice <= intrinsic * 1.001) return 0.01;
-
-        double sigma = 0.2; // initial guess
-        double sqrtT = Math.sqrt(T);
-
-        for (int i = 0; i < 100; i++) {
-            double d1 = (Math.log(forward / strike) + 0.5 * sigma * sigma * T) / (sigma * sqrtT);
-            double d2 = d1 - sigma * sqrtT;
-
-            double nd1 = cumulativeNormalDistribution(d1);
-            double nd2 = cumulativeNormalDistribution(d2);
-
-            // Theoretical call price
-            double theoreticalPrice = discountFactor * (forward * nd1 - strike * nd2);
-
-            // Vega (derivative with respect to sigma)
-            double vega = discountFactor * forward * normalPDF(d1) * sqrtT;
-
-            double priceDiff = theoreticalPrice - callPrice;
-
-            // Check convergence
-            if (Math.abs(priceDiff) < 0.0001) {
-                return sigma;
-            }
-
-            // Avoid division by very small vega
-            if (vega < 1e-10) break;
-
-            // Newton-Raphson step with damping factor 0.5 for stability
-            double step = priceDiff / vega;
-            sigma = sigma - 0.5 * step;
-
-            // Keep sigma in reasonable bounds
-            sigma = Math.max(0.01, Math.min(3.0, sigma));
-        }
-
-        return sigma;
-    }
-
     /**
      * Compute mid price for an option using Quote depth; fallback to last traded price.
      * Returns null if quote unavailable or price invalid.
@@ -701,56 +650,25 @@ public abstract class BaseStrategy implements TradingStrategy {
     }
 
     /**
-     * HFT OPTIMIZED: Find option instrument by strike using indexed loop instead of stream.
+     * HFT OPTIMIZED: Find option instrument by strike with a single primitive-keyed registry lookup
+     * on (underlying, expiry, strike, CE/PE) instead of filtering the NFO dump.
      */
     private Instrument findOptionInstrumentByStrike(String instrumentType, double strike, Date expiry, String optionType) throws KiteException, IOException {
-        List<Instrument> instrumentsForExpiry = getInstrumentsForExpiry(expiry);
-        String underlyingName = getUnderlyingName(instrumentType);
-
-        // HFT: Use indexed loop to avoid stream/iterator allocation
-        final int size = instrumentsForExpiry.size();
-        for (int i = 0; i < size; i++) {
-            final Instrument inst = instrumentsForExpiry.get(i);
-            if (!underlyingName.equals(inst.name)) continue;
-            if (!optionType.equals(inst.instrument_type)) continue;
-
-            try {
-                final double instStrike = Double.parseDouble(inst.strike);
-                if (Math.abs(instStrike - strike) < 0.01) {
-                    return inst;
-                }
-            } catch (NumberFormatException e) {
-                // Skip invalid instruments
-            }
-        }
-        return null;
+        InstrumentRegistry registry = getNfoRegistry();
+        int row = registry.findOption(getUnderlyingName(instrumentType), expiry.getTime(), strike,
+                OPTION_TYPE_PE.equals(optionType));
+        return row != InstrumentRegistry.NOT_FOUND ? registry.instrument(row) : null;
     }
 
     /**
-     * Get instruments for expiry using InstrumentCacheService.
-     * Uses the shared cache service (5-minute TTL) instead of per-instance HashMap.
+     * NFO instrument registry from InstrumentCacheService (built once per trading day).
+     * Without the cache service, builds one from a fresh dump.
      */
-    private List<Instrument> getInstrumentsForExpiry(Date expiry) throws KiteException, IOException {
-        SimpleDateFormat sdf = SDF_YYYY_MM_DD.get();
-        String expiryKey = sdf.format(expiry);
-
-        List<Instrument> allNfoInstruments;
+    private InstrumentRegistry getNfoRegistry() throws KiteException, IOException {
         if (instrumentCacheService != null) {
-            allNfoInstruments = instrumentCacheService.getInstruments(EXCHANGE_NFO);
-        } else {
-            allNfoInstruments = tradingService.getInstruments(EXCHANGE_NFO);
-        }
-
-        // Filter to the requested expiry
-        List<Instrument> result = new ArrayList<>();
-        final int size = allNfoInstruments.size();
-        for (int i = 0; i < size; i++) {
-            final Instrument inst = allNfoInstruments.get(i);
-            if (inst.getExpiry() != null && expiryKey.equals(sdf.format(inst.getExpiry()))) {
-                result.add(inst);
-            }
+            return instrumentCacheService.getRegistry(EXCHANGE_NFO);
         }
-        return result;
+        return InstrumentRegistry.build(tradingService.getInstruments(EXCHANGE_NFO));
     }
 
     private String getUnderlyingName(String instrumentType) {
@@ -891,47 +809,68 @@ public abstract class BaseStrategy implements TradingStrategy {
             log.debug("MarketDataEngine option chain miss for {} {}, falling back to API", instrumentType, expiry);
         }
 
-        // Legacy fallback: live API call
-        List<Instrument> allInstruments = tradingService.getInstruments(EXCHANGE_NFO);
+        // Legacy fallback: today's instrument dump, walked by (underlying, expiry) via the registry
+        InstrumentRegistry registry = getNfoRegistry();
+        final String underlyingName = getUnderlyingName(instrumentType);
 
-        final String namePrefix = switch (instrumentType.toUpperCase()) {
-            case "NIFTY" -> INSTRUMENT_NIFTY;
-            case "BANKNIFTY" -> INSTRUMENT_BANKNIFTY;
-            default -> instrumentType.toUpperCase();
-        };
+        List<Instrument> result = new ArrayList<>();
+        for (long expiryMs : registry.optionExpiries(underlyingName)) {
+            if (matchesExpiry(new Date(expiryMs), expiry)) {
+                result.addAll(registry.instruments(registry.optionChainRows(underlyingName, expiryMs)));
+            }
+        }
+        return result;
+    }
 
-        // HFT: Pre-allocate with estimated capacity to avoid resizing
-        final int estimatedSize = Math.min(allInstruments.size() / 10, 500);
-        List<Instrument> result = new ArrayList<>(estimatedSize);
+    /**
+     * Shared instrument index for {@code expiry}: the one MarketDataEngine published on its last
+     * option chain refresh, or one built from {@code instruments} when the engine has none for
+     * this expiry. The index is immutable and local to the caller — never store it in a field.
+     */
+    protected OptionChainIndex getOptionChainIndex(String instrumentType, Date expiry, List<Instrument> instruments) {
+        if (marketDataEngine != null) {
+            Optional<OptionChainIndex> published = marketDataEngine.getOptionChainIndex(instrumentType, expiry);
+            if (published.isPresent()) {
+                return published.get();
+            }
+        }
+        return OptionChainIndex.of(getUnderlyingName(instrumentType), expiry, instruments);
+    }
 
-        // HFT: Use indexed loop to avoid iterator allocation
-        final int size = allInstruments.size();
-        for (int i = 0; i < size; i++) {
-            final Instrument inst = allInstruments.get(i);
-            // HFT: Fast string equality check using interned constant
-            if (namePrefix.equals(inst.name)) {
-                final String optionType = inst.instrument_type;
-                if (OPTION_TYPE_CE.equals(optionType) || OPTION_TYPE_PE.equals(optionType)) {
-                    if (matchesExpiry(inst, expiry)) {
-                        result.add(inst);
-                    }
-                }
+    /**
+     * Instrument index for the expiry of an open leg (used when replacing it later in the day).
+     *
+     * @return the index, or null if the symbol is not in today's NFO dump
+     */
+    protected OptionChainIndex getOptionChainIndexForSymbol(String tradingSymbol) throws KiteException, IOException {
+        InstrumentRegistry registry = getNfoRegistry();
+        int row = registry.rowOfSymbol(tradingSymbol);
+        if (row == InstrumentRegistry.NOT_FOUND) {
+            return null;
+        }
+        String underlying = registry.underlying(row);
+        Date expiry = new Date(registry.expiryEpochMs(row));
+        if (marketDataEngine != null) {
+            Optional<OptionChainIndex> published = marketDataEngine.getOptionChainIndex(underlying, expiry);
+            if (published.isPresent()) {
+                return published.get();
             }
         }
-        return result;
+        return OptionChainIndex.of(underlying, expiry,
+                registry.instruments(registry.optionChainRows(underlying, expiry.getTime())));
     }
 
     /**
-     * Check if instrument matches the expiry
+     * Check if an option expiry matches the requested expiry (WEEKLY, MONTHLY or yyyy-MM-dd)
      */
-    private boolean matchesExpiry(Instrument instrument, String expiry) {
+    private boolean matchesExpiry(Date instrumentExpiry, String expiry) {
         if (expiry.equalsIgnoreCase("WEEKLY")) {
-            return isNearestWeeklyExpiry(instrument.expiry);
+            return isNearestWeeklyExpiry(instrumentExpiry);
         } else if (expiry.equalsIgnoreCase("MONTHLY")) {
-            return isMonthlyExpiry(instrument.expiry);
+            return isMonthlyExpiry(instrumentExpiry);
         } else {
             // HFT: Use ThreadLocal SimpleDateFormat
-            return SDF_YYYY_MM_DD.get().format(instrument.expiry).equals(expiry);
+            return SDF_YYYY_MM_DD.get().format(instrumentExpiry).equals(expiry);
         }
     }
 
@@ -1045,45 +984,6 @@ public abstract class BaseStrategy implements TradingStrategy {
         return 0.0;
     }
 
-    /**
-     * Cumulative Normal Distribution function
-     * Approximation using the error function
-     */
-    private double cumulativeNormalDistribution(double x) {
-        // Using the approximation: N(x) = 0.5 * (1 + erf(x / sqrt(2)))
-        return 0.5 * (1.0 + erf(x / Math.sqrt(2.0)));
-    }
-
-    /**
-     * Error function approximation (Abramowitz and Stegun formula)
-     */
-    private double erf(double x) {
-        // Constants
-        double a1 =  0.254829592;
-        double a2 = -0.284496736;
-        double a3 =  1.421413741;
-        double a4 = -1.453152027;
-        double a5 =  1.061405429;
-        double p  =  0.3275911;
-
-        // Save the sign of x
-        int sign = x < 0 ? -1 : 1;
-        x = Math.abs(x);
-
-        // A&S formula 7.1.26
-        double t = 1.0 / (1.0 + p * x);
-        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
-
-        return sign * y;
-    }
-
-    /**
-     * Standard Normal Probability Density Function.
-     */
-    private double normalPDF(double x) {
-        return (1.0 / Math.sqrt(2.0 * Math.PI)) * Math.exp(-0.5 * x * x);
-    }
-
     public void exitAllLegs(String executionId){
 
     }
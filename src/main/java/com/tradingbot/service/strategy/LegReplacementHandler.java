@@ -3,20 +3,26 @@ package com.tradingbot.service.strategy;
 import com.tradingbot.dto.OrderRequest;
 import com.tradingbot.dto.OrderResponse;
 import com.tradingbot.model.StrategyExecution;
+import com.tradingbot.service.MarketDataEngine;
 import com.tradingbot.service.StrategyService;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.marketdata.OptionChainIndex;
+import com.tradingbot.service.marketdata.OptionChainSnapshot;
 import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
 import com.tradingbot.util.StrategyConstants;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Instrument;
 import com.zerodhatech.models.LTPQuote;
+import com.zerodhatech.models.Order;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -34,7 +40,11 @@ import static com.tradingbot.service.TradingConstants.*;
  * <ul>
  *   <li>Uses batch LTP fetches for efficiency</li>
  *   <li>Early termination when exact premium match found</li>
- *   <li>Pre-built instrument index for fast lookups</li>
+ *   <li>Shared per-expiry {@link OptionChainIndex}: strike-range binary search instead of a map scan</li>
+ *   <li>Candidates ranked by MarketDataEngine chain-snapshot mid premium, so the exact-match
+ *       early exit triggers on the first few LTPs. Snapshot mids only rank: a replacement is
+ *       never chosen on them, since they can be one delta cycle (~10s) stale. If the LTP call
+ *       fails, the best-ranked candidates are re-quoted once; otherwise the replacement aborts</li>
  * </ul>
  *
  * @since 4.1
@@ -47,6 +57,8 @@ public class LegReplacementHandler {
     private final UnifiedTradingService unifiedTradingService;
     private final StrategyService strategyService;
     private final WebSocketService webSocketService;
+    private final MarketDataEngine marketDataEngine;
+    private final ProtectiveStopService protectiveStopService;
 
     // Maximum candidates to evaluate for replacement (avoid API overload)
     private static final int MAX_CANDIDATES = 500;
@@ -54,6 +66,8 @@ public class LegReplacementHandler {
     private static final double EXACT_MATCH_THRESHOLD = 0.5;
     // Number of strikes to check on each side of exited leg
     private static final int STRIKE_RANGE = 10;
+    // Candidates re-quoted (by snapshot rank) when the full LTP call fails
+    private static final int REQUOTE_CANDIDATES = 5;
     // Default strike interval for NIFTY (50) and BANKNIFTY (100)
     private static final double DEFAULT_STRIKE_INTERVAL = 50.0;
 
@@ -63,11 +77,15 @@ public class LegReplacementHandler {
                                  // Handler calls strategyService.completeExecution() / updateLegLifecycleState() after leg replacement.
                                  // Decoupling plan: StrategyCompletionEvent or StrategyCompletionCallback.
                                  @Lazy StrategyService strategyService,
-                                 WebSocketService webSocketService) {
+                                 WebSocketService webSocketService,
+                                 MarketDataEngine marketDataEngine,
+                                 ProtectiveStopService protectiveStopService) {
         this.tradingService = tradingService;
         this.unifiedTradingService = unifiedTradingService;
         this.strategyService = strategyService;
         this.webSocketService = webSocketService;
+        this.marketDataEngine = marketDataEngine;
+        this.protectiveStopService = protectiveStopService;
     }
 
     /**
@@ -82,7 +100,7 @@ public class LegReplacementHandler {
      *   <li>Premium should be closest to target premium</li>
      * </ul>
      *
-     * @param instrumentIndex  pre-built instrument index
+     * @param chainIndex       shared instrument index of the exited leg's expiry
      * @param optionType       option type (CE or PE)
      * @param targetPremium    target premium to match
      * @param maxPremiumDiff   maximum acceptable premium difference
@@ -91,7 +109,7 @@ public class LegReplacementHandler {
      * @return matching instrument or null if none found
      */
     public Instrument findInstrumentByTargetPremium(
-            Map<?, Instrument> instrumentIndex,
+            OptionChainIndex chainIndex,
             String optionType,
             double targetPremium,
             double maxPremiumDiff,
@@ -102,14 +120,14 @@ public class LegReplacementHandler {
                 optionType, targetPremium, maxPremiumDiff, exitedLegSymbol, exitedLegLtp);
 
         // Find the exited leg's strike to determine the search range
-        double exitedLegStrike = findExitedLegStrike(instrumentIndex, exitedLegSymbol);
+        double exitedLegStrike = findExitedLegStrike(chainIndex, exitedLegSymbol);
         if (exitedLegStrike < 0) {
             log.warn("Could not determine exited leg strike, falling back to full search");
             // Fallback: collect all candidates of the same option type
             exitedLegStrike = 0; // Will use wide range
         }
 
-        List<Instrument> candidates = collectCandidates(instrumentIndex, optionType, exitedLegSymbol, exitedLegStrike);
+        List<Instrument> candidates = collectCandidates(chainIndex, optionType, exitedLegSymbol, exitedLegStrike);
 
         if (candidates.isEmpty()) {
             log.warn("No {} instruments found within ±{} strikes of exited leg", optionType, STRIKE_RANGE);
@@ -118,9 +136,21 @@ public class LegReplacementHandler {
 
         log.debug("Found {} candidate {} instruments within strike range", candidates.size(), optionType);
 
+        boolean isCE = OPTION_TYPE_CE.equals(optionType);
+        OptionChainSnapshot snapshot = resolveSnapshot(candidates.get(0));
+        if (snapshot != null) {
+            candidates.sort(Comparator.comparingDouble(inst -> snapshotPremiumDistance(snapshot, inst, isCE, targetPremium)));
+        }
+
         Map<String, LTPQuote> ltpMap = fetchLTPsForCandidates(candidates);
+        if ((ltpMap == null || ltpMap.isEmpty()) && snapshot != null && candidates.size() > REQUOTE_CANDIDATES) {
+            // Re-quote only the snapshot's best-ranked strikes: a smaller request, still live prices
+            candidates = new ArrayList<>(candidates.subList(0, REQUOTE_CANDIDATES));
+            log.warn("No LTP data received, re-quoting {} best-ranked candidates", candidates.size());
+            ltpMap = fetchLTPsForCandidates(candidates);
+        }
         if (ltpMap == null || ltpMap.isEmpty()) {
-            log.warn("No LTP data received for candidate instruments");
+            log.warn("No LTP data received for candidate instruments — not trading on stale premiums");
             return null;
         }
 
@@ -129,9 +159,13 @@ public class LegReplacementHandler {
 
     /**
      * Place a replacement leg order and add it to the position monitor.
+     * <p>
+     * The exited leg's protective stop is released first, so it cannot outlive the leg. If that
+     * stop had already filled, the position reached its stop level: no replacement is sold and
+     * the whole position is closed instead.
      *
      * @param executionId         execution ID
-     * @param instrumentIndex     instrument index for lookups
+     * @param chainIndex          shared instrument index of the exited leg's expiry
      * @param exitedLegSymbol     symbol of exited leg
      * @param legType             type of leg to add (CE or PE)
      * @param targetPremium       target premium
@@ -141,7 +175,7 @@ public class LegReplacementHandler {
      * @param exitedLegLtp        LTP of exited leg
      */
     public void placeReplacementLegOrder(String executionId,
-                                         Map<?, Instrument> instrumentIndex,
+                                         OptionChainIndex chainIndex,
                                          String exitedLegSymbol,
                                          String legType,
                                          double targetPremium,
@@ -156,10 +190,19 @@ public class LegReplacementHandler {
                 tradingMode, legType, executionId, exitedLegSymbol, exitedLegLtp, targetPremium, lossMakingLegSymbol);
 
         try {
+            ProtectiveStopService.Release release = protectiveStopService.releaseLeg(executionId, exitedLegSymbol);
+            if (release.filled()) {
+                log.warn("[{}] Protective stop {} of exited leg {} had filled @ {} — closing {} instead of replacing",
+                        tradingMode, release.stopOrderId(), exitedLegSymbol, release.fillPrice(), executionId);
+                monitor.signalLegReplacementFailed("Protective stop of exited leg filled");
+                monitor.exitNow("PROTECTIVE_STOP_HIT: " + exitedLegSymbol);
+                return;
+            }
+
             double maxPremiumDiff = targetPremium * 0.20;
 
             Instrument replacementInstrument = findInstrumentByTargetPremium(
-                    instrumentIndex, legType, targetPremium, maxPremiumDiff, exitedLegSymbol, exitedLegLtp);
+                    chainIndex, legType, targetPremium, maxPremiumDiff, exitedLegSymbol, exitedLegLtp);
 
             if (replacementInstrument == null) {
                 log.error("[{}] Could not find replacement {} instrument for execution {}",
@@ -184,7 +227,7 @@ public class LegReplacementHandler {
             }
 
             String newOrderId = orderResponse.getOrderId();
-            double fillPrice = getFillPrice(replacementInstrument, targetPremium);
+            double fillPrice = getFillPrice(newOrderId, replacementInstrument, targetPremium);
 
             log.info("[{}] Replacement order placed: orderId={}, fillPrice={}",
                     tradingMode, newOrderId, fillPrice);
@@ -221,18 +264,16 @@ public class LegReplacementHandler {
      * Collect candidate instruments within ±STRIKE_RANGE strikes of the exited leg.
      * This limits the search space to instruments close to the exited leg's strike.
      *
-     * @param instrumentIndex  pre-built instrument index
+     * @param chainIndex       shared instrument index of the exited leg's expiry
      * @param optionType       option type (CE or PE)
      * @param exitedLegSymbol  symbol of exited leg (excluded)
      * @param exitedLegStrike  strike of the exited leg
      * @return list of candidate instruments within strike range
      */
-    private List<Instrument> collectCandidates(Map<?, Instrument> instrumentIndex,
+    private List<Instrument> collectCandidates(OptionChainIndex chainIndex,
                                                String optionType,
                                                String exitedLegSymbol,
                                                double exitedLegStrike) {
-        List<Instrument> candidates = new ArrayList<>();
-
         // Determine strike interval based on underlying (NIFTY=50, BANKNIFTY=100)
         double strikeInterval = getStrikeIntervalFromSymbol(exitedLegSymbol);
 
@@ -243,27 +284,10 @@ public class LegReplacementHandler {
         log.info("Collecting {} candidates within strike range [{}, {}] (exitedStrike: {}, interval: {})",
                 optionType, minStrike, maxStrike, exitedLegStrike, strikeInterval);
 
-        for (Map.Entry<?, Instrument> entry : instrumentIndex.entrySet()) {
-            Instrument inst = entry.getValue();
-            if (!optionType.equals(inst.instrument_type)) {
-                continue;
-            }
-
-            // Exclude the recently closed leg
-            if (Objects.equals(inst.tradingsymbol, exitedLegSymbol)) {
-                log.debug("Excluding exited leg: {}", exitedLegSymbol);
-                continue;
-            }
-
-            // Check if instrument strike is within range
-            try {
-                double instStrike = Double.parseDouble(inst.strike);
-                if (instStrike >= minStrike && instStrike <= maxStrike) {
-                    candidates.add(inst);
-                }
-            } catch (NumberFormatException e) {
-                log.trace("Skipping instrument with invalid strike: {}", inst.tradingsymbol);
-            }
+        List<Instrument> candidates = chainIndex.inRange(optionType, minStrike, maxStrike);
+        // Exclude the recently closed leg
+        if (candidates.removeIf(inst -> Objects.equals(inst.tradingsymbol, exitedLegSymbol))) {
+            log.debug("Excluding exited leg: {}", exitedLegSymbol);
         }
 
         log.debug("Found {} {} candidates within ±{} strikes of {}",
@@ -290,24 +314,47 @@ public class LegReplacementHandler {
     /**
      * Find the strike price of the exited leg from the instrument index.
      *
-     * @param instrumentIndex  pre-built instrument index
+     * @param chainIndex       shared instrument index of the exited leg's expiry
      * @param exitedLegSymbol  symbol of exited leg
      * @return strike price of the exited leg, or -1 if not found
      */
-    private double findExitedLegStrike(Map<?, Instrument> instrumentIndex, String exitedLegSymbol) {
-        for (Map.Entry<?, Instrument> entry : instrumentIndex.entrySet()) {
-            Instrument inst = entry.getValue();
-            if (Objects.equals(inst.tradingsymbol, exitedLegSymbol)) {
-                try {
-                    return Double.parseDouble(inst.strike);
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid strike format for exited leg: {}", exitedLegSymbol);
-                    return -1;
-                }
-            }
+    private double findExitedLegStrike(OptionChainIndex chainIndex, String exitedLegSymbol) {
+        double strike = chainIndex.strikeOf(exitedLegSymbol);
+        if (strike < 0) {
+            log.warn("Exited leg {} not found in instrument index", exitedLegSymbol);
+        }
+        return strike;
+    }
+
+    /**
+     * Engine chain snapshot for the candidate's underlying, only if it describes the same expiry.
+     */
+    private OptionChainSnapshot resolveSnapshot(Instrument sample) {
+        if (marketDataEngine == null || sample.name == null) {
+            return null;
+        }
+        OptionChainSnapshot snapshot = marketDataEngine.getOptionChainSnapshot(sample.name).orElse(null);
+        if (snapshot == null || snapshot.isEmpty() || !Objects.equals(snapshot.getExpiry(), sample.expiry)) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Distance of the snapshot mid premium from the target; unknown premiums sort last.
+     */
+    private double snapshotPremiumDistance(OptionChainSnapshot snapshot, Instrument inst,
+                                           boolean isCE, double targetPremium) {
+        double mid = snapshotMid(snapshot, inst, isCE);
+        return mid > 0 ? Math.abs(mid - targetPremium) : Double.MAX_VALUE;
+    }
+
+    private double snapshotMid(OptionChainSnapshot snapshot, Instrument inst, boolean isCE) {
+        try {
+            return snapshot.midForStrike(Double.parseDouble(inst.strike), isCE);
+        } catch (NumberFormatException e) {
+            return 0.0;
         }
-        log.warn("Exited leg {} not found in instrument index", exitedLegSymbol);
-        return -1;
     }
 
     private Map<String, LTPQuote> fetchLTPsForCandidates(List<Instrument> candidates) {
@@ -393,7 +440,23 @@ public class LegReplacementHandler {
         return unifiedTradingService.placeOrder(sellOrder);
     }
 
-    private double getFillPrice(Instrument instrument, double defaultPrice) {
+    /**
+     * Fill price of the replacement order: its average price if the order-update stream has already
+     * delivered the fill; otherwise the instrument's LTP. Never waits on the stream or polls.
+     */
+    private double getFillPrice(String orderId, Instrument instrument, double defaultPrice) {
+        try {
+            Order order = unifiedTradingService.getLatestOrderState(orderId, false);
+            if (order != null && StrategyConstants.ORDER_STATUS_COMPLETE.equals(order.status)
+                    && order.averagePrice != null && !order.averagePrice.isEmpty()) {
+                double averagePrice = Double.parseDouble(order.averagePrice);
+                if (averagePrice > 0) {
+                    return averagePrice;
+                }
+            }
+        } catch (Exception | KiteException e) {
+            log.warn("Could not resolve fill for replacement order {}, falling back to LTP: {}", orderId, e.getMessage());
+        }
         try {
             String identifier = "NFO:" + instrument.tradingsymbol;
             Map<String, LTPQuote> ltpMap = tradingService.getLTP(new String[]{identifier});
@@ -422,7 +485,7 @@ public class LegReplacementHandler {
                         .entryPrice(fillPrice)
                         .quantity(quantity)
                         .entryTransactionType(StrategyConstants.TRANSACTION_SELL)
-                        .entryTimestamp(System.currentTimeMillis())
+                        .entryTimestamp(TradingClock.currentTimeMillis())
                         .lifecycleState(StrategyExecution.LegLifecycleState.OPEN)
                         .build();
 
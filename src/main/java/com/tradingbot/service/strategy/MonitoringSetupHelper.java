@@ -15,8 +15,6 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
@@ -37,16 +35,19 @@ public class MonitoringSetupHelper {
     private final UnifiedTradingService unifiedTradingService;
     private final WebSocketService webSocketService;
     private final StrategyConfig strategyConfig;
+    private final ProtectiveStopService protectiveStopService;
 
     private static final LocalTime DEFAULT_FORCED_EXIT_TIME = LocalTime.of(15, 10);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
     public MonitoringSetupHelper(UnifiedTradingService unifiedTradingService,
                                  WebSocketService webSocketService,
-                                 StrategyConfig strategyConfig) {
+                                 StrategyConfig strategyConfig,
+                                 ProtectiveStopService protectiveStopService) {
         this.unifiedTradingService = unifiedTradingService;
         this.webSocketService = webSocketService;
         this.strategyConfig = strategyConfig;
+        this.protectiveStopService = protectiveStopService;
     }
 
     /**
@@ -166,7 +167,7 @@ public class MonitoringSetupHelper {
     private void setupStrangleMonitoringInternal(StrangleMonitoringParams params, MonitorCallbacks callbacks,
                                                   ExecutorService executor, String ownerUserId) {
         try {
-            // HFT: Parallel fetch of all 4 order histories
+            // HFT: Parallel fetch of all 4 fill prices (order-update stream, polling on silence)
             CompletableFuture<Double> sellCallPriceFuture = CompletableFuture.supplyAsync(
                     CurrentUserContext.wrapSupplier(() -> fetchOrderPriceSafe(params.sellCallOrderId())), executor);
             CompletableFuture<Double> sellPutPriceFuture = CompletableFuture.supplyAsync(
@@ -253,6 +254,7 @@ public class MonitoringSetupHelper {
                 webSocketService.connect();
             }
             webSocketService.startMonitoring(params.executionId(), monitor);
+            protectiveStopService.arm(monitor);
             log.info("Strangle position monitoring started for: {}", params.executionId());
 
         } catch (Exception e) {
@@ -299,28 +301,27 @@ public class MonitoringSetupHelper {
     ) {}
 
     /**
-     * Validate orders and fetch prices in parallel.
+     * Validate orders and read their fill prices in parallel.
+     * <p>
+     * HFT: Each order's final state comes from the order-update stream when it arrives in time
+     * (one {@code getOrderHistory} poll otherwise), and the fill price is read from that same state.
      */
     private OrderValidationResult validateOrdersParallel(String callOrderId, String putOrderId,
                                                          ExecutorService executor) {
-        // Parallel fetch of order histories
-        CompletableFuture<List<Order>> callHistoryFuture = CompletableFuture.supplyAsync(
-                CurrentUserContext.wrapSupplier(() -> fetchOrderHistorySafe(callOrderId)), executor);
+        CompletableFuture<Order> callOrderFuture = CompletableFuture.supplyAsync(
+                CurrentUserContext.wrapSupplier(() -> fetchFinalOrderSafe(callOrderId)), executor);
 
-        CompletableFuture<List<Order>> putHistoryFuture = CompletableFuture.supplyAsync(
-                CurrentUserContext.wrapSupplier(() -> fetchOrderHistorySafe(putOrderId)), executor);
+        CompletableFuture<Order> putOrderFuture = CompletableFuture.supplyAsync(
+                CurrentUserContext.wrapSupplier(() -> fetchFinalOrderSafe(putOrderId)), executor);
 
-        List<Order> callOrderHistory = callHistoryFuture.join();
-        List<Order> putOrderHistory = putHistoryFuture.join();
+        Order latestCallOrder = callOrderFuture.join();
+        Order latestPutOrder = putOrderFuture.join();
 
-        if (callOrderHistory.isEmpty() || putOrderHistory.isEmpty()) {
+        if (latestCallOrder == null || latestPutOrder == null) {
             log.error("Order history fetch failed - Call: {}, Put: {}", callOrderId, putOrderId);
             return null;
         }
 
-        Order latestCallOrder = callOrderHistory.get(callOrderHistory.size() - 1);
-        Order latestPutOrder = putOrderHistory.get(putOrderHistory.size() - 1);
-
         if (!StrategyConstants.ORDER_STATUS_COMPLETE.equals(latestCallOrder.status)) {
             log.warn("Call order {} not complete: {}", callOrderId, latestCallOrder.status);
             return null;
@@ -331,15 +332,8 @@ public class MonitoringSetupHelper {
             return null;
         }
 
-        // Parallel fetch of prices
-        CompletableFuture<Double> callPriceFuture = CompletableFuture.supplyAsync(
-                CurrentUserContext.wrapSupplier(() -> fetchOrderPriceSafe(callOrderId)), executor);
-
-        CompletableFuture<Double> putPriceFuture = CompletableFuture.supplyAsync(
-                CurrentUserContext.wrapSupplier(() -> fetchOrderPriceSafe(putOrderId)), executor);
-
-        double callEntryPrice = callPriceFuture.join();
-        double putEntryPrice = putPriceFuture.join();
+        double callEntryPrice = fillPriceOf(latestCallOrder);
+        double putEntryPrice = fillPriceOf(latestPutOrder);
 
         if (callEntryPrice == 0.0 || putEntryPrice == 0.0) {
             log.error("Invalid entry prices - Call: {}, Put: {}", callEntryPrice, putEntryPrice);
@@ -349,30 +343,32 @@ public class MonitoringSetupHelper {
         return new OrderValidationResult(latestCallOrder, latestPutOrder, callEntryPrice, putEntryPrice);
     }
 
-    private List<Order> fetchOrderHistorySafe(String orderId) {
+    private Order fetchFinalOrderSafe(String orderId) {
         try {
-            return unifiedTradingService.getOrderHistory(orderId);
+            return unifiedTradingService.getFinalOrderState(orderId);
         } catch (Exception | KiteException e) {
             log.error("Failed to fetch order history for {}: {}", orderId, e.getMessage());
-            return Collections.emptyList();
+            return null;
         }
     }
 
     private double fetchOrderPriceSafe(String orderId) {
-        try {
-            List<Order> history = unifiedTradingService.getOrderHistory(orderId);
-            if (!history.isEmpty()) {
-                Order order = history.get(history.size() - 1);
-                // averagePrice can be a String in Kite API, parse safely
-                if (order.averagePrice != null && !order.averagePrice.isEmpty()) {
-                    double avgPrice = Double.parseDouble(order.averagePrice);
-                    if (avgPrice > 0) {
-                        return avgPrice;
-                    }
+        Order order = fetchFinalOrderSafe(orderId);
+        return order != null ? fillPriceOf(order) : 0.0;
+    }
+
+    /** Average fill price of an order, or 0.0 if missing or not positive. */
+    private double fillPriceOf(Order order) {
+        // averagePrice can be a String in Kite API, parse safely
+        if (order.averagePrice != null && !order.averagePrice.isEmpty()) {
+            try {
+                double avgPrice = Double.parseDouble(order.averagePrice);
+                if (avgPrice > 0) {
+                    return avgPrice;
                 }
+            } catch (NumberFormatException e) {
+                log.error("Failed to parse order price for {}: {}", order.orderId, e.getMessage());
             }
-        } catch (Exception | KiteException e) {
-            log.error("Failed to fetch order price for {}: {}", orderId, e.getMessage());
         }
         return 0.0;
     }
@@ -495,6 +491,7 @@ public class MonitoringSetupHelper {
         }
 
         webSocketService.startMonitoring(executionId, monitor);
+        protectiveStopService.arm(monitor);
         log.info("Position monitoring started for: {}", executionId);
     }
 
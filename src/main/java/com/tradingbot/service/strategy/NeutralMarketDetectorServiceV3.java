@@ -8,6 +8,7 @@ import com.tradingbot.model.Regime;
 import com.tradingbot.service.InstrumentCacheService;
 import com.tradingbot.service.MarketDataEngine;
 import com.tradingbot.service.TradingService;
+import com.tradingbot.service.marketdata.VwapAccumulator;
 import com.tradingbot.util.CandleUtils;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.HistoricalData;
@@ -107,6 +108,9 @@ public class NeutralMarketDetectorServiceV3 implements NeutralMarketDetector {
     /** Instrument token cache to avoid repeated NSE instrument list scans. */
     private final ConcurrentHashMap<String, String> instrumentTokenCache = new ConcurrentHashMap<>(4);
 
+    /** Rolling VWAP sums over the last {@code vwapCandleCount} candles per instrument (fallback path). */
+    private final ConcurrentHashMap<String, VwapAccumulator> vwapAccumulators = new ConcurrentHashMap<>(4);
+
     // ==================== INTERNAL CACHE RECORD ====================
 
     private record CachedResult(NeutralMarketResultV3 result, long fetchTimeMs) {
@@ -1246,28 +1250,27 @@ public class NeutralMarketDetectorServiceV3 implements NeutralMarketDetector {
             return -1;
         }
 
-        int count = Math.min(config.getVwapCandleCount(), candles.size());
-        int startIdx = candles.size() - count;
-
-        double sumTPxVol = 0;
-        double sumVol = 0;
-        double sumTP = 0;
-        int used = 0;
+        // Rolling window sums: only candles finalized since the previous evaluation are folded in
+        int window = Math.max(1, config.getVwapCandleCount());
+        VwapAccumulator accumulator = vwapAccumulators.get(instrumentType);
+        if (accumulator == null || accumulator.getWindow() != window) {
+            accumulator = VwapAccumulator.windowed(window);
+            vwapAccumulators.put(instrumentType, accumulator);
+        }
 
-        for (int i = startIdx; i < candles.size(); i++) {
-            HistoricalData c = candles.get(i);
-            double tp = (c.high + c.low + c.close) / 3.0;
-            sumTPxVol += tp * c.volume;
-            sumVol += c.volume;
-            sumTP += tp;
-            used++;
+        double vwap;
+        double typicalMean;
+        synchronized (accumulator) {
+            accumulator.sync(candles);
+            vwap = accumulator.getVwap();
+            typicalMean = accumulator.getTypicalPriceMean();
         }
 
-        if (sumVol > 0) {
-            return sumTPxVol / sumVol;
-        } else if (used > 0) {
+        if (vwap > 0) {
+            return vwap;
+        } else if (!Double.isNaN(typicalMean)) {
             // NIFTY 50 index — volume unavailable, SMA of typical price is the best proxy
-            return sumTP / used;
+            return typicalMean;
         }
         return -1;
     }
@@ -1303,8 +1306,8 @@ public class NeutralMarketDetectorServiceV3 implements NeutralMarketDetector {
     }
 
     /**
-     * Fetch 1-minute candles from MarketDataEngine cache.
-     * Falls back to direct API only if MDE is unavailable.
+     * Fetch 1-minute candles from MarketDataEngine cache (tick-built bars, republished on every
+     * minute close). Falls back to direct API only if MDE is unavailable.
      */
     private List<HistoricalData> fetchOneMinuteCandles(String instrumentType) {
         try {
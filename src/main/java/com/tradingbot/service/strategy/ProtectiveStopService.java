@@ -0,0 +1,511 @@
+package com.tradingbot.service.strategy;
+
+import com.tradingbot.config.StrategyConfig;
+import com.tradingbot.dto.OrderRequest;
+import com.tradingbot.dto.OrderResponse;
+import com.tradingbot.paper.PaperTradingService;
+import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.strategy.monitoring.LegMonitor;
+import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
+import com.tradingbot.util.CurrentUserContext;
+import com.tradingbot.util.TradingClock;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.tradingbot.service.TradingConstants.*;
+
+/**
+ * Exchange-resident protective stops for short option legs ({@code strategy.protective-stops-enabled}).
+ * <p>
+ * Once a position is monitored, every short leg gets a BUY stop order (SL-M, or SL with a limit
+ * buffer) resting at the exchange at {@link PositionMonitorV2#protectiveStopPrice(String)} — the
+ * leg price that alone takes the position to its stop level. A stop that is hit fills at the
+ * exchange without waiting for tick delivery, evaluation and an exit round-trip; the in-process
+ * monitor stays the backup and still owns every other exit.
+ *
+ * <h2>Sync loop</h2>
+ * Every {@code protective-stop-sync-interval-ms} one thread reconciles the stops with the monitors:
+ * <ul>
+ *   <li>places missing stops (including for replacement legs)</li>
+ *   <li>modifies a stop when trailing or premium levels moved its target trigger by at least
+ *       {@code protective-stop-min-move-points}, at most once per
+ *       {@code protective-stop-modify-interval-ms} and {@code protective-stop-max-modifications}
+ *       times per order</li>
+ *   <li>when a leg price reaches its stop, asks the monitor to exit the whole position
+ *       ({@link PositionMonitorV2#requestExit(String)}), so legs still open are closed as well</li>
+ *   <li>reads each stop's order state (order-update stream or paper book every pass, an
+ *       order-history poll at most every {@value #STATUS_POLL_INTERVAL_MS} ms otherwise); a stop
+ *       that filled closes the position at once ({@link PositionMonitorV2#exitNow(String)}),
+ *       since with a stalled feed the leg price never reaches the trigger in process</li>
+ * </ul>
+ * In paper mode the loop also simulates the resting stops by feeding the monitors' latest leg
+ * prices into {@link PaperTradingService#onPriceUpdate(String, double)}.
+ *
+ * <h2>Exit reconciliation</h2>
+ * Exit paths call {@link #release(String)} before sending a leg's exit order. The resting stop is
+ * cancelled; if it had already filled, its fill is returned and no second exit order is sent.
+ * Releasing is idempotent: a later release of the same leg returns the same outcome, so the leg
+ * replacement path ({@link #releaseLeg(String, String)}) and the leg's own exit can both release.
+ *
+ * @since 6.3
+ */
+@Slf4j
+@Service
+public class ProtectiveStopService {
+
+    /** NFO option tick size; triggers are rounded up to it so they never sit below the stop level. */
+    static final double TICK_SIZE = 0.05;
+
+    /** Stops left behind by a stopped monitor or a removed leg are cancelled after this long. */
+    private static final long ORPHAN_GRACE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /** Order-history polls per stop when its state is not pushed (stream down), to stay in the API rate limit. */
+    static final long STATUS_POLL_INTERVAL_MS = 1_000;
+
+    private static final String EXIT_REASON_PREFIX = "PROTECTIVE_STOP_HIT: ";
+
+    private final UnifiedTradingService unifiedTradingService;
+    private final PaperTradingService paperTradingService;
+    private final StrategyConfig strategyConfig;
+
+    /** Armed positions by execution id. */
+    private final Map<String, ArmedPosition> positions = new ConcurrentHashMap<>();
+
+    /** Stops by the entry order id of the leg they protect, until their position is disarmed. */
+    private final Map<String, RestingStop> stopsByLegOrderId = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService syncExecutor;
+
+    public ProtectiveStopService(UnifiedTradingService unifiedTradingService,
+                                 PaperTradingService paperTradingService,
+                                 StrategyConfig strategyConfig) {
+        this.unifiedTradingService = unifiedTradingService;
+        this.paperTradingService = paperTradingService;
+        this.strategyConfig = strategyConfig;
+    }
+
+    /**
+     * Outcome of releasing a leg's protective stop before its exit.
+     *
+     * @param stopOrderId id of the stop order that filled, null if the leg is still open
+     * @param fillPrice   average fill price of the stop, null if unknown or not filled
+     */
+    public record Release(String stopOrderId, Double fillPrice) {
+        public static final Release NONE = new Release(null, null);
+
+        /** @return true if the stop filled, i.e. the leg is already closed */
+        public boolean filled() {
+            return stopOrderId != null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return strategyConfig.isProtectiveStopsEnabled();
+    }
+
+    /**
+     * Start protecting a monitored position. The stops are placed by the next sync pass.
+     * No-op unless protective stops are enabled.
+     */
+    public void arm(PositionMonitorV2 monitor) {
+        if (!isEnabled()) return;
+        if (monitor.getOwnerUserId() == null) {
+            log.warn("Protective stops not armed for {}: monitor has no owner", monitor.getExecutionId());
+            return;
+        }
+        positions.put(monitor.getExecutionId(), new ArmedPosition(monitor));
+        ensureSyncLoop();
+        log.info("Protective stops armed for {}", monitor.getExecutionId());
+    }
+
+    /**
+     * Exit path: take the protective stop of a leg out of the market before the leg's own exit
+     * order is sent. Must run in the owner's user context.
+     *
+     * @param legOrderId entry order id of the leg
+     * @return the stop's fill if it already closed the leg, else {@link Release#NONE}
+     */
+    public Release release(String legOrderId) {
+        if (legOrderId == null) return Release.NONE;
+        RestingStop stop = stopsByLegOrderId.get(legOrderId);
+        if (stop == null) return Release.NONE;
+        synchronized (stop) {
+            resolve(stop);
+            return stop.state == StopState.FILLED
+                    ? new Release(stop.orderId, stop.fillPrice)
+                    : Release.NONE;
+        }
+    }
+
+    /**
+     * {@link #release(String)} by leg symbol, for paths that no longer hold the leg's entry order
+     * id — leg replacement runs after the monitor dropped the exited leg.
+     *
+     * @return the fill of a stop on {@code legSymbol} that already closed it, else {@link Release#NONE}
+     */
+    public Release releaseLeg(String executionId, String legSymbol) {
+        ArmedPosition position = executionId != null ? positions.get(executionId) : null;
+        if (position == null || legSymbol == null) return Release.NONE;
+        Release filled = Release.NONE;
+        for (RestingStop stop : position.stops) {
+            if (legSymbol.equals(stop.legSymbol)) {
+                Release release = release(stop.legOrderId);
+                if (release.filled()) {
+                    filled = release;
+                }
+            }
+        }
+        return filled;
+    }
+
+    // ==================== Sync Loop ====================
+
+    private synchronized void ensureSyncLoop() {
+        if (syncExecutor != null) return;
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "protective-stop-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(50L, strategyConfig.getProtectiveStopSyncIntervalMs());
+        syncExecutor.scheduleWithFixedDelay(this::syncAll, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Protective stop sync loop started: interval={}ms", interval);
+    }
+
+    /** One reconciliation pass over all armed positions. */
+    void syncAll() {
+        final boolean paper = unifiedTradingService.isPaperTradingEnabled();
+        for (ArmedPosition position : positions.values()) {
+            try {
+                CurrentUserContext.setUserId(position.monitor.getOwnerUserId());
+                sync(position, paper);
+            } catch (Exception e) {
+                log.error("Protective stop sync failed for {}: {}",
+                        position.monitor.getExecutionId(), e.getMessage(), e);
+            } finally {
+                CurrentUserContext.clear();
+            }
+        }
+    }
+
+    private void sync(ArmedPosition position, boolean paper) {
+        final PositionMonitorV2 monitor = position.monitor;
+        final long now = TradingClock.nanoTime();
+
+        if (!monitor.isActive()) {
+            // Exit in progress: its exit path releases the stops. Anything left after the grace is orphaned.
+            if (position.inactiveSinceNanos == 0L) {
+                position.inactiveSinceNanos = now;
+            } else if (now - position.inactiveSinceNanos > ORPHAN_GRACE_NANOS) {
+                for (RestingStop stop : position.stops) {
+                    cancelOrphan(stop);
+                    stopsByLegOrderId.remove(stop.legOrderId, stop);
+                }
+                positions.remove(monitor.getExecutionId(), position);
+                log.info("Protective stops disarmed for {}", monitor.getExecutionId());
+            }
+            return;
+        }
+
+        final Map<String, LegMonitor> legs = monitor.getLegsBySymbol();
+        String filledExitReason = null;
+        for (LegMonitor leg : legs.values()) {
+            RestingStop stop = stopsByLegOrderId.get(leg.getOrderId());
+            if (stop == null) {
+                if (!position.stopLegOrderIds.contains(leg.getOrderId())) {
+                    place(position, leg);
+                }
+                continue;
+            }
+            synchronized (stop) {
+                if (stop.state != StopState.RESTING) continue;
+                final double ltp = leg.getCurrentPrice();
+                if (paper) {
+                    // Simulated exchange: fill every paper stop on this symbol the price has reached
+                    paperTradingService.onPriceUpdate(leg.getSymbol(), ltp);
+                }
+                if (detectFill(stop, now)) {
+                    log.warn("Protective stop {} for {} filled @ {} — closing {}",
+                            stop.orderId, leg.getSymbol(), stop.fillPrice, monitor.getExecutionId());
+                    filledExitReason = EXIT_REASON_PREFIX + leg.getSymbol() + " filled @ " + stop.fillPrice;
+                    break;
+                }
+                if (ltp >= stop.triggerPrice) {
+                    log.warn("Protective stop {} for {} reached @ {} (trigger {}) — exiting {}",
+                            stop.orderId, leg.getSymbol(), ltp, stop.triggerPrice, monitor.getExecutionId());
+                    monitor.requestExit(EXIT_REASON_PREFIX + leg.getSymbol() + " @ " + stop.triggerPrice);
+                    continue;
+                }
+                maybeModify(stop, monitor.protectiveStopPrice(leg.getSymbol()), ltp, now);
+            }
+        }
+        if (filledExitReason != null) {
+            // Outside the stop's lock: the exit path releases every leg's stop from executor threads
+            monitor.exitNow(filledExitReason);
+            return;
+        }
+
+        // Stops whose leg left the monitor without an exit-path release (e.g. failed exit)
+        for (RestingStop stop : position.stops) {
+            if (stop.state != StopState.RESTING || legs.containsKey(stop.legSymbol)) {
+                stop.legGoneSinceNanos = 0L;
+            } else if (stop.legGoneSinceNanos == 0L) {
+                stop.legGoneSinceNanos = now;
+            } else if (now - stop.legGoneSinceNanos > ORPHAN_GRACE_NANOS) {
+                cancelOrphan(stop);
+            }
+        }
+    }
+
+    private void place(ArmedPosition position, LegMonitor leg) {
+        final double stopPrice = position.monitor.protectiveStopPrice(leg.getSymbol());
+        if (Double.isNaN(stopPrice)) {
+            return; // Not a short leg, or no stop level to protect
+        }
+        final double trigger = roundUpToTick(stopPrice);
+        if (trigger <= leg.getCurrentPrice()) {
+            return; // Already at the stop: the monitor exits; a stop here would fill at once
+        }
+
+        // Reserve the leg first so a failed placement is not retried every pass
+        position.stopLegOrderIds.add(leg.getOrderId());
+        try {
+            OrderRequest request = buildStopRequest(leg, trigger);
+            OrderResponse response = unifiedTradingService.placeOrder(request);
+            if (!STATUS_SUCCESS.equals(response.getStatus())) {
+                log.error("Protective stop for {} rejected: {} — monitor remains the only stop",
+                        leg.getSymbol(), response.getMessage());
+                return;
+            }
+            RestingStop stop = new RestingStop(response.getOrderId(), leg.getOrderId(), leg.getSymbol(), trigger);
+            stop.lastModifiedNanos = TradingClock.nanoTime();
+            position.stops.add(stop);
+            stopsByLegOrderId.put(leg.getOrderId(), stop);
+            log.info("Protective stop {} placed for {} ({}): trigger={}",
+                    stop.orderId, leg.getSymbol(), position.monitor.getExecutionId(), trigger);
+        } catch (KiteException | IOException e) {
+            log.error("Failed to place protective stop for {}: {} — monitor remains the only stop",
+                    leg.getSymbol(), e.getMessage());
+        }
+    }
+
+    /** Move a resting stop to its current target trigger, within the modification budget. Caller holds the stop. */
+    private void maybeModify(RestingStop stop, double stopPrice, double ltp, long now) {
+        if (Double.isNaN(stopPrice)) return;
+        final double trigger = roundUpToTick(stopPrice);
+        if (Math.abs(trigger - stop.triggerPrice) < strategyConfig.getProtectiveStopMinMovePoints()
+                || trigger <= ltp
+                || stop.modifications >= strategyConfig.getProtectiveStopMaxModifications()
+                || now - stop.lastModifiedNanos < TimeUnit.MILLISECONDS.toNanos(strategyConfig.getProtectiveStopModifyIntervalMs())) {
+            return;
+        }
+        try {
+            OrderRequest request = OrderRequest.builder()
+                    .orderType(resolveOrderType())
+                    .triggerPrice(trigger)
+                    .price(ORDER_TYPE_SL.equals(resolveOrderType()) ? limitPriceFor(trigger) : null)
+                    .validity(VALIDITY_DAY)
+                    .build();
+            OrderResponse response = unifiedTradingService.modifyOrder(stop.orderId, request);
+            if (STATUS_SUCCESS.equals(response.getStatus())) {
+                log.info("Protective stop {} for {} moved {} -> {}", stop.orderId, stop.legSymbol, stop.triggerPrice, trigger);
+                stop.triggerPrice = trigger;
+            } else {
+                log.warn("Protective stop {} modify refused: {}", stop.orderId, response.getMessage());
+            }
+        } catch (KiteException | IOException | RuntimeException e) {
+            log.warn("Failed to modify protective stop {}: {}", stop.orderId, e.getMessage());
+        } finally {
+            // A refused or failed attempt also counts against the cadence and the per-order cap
+            stop.modifications++;
+            stop.lastModifiedNanos = now;
+        }
+    }
+
+    private void cancelOrphan(RestingStop stop) {
+        synchronized (stop) {
+            if (stop.state != StopState.RESTING) return;
+            resolve(stop);
+        }
+        log.warn("Orphaned protective stop {} for {} resolved as {}", stop.orderId, stop.legSymbol, stop.state);
+    }
+
+    /**
+     * Read the stop's order state; records a fill or an outside cancel/reject. Pushed states
+     * (paper book, live order-update stream) are read every pass, polls are rate-limited.
+     * Caller holds the stop.
+     *
+     * @return true if the stop has filled
+     */
+    private boolean detectFill(RestingStop stop, long now) {
+        final boolean poll = now - stop.lastStatusPollNanos >= TimeUnit.MILLISECONDS.toNanos(STATUS_POLL_INTERVAL_MS);
+        final Order latest;
+        try {
+            latest = unifiedTradingService.getLatestOrderState(stop.orderId, poll);
+        } catch (KiteException | IOException e) {
+            log.debug("Order state of protective stop {} unavailable: {}", stop.orderId, e.getMessage());
+            return false;
+        } finally {
+            if (poll) {
+                stop.lastStatusPollNanos = now;
+            }
+        }
+        if (latest == null) {
+            return false;
+        }
+        if (STATUS_COMPLETE.equals(latest.status)) {
+            stop.state = StopState.FILLED;
+            stop.fillPrice = parsePrice(latest.averagePrice);
+            return true;
+        }
+        if (STATUS_CANCELLED.equals(latest.status) || STATUS_REJECTED.equals(latest.status)) {
+            stop.state = StopState.CANCELLED;
+            log.error("Protective stop {} for {} is {} at the broker — monitor remains the only stop",
+                    stop.orderId, stop.legSymbol, latest.status);
+        }
+        return false;
+    }
+
+    /** Take a resting stop out of the market: cancel it, or record its fill if it already executed. Caller holds the stop. */
+    private void resolve(RestingStop stop) {
+        if (stop.state != StopState.RESTING) return;
+        try {
+            OrderResponse response = unifiedTradingService.cancelOrder(stop.orderId);
+            if (STATUS_SUCCESS.equals(response.getStatus())) {
+                stop.state = StopState.CANCELLED;
+                log.info("Protective stop {} for {} cancelled", stop.orderId, stop.legSymbol);
+                return;
+            }
+        } catch (KiteException | IOException | RuntimeException e) {
+            log.warn("Cancel of protective stop {} failed: {} — checking for a fill", stop.orderId, e.getMessage());
+        }
+
+        // Not cancellable: most likely already executed (then its fill is already in the order-update cache)
+        try {
+            Order latest = unifiedTradingService.getFinalOrderState(stop.orderId);
+            if (latest != null && STATUS_COMPLETE.equals(latest.status)) {
+                stop.state = StopState.FILLED;
+                stop.fillPrice = parsePrice(latest.averagePrice);
+                log.warn("Protective stop {} for {} already filled @ {}", stop.orderId, stop.legSymbol, stop.fillPrice);
+                return;
+            }
+            stop.state = StopState.CANCELLED;
+            log.error("Protective stop {} for {} neither cancelled nor filled (status={}) — it may still be resting",
+                    stop.orderId, stop.legSymbol, latest != null ? latest.status : "UNKNOWN");
+        } catch (KiteException | IOException e) {
+            stop.state = StopState.CANCELLED;
+            log.error("Protective stop {} for {} state unknown after failed cancel: {}",
+                    stop.orderId, stop.legSymbol, e.getMessage());
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private OrderRequest buildStopRequest(LegMonitor leg, double trigger) {
+        String orderType = resolveOrderType();
+        return OrderRequest.builder()
+                .tradingSymbol(leg.getSymbol())
+                .exchange(EXCHANGE_NFO)
+                .transactionType(TRANSACTION_BUY)
+                .quantity(leg.getQuantity())
+                .product(PRODUCT_MIS)
+                .orderType(orderType)
+                .triggerPrice(trigger)
+                .price(ORDER_TYPE_SL.equals(orderType) ? limitPriceFor(trigger) : null)
+                .validity(VALIDITY_DAY)
+                .build();
+    }
+
+    private String resolveOrderType() {
+        return ORDER_TYPE_SL.equalsIgnoreCase(strategyConfig.getProtectiveStopOrderType())
+                ? ORDER_TYPE_SL
+                : ORDER_TYPE_SL_M;
+    }
+
+    private double limitPriceFor(double trigger) {
+        return roundUpToTick(trigger + Math.max(0.0, strategyConfig.getProtectiveStopLimitBufferPoints()));
+    }
+
+    /** Round up to the tick size, tolerating representation error just above a tick. */
+    static double roundUpToTick(double price) {
+        long ticks = (long) Math.ceil(price / TICK_SIZE - 1e-6);
+        return Math.round(ticks * TICK_SIZE * 100.0) / 100.0;
+    }
+
+    private static Double parsePrice(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            double price = Double.parseDouble(value);
+            return price > 0 ? price : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Number of stops currently resting at the broker. */
+    public int restingStopCount() {
+        int resting = 0;
+        for (RestingStop stop : stopsByLegOrderId.values()) {
+            if (stop.state == StopState.RESTING) resting++;
+        }
+        return resting;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+            syncExecutor = null;
+        }
+    }
+
+    // ==================== State ====================
+
+    private enum StopState { RESTING, CANCELLED, FILLED }
+
+    private static final class ArmedPosition {
+        final PositionMonitorV2 monitor;
+        final List<RestingStop> stops = new CopyOnWriteArrayList<>();
+        /** Legs whose stop was placed or attempted; a leg is never given a second stop. */
+        final Set<String> stopLegOrderIds = ConcurrentHashMap.newKeySet();
+        long inactiveSinceNanos;
+
+        ArmedPosition(PositionMonitorV2 monitor) {
+            this.monitor = monitor;
+        }
+    }
+
+    /** Guarded by its own monitor (sync thread vs. exit path). */
+    private static final class RestingStop {
+        final String orderId;
+        final String legOrderId;
+        final String legSymbol;
+        double triggerPrice;
+        volatile StopState state = StopState.RESTING;
+        Double fillPrice;
+        int modifications;
+        long lastModifiedNanos;
+        long lastStatusPollNanos;
+        long legGoneSinceNanos;
+
+        RestingStop(String orderId, String legOrderId, String legSymbol, double triggerPrice) {
+            this.orderId = orderId;
+            this.legOrderId = legOrderId;
+            this.legSymbol = legSymbol;
+            this.triggerPrice = triggerPrice;
+        }
+    }
+}
@@ -18,10 +18,12 @@ import com.tradingbot.service.StrategyService;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.service.UnifiedTradingService;
 import com.tradingbot.service.greeks.DeltaCacheService;
+import com.tradingbot.service.marketdata.OptionChainIndex;
 import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
 import com.tradingbot.util.CurrentUserContext;
 import com.tradingbot.util.StrategyConstants;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.Instrument;
 import lombok.extern.slf4j.Slf4j;
@@ -31,7 +33,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.LocalTime;
-import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -54,7 +55,7 @@ import static com.tradingbot.service.TradingConstants.*;
  * <p>
  * HFT Optimizations:
  * <ul>
- *   <li>O(1) instrument lookup via pre-built HashMap index</li>
+ *   <li>Strike lookups via the shared per-expiry {@link OptionChainIndex}</li>
  *   <li>Pre-parsed strike values to avoid Double.parseDouble() on hot path</li>
  *   <li>Parallel order placement for all legs</li>
  *   <li>High-priority dedicated thread pool for exit orders</li>
@@ -78,7 +79,6 @@ public class SellATMStraddleStrategy extends BaseStrategy {
     private final NeutralMarketDetector neutralMarketDetectorService;
 
     // ==================== HFT Thread Pool Configuration ====================
-    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
     private static final int HFT_THREAD_POOL_SIZE = 8;
     private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
     private static final ThreadFactory HFT_THREAD_FACTORY = r -> {
@@ -106,18 +106,6 @@ public class SellATMStraddleStrategy extends BaseStrategy {
     private static final String LEG_TYPE_HEDGE_CALL = "HedgeCall";
     private static final String LEG_TYPE_HEDGE_PUT = "HedgePut";
 
-    // ==================== HFT Instrument Index ====================
-    /**
-     * Immutable key for O(1) instrument lookup by strike and option type.
-     */
-    private record InstrumentKey(long strikeX100, String optionType) {
-        static InstrumentKey of(double strike, String optionType) {
-            return new InstrumentKey((long) (strike * 100), optionType.intern());
-        }
-    }
-
-    private final Map<InstrumentKey, Instrument> instrumentIndex = new HashMap<>(256);
-
     public SellATMStraddleStrategy(TradingService tradingService,
                                    UnifiedTradingService unifiedTradingService,
                                    Map<String, Integer> lotSizeCache,
@@ -171,7 +159,7 @@ public class SellATMStraddleStrategy extends BaseStrategy {
         }
 
         // ==================== GATE 0: ENTRY TIME WINDOW ====================
-        LocalTime now = LocalTime.now(IST);
+        LocalTime now = TradingClock.timeIst();
         LocalTime entryStart = LocalTime.parse(strategyConfig.getEntryWindowStart());
         LocalTime entryEnd = LocalTime.parse(strategyConfig.getEntryWindowEnd());
         if (now.isBefore(entryStart) || now.isAfter(entryEnd)) {
@@ -245,7 +233,7 @@ public class SellATMStraddleStrategy extends BaseStrategy {
         final Date expiryDate = !instruments.isEmpty() ? instruments.get(0).expiry : null;
 
         // ==================== GATE 3: EXPIRY DAY AWARENESS ====================
-        boolean isExpiryDay = expiryDate != null && isSameDay(expiryDate, new Date());
+        boolean isExpiryDay = expiryDate != null && isSameDay(expiryDate, new Date(TradingClock.currentTimeMillis()));
         if (isExpiryDay) {
             log.info("[{}] EXPIRY DAY detected — applying tighter thresholds", tradingMode);
 
@@ -255,7 +243,7 @@ public class SellATMStraddleStrategy extends BaseStrategy {
 
             // Enforce tighter entry end time on expiry day
             LocalTime expiryEntryEnd = LocalTime.parse(strategyConfig.getExpiryDayEntryEndTime());
-            LocalTime currentTime = LocalTime.now(IST);
+            LocalTime currentTime = TradingClock.timeIst();
             if (currentTime.isAfter(expiryEntryEnd)) {
                 String reason = String.format("Expiry day: past entry cutoff %s (current=%s)", expiryEntryEnd, currentTime);
                 log.info("[{}] Skipping straddle entry on expiry day: {}", tradingMode, reason);
@@ -270,10 +258,10 @@ public class SellATMStraddleStrategy extends BaseStrategy {
         log.info("[{}] Neutral market confirmed. Placing ATM straddle at strike={}, price={}, instrument={}",
                 tradingMode, atmStrike, spotPrice, instrumentType);
 
-        // Build instrument index and find ATM options
-        buildInstrumentIndex(instruments);
-        Instrument atmCall = instrumentIndex.get(InstrumentKey.of(atmStrike, StrategyConstants.OPTION_TYPE_CALL));
-        Instrument atmPut = instrumentIndex.get(InstrumentKey.of(atmStrike, StrategyConstants.OPTION_TYPE_PUT));
+        // Find ATM options in the shared per-expiry instrument index
+        final OptionChainIndex chainIndex = getOptionChainIndex(instrumentType, expiryDate, instruments);
+        Instrument atmCall = chainIndex.get(atmStrike, StrategyConstants.OPTION_TYPE_CALL);
+        Instrument atmPut = chainIndex.get(atmStrike, StrategyConstants.OPTION_TYPE_PUT);
         validateATMOptions(atmCall, atmPut, atmStrike);
 
         // ==================== HEDGE STRIKE SELECTION (conditional) ====================
@@ -298,8 +286,8 @@ public class SellATMStraddleStrategy extends BaseStrategy {
                 log.warn("Hedge PE strike {} is not further OTM than ATM PE {} - proceeding with delta-selected strike", hedgePEStrike, atmStrike);
             }
 
-            hedgeCall = instrumentIndex.get(InstrumentKey.of(hedgeCEStrike, StrategyConstants.OPTION_TYPE_CALL));
-            hedgePut = instrumentIndex.get(InstrumentKey.of(hedgePEStrike, StrategyConstants.OPTION_TYPE_PUT));
+            hedgeCall = chainIndex.get(hedgeCEStrike, StrategyConstants.OPTION_TYPE_CALL);
+            hedgePut = chainIndex.get(hedgePEStrike, StrategyConstants.OPTION_TYPE_PUT);
             validateHedgeInstruments(hedgeCall, hedgePut, hedgeCEStrike, hedgePEStrike);
         }
 
@@ -336,18 +324,7 @@ public class SellATMStraddleStrategy extends BaseStrategy {
                     slTargetMode, completionCallback);
         } else {
             // Original 2-leg flow
-            String callOrderId = null, putOrderId = null;
-            for (StrategyExecutionResponse.OrderDetail od : orderDetails) {
-                if (od.getOptionType().contains(StrategyConstants.OPTION_TYPE_CALL)) {
-                    callOrderId = od.getOrderId();
-                } else if (od.getOptionType().contains(StrategyConstants.OPTION_TYPE_PUT)) {
-                    putOrderId = od.getOrderId();
-                }
-            }
-            validateOrderIds(callOrderId, putOrderId);
-
-            // Setup original 2-leg monitoring with leg replacement
-            setupMonitoring(executionId, atmCall, atmPut, callOrderId, putOrderId,
+            startStraddleMonitoring(executionId, orderDetails, atmCall, atmPut,
                     quantity, stopLossPoints, targetPoints, targetDecayPct, stopLossExpansionPct,
                     slTargetMode, completionCallback);
         }
@@ -356,6 +333,67 @@ public class SellATMStraddleStrategy extends BaseStrategy {
         return buildSuccessResponse(executionId, orderDetails, premium, stopLossPoints, targetPoints, tradingMode);
     }
 
+    /**
+     * Enter the 2-leg straddle on already-selected instruments and start monitoring.
+     * <p>
+     * Skips the entry gates (VIX, neutral market, entry window) and delta strike selection —
+     * their inputs come from Kite REST and are not part of a recorded tick journal. Everything
+     * from basket placement onwards is the live path. Used by session replay.
+     *
+     * @param atmCall CE leg to sell
+     * @param atmPut  PE leg to sell
+     */
+    public StrategyExecutionResponse executeWithInstruments(StrategyRequest request, String executionId,
+                                                            Instrument atmCall, Instrument atmPut,
+                                                            StrategyCompletionCallback completionCallback)
+            throws KiteException {
+        final double stopLossPoints = resolveStopLossPoints(request);
+        final double targetPoints = resolveTargetPoints(request);
+        final double targetDecayPct = resolveTargetDecayPct(request);
+        final double stopLossExpansionPct = resolveStopLossExpansionPct(request);
+        final SlTargetMode slTargetMode = resolveSlTargetMode(request);
+        final String tradingMode = getTradingMode();
+
+        logExecutionStart(tradingMode, request.getInstrumentType(), stopLossPoints, targetPoints, slTargetMode,
+                targetDecayPct, stopLossExpansionPct);
+
+        final int quantity = atmCall.lot_size > 0
+                ? (request.getLots() != null ? request.getLots() : 1) * atmCall.lot_size
+                : calculateOrderQuantity(request);
+        List<StrategyExecutionResponse.OrderDetail> orderDetails = placeBasketOrderForStraddle(
+                atmCall, atmPut, quantity, resolveOrderType(request), tradingMode, executionId);
+
+        startStraddleMonitoring(executionId, orderDetails, atmCall, atmPut,
+                quantity, stopLossPoints, targetPoints, targetDecayPct, stopLossExpansionPct,
+                slTargetMode, completionCallback);
+
+        return buildSuccessResponse(executionId, orderDetails, calculateTotalPremium(orderDetails),
+                stopLossPoints, targetPoints, tradingMode);
+    }
+
+    /**
+     * Extract the CE/PE order ids from a 2-leg basket and start monitoring with leg replacement.
+     */
+    private void startStraddleMonitoring(String executionId, List<StrategyExecutionResponse.OrderDetail> orderDetails,
+                                         Instrument atmCall, Instrument atmPut, int quantity,
+                                         double stopLossPoints, double targetPoints,
+                                         double targetDecayPct, double stopLossExpansionPct,
+                                         SlTargetMode slTargetMode, StrategyCompletionCallback completionCallback) {
+        String callOrderId = null, putOrderId = null;
+        for (StrategyExecutionResponse.OrderDetail od : orderDetails) {
+            if (od.getOptionType().contains(StrategyConstants.OPTION_TYPE_CALL)) {
+                callOrderId = od.getOrderId();
+            } else if (od.getOptionType().contains(StrategyConstants.OPTION_TYPE_PUT)) {
+                putOrderId = od.getOrderId();
+            }
+        }
+        validateOrderIds(callOrderId, putOrderId);
+
+        setupMonitoring(executionId, atmCall, atmPut, callOrderId, putOrderId,
+                quantity, stopLossPoints, targetPoints, targetDecayPct, stopLossExpansionPct,
+                slTargetMode, completionCallback);
+    }
+
     // ==================== Basket Order Handling ====================
 
     private List<StrategyExecutionResponse.OrderDetail> placeBasketOrderForStraddle(
@@ -855,8 +893,14 @@ public class SellATMStraddleStrategy extends BaseStrategy {
                     CurrentUserContext.setUserId(ownerUserId);
                 }
 
+                OptionChainIndex chainIndex = resolveChainIndex(exitedLegSymbol);
+                if (chainIndex == null) {
+                    log.error("No instrument index for exited leg {} (execution {})", exitedLegSymbol, executionId);
+                    ((PositionMonitorV2) monitor).signalLegReplacementFailed("Exited leg not found in instrument dump");
+                    return;
+                }
                 legReplacementHandler.placeReplacementLegOrder(
-                        executionId, instrumentIndex, exitedLegSymbol, legTypeToAdd,
+                        executionId, chainIndex, exitedLegSymbol, legTypeToAdd,
                         targetPremium, lossMakingLegSymbol, quantity,
                         (PositionMonitorV2) monitor, exitedLegLtp);
             });
@@ -869,25 +913,20 @@ public class SellATMStraddleStrategy extends BaseStrategy {
         }
     }
 
-    // ==================== Helper Methods ====================
-
-    private void buildInstrumentIndex(List<Instrument> instruments) {
-        instrumentIndex.clear();
-        for (Instrument inst : instruments) {
-            String optionType = inst.instrument_type;
-            if (StrategyConstants.OPTION_TYPE_CALL.equals(optionType) ||
-                    StrategyConstants.OPTION_TYPE_PUT.equals(optionType)) {
-                try {
-                    double strike = Double.parseDouble(inst.strike);
-                    instrumentIndex.put(InstrumentKey.of(strike, optionType), inst);
-                } catch (NumberFormatException e) {
-                    log.trace("Skipping instrument with invalid strike: {}", inst.tradingsymbol);
-                }
-            }
+    /**
+     * Instrument index for the exited leg's expiry — shared with every other execution on it.
+     */
+    private OptionChainIndex resolveChainIndex(String exitedLegSymbol) {
+        try {
+            return getOptionChainIndexForSymbol(exitedLegSymbol);
+        } catch (KiteException | IOException e) {
+            log.error("Failed to load instrument index for {}: {}", exitedLegSymbol, e.getMessage());
+            return null;
         }
-        log.debug("Built instrument index with {} entries", instrumentIndex.size());
     }
 
+    // ==================== Helper Methods ====================
+
     private void validateATMOptions(Instrument atmCall, Instrument atmPut, double atmStrike) {
         log.info("ATM Call: {}, ATM Put: {}",
                 atmCall != null ? atmCall.tradingsymbol : "NULL",
@@ -15,6 +15,7 @@ import com.tradingbot.service.StrategyService;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.service.UnifiedTradingService;
 import com.tradingbot.service.greeks.DeltaCacheService;
+import com.tradingbot.service.marketdata.OptionChainIndex;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
 import com.tradingbot.util.CurrentUserContext;
 import com.tradingbot.util.StrategyConstants;
@@ -55,7 +56,7 @@ import static com.tradingbot.service.TradingConstants.*;
  * <p>
  * HFT Optimizations:
  * <ul>
- *   <li>O(1) instrument lookup via pre-built HashMap index</li>
+ *   <li>Strike lookups via the shared per-expiry {@link OptionChainIndex}</li>
  *   <li>Parallel order placement for all legs</li>
  *   <li>High-priority dedicated thread pool for exit orders</li>
  *   <li>Pre-computed string constants to avoid concatenation</li>
@@ -102,15 +103,6 @@ public class ShortStrangleStrategy extends BaseStrategy {
     private static final String LEG_TYPE_HEDGE_CALL = "HedgeCall";
     private static final String LEG_TYPE_HEDGE_PUT = "HedgePut";
 
-    // ==================== HFT Instrument Index ====================
-    private record InstrumentKey(long strikeX100, String optionType) {
-        static InstrumentKey of(double strike, String optionType) {
-            return new InstrumentKey((long) (strike * 100), optionType.intern());
-        }
-    }
-
-    private final Map<InstrumentKey, Instrument> instrumentIndex = new HashMap<>(256);
-
     public ShortStrangleStrategy(TradingService tradingService,
                                   UnifiedTradingService unifiedTradingService,
                                   Map<String, Integer> lotSizeCache,
@@ -164,15 +156,15 @@ public class ShortStrangleStrategy extends BaseStrategy {
         final List<Instrument> instruments = getOptionInstruments(instrumentType, expiry);
         log.info("Found {} option instruments for {}", instruments.size(), instrumentType);
 
-        // Build instrument index for O(1) lookups
-        buildInstrumentIndex(instruments);
-
         // Get expiry date for delta calculation
         final Date expiryDate = !instruments.isEmpty() ? instruments.get(0).expiry : null;
         if (expiryDate == null) {
             throw new RuntimeException("Could not determine expiry date from instruments");
         }
 
+        // Shared per-expiry instrument index (published by MarketDataEngine)
+        final OptionChainIndex chainIndex = getOptionChainIndex(instrumentType, expiryDate, instruments);
+
         // ==================== STRIKE SELECTION BY DELTA ====================
         // Sell legs: ~0.4 delta (OTM)
         final double sellCEStrike = getStrikeByDelta(spotPrice, instrumentType, expiryDate, sellDelta, OPTION_TYPE_CE);
@@ -203,10 +195,10 @@ public class ShortStrangleStrategy extends BaseStrategy {
         }
 
         // Find instruments for all 4 strikes
-        Instrument sellCallInst = instrumentIndex.get(InstrumentKey.of(sellCEStrike, StrategyConstants.OPTION_TYPE_CALL));
-        Instrument sellPutInst = instrumentIndex.get(InstrumentKey.of(sellPEStrike, StrategyConstants.OPTION_TYPE_PUT));
-        Instrument hedgeCallInst = instrumentIndex.get(InstrumentKey.of(hedgeCEStrike, StrategyConstants.OPTION_TYPE_CALL));
-        Instrument hedgePutInst = instrumentIndex.get(InstrumentKey.of(hedgePEStrike, StrategyConstants.OPTION_TYPE_PUT));
+        Instrument sellCallInst = chainIndex.get(sellCEStrike, StrategyConstants.OPTION_TYPE_CALL);
+        Instrument sellPutInst = chainIndex.get(sellPEStrike, StrategyConstants.OPTION_TYPE_PUT);
+        Instrument hedgeCallInst = chainIndex.get(hedgeCEStrike, StrategyConstants.OPTION_TYPE_CALL);
+        Instrument hedgePutInst = chainIndex.get(hedgePEStrike, StrategyConstants.OPTION_TYPE_PUT);
 
         validateInstruments(sellCallInst, sellPutInst, hedgeCallInst, hedgePutInst,
                 sellCEStrike, sellPEStrike, hedgeCEStrike, hedgePEStrike);
@@ -535,23 +527,6 @@ public class ShortStrangleStrategy extends BaseStrategy {
 
     // ==================== Helper Methods ====================
 
-    private void buildInstrumentIndex(List<Instrument> instruments) {
-        instrumentIndex.clear();
-        for (Instrument inst : instruments) {
-            String optionType = inst.instrument_type;
-            if (StrategyConstants.OPTION_TYPE_CALL.equals(optionType) ||
-                    StrategyConstants.OPTION_TYPE_PUT.equals(optionType)) {
-                try {
-                    double strike = Double.parseDouble(inst.strike);
-                    instrumentIndex.put(InstrumentKey.of(strike, optionType), inst);
-                } catch (NumberFormatException e) {
-                    log.trace("Skipping instrument with invalid strike: {}", inst.tradingsymbol);
-                }
-            }
-        }
-        log.debug("Built instrument index with {} entries", instrumentIndex.size());
-    }
-
     private void validateInstruments(Instrument sellCall, Instrument sellPut,
                                      Instrument hedgeCall, Instrument hedgePut,
                                      double sellCEStrike, double sellPEStrike,
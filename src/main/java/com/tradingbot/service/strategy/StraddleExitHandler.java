@@ -7,9 +7,11 @@ import com.tradingbot.model.StrategyExecution;
 import com.tradingbot.model.StrategyStatus;
 import com.tradingbot.service.StrategyService;
 import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.latency.LatencyTracer;
 import com.tradingbot.service.strategy.monitoring.WebSocketService;
 import com.tradingbot.util.CurrentUserContext;
 import com.tradingbot.util.StrategyConstants;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
@@ -161,7 +163,12 @@ public class StraddleExitHandler {
 
         try {
             leg.setLifecycleState(StrategyExecution.LegLifecycleState.EXIT_PENDING);
-            leg.setExitRequestedAt(System.currentTimeMillis());
+            leg.setExitRequestedAt(TradingClock.currentTimeMillis());
+
+            // A filled exchange-resident stop has already closed the leg — never send a second exit
+            if (strategyService.closeLegFromProtectiveStop(leg)) {
+                return successResult(result, leg.getExitMessage(), leg.getExitOrderId());
+            }
 
             String exitTransactionType = strategyService.determineExitTransactionType(leg);
 
@@ -211,7 +218,7 @@ public class StraddleExitHandler {
         leg.setExitQuantity(leg.getQuantity());
         leg.setExitStatus(response.getStatus());
         leg.setExitMessage(response.getMessage());
-        leg.setExitTimestamp(System.currentTimeMillis());
+        leg.setExitTimestamp(TradingClock.currentTimeMillis());
 
         Double exitPrice = strategyService.resolveOrderFillPrice(response.getOrderId());
         if (exitPrice != null) {
@@ -325,7 +332,7 @@ public class StraddleExitHandler {
 
         for (StrategyExecution.OrderLeg leg : legs) {
             futures.add(CompletableFuture.supplyAsync(
-                    CurrentUserContext.wrapSupplier(() -> processLegExit(leg, tradingMode)),
+                    CurrentUserContext.wrapSupplier(LatencyTracer.wrapSupplier(() -> processLegExit(leg, tradingMode))),
                     executor
             ));
         }
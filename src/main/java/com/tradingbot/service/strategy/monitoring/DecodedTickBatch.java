@@ -0,0 +1,100 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Reusable primitive tick batch filled by {@link KiteBinaryTickDecoder} — the flyweight that
+ * replaces {@code ArrayList<Tick>} on the binary-decoder path.
+ *
+ * <p>Arrays grow only when a frame carries more packets than any previous frame; afterwards
+ * decoding allocates nothing. Entries {@code [0, size)} are valid until the next
+ * {@link #clear()}. Owned by a single thread (the WebSocket listener).
+ *
+ * <p>Exchange timestamp, volume and OI are only present in quote/full packets (0 otherwise) and
+ * are read by the tick journal. In-place conflation compacts the token, price and receive-time
+ * columns only, so those extra columns must be read before conflating.
+ *
+ * @since 6.3
+ */
+public final class DecodedTickBatch {
+
+    private long[] tokens;
+    private double[] prices;
+    /** Receive time ({@link System#nanoTime()}) — the same clock as {@link TickRingBuffer} slots. */
+    private long[] timestamps;
+    /** Exchange timestamp in epoch millis, 0 when the packet carries none. */
+    private long[] exchangeTimestamps;
+    private long[] volumes;
+    private long[] openInterests;
+    private int size;
+
+    public DecodedTickBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.tokens = new long[capacity];
+        this.prices = new double[capacity];
+        this.timestamps = new long[capacity];
+        this.exchangeTimestamps = new long[capacity];
+        this.volumes = new long[capacity];
+        this.openInterests = new long[capacity];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(long token, double ltp, long timestamp) {
+        add(token, ltp, timestamp, 0L, 0L, 0L);
+    }
+
+    public void add(long token, double ltp, long timestamp, long exchangeTimestamp, long volume, long openInterest) {
+        if (size == tokens.length) {
+            int capacity = size << 1;
+            tokens = Arrays.copyOf(tokens, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            exchangeTimestamps = Arrays.copyOf(exchangeTimestamps, capacity);
+            volumes = Arrays.copyOf(volumes, capacity);
+            openInterests = Arrays.copyOf(openInterests, capacity);
+        }
+        tokens[size] = token;
+        prices[size] = ltp;
+        timestamps[size] = timestamp;
+        exchangeTimestamps[size] = exchangeTimestamp;
+        volumes[size] = volume;
+        openInterests[size] = openInterest;
+        size++;
+    }
+
+    /** Shrink to the first {@code newSize} entries (e.g. after in-place conflation). */
+    public void truncate(int newSize) {
+        size = Math.min(size, Math.max(0, newSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] tokens() {
+        return tokens;
+    }
+
+    public double[] prices() {
+        return prices;
+    }
+
+    public long[] timestamps() {
+        return timestamps;
+    }
+
+    public long[] exchangeTimestamps() {
+        return exchangeTimestamps;
+    }
+
+    public long[] volumes() {
+        return volumes;
+    }
+
+    public long[] openInterests() {
+        return openInterests;
+    }
+}
@@ -0,0 +1,253 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * In-house Kite WebSocket client on the JDK's {@link java.net.http.WebSocket}: binary frames are
+ * decoded by {@link KiteBinaryTickDecoder} straight into one reused {@link DecodedTickBatch}.
+ *
+ * <h2>Why</h2>
+ * KiteTicker materializes every packet as a {@code Tick} with {@code Date} fields, depth maps and
+ * boxed values, plus an {@code ArrayList<Tick>} per frame — the dominant allocation on the tick
+ * path. Here a frame is copied into a reused buffer and decoded into primitive arrays, so the
+ * steady state allocates nothing per tick.
+ *
+ * <h2>Threading</h2>
+ * The batch handler runs on the WebSocket listener thread, one frame at a time, and must not
+ * retain the batch. Control messages (subscribe / mode / unsubscribe) are serialized, since the
+ * JDK client allows one outstanding send.
+ *
+ * <h2>Order Updates</h2>
+ * Kite pushes order updates as text messages ({@code {"type":"order","data":{...}}}) on the same
+ * socket. They are parsed into Kite {@link Order}s and handed to the order-update handler, also on
+ * the listener thread; other text messages are only logged.
+ *
+ * @since 6.3
+ */
+@Slf4j
+public final class KiteBinaryTickClient implements TickFeedConnection {
+
+    public static final String DEFAULT_URL = "wss://ws.kite.trade";
+    private static final int INITIAL_FRAME_BYTES = 64 * 1024;
+
+    private final URI uri;
+    private final Consumer<DecodedTickBatch> batchHandler;
+    private final Consumer<Order> orderUpdateHandler;
+    private final Runnable onConnected;
+    private final Runnable onDisconnected;
+    private final Consumer<Throwable> onError;
+    private final HttpClient httpClient;
+
+    private final Object sendLock = new Object();
+    private volatile WebSocket webSocket;
+    private volatile boolean closing;
+
+    // Listener-thread state
+    private ByteBuffer frameBuffer = ByteBuffer.allocate(INITIAL_FRAME_BYTES);
+    private final DecodedTickBatch batch = new DecodedTickBatch(256);
+    private final StringBuilder textBuffer = new StringBuilder();
+
+    public KiteBinaryTickClient(URI uri, Consumer<DecodedTickBatch> batchHandler, Consumer<Order> orderUpdateHandler,
+                                Runnable onConnected, Runnable onDisconnected, Consumer<Throwable> onError) {
+        this.uri = uri;
+        this.batchHandler = batchHandler;
+        this.orderUpdateHandler = orderUpdateHandler;
+        this.onConnected = onConnected;
+        this.onDisconnected = onDisconnected;
+        this.onError = onError;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    /** Kite endpoint URI: {@code <baseUrl>?api_key=..&access_token=..}. */
+    public static URI kiteUri(String baseUrl, String apiKey, String accessToken) {
+        return URI.create(baseUrl + "?api_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)
+                + "&access_token=" + URLEncoder.encode(accessToken, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void connect() {
+        closing = false;
+        httpClient.newWebSocketBuilder()
+                .header("X-Kite-Version", "3")
+                .buildAsync(uri, new Listener())
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        onError.accept(error);
+                    }
+                });
+    }
+
+    @Override
+    public void disconnect() {
+        closing = true;
+        WebSocket ws = webSocket;
+        webSocket = null;
+        if (ws != null) {
+            try {
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+            } catch (RuntimeException e) {
+                ws.abort();
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        return webSocket != null;
+    }
+
+    @Override
+    public void subscribe(ArrayList<Long> tokens) {
+        send("{\"a\":\"subscribe\",\"v\":" + tokens + "}");
+    }
+
+    @Override
+    public void unsubscribe(ArrayList<Long> tokens) {
+        send("{\"a\":\"unsubscribe\",\"v\":" + tokens + "}");
+    }
+
+    @Override
+    public void setMode(ArrayList<Long> tokens, String mode) {
+        send("{\"a\":\"mode\",\"v\":[\"" + mode + "\"," + tokens + "]}");
+    }
+
+    /**
+     * Parse a Kite order-update text message.
+     *
+     * @return the order, or null if the message is not an order update
+     */
+    static Order parseOrderUpdate(String message) {
+        try {
+            JSONObject json = new JSONObject(message);
+            if (!"order".equals(json.optString("type")) || json.optJSONObject("data") == null) {
+                return null;
+            }
+            JSONObject data = json.getJSONObject("data");
+            Order order = new Order();
+            order.orderId = text(data, "order_id");
+            order.exchangeOrderId = text(data, "exchange_order_id");
+            order.parentOrderId = text(data, "parent_order_id");
+            order.status = text(data, "status");
+            order.statusMessage = text(data, "status_message");
+            order.tradingSymbol = text(data, "tradingsymbol");
+            order.exchange = text(data, "exchange");
+            order.transactionType = text(data, "transaction_type");
+            order.orderType = text(data, "order_type");
+            order.product = text(data, "product");
+            order.validity = text(data, "validity");
+            order.tag = text(data, "tag");
+            order.quantity = text(data, "quantity");
+            order.filledQuantity = text(data, "filled_quantity");
+            order.pendingQuantity = text(data, "pending_quantity");
+            order.price = text(data, "price");
+            order.triggerPrice = text(data, "trigger_price");
+            order.averagePrice = text(data, "average_price");
+            return order.orderId != null ? order : null;
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /** Field as text (numbers keep their JSON form); null if absent or JSON null. */
+    private static String text(JSONObject data, String key) {
+        return data.has(key) && !data.isNull(key) ? String.valueOf(data.get(key)) : null;
+    }
+
+    private void send(String message) {
+        WebSocket ws = webSocket;
+        if (ws == null) {
+            throw new IllegalStateException("Kite binary tick client is not connected");
+        }
+        synchronized (sendLock) {
+            ws.sendText(message, true).join();
+        }
+    }
+
+    private final class Listener implements WebSocket.Listener {
+
+        @Override
+        public void onOpen(WebSocket ws) {
+            webSocket = ws;
+            ws.request(1);
+            onConnected.run();
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket ws, ByteBuffer data, boolean last) {
+            if (frameBuffer.remaining() < data.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(frameBuffer.capacity() * 2,
+                        frameBuffer.position() + data.remaining()));
+                frameBuffer.flip();
+                grown.put(frameBuffer);
+                frameBuffer = grown;
+            }
+            frameBuffer.put(data);
+            if (last) {
+                frameBuffer.flip();
+                try {
+                    if (KiteBinaryTickDecoder.decode(frameBuffer, batch, System.nanoTime()) > 0) {
+                        batchHandler.accept(batch);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Tick batch handling failed: {}", e.getMessage(), e);
+                } finally {
+                    frameBuffer.clear();
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            textBuffer.append(data);
+            if (last) {
+                // Order updates and error messages; not part of the tick path
+                String message = textBuffer.toString();
+                textBuffer.setLength(0);
+                Order order = parseOrderUpdate(message);
+                if (order != null) {
+                    try {
+                        orderUpdateHandler.accept(order);
+                    } catch (RuntimeException e) {
+                        log.error("Order update handling failed for {}: {}", order.orderId, e.getMessage(), e);
+                    }
+                } else {
+                    log.debug("Kite WebSocket text message: {}", message);
+                }
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            webSocket = null;
+            if (!closing) {
+                // Only unexpected closes are reported, so a deliberate disconnect never schedules a reconnect
+                log.warn("Kite WebSocket closed by server: {} {}", statusCode, reason);
+                onDisconnected.run();
+            }
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            webSocket = null;
+            onError.accept(error);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocation-free decoder for Kite Connect's binary WebSocket frames.
+ *
+ * <h2>Frame Format</h2>
+ * <pre>
+ * [int16 packet count] then per packet: [int16 length][packet bytes]
+ * packet: [int32 token][int32 LTP in paise]...       (big-endian)
+ *   8   bytes — LTP mode
+ *   28  bytes — index quote   (32 — index full, int32 exchange timestamp at 28)
+ *   44  bytes — quote
+ *   184 bytes — full           (int32 exchange timestamp at 60, depth from 64)
+ * </pre>
+ * A 1-byte frame is a heartbeat. Besides token and LTP, only volume (quote/full, offset 16), OI
+ * (full, offset 48) and the exchange timestamp are read — the rest of each packet is skipped by
+ * length, so the decoder is mode-agnostic and never touches depth or OHLC.
+ *
+ * <p>Prices are scaled by segment ({@code token & 0xFF}): CDS ÷ 10,000,000, BCD ÷ 10,000, all
+ * others ÷ 100 — the same divisors KiteTicker applies.
+ *
+ * @since 6.3
+ */
+public final class KiteBinaryTickDecoder {
+
+    private static final int SEGMENT_CDS = 3;
+    private static final int SEGMENT_BCD = 6;
+    private static final int MIN_PACKET_LENGTH = 8;
+    private static final int INDEX_FULL_LENGTH = 32;
+    private static final int QUOTE_LENGTH = 44;
+    private static final int FULL_LENGTH = 184;
+
+    private KiteBinaryTickDecoder() {
+    }
+
+    /**
+     * Decode one complete frame into {@code out} (cleared first). Truncated trailing packets are
+     * ignored. The buffer's position is advanced to the end of the last decoded packet.
+     *
+     * @param receivedAt receive timestamp stored with every decoded tick
+     * @return number of ticks decoded (0 for heartbeats)
+     */
+    public static int decode(ByteBuffer frame, DecodedTickBatch out, long receivedAt) {
+        out.clear();
+        frame.order(ByteOrder.BIG_ENDIAN);
+        if (frame.remaining() < 2) {
+            return 0;
+        }
+        final int packetCount = frame.getShort() & 0xFFFF;
+        for (int p = 0; p < packetCount && frame.remaining() >= 2; p++) {
+            final int length = frame.getShort() & 0xFFFF;
+            final int start = frame.position();
+            if (frame.remaining() < length) {
+                break;
+            }
+            if (length >= MIN_PACKET_LENGTH) {
+                final long token = frame.getInt(start) & 0xFFFF_FFFFL;
+                final double ltp = frame.getInt(start + 4) / divisor(token);
+                long exchangeTimestamp = 0L;
+                long volume = 0L;
+                long openInterest = 0L;
+                if (length == INDEX_FULL_LENGTH) {
+                    exchangeTimestamp = (frame.getInt(start + 28) & 0xFFFF_FFFFL) * 1000L;
+                } else if (length >= QUOTE_LENGTH) {
+                    volume = frame.getInt(start + 16) & 0xFFFF_FFFFL;
+                    if (length >= FULL_LENGTH) {
+                        openInterest = frame.getInt(start + 48) & 0xFFFF_FFFFL;
+                        exchangeTimestamp = (frame.getInt(start + 60) & 0xFFFF_FFFFL) * 1000L;
+                    }
+                }
+                out.add(token, ltp, receivedAt, exchangeTimestamp, volume, openInterest);
+            }
+            frame.position(start + length);
+        }
+        return out.size();
+    }
+
+    static double divisor(long token) {
+        final int segment = (int) (token & 0xFF);
+        if (segment == SEGMENT_CDS) return 10_000_000.0;
+        if (segment == SEGMENT_BCD) return 10_000.0;
+        return 100.0;
+    }
+}
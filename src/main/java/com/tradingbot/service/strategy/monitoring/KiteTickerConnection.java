@@ -0,0 +1,44 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.ticker.KiteTicker;
+
+import java.util.ArrayList;
+
+/**
+ * {@link TickFeedConnection} backed by the SDK's {@link KiteTicker} (default decoder).
+ *
+ * @since 6.3
+ */
+final class KiteTickerConnection implements TickFeedConnection {
+
+    private final KiteTicker ticker;
+
+    KiteTickerConnection(KiteTicker ticker) {
+        this.ticker = ticker;
+    }
+
+    @Override
+    public void connect() {
+        ticker.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        ticker.disconnect();
+    }
+
+    @Override
+    public void subscribe(ArrayList<Long> tokens) {
+        ticker.subscribe(tokens);
+    }
+
+    @Override
+    public void unsubscribe(ArrayList<Long> tokens) {
+        ticker.unsubscribe(tokens);
+    }
+
+    @Override
+    public void setMode(ArrayList<Long> tokens, String mode) {
+        ticker.setMode(tokens, mode);
+    }
+}
@@ -0,0 +1,192 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.util.CurrentUserContext;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of exit-evaluation threads shared by all users, one per core by default
+ * ({@code tick-pipeline.sharded-evaluation-enabled}).
+ *
+ * <h2>Ownership</h2>
+ * Every {@link PositionMonitorV2} belongs to exactly one shard, chosen by a hash of its execution
+ * id ({@link #shardOf(String)}). Only that shard's thread applies prices to the monitor and
+ * evaluates it, so monitors stay lock-free and single-writer exactly as on the per-user paths,
+ * while many users' executions are evaluated in parallel across cores instead of queueing behind
+ * each other on one thread per user.
+ *
+ * <h2>Handoff</h2>
+ * Each user's feed gets a {@link ShardedTickRouter} with one SPSC {@link TickRingBuffer} lane per
+ * shard (producer: the user's socket thread, consumer: the shard thread). The router copies each
+ * tick only into the lanes of shards owning a monitor subscribed to its token. A shard thread
+ * round-robins over its lanes, draining up to {@code max-batch-size} ticks per lane and
+ * evaluating them against that user's part of the {@link ShardedDispatchTable}.
+ *
+ * @since 6.3
+ */
+@Slf4j
+public final class MonitorShardPool {
+
+    /** Shard membership is a {@code long} bitmask per token. */
+    public static final int MAX_SHARDS = Long.SIZE;
+
+    private final TickPipelineConfig config;
+    private final Shard[] shards;
+    private final boolean busySpin;
+    private final long parkNanos;
+    private volatile boolean running;
+
+    public MonitorShardPool(TickPipelineConfig config) {
+        this.config = config;
+        int requested = config.getEvaluatorShards() > 0
+                ? config.getEvaluatorShards()
+                : Runtime.getRuntime().availableProcessors();
+        int shardCount = Math.max(1, Math.min(MAX_SHARDS, requested));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        this.busySpin = config.isBusySpin();
+        this.parkNanos = Math.max(1_000L, config.getParkNanos());
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (Shard shard : shards) {
+            Thread t = new Thread(shard, "monitor-shard-" + shard.index);
+            t.setDaemon(true);
+            shard.thread = t;
+            t.start();
+        }
+        log.info("Monitor shard pool started: {} shards, wait={}", shards.length, busySpin ? "BUSY_SPIN" : "PARK");
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        for (Shard shard : shards) {
+            Thread t = shard.thread;
+            shard.thread = null;
+            if (t != null) {
+                LockSupport.unpark(t);
+                try {
+                    t.join(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        log.info("Monitor shard pool stopped");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /** Owning shard of an execution. Stable for the life of the pool. */
+    public int shardOf(String executionId) {
+        final int h = executionId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    /**
+     * Attach a user's feed: one lane per shard, all reading {@code tableSource}.
+     * The returned router is used by that user's socket thread only.
+     */
+    public ShardedTickRouter newRouter(String userId, Supplier<ShardedDispatchTable> tableSource) {
+        ShardedTickRouter.Lane[] lanes = new ShardedTickRouter.Lane[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            lanes[i] = new ShardedTickRouter.Lane(userId, i, tableSource, config);
+            shards[i].attach(lanes[i]);
+        }
+        return new ShardedTickRouter(userId, this, tableSource, lanes);
+    }
+
+    void detach(ShardedTickRouter.Lane lane) {
+        shards[lane.shard].detach(lane);
+    }
+
+    /** Wait step for empty lanes (shard threads) and full rings (socket threads). */
+    void idle() {
+        if (busySpin) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("shards", shards.length);
+        stats.put("running", running);
+        int[] lanesPerShard = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            lanesPerShard[i] = shards[i].lanes.length;
+        }
+        stats.put("lanesPerShard", lanesPerShard);
+        return stats;
+    }
+
+    /** One evaluation thread and the lanes (one per attached user) it drains. */
+    private final class Shard implements Runnable {
+
+        final int index;
+        /** Copy-on-write; written under the shard's monitor, read once per pass by the shard thread. */
+        volatile ShardedTickRouter.Lane[] lanes = new ShardedTickRouter.Lane[0];
+        Thread thread;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        synchronized void attach(ShardedTickRouter.Lane lane) {
+            ShardedTickRouter.Lane[] current = lanes;
+            ShardedTickRouter.Lane[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = lane;
+            lanes = next;
+        }
+
+        synchronized void detach(ShardedTickRouter.Lane lane) {
+            ShardedTickRouter.Lane[] current = lanes;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == lane) {
+                    ShardedTickRouter.Lane[] next = new ShardedTickRouter.Lane[current.length - 1];
+                    System.arraycopy(current, 0, next, 0, i);
+                    System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                    lanes = next;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    final ShardedTickRouter.Lane[] current = lanes;
+                    boolean worked = false;
+                    for (int i = 0; i < current.length; i++) {
+                        worked |= current[i].drainAndEvaluate();
+                    }
+                    if (!worked) {
+                        idle();
+                    }
+                }
+            } finally {
+                CurrentUserContext.clear();
+            }
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.tradingbot.service.strategy.monitoring;
 
 import com.tradingbot.model.SlTargetMode;
+import com.tradingbot.service.latency.LatencyStage;
+import com.tradingbot.service.latency.LatencyTracer;
 import com.tradingbot.service.strategy.monitoring.exit.*;
+import com.tradingbot.util.TradingClock;
 import com.zerodhatech.models.Tick;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -51,8 +57,20 @@ import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
  *   <li>Pre-computed direction multiplier</li>
  *   <li>Cached legs array to avoid iterator allocation</li>
  *   <li>Reusable ExitContext to avoid allocation per tick</li>
+ *   <li>Trigger band: the strategy chain runs only when a price can cross an exit edge</li>
  * </ul>
  *
+ * <h2>Trigger Band</h2>
+ * Every price-driven exit (points target/SL, trailing stop, premium decay/expansion) is a
+ * threshold on one linear function of the leg prices: the <i>trigger signal</i>
+ * {@code Σ price × weight} (combined premium in premium mode, cumulative P&amp;L plus the
+ * weighted entry in points mode). After each full chain evaluation that does not exit, the
+ * nearest lower and upper edges are precomputed into a band. A tick then adjusts the signal by
+ * the moved leg's delta and, while the signal stays strictly inside the band, exit evaluation is
+ * a range check. The chain runs again when the band is touched, when the forced-exit time is due,
+ * or when legs or thresholds change (which invalidates the band). Ticks on an edge always go to
+ * the chain, so exit decisions are unchanged.
+ *
  * @see ExitStrategy
  * @see ExitContext
  */
@@ -130,14 +148,50 @@ public class PositionMonitorV2 {
     private volatile LegMonitor[] cachedLegsArray;
     private volatile int cachedLegsCount = 0;
 
+    /** Last tick batch delivered by {@link TickDispatchTable} — written only by the dispatching thread. */
+    long dispatchStamp;
+
+    // ==================== TRIGGER BAND ====================
+
+    /** Signal margin kept from each band edge so values on an edge always reach the strategy chain. */
+    private static final double TRIGGER_BAND_EPSILON = 1e-9;
+
+    private static final int BAND_NOT_ARMED = -1;
+
+    /** Signal weight per unit of {@code legDirectionMultiplier}: 1 for combined premium, else the direction. */
+    private final double signalMultiplier;
+
+    /** Bumped after every leg or threshold change; the band is valid only for the version it was armed with. */
+    private final AtomicInteger thresholdVersion = new AtomicInteger();
+
+    // Tick thread only (the thread that applies prices and evaluates)
+    private int armedVersion = BAND_NOT_ARMED;
+    private double triggerSignal;
+    private double bandLower;
+    private double bandUpper;
+
     // ==================== STATE ====================
 
+    /** CAS on {@link #active}: exits are claimed by the tick thread and by {@link #exitNow} callers. */
+    private static final VarHandle ACTIVE;
+
+    static {
+        try {
+            ACTIVE = MethodHandles.lookup().findVarHandle(PositionMonitorV2.class, "active", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     @Getter
     private volatile boolean active = true;
 
     @Getter
     private String exitReason;
 
+    /** Exit asked for off the tick thread by {@link #requestExit(String)}; consumed by the tick thread. */
+    private volatile String requestedExitReason;
+
     @Getter
     private volatile String ownerUserId;
 
@@ -266,6 +320,8 @@ public class PositionMonitorV2 {
             this.stopLossPremiumLevel = Double.MAX_VALUE;
         }
 
+        this.signalMultiplier = premiumBasedExitEnabled ? 1.0 : this.directionMultiplier;
+
         // Build exit strategies
         List<ExitStrategy> strategies = new ArrayList<>();
         TrailingStopLossStrategy tempTrailingStrategy = null;
@@ -387,6 +443,7 @@ public class PositionMonitorV2 {
         legsBySymbol.put(symbol, leg);
         rebuildCachedLegsArray();
         rebuildInstrumentTokenMap();
+        invalidateTriggerBand();
         log.info("Added leg to monitor: {} at entry price: {} (legDirection={})", symbol, entryPrice, legDirectionMultiplier);
     }
 
@@ -398,6 +455,7 @@ public class PositionMonitorV2 {
         if (leg != null) {
             rebuildCachedLegsArray();
             rebuildInstrumentTokenMap();
+            invalidateTriggerBand();
             log.info("Removed leg from monitor: {}", symbol);
         }
     }
@@ -439,6 +497,7 @@ public class PositionMonitorV2 {
         this.entryPremium = combinedEntryPremium;
         this.targetPremiumLevel = combinedEntryPremium * (1.0 - targetDecayPct);
         this.stopLossPremiumLevel = combinedEntryPremium * (1.0 + stopLossExpansionPct);
+        invalidateTriggerBand();
 
         log.info("Entry premium set for {}: premium={}, targetLevel={}, slLevel={}",
                 executionId, formatDouble(combinedEntryPremium),
@@ -522,7 +581,7 @@ public class PositionMonitorV2 {
             final Tick tick = ticks.get(i);
             final LegMonitor leg = tokenMap.get(tick.getInstrumentToken());
             if (leg != null) {
-                leg.setCurrentPrice(tick.getLastTradedPrice());
+                applyLegPrice(leg, tick.getLastTradedPrice());
             }
         }
 
@@ -530,6 +589,30 @@ public class PositionMonitorV2 {
         evaluateExitConditions();
     }
 
+    /**
+     * Ring-buffer path: set the price of the leg subscribed to {@code instrumentToken}, without
+     * evaluating exits. {@link TickEvaluator} calls {@link #evaluateAfterTickBatch()} once per batch.
+     */
+    void applyTickPrice(long instrumentToken, double lastTradedPrice) {
+        final LegMonitor leg = legsByInstrumentToken.get(instrumentToken);
+        if (leg != null) {
+            applyLegPrice(leg, lastTradedPrice);
+        }
+    }
+
+    /** Set a leg's price and move the trigger signal by its weighted delta. HFT-SAFE: O(1). */
+    private void applyLegPrice(LegMonitor leg, double price) {
+        final double previous = leg.getCurrentPrice();
+        leg.setCurrentPrice(price);
+        triggerSignal += (price - previous) * leg.getLegDirectionMultiplier() * signalMultiplier;
+    }
+
+    /** Ring-buffer path: evaluate exit conditions after a batch of {@link #applyTickPrice} calls. */
+    void evaluateAfterTickBatch() {
+        if (!active) return;
+        evaluateExitConditions();
+    }
+
     /**
      * HFT-optimized exit evaluation using strategy pattern.
      * <p>
@@ -541,7 +624,7 @@ public class PositionMonitorV2 {
         // This prevents conflicting exit decisions while waiting for replacement
         if (legReplacementInProgress) {
             // Check for timeout (30 seconds) to prevent infinite blocking
-            long elapsedNanos = System.nanoTime() - legReplacementStartTimeNanos;
+            long elapsedNanos = TradingClock.nanoTime() - legReplacementStartTimeNanos;
             long elapsedSeconds = elapsedNanos / 1_000_000_000L;
             if (elapsedSeconds > 30) {
                 log.warn("Leg replacement timeout for {} after {}s - resuming exit evaluation. Leg: {}",
@@ -556,10 +639,30 @@ public class PositionMonitorV2 {
             }
         }
 
+        // Read before legs and thresholds so a concurrent change can never be armed as current
+        final int version = thresholdVersion.get();
         final LegMonitor[] legs = cachedLegsArray;
         final int count = cachedLegsCount;
         if (count == 0) return;
 
+        // HFT: Range check — skip the strategy chain while no exit edge can have been crossed
+        if (version == armedVersion
+                && triggerSignal > bandLower && triggerSignal < bandUpper
+                && (timeBasedStrategy == null || !timeBasedStrategy.isExitDue())) {
+            LatencyTracer.mark(LatencyStage.EVALUATE);
+            return;
+        }
+        armedVersion = BAND_NOT_ARMED;
+
+        // Exit requested from another thread: decided here so the exit callback fires from one thread only
+        final String requestedExit = requestedExitReason;
+        if (requestedExit != null) {
+            requestedExitReason = null;
+            LatencyTracer.mark(LatencyStage.EVALUATE);
+            triggerExitAllLegs(requestedExit);
+            return;
+        }
+
         // Calculate cumulative P&L
         // Uses per-leg direction multiplier to handle mixed-direction strategies
         // (e.g., short strangle: SELL main legs + BUY hedge legs)
@@ -600,10 +703,62 @@ public class PositionMonitorV2 {
             ExitResult result = strategy.evaluate(reusableExitContext);
 
             if (result.requiresAction()) {
+                LatencyTracer.mark(LatencyStage.EVALUATE);
                 handleExitResult(result);
                 return; // Exit after first action
             }
         }
+        armTriggerBand(legs, count, version);
+        LatencyTracer.mark(LatencyStage.EVALUATE);
+    }
+
+    /**
+     * Precompute the band of trigger-signal values for which no price-driven strategy acts, from
+     * the thresholds and strategy state the chain has just evaluated against. Also resets the
+     * incrementally maintained signal to its exact value.
+     */
+    private void armTriggerBand(LegMonitor[] legs, int count, int version) {
+        double signal = 0.0;
+        double weightedEntry = 0.0;
+        for (int i = 0; i < count; i++) {
+            final double weight = legs[i].getLegDirectionMultiplier() * signalMultiplier;
+            signal += legs[i].getCurrentPrice() * weight;
+            weightedEntry += legs[i].getEntryPrice() * weight;
+        }
+
+        double lower;
+        double upper;
+        if (premiumBasedExitEnabled) {
+            // Combined premium: exit at <= target level (decay) or >= SL level (expansion)
+            lower = targetPremiumLevel;
+            upper = stopLossPremiumLevel;
+        } else {
+            // Cumulative P&L = signal - weightedEntry: exit at >= target or <= -SL
+            double lowerPnl = -cumulativeStopPoints;
+            double upperPnl = cumulativeTargetPoints;
+            final TrailingStopLossStrategy trailing = trailingStopStrategy;
+            if (trailing != null) {
+                if (trailing.isActivated()) {
+                    // Exit at <= trail level; a new high-water mark moves the trail
+                    lowerPnl = Math.max(lowerPnl, trailing.getCurrentTrailingStopLevel());
+                    upperPnl = Math.min(upperPnl, trailing.getHighWaterMark());
+                } else {
+                    upperPnl = Math.min(upperPnl, trailing.getActivationPoints());
+                }
+            }
+            lower = lowerPnl + weightedEntry;
+            upper = upperPnl + weightedEntry;
+        }
+
+        triggerSignal = signal;
+        bandLower = lower + TRIGGER_BAND_EPSILON;
+        bandUpper = upper - TRIGGER_BAND_EPSILON;
+        armedVersion = version;
+    }
+
+    /** Force the next evaluation through the strategy chain. Call after the change is published. */
+    private void invalidateTriggerBand() {
+        thresholdVersion.incrementAndGet();
     }
 
     /**
@@ -615,6 +770,7 @@ public class PositionMonitorV2 {
 
             case EXIT_LEG -> {
                 if (individualLegExitCallback != null) {
+                    LatencyTracer.mark(LatencyStage.EXIT_CALLBACK);
                     individualLegExitCallback.accept(result.getLegSymbol(), result.getExitReason());
                 }
                 removeLeg(result.getLegSymbol());
@@ -633,6 +789,7 @@ public class PositionMonitorV2 {
                     if (lossMakingLeg != null) {
                         double oldEntryPrice = lossMakingLeg.getEntryPrice();
                         lossMakingLeg.setEntryPrice(newEntryPrice);
+                        invalidateTriggerBand();
                         log.info("Updated entry price for {} from {} to {} during leg replacement",
                                 lossMakingLegSymbol, formatDouble(oldEntryPrice), formatDouble(newEntryPrice));
                     }
@@ -663,15 +820,17 @@ public class PositionMonitorV2 {
     }
 
     private void triggerExitAllLegs(String reason) {
-        if (!active) return;
+        // The tick thread, the protective-stop sync and leg replacement can all get here at once;
+        // only the thread that flips active runs the exit callback
+        if (!ACTIVE.compareAndSet(this, true, false)) return;
 
-        active = false;
         exitReason = reason;
 
         log.warn("[EXIT TRIGGERED] executionId={}, reason={}, pnl={}, direction={}",
                 executionId, exitReason, reusableExitContext.getCumulativePnL(), direction);
 
         if (exitCallback != null) {
+            LatencyTracer.mark(LatencyStage.EXIT_CALLBACK);
             exitCallback.accept(exitReason);
         }
     }
@@ -688,7 +847,7 @@ public class PositionMonitorV2 {
      */
     private void setLegReplacementState(String legSymbol) {
         this.legBeingReplaced = legSymbol;
-        this.legReplacementStartTimeNanos = System.nanoTime();
+        this.legReplacementStartTimeNanos = TradingClock.nanoTime();
         this.legReplacementInProgress = true;
         log.info("Leg replacement started for {} - pausing exit evaluation until replacement is complete. Leg: {}",
                 executionId, legSymbol);
@@ -720,7 +879,7 @@ public class PositionMonitorV2 {
             return;
         }
 
-        long elapsedNanos = System.nanoTime() - legReplacementStartTimeNanos;
+        long elapsedNanos = TradingClock.nanoTime() - legReplacementStartTimeNanos;
         long elapsedMs = elapsedNanos / 1_000_000L;
 
         log.info("Leg replacement completed for {} - resuming exit evaluation. " +
@@ -838,6 +997,78 @@ public class PositionMonitorV2 {
         return false;
     }
 
+    /**
+     * Ask the tick thread to exit all legs on its next evaluation, ahead of the strategy chain.
+     * <p>
+     * Used when an exit is detected outside tick evaluation (e.g. a resting protective stop was
+     * touched). The trigger band is invalidated so the next tick on any leg takes the full path.
+     *
+     * @param reason exit reason passed to the exit callback
+     */
+    public void requestExit(String reason) {
+        if (!active) return;
+        requestedExitReason = reason;
+        invalidateTriggerBand();
+    }
+
+    /**
+     * Exit all legs now, on the calling thread, like {@link #triggerForcedExit()}.
+     * <p>
+     * For exits that cannot wait for a tick: a protective stop that filled at the exchange while
+     * the feed is stalled leaves the other legs unhedged until the position is closed. Safe to
+     * race with a tick-triggered exit: the exit callback runs once, for whichever claims it first.
+     *
+     * @param reason exit reason passed to the exit callback
+     */
+    public void exitNow(String reason) {
+        requestedExitReason = null;
+        triggerExitAllLegs(reason);
+    }
+
+    /**
+     * Price of {@code symbol} at which the position reaches its stop edge — the premium SL level,
+     * or the fixed SL / active trailing level in points mode — if every other leg stays at its
+     * current price. This is where a resting exchange stop for that leg belongs.
+     * <p>
+     * Safe to call from any thread; the result is a snapshot of the latest applied prices.
+     *
+     * @param symbol leg trading symbol
+     * @return stop price, or NaN if the leg is unknown, has no SL level, or moving up does not
+     *         bring the position towards its stop (e.g. a bought hedge leg)
+     */
+    public double protectiveStopPrice(String symbol) {
+        final LegMonitor target = legsBySymbol.get(symbol);
+        if (target == null) return Double.NaN;
+
+        final double targetWeight = target.getLegDirectionMultiplier() * signalMultiplier;
+        final LegMonitor[] legs = cachedLegsArray;
+        final int count = cachedLegsCount;
+        double signal = 0.0;
+        double weightedEntry = 0.0;
+        for (int i = 0; i < count; i++) {
+            final double weight = legs[i].getLegDirectionMultiplier() * signalMultiplier;
+            signal += legs[i].getCurrentPrice() * weight;
+            weightedEntry += legs[i].getEntryPrice() * weight;
+        }
+
+        final double stopSignal;
+        if (premiumBasedExitEnabled) {
+            // Loss side is the combined premium rising to the SL level
+            if (targetWeight <= 0.0 || stopLossPremiumLevel == Double.MAX_VALUE) return Double.NaN;
+            stopSignal = stopLossPremiumLevel;
+        } else {
+            // Loss side is cumulative P&L falling to -SL (or the trail level once activated)
+            if (targetWeight >= 0.0) return Double.NaN;
+            double stopPnl = -cumulativeStopPoints;
+            final TrailingStopLossStrategy trailing = trailingStopStrategy;
+            if (trailing != null && trailing.isActivated()) {
+                stopPnl = Math.max(stopPnl, trailing.getCurrentTrailingStopLevel());
+            }
+            stopSignal = stopPnl + weightedEntry;
+        }
+        return target.getCurrentPrice() + (stopSignal - signal) / targetWeight;
+    }
+
     // ==================== UTILITY METHODS ====================
 
     private static double normalizePercentage(double value, double defaultPct) {
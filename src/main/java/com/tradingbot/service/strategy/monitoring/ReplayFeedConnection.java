@@ -0,0 +1,36 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.util.ArrayList;
+
+/**
+ * Connection used by a session-replay context: subscriptions are accepted and ignored because
+ * ticks are pushed through {@link WebSocketService#replayTicks} instead of a socket.
+ *
+ * @since 6.3
+ */
+final class ReplayFeedConnection implements TickFeedConnection {
+
+    static final ReplayFeedConnection INSTANCE = new ReplayFeedConnection();
+
+    private ReplayFeedConnection() {}
+
+    @Override
+    public void connect() {
+    }
+
+    @Override
+    public void disconnect() {
+    }
+
+    @Override
+    public void subscribe(ArrayList<Long> tokens) {
+    }
+
+    @Override
+    public void unsubscribe(ArrayList<Long> tokens) {
+    }
+
+    @Override
+    public void setMode(ArrayList<Long> tokens, String mode) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable per-user dispatch table split by {@link MonitorShardPool} shard: one
+ * {@link TickDispatchTable} per shard holding only the monitors that shard owns, plus a
+ * token → shard bitmask used by the socket thread to route each tick only to the shards with a
+ * monitor subscribed to it.
+ * <p>
+ * Rebuilt on the control plane together with {@link TickDispatchTable} and published through a
+ * volatile field; the tick path reads it once per batch.
+ *
+ * @since 6.3
+ */
+public final class ShardedDispatchTable {
+
+    public static final ShardedDispatchTable EMPTY = new ShardedDispatchTable(new TickDispatchTable[0], new LongLongHashMap(0));
+
+    private final TickDispatchTable[] shards;
+    private final LongLongHashMap shardMasks;
+
+    private ShardedDispatchTable(TickDispatchTable[] shards, LongLongHashMap shardMasks) {
+        this.shards = shards;
+        this.shardMasks = shardMasks;
+    }
+
+    /**
+     * Build from the subscription registry. Execution ids without a live monitor are skipped.
+     *
+     * @param tokenToExecutions instrument token → execution ids subscribed to it
+     * @param monitors          execution id → monitor
+     * @param pool              decides the owning shard of each execution
+     */
+    public static ShardedDispatchTable build(Map<Long, ? extends Collection<String>> tokenToExecutions,
+                                             Map<String, PositionMonitorV2> monitors,
+                                             MonitorShardPool pool) {
+        if (tokenToExecutions.isEmpty()) {
+            return EMPTY;
+        }
+        final int shardCount = pool.shardCount();
+        @SuppressWarnings("unchecked")
+        final Map<String, PositionMonitorV2>[] monitorsByShard = new Map[shardCount];
+        for (int s = 0; s < shardCount; s++) {
+            monitorsByShard[s] = new HashMap<>();
+        }
+        for (Map.Entry<String, PositionMonitorV2> entry : monitors.entrySet()) {
+            monitorsByShard[pool.shardOf(entry.getKey())].put(entry.getKey(), entry.getValue());
+        }
+
+        final LongLongHashMap masks = new LongLongHashMap(tokenToExecutions.size());
+        for (Map.Entry<Long, ? extends Collection<String>> entry : tokenToExecutions.entrySet()) {
+            long mask = 0L;
+            for (String executionId : entry.getValue()) {
+                if (monitors.containsKey(executionId)) {
+                    mask |= 1L << pool.shardOf(executionId);
+                }
+            }
+            if (mask != 0L) {
+                masks.put(entry.getKey(), mask);
+            }
+        }
+
+        final TickDispatchTable[] shards = new TickDispatchTable[shardCount];
+        for (int s = 0; s < shardCount; s++) {
+            shards[s] = monitorsByShard[s].isEmpty()
+                    ? TickDispatchTable.EMPTY
+                    : TickDispatchTable.build(tokenToExecutions, monitorsByShard[s]);
+        }
+        return new ShardedDispatchTable(shards, masks);
+    }
+
+    /** Bit {@code s} set when shard {@code s} owns a monitor subscribed to {@code token}; 0 if none. */
+    public long shardMask(long token) {
+        return shardMasks.get(token);
+    }
+
+    /** The part of the table owned by {@code shard}; empty for a shard with no monitors. */
+    public TickDispatchTable shard(int shard) {
+        return shard < shards.length ? shards[shard] : TickDispatchTable.EMPTY;
+    }
+
+    public int tokenCount() {
+        return shardMasks.size();
+    }
+}
@@ -0,0 +1,250 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.service.latency.LatencyTracer;
+import com.tradingbot.util.CurrentUserContext;
+import com.zerodhatech.models.Tick;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One user's feed into the {@link MonitorShardPool}: routes each tick into the lane of every shard
+ * that owns a monitor subscribed to its token.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>One volatile read of the {@link ShardedDispatchTable} per batch, one primitive mask
+ *       lookup per tick; ticks no monitor listens to are dropped before any ring write</li>
+ *   <li>Per-lane SPSC rings — no producer contention between users, no locks</li>
+ *   <li>Single-writer counters advanced with {@code lazySet} (no CAS)</li>
+ * </ul>
+ *
+ * <h2>Back-pressure</h2>
+ * As with {@link TickEvaluator}, a full lane makes the socket thread wait (counted in
+ * {@code fullRingStalls}); ticks are only discarded once the router is stopped.
+ *
+ * @since 6.3
+ */
+@Slf4j
+public final class ShardedTickRouter implements TickHandoff {
+
+    private final String userId;
+    private final MonitorShardPool pool;
+    private final Supplier<ShardedDispatchTable> tableSource;
+    private final Lane[] lanes;
+
+    private final AtomicLong receivedTicks = new AtomicLong();
+    private final AtomicLong unroutedTicks = new AtomicLong();
+    private volatile boolean stopped;
+
+    ShardedTickRouter(String userId, MonitorShardPool pool, Supplier<ShardedDispatchTable> tableSource, Lane[] lanes) {
+        this.userId = userId;
+        this.pool = pool;
+        this.tableSource = tableSource;
+        this.lanes = lanes;
+    }
+
+    @Override
+    public void publish(ArrayList<Tick> ticks) {
+        if (ticks == null) return;
+        final ShardedDispatchTable table = tableSource.get();
+        final int count = ticks.size();
+        final long receivedAt = System.nanoTime();
+        long unrouted = 0;
+        for (int i = 0; i < count; i++) {
+            final Tick tick = ticks.get(i);
+            if (!route(table, tick.getInstrumentToken(), tick.getLastTradedPrice(), receivedAt)) {
+                unrouted++;
+            }
+        }
+        count(count, unrouted);
+    }
+
+    @Override
+    public void publish(DecodedTickBatch batch) {
+        final ShardedDispatchTable table = tableSource.get();
+        final int count = batch.size();
+        final long[] tokens = batch.tokens();
+        final double[] prices = batch.prices();
+        final long[] timestamps = batch.timestamps();
+        long unrouted = 0;
+        for (int i = 0; i < count; i++) {
+            if (!route(table, tokens[i], prices[i], timestamps[i])) {
+                unrouted++;
+            }
+        }
+        count(count, unrouted);
+    }
+
+    /** @return false if no shard listens to {@code token} */
+    private boolean route(ShardedDispatchTable table, long token, double ltp, long receivedAt) {
+        long mask = table.shardMask(token);
+        if (mask == 0L) {
+            return false;
+        }
+        do {
+            final Lane lane = lanes[Long.numberOfTrailingZeros(mask)];
+            // Counted before the write so evaluatedTicks never overtakes publishedTicks
+            lane.publishedTicks.lazySet(lane.publishedTicks.get() + 1);
+            if (!lane.ring.tryPublish(token, ltp, receivedAt)) {
+                lane.fullRingStalls.incrementAndGet();
+                do {
+                    if (stopped || !pool.isRunning()) return true;
+                    pool.idle();
+                } while (!lane.ring.tryPublish(token, ltp, receivedAt));
+            }
+            mask &= mask - 1;
+        } while (mask != 0L);
+        return true;
+    }
+
+    private void count(long received, long unrouted) {
+        receivedTicks.lazySet(receivedTicks.get() + received);
+        if (unrouted != 0) {
+            unroutedTicks.lazySet(unroutedTicks.get() + unrouted);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (stopped) return;
+        stopped = true;
+        for (Lane lane : lanes) {
+            pool.detach(lane);
+        }
+        log.info("[user={}] Detached from monitor shard pool. received={}, unrouted={}, pending={}",
+                userId, receivedTicks.get(), unroutedTicks.get(), pendingTicks());
+    }
+
+    /** Ticks routed to a lane but not yet evaluated, across all shards. */
+    public long pendingTicks() {
+        long pending = 0;
+        for (Lane lane : lanes) {
+            pending += lane.publishedTicks.get() - lane.evaluatedTicks.get();
+        }
+        return pending;
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        long published = 0;
+        long evaluated = 0;
+        long batches = 0;
+        long stalls = 0;
+        long maxDelay = 0;
+        long[] ticksByShard = new long[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            Lane lane = lanes[i];
+            ticksByShard[i] = lane.publishedTicks.get();
+            published += ticksByShard[i];
+            evaluated += lane.evaluatedTicks.get();
+            batches += lane.batches.get();
+            stalls += lane.fullRingStalls.get();
+            maxDelay = Math.max(maxDelay, lane.maxQueueDelayNanos);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("shards", lanes.length);
+        stats.put("laneCapacity", lanes.length > 0 ? lanes[0].ring.capacity() : 0);
+        stats.put("receivedTicks", receivedTicks.get());
+        stats.put("unroutedTicks", unroutedTicks.get());
+        stats.put("routedTicks", published);
+        stats.put("evaluatedTicks", evaluated);
+        stats.put("pendingTicks", published - evaluated);
+        stats.put("batches", batches);
+        stats.put("fullRingStalls", stalls);
+        stats.put("maxQueueDelayUs", maxDelay / 1_000);
+        stats.put("routedTicksByShard", ticksByShard);
+        return stats;
+    }
+
+    /**
+     * One (user, shard) SPSC lane. The producer is the user's socket thread; the consumer and the
+     * batch buffers belong to the shard thread.
+     */
+    static final class Lane {
+
+        final String userId;
+        final int shard;
+        final TickRingBuffer ring;
+        private final Supplier<ShardedDispatchTable> tableSource;
+        private final int maxBatchSize;
+        private final boolean latencyTracing;
+
+        // Consumer-owned batch buffers, preallocated once
+        private final long[] batchTokens;
+        private final double[] batchPrices;
+        private final long[] batchTimestamps;
+        private PositionMonitorV2[] touchedMonitors = new PositionMonitorV2[16];
+        /** Null when tick-pipeline.conflation-enabled is false. */
+        private final TickConflator conflator;
+
+        final AtomicLong publishedTicks = new AtomicLong();
+        final AtomicLong evaluatedTicks = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong fullRingStalls = new AtomicLong();
+        volatile long maxQueueDelayNanos;
+
+        Lane(String userId, int shard, Supplier<ShardedDispatchTable> tableSource, TickPipelineConfig config) {
+            this.userId = userId;
+            this.shard = shard;
+            this.tableSource = tableSource;
+            this.ring = new TickRingBuffer(config.getShardRingSize());
+            this.maxBatchSize = Math.max(1, Math.min(config.getMaxBatchSize(), ring.capacity()));
+            this.latencyTracing = config.isLatencyTracingEnabled();
+            this.batchTokens = new long[maxBatchSize];
+            this.batchPrices = new double[maxBatchSize];
+            this.batchTimestamps = new long[maxBatchSize];
+            this.conflator = config.isConflationEnabled() ? new TickConflator() : null;
+        }
+
+        /**
+         * Shard thread: drain up to one batch and evaluate the monitors it touches.
+         *
+         * @return false if the lane was empty
+         */
+        boolean drainAndEvaluate() {
+            final int drained = ring.drainTo(batchTokens, batchPrices, batchTimestamps, maxBatchSize);
+            if (drained == 0) {
+                return false;
+            }
+            final long oldestReceivedAt = batchTimestamps[0];
+            final long delay = System.nanoTime() - oldestReceivedAt;
+            if (delay > maxQueueDelayNanos) {
+                maxQueueDelayNanos = delay;
+            }
+            int count = drained;
+            if (conflator != null) {
+                count = conflator.conflate(batchTokens, batchPrices, batchTimestamps, count);
+            }
+            final TickDispatchTable table = tableSource.get().shard(shard);
+            if (table.tokenCount() != 0) {
+                if (touchedMonitors.length < table.monitorCount()) {
+                    touchedMonitors = new PositionMonitorV2[table.monitorCount()];
+                }
+                // One shard thread serves many users: switch context per lane batch
+                CurrentUserContext.setUserIdFast(userId);
+                if (latencyTracing) {
+                    LatencyTracer.beginTick(userId, oldestReceivedAt);
+                }
+                try {
+                    table.dispatch(batchTokens, batchPrices, count, touchedMonitors);
+                    batches.lazySet(batches.get() + 1);
+                } catch (RuntimeException e) {
+                    log.error("[user={}] Exit evaluation failed on shard {} for tick batch of {}: {}",
+                            userId, shard, count, e.getMessage(), e);
+                } finally {
+                    if (latencyTracing) {
+                        LatencyTracer.endTick();
+                    }
+                }
+            }
+            evaluatedTicks.lazySet(evaluatedTicks.get() + drained);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.ticker.KiteTicker;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reference-counted KiteTicker subscription mode per instrument token.
+ *
+ * <h2>Why</h2>
+ * Full mode carries market depth, OHLC and OI — roughly 184 bytes per packet against 8 for LTP —
+ * and KiteTicker parses and allocates all of it. Position monitors only read
+ * {@code getLastTradedPrice()}, so they request {@link Mode#LTP}; consumers that need depth or OI
+ * (paper order matching, OI tracking) request {@link Mode#FULL}. A token is subscribed in the
+ * highest mode any current consumer holds and is downgraded or unsubscribed as holders release it.
+ *
+ * <h2>Threading</h2>
+ * Control plane only — not thread-safe. {@link WebSocketService} calls it under the user's
+ * dispatch lock and applies the returned {@link Changes} to the ticker outside the lock.
+ *
+ * @since 6.3
+ */
+public final class SubscriptionModeRegistry {
+
+    /** Subscription modes in increasing packet size; a token's effective mode is the highest held. */
+    public enum Mode {
+        LTP(KiteTicker.modeLTP),
+        QUOTE(KiteTicker.modeQuote),
+        FULL(KiteTicker.modeFull);
+
+        private final String kiteMode;
+
+        Mode(String kiteMode) {
+            this.kiteMode = kiteMode;
+        }
+
+        public String kiteMode() {
+            return kiteMode;
+        }
+    }
+
+    private static final Mode[] MODES = Mode.values();
+
+    /** token → holder count per mode ordinal. */
+    private final LongObjectHashMap<int[]> holdsByToken = new LongObjectHashMap<>();
+
+    /**
+     * Ticker operations accumulated over a batch of acquire/release calls. Only the net effect is
+     * kept: a token subscribed and released within the same batch never reaches the ticker, and a
+     * token whose mode changes several times is listed once under its final mode.
+     */
+    public static final class Changes {
+        private final Set<Long> subscribe = new LinkedHashSet<>();
+        private final Set<Long> unsubscribe = new LinkedHashSet<>();
+        private final Map<Long, Mode> finalModes = new LinkedHashMap<>();
+
+        /** Tokens to pass to {@code KiteTicker.subscribe}. */
+        public List<Long> getSubscribe() {
+            return new ArrayList<>(subscribe);
+        }
+
+        /** Tokens to pass to {@code KiteTicker.unsubscribe}. */
+        public List<Long> getUnsubscribe() {
+            return new ArrayList<>(unsubscribe);
+        }
+
+        /** Tokens to pass to {@code KiteTicker.setMode}, grouped by mode (includes new subscriptions). */
+        public Map<Mode, List<Long>> getModeChanges() {
+            Map<Mode, List<Long>> byMode = new EnumMap<>(Mode.class);
+            finalModes.forEach((token, mode) -> byMode.computeIfAbsent(mode, m -> new ArrayList<>()).add(token));
+            return byMode;
+        }
+
+        public boolean isEmpty() {
+            return subscribe.isEmpty() && unsubscribe.isEmpty() && finalModes.isEmpty();
+        }
+
+        private void subscribed(long token) {
+            if (!unsubscribe.remove(token)) {
+                subscribe.add(token);
+            }
+        }
+
+        private void unsubscribed(long token) {
+            finalModes.remove(token);
+            if (!subscribe.remove(token)) {
+                unsubscribe.add(token);
+            }
+        }
+
+        private void modeChanged(long token, Mode mode) {
+            finalModes.put(token, mode);
+        }
+    }
+
+    /** Register one holder of {@code token} in {@code mode}, recording any subscribe/upgrade in {@code changes}. */
+    public void acquire(long token, Mode mode, Changes changes) {
+        int[] holds = holdsByToken.get(token);
+        Mode before = null;
+        if (holds == null) {
+            holds = new int[MODES.length];
+            holdsByToken.put(token, holds);
+            changes.subscribed(token);
+        } else {
+            before = effectiveMode(holds);
+        }
+        holds[mode.ordinal()]++;
+        Mode after = effectiveMode(holds);
+        if (after != before) {
+            changes.modeChanged(token, after);
+        }
+    }
+
+    /**
+     * Drop one holder of {@code token} in {@code mode}, recording any downgrade/unsubscribe.
+     * Releasing a mode that is not held is ignored.
+     */
+    public void release(long token, Mode mode, Changes changes) {
+        int[] holds = holdsByToken.get(token);
+        if (holds == null || holds[mode.ordinal()] == 0) {
+            return;
+        }
+        Mode before = effectiveMode(holds);
+        holds[mode.ordinal()]--;
+        Mode after = effectiveMode(holds);
+        if (after == null) {
+            holdsByToken.remove(token);
+            changes.unsubscribed(token);
+        } else if (after != before) {
+            changes.modeChanged(token, after);
+        }
+    }
+
+    /** Effective mode of {@code token}, or null when no consumer holds it. */
+    public Mode modeOf(long token) {
+        int[] holds = holdsByToken.get(token);
+        return holds == null ? null : effectiveMode(holds);
+    }
+
+    /** Every held token grouped by effective mode — used to resubscribe after a reconnect. */
+    public Map<Mode, List<Long>> snapshot() {
+        Map<Mode, List<Long>> byMode = new EnumMap<>(Mode.class);
+        holdsByToken.forEachKeyValue((token, holds) ->
+                byMode.computeIfAbsent(effectiveMode(holds), m -> new ArrayList<>()).add(token));
+        return byMode;
+    }
+
+    public int size() {
+        return holdsByToken.size();
+    }
+
+    public void clear() {
+        holdsByToken.clear();
+    }
+
+    private static Mode effectiveMode(int[] holds) {
+        for (int i = MODES.length - 1; i >= 0; i--) {
+            if (holds[i] > 0) return MODES[i];
+        }
+        return null;
+    }
+}
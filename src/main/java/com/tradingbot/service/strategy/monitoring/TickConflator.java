@@ -0,0 +1,117 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Tick;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latest-value-wins conflation of a tick batch, keyed by instrument token.
+ *
+ * <h2>Why</h2>
+ * During opening and expiry-day bursts KiteTicker delivers several ticks per token in one batch,
+ * but exit evaluation only needs the last price of each leg. Collapsing the batch first means each
+ * leg price is written once and no stale intermediate price is ever evaluated.
+ *
+ * <h2>Semantics</h2>
+ * The conflated batch keeps one entry per token, in order of the token's first appearance, carrying
+ * the token's <em>last</em> price. On the ring-buffer path the slot keeps the <em>first</em> receive
+ * timestamp so queue-delay measurements still see the oldest tick.
+ *
+ * <h2>Threading</h2>
+ * One instance per consuming thread (KiteTicker thread or {@link TickEvaluator}); buffers are reused
+ * across batches. Counters are single-writer and may be read from any thread.
+ *
+ * @since 6.3
+ */
+public final class TickConflator {
+
+    private final LongIntHashMap slotByToken = new LongIntHashMap(64);
+    /** Reused output list for {@link #conflate(ArrayList)} — valid until the next call. */
+    private final ArrayList<Tick> conflatedTicks = new ArrayList<>(64);
+
+    private volatile long receivedTicks;
+    private volatile long deliveredTicks;
+
+    /**
+     * Conflate the first {@code count} entries of the parallel arrays in place.
+     *
+     * @return number of entries left (one per distinct token)
+     */
+    public int conflate(long[] tokens, double[] prices, long[] timestamps, int count) {
+        slotByToken.clear();
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final long token = tokens[i];
+            final int slot = slotByToken.getIfAbsent(token, -1);
+            if (slot < 0) {
+                // size <= i, so moving entry i down never overwrites an unread entry
+                slotByToken.put(token, size);
+                tokens[size] = token;
+                prices[size] = prices[i];
+                timestamps[size] = timestamps[i];
+                size++;
+            } else {
+                prices[slot] = prices[i];
+            }
+        }
+        receivedTicks += count;
+        deliveredTicks += size;
+        return size;
+    }
+
+    /**
+     * Conflate a KiteTicker batch. Returns {@code ticks} itself when every token is distinct,
+     * otherwise a reused list holding the latest tick per token (valid until the next call).
+     */
+    public ArrayList<Tick> conflate(ArrayList<Tick> ticks) {
+        final int count = ticks.size();
+        slotByToken.clear();
+        conflatedTicks.clear();
+        for (int i = 0; i < count; i++) {
+            final Tick tick = ticks.get(i);
+            final long token = tick.getInstrumentToken();
+            final int slot = slotByToken.getIfAbsent(token, -1);
+            if (slot < 0) {
+                slotByToken.put(token, conflatedTicks.size());
+                conflatedTicks.add(tick);
+            } else {
+                conflatedTicks.set(slot, tick);
+            }
+        }
+        final int size = conflatedTicks.size();
+        receivedTicks += count;
+        deliveredTicks += size;
+        if (size == count) {
+            conflatedTicks.clear();
+            return ticks;
+        }
+        return conflatedTicks;
+    }
+
+    public long getReceivedTicks() {
+        return receivedTicks;
+    }
+
+    public long getDeliveredTicks() {
+        return deliveredTicks;
+    }
+
+    /** Ticks collapsed into a later tick for the same token (evaluation work saved). */
+    public long getConflatedTicks() {
+        return receivedTicks - deliveredTicks;
+    }
+
+    public Map<String, Object> toMap() {
+        long received = receivedTicks;
+        long delivered = deliveredTicks;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("receivedTicks", received);
+        stats.put("deliveredTicks", delivered);
+        stats.put("conflatedTicks", received - delivered);
+        stats.put("conflationRatio", received == 0 ? 0.0 : (double) (received - delivered) / received);
+        return stats;
+    }
+}
@@ -0,0 +1,147 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Tick;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable instrument token → monitors dispatch table for the WebSocket tick path.
+ *
+ * <h2>Copy-on-Write</h2>
+ * {@link WebSocketService} rebuilds a new table whenever a monitor starts, stops or gains an
+ * instrument, and publishes it through a volatile field. The tick thread reads that field once
+ * per batch and never takes a lock.
+ *
+ * <h2>HFT Optimizations</h2>
+ * <ul>
+ *   <li>One primitive {@code long} lookup per tick — no boxing, no execution-id indirection</li>
+ *   <li>Direct fan-out over a {@code PositionMonitorV2[]}</li>
+ *   <li>A monitor subscribed to several ticking tokens is updated once per batch, using a
+ *       per-batch stamp on the monitor instead of a temporary set — zero allocation</li>
+ *   <li>{@link #dispatch(long[], double[], int, PositionMonitorV2[])} serves the ring-buffer path
+ *       from primitive arrays, with no {@code Tick} objects at all</li>
+ * </ul>
+ *
+ * @since 6.3
+ */
+public final class TickDispatchTable {
+
+    public static final TickDispatchTable EMPTY = new TickDispatchTable(new LongObjectHashMap<>(0), 0);
+
+    /** Batch stamps, unique across tables so a rebuilt table never re-stamps a monitor with an old value. */
+    private static final AtomicLong BATCH_SEQUENCE = new AtomicLong();
+
+    private final LongObjectHashMap<PositionMonitorV2[]> monitorsByToken;
+    /** Distinct monitors across all tokens — sizes the evaluator's per-batch scratch array. */
+    private final int monitorCount;
+
+    private TickDispatchTable(LongObjectHashMap<PositionMonitorV2[]> monitorsByToken, int monitorCount) {
+        this.monitorsByToken = monitorsByToken;
+        this.monitorCount = monitorCount;
+    }
+
+    /**
+     * Build a table from the subscription registry. Execution ids without a live monitor are skipped.
+     *
+     * @param tokenToExecutions instrument token → execution ids subscribed to it
+     * @param monitors          execution id → monitor
+     */
+    public static TickDispatchTable build(Map<Long, ? extends Collection<String>> tokenToExecutions,
+                                          Map<String, PositionMonitorV2> monitors) {
+        if (tokenToExecutions.isEmpty()) {
+            return EMPTY;
+        }
+        LongObjectHashMap<PositionMonitorV2[]> table = new LongObjectHashMap<>(tokenToExecutions.size());
+        ArrayList<PositionMonitorV2> scratch = new ArrayList<>(4);
+        Set<PositionMonitorV2> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Long, ? extends Collection<String>> entry : tokenToExecutions.entrySet()) {
+            scratch.clear();
+            for (String executionId : entry.getValue()) {
+                PositionMonitorV2 monitor = monitors.get(executionId);
+                if (monitor != null && !scratch.contains(monitor)) {
+                    scratch.add(monitor);
+                }
+            }
+            if (!scratch.isEmpty()) {
+                table.put(entry.getKey(), scratch.toArray(new PositionMonitorV2[0]));
+                distinct.addAll(scratch);
+            }
+        }
+        return new TickDispatchTable(table, distinct.size());
+    }
+
+    /** Monitors subscribed to {@code token}, or null. The array is shared — do not modify. */
+    public PositionMonitorV2[] monitorsFor(long token) {
+        return monitorsByToken.get(token);
+    }
+
+    public int tokenCount() {
+        return monitorsByToken.size();
+    }
+
+    public int monitorCount() {
+        return monitorCount;
+    }
+
+    /**
+     * Deliver a tick batch to every active monitor subscribed to at least one of its tokens.
+     * Each monitor receives the whole batch once. Must be called from a single thread per monitor.
+     *
+     * @return number of monitors updated
+     */
+    public int dispatch(ArrayList<Tick> ticks) {
+        final int tickCount = ticks.size();
+        final long stamp = BATCH_SEQUENCE.incrementAndGet();
+        int dispatched = 0;
+        for (int i = 0; i < tickCount; i++) {
+            final PositionMonitorV2[] monitors = monitorsByToken.get(ticks.get(i).getInstrumentToken());
+            if (monitors == null) continue;
+            for (int m = 0; m < monitors.length; m++) {
+                final PositionMonitorV2 monitor = monitors[m];
+                if (monitor.dispatchStamp == stamp || !monitor.isActive()) continue;
+                monitor.dispatchStamp = stamp;
+                monitor.updatePriceWithDifferenceCheck(ticks);
+                dispatched++;
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Primitive-batch variant used by {@link TickEvaluator}: apply each (token, LTP) to the
+     * subscribed legs in order, then evaluate every touched monitor once.
+     * Must be called from a single thread per monitor.
+     *
+     * @param touched scratch array of at least {@link #monitorCount()} slots; cleared on return
+     * @return number of monitors evaluated
+     */
+    public int dispatch(long[] tokens, double[] prices, int count, PositionMonitorV2[] touched) {
+        final long stamp = BATCH_SEQUENCE.incrementAndGet();
+        int touchedCount = 0;
+        for (int i = 0; i < count; i++) {
+            final PositionMonitorV2[] monitors = monitorsByToken.get(tokens[i]);
+            if (monitors == null) continue;
+            for (int m = 0; m < monitors.length; m++) {
+                final PositionMonitorV2 monitor = monitors[m];
+                if (!monitor.isActive()) continue;
+                monitor.applyTickPrice(tokens[i], prices[i]);
+                if (monitor.dispatchStamp != stamp) {
+                    monitor.dispatchStamp = stamp;
+                    touched[touchedCount++] = monitor;
+                }
+            }
+        }
+        for (int m = 0; m < touchedCount; m++) {
+            touched[m].evaluateAfterTickBatch();
+            touched[m] = null;
+        }
+        return touchedCount;
+    }
+}
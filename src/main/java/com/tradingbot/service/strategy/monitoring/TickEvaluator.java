@@ -0,0 +1,238 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.service.latency.LatencyTracer;
+import com.tradingbot.util.CurrentUserContext;
+import com.zerodhatech.models.Tick;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated per-user exit-evaluation thread fed through a {@link TickRingBuffer}.
+ *
+ * <h2>Handoff</h2>
+ * The KiteTicker callback thread calls {@link #publish(ArrayList)}, which only copies
+ * (token, LTP, receive time) into the ring. The evaluator thread drains up to
+ * {@code maxBatchSize} ticks at a time and hands them to the current {@link TickDispatchTable},
+ * which updates leg prices and evaluates each touched monitor once per batch. Socket reads are
+ * never blocked by strategy logic unless the ring is full.
+ *
+ * <h2>Back-pressure</h2>
+ * Ticks are never dropped while the evaluator runs: a full ring makes the publisher wait using the
+ * configured wait strategy, and each wait is counted in {@link #getFullRingStalls()}.
+ *
+ * @since 6.3
+ */
+@Slf4j
+final class TickEvaluator implements Runnable, TickHandoff {
+
+    private final String userId;
+    private final TickRingBuffer ring;
+    private final Supplier<TickDispatchTable> tableSource;
+    private final int maxBatchSize;
+    private final boolean busySpin;
+    private final long parkNanos;
+    private final boolean latencyTracing;
+
+    // Consumer-owned batch buffers, preallocated once
+    private final long[] batchTokens;
+    private final double[] batchPrices;
+    private final long[] batchTimestamps;
+    private PositionMonitorV2[] touchedMonitors = new PositionMonitorV2[16];
+    /** Null when tick-pipeline.conflation-enabled is false. */
+    private final TickConflator conflator;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    private final AtomicLong publishedTicks = new AtomicLong();
+    private final AtomicLong fullRingStalls = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile long maxQueueDelayNanos;
+
+    TickEvaluator(String userId, Supplier<TickDispatchTable> tableSource, TickPipelineConfig config) {
+        this.userId = userId;
+        this.tableSource = tableSource;
+        this.ring = new TickRingBuffer(config.getRingBufferSize());
+        this.maxBatchSize = Math.max(1, Math.min(config.getMaxBatchSize(), ring.capacity()));
+        this.busySpin = config.isBusySpin();
+        this.parkNanos = Math.max(1_000L, config.getParkNanos());
+        this.latencyTracing = config.isLatencyTracingEnabled();
+        this.batchTokens = new long[maxBatchSize];
+        this.batchPrices = new double[maxBatchSize];
+        this.batchTimestamps = new long[maxBatchSize];
+        this.conflator = config.isConflationEnabled() ? new TickConflator() : null;
+    }
+
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "tick-eval-" + userId);
+        thread.setDaemon(true);
+        thread.start();
+        log.info("[user={}] Tick evaluator started (ring={}, maxBatch={}, wait={})",
+                userId, ring.capacity(), maxBatchSize, busySpin ? "BUSY_SPIN" : "PARK");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        Thread t = thread;
+        thread = null;
+        if (t != null) {
+            LockSupport.unpark(t);
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("[user={}] Tick evaluator stopped. published={}, batches={}, fullRingStalls={}, maxQueueDelayUs={}",
+                userId, publishedTicks.get(), batches.get(), fullRingStalls.get(), maxQueueDelayNanos / 1_000);
+    }
+
+    /**
+     * Copy a tick batch into the ring. KiteTicker callback thread only.
+     * Waits while the ring is full; returns early (dropping the remainder) only if the evaluator stops.
+     */
+    @Override
+    public void publish(ArrayList<Tick> ticks) {
+        if (ticks == null) return;
+        final int count = ticks.size();
+        final long receivedAt = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            final Tick tick = ticks.get(i);
+            final long token = tick.getInstrumentToken();
+            final double ltp = tick.getLastTradedPrice();
+            if (!ring.tryPublish(token, ltp, receivedAt)) {
+                fullRingStalls.incrementAndGet();
+                do {
+                    if (!running) return;
+                    idle();
+                } while (!ring.tryPublish(token, ltp, receivedAt));
+            }
+        }
+        publishedTicks.addAndGet(count);
+    }
+
+    /**
+     * Copy a decoded primitive batch into the ring. Binary-decoder listener thread only.
+     * Same back-pressure as {@link #publish(ArrayList)}.
+     */
+    @Override
+    public void publish(DecodedTickBatch decoded) {
+        final int count = decoded.size();
+        final long[] tokens = decoded.tokens();
+        final double[] prices = decoded.prices();
+        final long[] timestamps = decoded.timestamps();
+        for (int i = 0; i < count; i++) {
+            if (!ring.tryPublish(tokens[i], prices[i], timestamps[i])) {
+                fullRingStalls.incrementAndGet();
+                do {
+                    if (!running) return;
+                    idle();
+                } while (!ring.tryPublish(tokens[i], prices[i], timestamps[i]));
+            }
+        }
+        publishedTicks.addAndGet(count);
+    }
+
+    @Override
+    public void run() {
+        // Dedicated thread: user context is set once for its whole lifetime
+        CurrentUserContext.setUserIdFast(userId);
+        try {
+            while (running) {
+                int count = ring.drainTo(batchTokens, batchPrices, batchTimestamps, maxBatchSize);
+                if (count == 0) {
+                    idle();
+                    continue;
+                }
+                final long oldestReceivedAt = batchTimestamps[0];
+                final long delay = System.nanoTime() - oldestReceivedAt;
+                if (delay > maxQueueDelayNanos) {
+                    maxQueueDelayNanos = delay;
+                }
+                if (conflator != null) {
+                    count = conflator.conflate(batchTokens, batchPrices, batchTimestamps, count);
+                }
+                evaluate(count, oldestReceivedAt);
+            }
+        } finally {
+            CurrentUserContext.clear();
+        }
+    }
+
+    private void evaluate(int count, long oldestReceivedAt) {
+        final TickDispatchTable table = tableSource.get();
+        if (table.tokenCount() == 0) return;
+        if (touchedMonitors.length < table.monitorCount()) {
+            // Only after the dispatch table grows past the previous high-water mark
+            touchedMonitors = new PositionMonitorV2[table.monitorCount()];
+        }
+        if (latencyTracing) {
+            LatencyTracer.beginTick(userId, oldestReceivedAt);
+        }
+        try {
+            table.dispatch(batchTokens, batchPrices, count, touchedMonitors);
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.error("[user={}] Exit evaluation failed for tick batch of {}: {}", userId, count, e.getMessage(), e);
+        } finally {
+            if (latencyTracing) {
+                LatencyTracer.endTick();
+            }
+        }
+    }
+
+    private void idle() {
+        if (busySpin) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    long getPublishedTicks() {
+        return publishedTicks.get();
+    }
+
+    long getFullRingStalls() {
+        return fullRingStalls.get();
+    }
+
+    long getBatches() {
+        return batches.get();
+    }
+
+    int getQueuedTicks() {
+        return ring.size();
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ringCapacity", ring.capacity());
+        stats.put("queuedTicks", ring.size());
+        stats.put("publishedTicks", publishedTicks.get());
+        stats.put("batches", batches.get());
+        stats.put("fullRingStalls", fullRingStalls.get());
+        stats.put("maxQueueDelayUs", maxQueueDelayNanos / 1_000);
+        if (conflator != null) {
+            stats.put("conflation", conflator.toMap());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.util.ArrayList;
+
+/**
+ * The ticker operations {@link WebSocketService} needs, so it can run on either KiteTicker
+ * ({@link KiteTickerConnection}) or the in-house {@link KiteBinaryTickClient}.
+ *
+ * @since 6.3
+ */
+public interface TickFeedConnection {
+
+    void connect();
+
+    void disconnect();
+
+    void subscribe(ArrayList<Long> tokens);
+
+    void unsubscribe(ArrayList<Long> tokens);
+
+    /** @param mode one of {@code KiteTicker.modeLTP / modeQuote / modeFull} */
+    void setMode(ArrayList<Long> tokens, String mode);
+}
@@ -0,0 +1,31 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Tick;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Socket-thread side of handing ticks to evaluation threads: the per-user {@link TickEvaluator}
+ * ({@code tick-pipeline.ring-buffer-enabled}) or a {@link ShardedTickRouter} into the shared
+ * {@link MonitorShardPool} ({@code tick-pipeline.sharded-evaluation-enabled}).
+ * <p>
+ * Both publish methods are called only from the user's feed listener thread and return once the
+ * ticks are queued — never after evaluation.
+ *
+ * @since 6.3
+ */
+interface TickHandoff {
+
+    /** Queue a KiteTicker batch, stamping it with the current receive time. */
+    void publish(ArrayList<Tick> ticks);
+
+    /** Queue a decoded binary batch with its own receive timestamps. */
+    void publish(DecodedTickBatch batch);
+
+    /** Stop consuming for this user; ticks still queued are discarded. */
+    void stop();
+
+    /** Counters for {@code GET /api/monitoring/tick-pipeline}. */
+    Map<String, Object> toMap();
+}
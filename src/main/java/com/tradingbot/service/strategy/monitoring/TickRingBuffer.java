@@ -0,0 +1,105 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer / single-consumer ring of primitive tick slots.
+ *
+ * <h2>Layout</h2>
+ * Three parallel arrays ({@code token}, {@code ltp}, {@code timestamp}) indexed by
+ * {@code sequence & mask}. Publishing copies three primitives into a slot and advances the
+ * producer sequence with a release store; draining copies a run of slots into caller-owned arrays
+ * and advances the consumer sequence. Nothing is allocated after construction.
+ *
+ * <h2>Threading</h2>
+ * Exactly one thread may call {@link #tryPublish} (the KiteTicker callback thread) and exactly
+ * one thread may call {@link #drainTo} (the evaluator). The producer caches the last consumer
+ * sequence it saw, so it only reads the consumer's counter when the ring looks full.
+ *
+ * @since 6.3
+ */
+public final class TickRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] tokens;
+    private final double[] prices;
+    private final long[] timestamps;
+
+    /** Next sequence to write — advanced only by the producer. */
+    private final AtomicLong producerSequence = new AtomicLong();
+    /** Next sequence to read — advanced only by the consumer. */
+    private final AtomicLong consumerSequence = new AtomicLong();
+    /** Producer-local copy of {@link #consumerSequence}. */
+    private long cachedConsumerSequence;
+
+    /**
+     * @param requestedCapacity slot count, rounded up to a power of two (minimum 2)
+     */
+    public TickRingBuffer(int requestedCapacity) {
+        this.capacity = roundUpToPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.tokens = new long[capacity];
+        this.prices = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    static int roundUpToPowerOfTwo(int value) {
+        if (value <= 2) return 2;
+        if (value > (1 << 30)) return 1 << 30;
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * Publish one tick. Producer thread only.
+     *
+     * @return false if the ring is full (nothing written)
+     */
+    public boolean tryPublish(long token, double ltp, long timestamp) {
+        final long sequence = producerSequence.get();
+        if (sequence - cachedConsumerSequence >= capacity) {
+            cachedConsumerSequence = consumerSequence.get();
+            if (sequence - cachedConsumerSequence >= capacity) {
+                return false;
+            }
+        }
+        final int index = (int) sequence & mask;
+        tokens[index] = token;
+        prices[index] = ltp;
+        timestamps[index] = timestamp;
+        producerSequence.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * Copy up to {@code max} published ticks into the given arrays, oldest first. Consumer thread only.
+     *
+     * @return number of ticks copied (0 if the ring is empty)
+     */
+    public int drainTo(long[] tokenOut, double[] priceOut, long[] timestampOut, int max) {
+        final long from = consumerSequence.get();
+        final long available = producerSequence.get() - from;
+        if (available <= 0) {
+            return 0;
+        }
+        final int count = (int) Math.min(available, max);
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (from + i) & mask;
+            tokenOut[i] = tokens[index];
+            priceOut[i] = prices[index];
+            timestampOut[i] = timestamps[index];
+        }
+        consumerSequence.lazySet(from + count);
+        return count;
+    }
+
+    /** Ticks published but not yet drained (approximate when read from a third thread). */
+    public int size() {
+        return (int) (producerSequence.get() - consumerSequence.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
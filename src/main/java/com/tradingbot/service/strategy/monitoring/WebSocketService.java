@@ -2,6 +2,10 @@ package com.tradingbot.service.strategy.monitoring;
 
 import com.tradingbot.config.KiteConfig;
 import com.tradingbot.config.PersistenceConfig;
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.service.journal.TickJournal;
+import com.tradingbot.service.latency.LatencyTracer;
+import com.tradingbot.service.order.OrderStateCache;
 import com.tradingbot.service.persistence.TradePersistenceService;
 import com.tradingbot.service.session.UserSessionManager;
 import com.tradingbot.util.CurrentUserContext;
@@ -35,45 +39,132 @@ public class WebSocketService implements DisposableBean {
     private final KiteConfig kiteConfig;
     private final PersistenceConfig persistenceConfig;
     private final TradePersistenceService tradePersistenceService;
+    private final TickPipelineConfig tickPipelineConfig;
+    private final TickJournal tickJournal;
+    private final OrderStateCache orderStateCache;
+    /**
+     * Mode monitor tokens are held in. Monitors only read {@code getLastTradedPrice()}, so this is
+     * LTP unless the tick journal needs volume, OI and exchange time (tick-journal.subscription-mode).
+     */
+    private final SubscriptionModeRegistry.Mode monitorMode;
 
     public WebSocketService(UserSessionManager sessionManager, KiteConfig kiteConfig,
                              PersistenceConfig persistenceConfig,
-                             TradePersistenceService tradePersistenceService) {
+                             TradePersistenceService tradePersistenceService,
+                             TickPipelineConfig tickPipelineConfig,
+                             TickJournal tickJournal,
+                             OrderStateCache orderStateCache) {
         this.sessionManager = sessionManager;
         this.kiteConfig = kiteConfig;
         this.persistenceConfig = persistenceConfig;
         this.tradePersistenceService = tradePersistenceService;
+        this.tickPipelineConfig = tickPipelineConfig;
+        this.tickJournal = tickJournal;
+        this.orderStateCache = orderStateCache;
+        this.monitorMode = tickJournal.subscriptionMode();
     }
 
 
     /** Per-user WebSocket context */
     private static class UserWSContext {
         final String userId;
-        KiteTicker ticker;
+        TickFeedConnection ticker;
+        /** Binary-decoder direct path scratch (touched monitors per frame); listener thread only. */
+        PositionMonitorV2[] directTouched = new PositionMonitorV2[16];
         final Map<String, PositionMonitorV2> activeMonitors = new ConcurrentHashMap<>();
+        /** Subscription registry (control plane): token → execution ids. Not read on the tick path. */
         final Map<Long, Set<String>> instrumentToExecutions = new ConcurrentHashMap<>();
+        /** Tick path: immutable token → monitors table, rebuilt under dispatchLock on every change. */
+        volatile TickDispatchTable dispatchTable = TickDispatchTable.EMPTY;
+        final Object dispatchLock = new Object();
+        /** Per-shard view of the same table (tick-pipeline.sharded-evaluation-enabled), rebuilt alongside it. */
+        volatile ShardedDispatchTable shardedTable = ShardedDispatchTable.EMPTY;
+        /**
+         * Evaluation handoff: {@link TickEvaluator} (ring-buffer-enabled) or {@link ShardedTickRouter}
+         * (sharded-evaluation-enabled); null when monitors run on the ticker thread.
+         */
+        volatile TickHandoff evaluator;
+        /** Per-token subscription mode refcounts (control plane), guarded by dispatchLock. */
+        final SubscriptionModeRegistry subscriptionModes = new SubscriptionModeRegistry();
+        /** Conflation on the direct (ticker-thread) path; null when disabled. */
+        final TickConflator conflator;
+        /** Tick journal ring for this user's feed; null when tick-journal.enabled is false. */
+        final TickJournal.Producer journal;
         final AtomicBoolean isConnected = new AtomicBoolean(false);
         final AtomicBoolean isConnecting = new AtomicBoolean(false);
         final ReentrantLock connectionLock = new ReentrantLock();
         ScheduledExecutorService reconnectScheduler;
 
-        UserWSContext(String userId) {
+        UserWSContext(String userId, boolean conflate, TickJournal.Producer journal) {
             this.userId = userId;
+            this.conflator = conflate ? new TickConflator() : null;
+            this.journal = journal;
         }
     }
 
     private final Map<String, UserWSContext> contexts = new ConcurrentHashMap<>();
 
+    /** Shared evaluator threads; null unless tick-pipeline.sharded-evaluation-enabled. */
+    private MonitorShardPool shardPool;
+
+    /** Rebuild and publish the dispatch table(s). Caller holds {@code c.dispatchLock}. */
+    private void rebuildDispatchTable(UserWSContext c) {
+        c.dispatchTable = TickDispatchTable.build(c.instrumentToExecutions, c.activeMonitors);
+        if (shardPool != null) {
+            c.shardedTable = ShardedDispatchTable.build(c.instrumentToExecutions, c.activeMonitors, shardPool);
+        }
+    }
+
+    /** Publish empty dispatch tables. Caller holds {@code c.dispatchLock}. */
+    private static void clearDispatchTable(UserWSContext c) {
+        c.dispatchTable = TickDispatchTable.EMPTY;
+        c.shardedTable = ShardedDispatchTable.EMPTY;
+    }
+
     @PostConstruct
     public void init() {
-        log.info("WebSocketService initialized.");
+        if (tickPipelineConfig.isShardedEvaluationEnabled()) {
+            shardPool = new MonitorShardPool(tickPipelineConfig);
+            shardPool.start();
+        }
+        log.info("WebSocketService initialized. Decoder: {}, tick evaluation: {}",
+                tickPipelineConfig.isBinaryDecoderEnabled() ? "in-house binary" : "KiteTicker",
+                shardPool != null ? "sharded → " + shardPool.shardCount() + " shared evaluator threads"
+                        : tickPipelineConfig.isRingBufferEnabled() ? "ring buffer → dedicated evaluator thread"
+                        : "socket thread");
+    }
+
+    /**
+     * Attach the user's evaluation handoff once, if enabled: a router into the shared shard pool,
+     * else a dedicated ring-buffer evaluator. Caller holds {@code c.connectionLock}.
+     */
+    private void ensureEvaluator(UserWSContext c) {
+        if (c.evaluator != null) {
+            return;
+        }
+        if (shardPool != null) {
+            c.evaluator = shardPool.newRouter(c.userId, () -> c.shardedTable);
+        } else if (tickPipelineConfig.isRingBufferEnabled()) {
+            TickEvaluator evaluator = new TickEvaluator(c.userId, () -> c.dispatchTable, tickPipelineConfig);
+            evaluator.start();
+            c.evaluator = evaluator;
+        }
+    }
+
+    private static void stopEvaluator(UserWSContext c) {
+        TickHandoff evaluator = c.evaluator;
+        if (evaluator != null) {
+            c.evaluator = null;
+            evaluator.stop();
+        }
     }
 
     // Helper to get or create the per-user context
     private UserWSContext ctx() {
         String userId = CurrentUserContext.getRequiredUserId();
         return contexts.computeIfAbsent(userId, id -> {
-            UserWSContext c = new UserWSContext(id);
+            UserWSContext c = new UserWSContext(id, tickPipelineConfig.isConflationEnabled(),
+                    tickJournal.producer("ws-" + id));
             c.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
                 Thread t = new Thread(r, "ws-reconnect-" + id);
                 t.setDaemon(true);
@@ -102,6 +193,36 @@ public class WebSocketService implements DisposableBean {
         return ctx().activeMonitors.size();
     }
 
+    /**
+     * Tick pipeline counters for the current user: evaluation mode, ring-buffer handoff and
+     * conflation (received vs. delivered ticks).
+     */
+    public Map<String, Object> getTickPipelineStats() {
+        UserWSContext c = ctx();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        TickHandoff evaluator = c.evaluator;
+        stats.put("mode", evaluator instanceof ShardedTickRouter ? "SHARDED"
+                : evaluator != null ? "RING_BUFFER" : "DIRECT");
+        stats.put("decoder", tickPipelineConfig.isBinaryDecoderEnabled() ? "BINARY" : "KITE_TICKER");
+        stats.put("conflationEnabled", tickPipelineConfig.isConflationEnabled());
+        Map<String, Integer> tokensByMode = new LinkedHashMap<>();
+        synchronized (c.dispatchLock) {
+            c.subscriptionModes.snapshot().forEach((mode, tokens) -> tokensByMode.put(mode.name(), tokens.size()));
+        }
+        stats.put("subscribedTokensByMode", tokensByMode);
+        if (evaluator instanceof ShardedTickRouter) {
+            stats.put("sharded", evaluator.toMap());
+            stats.put("shardPool", shardPool.toMap());
+        } else if (evaluator != null) {
+            stats.put("ringBuffer", evaluator.toMap());
+        } else if (c.conflator != null) {
+            stats.put("conflation", c.conflator.toMap());
+        }
+        stats.put("orderUpdateStreamLive", orderStateCache.isStreamLive(c.userId));
+        stats.put("orderUpdates", orderStateCache.toMap());
+        return stats;
+    }
+
     // ============ SYSTEM-LEVEL MONITORING METHODS (No User Context Required) ============
 
     /**
@@ -192,6 +313,7 @@ public class WebSocketService implements DisposableBean {
                 try { c.ticker.disconnect(); } catch (Exception ignore) {}
                 c.isConnected.set(false);
                 c.isConnecting.set(false);
+                orderStateCache.setStreamLive(c.userId, false);
             }
         } finally {
             c.connectionLock.unlock();
@@ -206,7 +328,7 @@ public class WebSocketService implements DisposableBean {
      * <ul>
      *   <li>Stops all active position monitors</li>
      *   <li>Clears all instrument subscriptions</li>
-     *   <li>Disconnects the WebSocket connection</li>
+     *   <li>Disconnects the WebSocket connection and stops the tick evaluator thread</li>
      *   <li>Shuts down the reconnect scheduler</li>
      *   <li>Removes the user context from the contexts map</li>
      * </ul>
@@ -239,15 +361,20 @@ public class WebSocketService implements DisposableBean {
                     log.warn("[user={}] Error stopping monitor: {}", c.userId, e.getMessage());
                 }
             }
-            c.activeMonitors.clear();
             log.debug("[user={}] Stopped {} active monitors", c.userId, monitorCount);
 
-            // Step 2: Clear instrument subscriptions
-            int subscriptionCount = c.instrumentToExecutions.size();
-            c.instrumentToExecutions.clear();
+            // Step 2: Clear monitors, instrument subscriptions and the dispatch table
+            int subscriptionCount;
+            synchronized (c.dispatchLock) {
+                c.activeMonitors.clear();
+                subscriptionCount = c.instrumentToExecutions.size();
+                c.instrumentToExecutions.clear();
+                c.subscriptionModes.clear();
+                clearDispatchTable(c);
+            }
             log.debug("[user={}] Cleared {} instrument subscriptions", c.userId, subscriptionCount);
 
-            // Step 3: Disconnect WebSocket
+            // Step 3: Disconnect WebSocket and stop the ring-buffer evaluator
             if (c.ticker != null) {
                 try {
                     if (c.isConnected.get()) {
@@ -260,6 +387,7 @@ public class WebSocketService implements DisposableBean {
             }
             c.isConnected.set(false);
             c.isConnecting.set(false);
+            stopEvaluator(c);
 
             // Step 4: Shutdown reconnect scheduler
             if (c.reconnectScheduler != null) {
@@ -271,8 +399,9 @@ public class WebSocketService implements DisposableBean {
                 c.reconnectScheduler = null;
             }
 
-            // Step 5: Remove context from map
+            // Step 5: Remove context from map and drop the user's cached order states
             contexts.remove(userId);
+            orderStateCache.clear(userId);
 
             // Persist logout disconnect event
             persistWebSocketEvent(c.userId, "LOGOUT_DISCONNECT", "WebSocket cleanup for logout",
@@ -293,42 +422,45 @@ public class WebSocketService implements DisposableBean {
             log.warn("[user={}] Monitoring already active for {}", c.userId, executionId);
             return;
         }
-        List<Long> tokensToSubscribe = new ArrayList<>();
-        for (LegMonitor leg : monitor.getLegs()) {
-            long token = leg.getInstrumentToken();
-            c.instrumentToExecutions.computeIfAbsent(token, k -> new CopyOnWriteArraySet<>()).add(executionId);
-            tokensToSubscribe.add(token);
-        }
-        if (!tokensToSubscribe.isEmpty()) {
-            subscribe(c, tokensToSubscribe);
+        SubscriptionModeRegistry.Changes changes = new SubscriptionModeRegistry.Changes();
+        synchronized (c.dispatchLock) {
+            for (LegMonitor leg : monitor.getLegs()) {
+                long token = leg.getInstrumentToken();
+                if (c.instrumentToExecutions.computeIfAbsent(token, k -> new CopyOnWriteArraySet<>()).add(executionId)) {
+                    c.subscriptionModes.acquire(token, monitorMode, changes);
+                }
+            }
+            rebuildDispatchTable(c);
         }
+        applySubscriptionChanges(c, changes);
         log.info("[user={}] Started monitoring {} (legs={})", c.userId, executionId, monitor.getLegs().size());
     }
 
     /** Stop monitoring for current user */
     public void stopMonitoring(String executionId) {
         UserWSContext c = ctx();
-        PositionMonitorV2 monitor = c.activeMonitors.remove(executionId);
-        if (monitor == null) {
-            log.warn("[user={}] No active monitor for {}", c.userId, executionId);
-            return;
-        }
-        monitor.stop();
-        List<Long> tokensToUnsubscribe = new ArrayList<>();
-        for (LegMonitor leg : monitor.getLegs()) {
-            long token = leg.getInstrumentToken();
-            Set<String> executions = c.instrumentToExecutions.get(token);
-            if (executions != null) {
-                executions.remove(executionId);
-                if (executions.isEmpty()) {
-                    c.instrumentToExecutions.remove(token);
-                    tokensToUnsubscribe.add(token);
+        PositionMonitorV2 monitor;
+        SubscriptionModeRegistry.Changes changes = new SubscriptionModeRegistry.Changes();
+        synchronized (c.dispatchLock) {
+            monitor = c.activeMonitors.remove(executionId);
+            if (monitor == null) {
+                log.warn("[user={}] No active monitor for {}", c.userId, executionId);
+                return;
+            }
+            for (LegMonitor leg : monitor.getLegs()) {
+                long token = leg.getInstrumentToken();
+                Set<String> executions = c.instrumentToExecutions.get(token);
+                if (executions != null && executions.remove(executionId)) {
+                    c.subscriptionModes.release(token, monitorMode, changes);
+                    if (executions.isEmpty()) {
+                        c.instrumentToExecutions.remove(token);
+                    }
                 }
             }
+            rebuildDispatchTable(c);
         }
-        if (!tokensToUnsubscribe.isEmpty()) {
-            unsubscribe(c, tokensToUnsubscribe);
-        }
+        monitor.stop();
+        applySubscriptionChanges(c, changes);
         log.info("[user={}] Stopped monitoring {}", c.userId, executionId);
     }
 
@@ -354,11 +486,17 @@ public class WebSocketService implements DisposableBean {
         }
 
         // Add the instrument-execution mapping
-        c.instrumentToExecutions.computeIfAbsent(instrumentToken, k -> new CopyOnWriteArraySet<>()).add(executionId);
+        SubscriptionModeRegistry.Changes changes = new SubscriptionModeRegistry.Changes();
+        synchronized (c.dispatchLock) {
+            if (c.instrumentToExecutions.computeIfAbsent(instrumentToken, k -> new CopyOnWriteArraySet<>()).add(executionId)) {
+                c.subscriptionModes.acquire(instrumentToken, monitorMode, changes);
+            }
+            rebuildDispatchTable(c);
+        }
 
         // Subscribe to the new instrument
         if (c.isConnected.get()) {
-            subscribe(c, List.of(instrumentToken));
+            applySubscriptionChanges(c, changes);
             log.info("[user={}] Added instrument {} to monitoring for execution {}",
                     c.userId, instrumentToken, executionId);
         } else {
@@ -367,6 +505,38 @@ public class WebSocketService implements DisposableBean {
         }
     }
 
+    /**
+     * Hold ticker subscriptions for a non-monitor consumer of the current user's feed.
+     * <p>
+     * Each token is subscribed in the highest mode any holder needs: monitors hold LTP (or the tick
+     * journal's mode while journaling), consumers
+     * that read depth or OI (e.g. paper order matching, OI tracking) should hold
+     * {@link SubscriptionModeRegistry.Mode#FULL}. Every call must be balanced by
+     * {@link #releaseInstruments} with the same mode.
+     */
+    public void acquireInstruments(Collection<Long> instrumentTokens, SubscriptionModeRegistry.Mode mode) {
+        UserWSContext c = ctx();
+        SubscriptionModeRegistry.Changes changes = new SubscriptionModeRegistry.Changes();
+        synchronized (c.dispatchLock) {
+            for (Long token : instrumentTokens) {
+                c.subscriptionModes.acquire(token, mode, changes);
+            }
+        }
+        applySubscriptionChanges(c, changes);
+    }
+
+    /** Release holds taken by {@link #acquireInstruments}; tokens are downgraded or unsubscribed as needed. */
+    public void releaseInstruments(Collection<Long> instrumentTokens, SubscriptionModeRegistry.Mode mode) {
+        UserWSContext c = ctx();
+        SubscriptionModeRegistry.Changes changes = new SubscriptionModeRegistry.Changes();
+        synchronized (c.dispatchLock) {
+            for (Long token : instrumentTokens) {
+                c.subscriptionModes.release(token, mode, changes);
+            }
+        }
+        applySubscriptionChanges(c, changes);
+    }
+
     // Historical replay helpers (per-user)
     public Optional<PositionMonitorV2> getMonitor(String executionId) {
         UserWSContext c = ctx();
@@ -381,6 +551,87 @@ public class WebSocketService implements DisposableBean {
         }
     }
 
+    // Session replay (per-user)
+
+    /**
+     * Route the current user's feed to session replay.
+     * <p>
+     * Creates the user's context on a no-op {@link ReplayFeedConnection} that reports connected,
+     * so monitors register and subscribe exactly as live but nothing reaches Kite. Ticks then
+     * arrive only through {@link #replayTicks}, evaluated on the caller's thread (no ring-buffer
+     * evaluator, no tick journal) with the configured conflation.
+     *
+     * @throws IllegalStateException if the user already has a feed context
+     */
+    public void attachReplayFeed() {
+        String userId = CurrentUserContext.getRequiredUserId();
+        UserWSContext c = new UserWSContext(userId, tickPipelineConfig.isConflationEnabled(), null);
+        c.ticker = ReplayFeedConnection.INSTANCE;
+        c.isConnected.set(true);
+        if (contexts.putIfAbsent(userId, c) != null) {
+            throw new IllegalStateException("User " + userId + " already has a WebSocket context");
+        }
+        log.info("[user={}] Replay feed attached", userId);
+    }
+
+    /**
+     * Dispatch one recorded tick batch through the same routing as the live binary-decoder path.
+     * Returns once every touched monitor has been evaluated. The batch may be compacted in place.
+     */
+    public void replayTicks(DecodedTickBatch batch) {
+        UserWSContext c = contexts.get(CurrentUserContext.getRequiredUserId());
+        if (c == null || c.ticker != ReplayFeedConnection.INSTANCE) {
+            throw new IllegalStateException("Replay feed is not attached for the current user");
+        }
+        onTickBatch(c, batch);
+    }
+
+    /**
+     * The current user's monitor for {@code executionId}, once ticks are routed to it.
+     * {@link #startMonitoring} registers a monitor before it publishes the dispatch table, so
+     * {@link #getMonitor} can return a monitor that the next replayed batch would still miss.
+     */
+    public Optional<PositionMonitorV2> getRoutedMonitor(String executionId) {
+        UserWSContext c = ctx();
+        PositionMonitorV2 monitor = c.activeMonitors.get(executionId);
+        if (monitor == null) {
+            return Optional.empty();
+        }
+        TickDispatchTable table = c.dispatchTable;
+        for (LegMonitor leg : monitor.getLegs()) {
+            PositionMonitorV2[] routed = table.monitorsFor(leg.getInstrumentToken());
+            if (routed == null || !Arrays.asList(routed).contains(monitor)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(monitor);
+    }
+
+    /** Stop the current user's replay monitors and remove the replay context. */
+    public void detachReplayFeed() {
+        String userId = CurrentUserContext.getRequiredUserId();
+        UserWSContext c = contexts.get(userId);
+        if (c == null || c.ticker != ReplayFeedConnection.INSTANCE) {
+            return;
+        }
+        for (PositionMonitorV2 monitor : c.activeMonitors.values()) {
+            try {
+                monitor.stop();
+            } catch (Exception e) {
+                log.warn("[user={}] Error stopping replay monitor: {}", userId, e.getMessage());
+            }
+        }
+        synchronized (c.dispatchLock) {
+            c.activeMonitors.clear();
+            c.instrumentToExecutions.clear();
+            c.subscriptionModes.clear();
+            clearDispatchTable(c);
+        }
+        c.isConnected.set(false);
+        contexts.remove(userId, c);
+        log.info("[user={}] Replay feed detached", userId);
+    }
+
     /** Quick validation of access token for current user */
     public boolean isAccessTokenValid() {
         try {
@@ -422,12 +673,24 @@ public class WebSocketService implements DisposableBean {
     }
 
     private void setupTicker(UserWSContext c, String accessToken) {
-        c.ticker = new KiteTicker(accessToken, kiteConfig.getApiKey());
+        ensureEvaluator(c);
+        if (tickPipelineConfig.isBinaryDecoderEnabled()) {
+            c.ticker = new KiteBinaryTickClient(
+                    KiteBinaryTickClient.kiteUri(tickPipelineConfig.getBinaryDecoderUrl(), kiteConfig.getApiKey(), accessToken),
+                    batch -> onTickBatch(c, batch),
+                    order -> orderStateCache.onOrderUpdate(c.userId, order),
+                    () -> onConnected(c),
+                    () -> onDisconnected(c),
+                    e -> handleError(c, e));
+            return;
+        }
 
-        c.ticker.setOnConnectedListener(() -> onConnected(c));
-        c.ticker.setOnDisconnectedListener(() -> onDisconnected(c));
+        KiteTicker ticker = new KiteTicker(accessToken, kiteConfig.getApiKey());
 
-        c.ticker.setOnErrorListener(new OnError() {
+        ticker.setOnConnectedListener(() -> onConnected(c));
+        ticker.setOnDisconnectedListener(() -> onDisconnected(c));
+
+        ticker.setOnErrorListener(new OnError() {
             @Override
             public void onError(Exception e) { handleError(c, e); }
             @Override
@@ -436,14 +699,30 @@ public class WebSocketService implements DisposableBean {
             public void onError(String message) { log.error("[user={}] WebSocket error: {}", c.userId, message); }
         });
 
-        c.ticker.setOnTickerArrivalListener(ticks -> processTicks(c, ticks));
+        ticker.setOnTickerArrivalListener(ticks -> {
+            final long receivedAt = System.nanoTime();
+            if (c.journal != null && ticks != null) {
+                c.journal.append(ticks);
+            }
+            TickHandoff evaluator = c.evaluator;
+            if (evaluator != null) {
+                evaluator.publish(ticks);
+            } else {
+                processTicks(c, ticks, receivedAt);
+            }
+        });
 
-        c.ticker.setTryReconnection(false); // manual reconnection
+        // Order updates share the socket; they feed fill resolution, not the tick path
+        ticker.setOnOrderUpdateListener(order -> orderStateCache.onOrderUpdate(c.userId, order));
+
+        ticker.setTryReconnection(false); // manual reconnection
+        c.ticker = new KiteTickerConnection(ticker);
     }
 
     private void onConnected(UserWSContext c) {
         c.isConnected.set(true);
         c.isConnecting.set(false);
+        orderStateCache.setStreamLive(c.userId, true);
         log.info("[user={}] WebSocket connected.", c.userId);
         resubscribeAll(c);
 
@@ -455,6 +734,7 @@ public class WebSocketService implements DisposableBean {
     private void onDisconnected(UserWSContext c) {
         c.isConnected.set(false);
         c.isConnecting.set(false);
+        orderStateCache.setStreamLive(c.userId, false);
         log.warn("[user={}] WebSocket disconnected. Scheduling reconnect...", c.userId);
 
         // Persist disconnection event
@@ -468,6 +748,7 @@ public class WebSocketService implements DisposableBean {
         log.error("[user={}] WebSocket error", c.userId, e);
         c.isConnected.set(false);
         c.isConnecting.set(false);
+        orderStateCache.setStreamLive(c.userId, false);
 
         String errorCode = null;
         if (e instanceof KiteException ke) {
@@ -523,64 +804,73 @@ public class WebSocketService implements DisposableBean {
         }, delay, TimeUnit.SECONDS);
     }
 
-    private void subscribe(UserWSContext c, List<Long> tokens) {
-        if (!c.isConnected.get()) {
-            log.warn("[user={}] Not connected. Attempting to connect before subscribing.", c.userId);
-            tryConnect(c);
+    /**
+     * Apply subscription changes from {@link SubscriptionModeRegistry} to the ticker. When not
+     * connected, new tokens trigger a connect and everything is resubscribed in {@link #onConnected}.
+     */
+    private void applySubscriptionChanges(UserWSContext c, SubscriptionModeRegistry.Changes changes) {
+        if (changes.isEmpty()) {
             return;
         }
-        try {
-            ArrayList<Long> tokenList = new ArrayList<>(tokens);
-            c.ticker.subscribe(tokenList);
-            // Use modeFull for faster tick processing - LTP is pre-parsed, no additional parsing needed
-            // modeLTP requires parsing the tick structure; modeFull provides direct access
-            c.ticker.setMode(tokenList, KiteTicker.modeFull);
-            log.info("[user={}] Subscribed to {} instruments in FULL mode.", c.userId, tokens.size());
-        } catch (Exception e) {
-            log.error("[user={}] Error subscribing: {}", c.userId, e.getMessage(), e);
-        }
-    }
-
-    private void unsubscribe(UserWSContext c, List<Long> tokens) {
         if (!c.isConnected.get() || c.ticker == null) {
-            log.warn("[user={}] Cannot unsubscribe - not connected.", c.userId);
+            if (!changes.getSubscribe().isEmpty()) {
+                log.warn("[user={}] Not connected. Attempting to connect before subscribing.", c.userId);
+                tryConnect(c);
+            }
             return;
         }
         try {
-            c.ticker.unsubscribe(new ArrayList<>(tokens));
-            log.info("[user={}] Unsubscribed from {} instruments.", c.userId, tokens.size());
+            List<Long> unsubscribe = changes.getUnsubscribe();
+            if (!unsubscribe.isEmpty()) {
+                c.ticker.unsubscribe(new ArrayList<>(unsubscribe));
+                log.info("[user={}] Unsubscribed from {} instruments.", c.userId, unsubscribe.size());
+            }
+            List<Long> subscribe = changes.getSubscribe();
+            if (!subscribe.isEmpty()) {
+                c.ticker.subscribe(new ArrayList<>(subscribe));
+            }
+            setModes(c, changes.getModeChanges());
+            if (!subscribe.isEmpty()) {
+                log.info("[user={}] Subscribed to {} instruments.", c.userId, subscribe.size());
+            }
         } catch (Exception e) {
-            log.error("[user={}] Error unsubscribing: {}", c.userId, e.getMessage(), e);
+            log.error("[user={}] Error updating subscriptions: {}", c.userId, e.getMessage(), e);
+        }
+    }
+
+    private void setModes(UserWSContext c, Map<SubscriptionModeRegistry.Mode, List<Long>> tokensByMode) {
+        for (Map.Entry<SubscriptionModeRegistry.Mode, List<Long>> entry : tokensByMode.entrySet()) {
+            c.ticker.setMode(new ArrayList<>(entry.getValue()), entry.getKey().kiteMode());
+            log.debug("[user={}] {} instruments set to {} mode.", c.userId, entry.getValue().size(), entry.getKey());
         }
     }
 
     /**
-     * Process incoming ticks from WebSocket.
+     * Process incoming ticks from WebSocket on the KiteTicker thread (ring buffer disabled).
+     * With {@code tick-pipeline.ring-buffer-enabled} or {@code sharded-evaluation-enabled} the ticker
+     * thread only publishes into the {@link TickHandoff} and this method is not used.
      * HFT Critical Path - this method is called on every tick batch from WebSocket.
      *
      * Optimizations:
      * - Early exit checks to avoid unnecessary processing
-     * - Indexed loop to avoid iterator allocation
-     * - Lazy HashSet allocation only when needed
-     * - Single pass through ticks to collect all monitors
-     * - Batch update to monitors with full tick array
+     * - One volatile read of the copy-on-write {@link TickDispatchTable}, then one primitive
+     *   lookup per tick and direct array fan-out to monitors
+     * - Zero allocation: no boxed keys, no execution-id lookups, no temporary monitor set
+     * - Each monitor receives the full tick batch once (latest tick per token when conflation is enabled)
+     * - With latency tracing, the batch is traced from {@code receivedAt} ({@link LatencyTracer})
      *
      * CLOUD RUN COMPATIBILITY:
      * - WebSocket callbacks run on KiteTicker's internal thread, NOT request threads
      * - User context must be explicitly set from UserWSContext.userId
      * - Context is cleared after processing to prevent leaks
      */
-    private void processTicks(UserWSContext c, ArrayList<Tick> ticks) {
+    private void processTicks(UserWSContext c, ArrayList<Tick> ticks, long receivedAt) {
         // HFT: Ultra-fast early exit checks
-        if (ticks == null) {
+        if (ticks == null || ticks.isEmpty()) {
             return;
         }
-        final int tickCount = ticks.size();
-        if (tickCount == 0) {
-            return;
-        }
-        final Map<String, PositionMonitorV2> monitors = c.activeMonitors;
-        if (monitors.isEmpty()) {
+        final TickDispatchTable table = c.dispatchTable;
+        if (table.tokenCount() == 0) {
             return;
         }
 
@@ -588,48 +878,20 @@ public class WebSocketService implements DisposableBean {
         // This is critical because KiteTicker's thread doesn't inherit ThreadLocal from request threads
         // HFT: Use setUserIdFast to avoid diagnostic overhead (Thread.getName(), System.currentTimeMillis())
         String previousUserId = CurrentUserContext.getUserId();
+        final boolean traced = tickPipelineConfig.isLatencyTracingEnabled();
         try {
             if (c.userId != null && !c.userId.isBlank()) {
                 CurrentUserContext.setUserIdFast(c.userId);
             }
-
-            // HFT: For single-execution case (most common), avoid Set allocation entirely
-            PositionMonitorV2 singleMonitor = null;
-            Set<PositionMonitorV2> monitorsToUpdate = null;
-
-            for (int i = 0; i < tickCount; i++) {
-                final long token = ticks.get(i).getInstrumentToken();
-                final Set<String> executions = c.instrumentToExecutions.get(token);
-                if (executions != null && !executions.isEmpty()) {
-                    for (String executionId : executions) {
-                        final PositionMonitorV2 monitor = monitors.get(executionId);
-                        if (monitor != null && monitor.isActive()) {
-                            // HFT: Optimize for single-monitor case (most common)
-                            if (singleMonitor == null && monitorsToUpdate == null) {
-                                singleMonitor = monitor;
-                            } else if (singleMonitor != null && singleMonitor != monitor) {
-                                // Transition to Set when we have multiple monitors
-                                monitorsToUpdate = new HashSet<>(4);
-                                monitorsToUpdate.add(singleMonitor);
-                                monitorsToUpdate.add(monitor);
-                                singleMonitor = null;
-                            } else if (monitorsToUpdate != null) {
-                                monitorsToUpdate.add(monitor);
-                            }
-                        }
-                    }
-                }
-            }
-
-            // HFT: Update monitors - optimized for single-monitor case
-            if (singleMonitor != null) {
-                singleMonitor.updatePriceWithDifferenceCheck(ticks);
-            } else if (monitorsToUpdate != null) {
-                for (PositionMonitorV2 monitor : monitorsToUpdate) {
-                    monitor.updatePriceWithDifferenceCheck(ticks);
-                }
+            final ArrayList<Tick> dispatched = c.conflator != null ? c.conflator.conflate(ticks) : ticks;
+            if (traced) {
+                LatencyTracer.beginTick(c.userId, receivedAt);
             }
+            table.dispatch(dispatched);
         } finally {
+            if (traced) {
+                LatencyTracer.endTick();
+            }
             // CLOUD RUN: Restore previous context or clear to prevent leaks on thread reuse
             // HFT: Use setUserIdFast for restore path too
             if (previousUserId != null && !previousUserId.isBlank()) {
@@ -640,11 +902,71 @@ public class WebSocketService implements DisposableBean {
         }
     }
 
+    /**
+     * Binary-decoder tick path: the same routing as the KiteTicker listener, on primitive arrays.
+     * The batch is only valid for the duration of this call.
+     */
+    private void onTickBatch(UserWSContext c, DecodedTickBatch batch) {
+        if (c.journal != null) {
+            c.journal.append(batch); // before conflation, which compacts the batch in place
+        }
+        TickHandoff evaluator = c.evaluator;
+        if (evaluator != null) {
+            evaluator.publish(batch);
+            return;
+        }
+        final TickDispatchTable table = c.dispatchTable;
+        if (table.tokenCount() == 0) {
+            return;
+        }
+        int count = batch.size();
+        if (count == 0) {
+            return;
+        }
+        final long receivedAt = batch.timestamps()[0]; // oldest tick, read before conflation compacts the batch
+        if (c.conflator != null) {
+            count = c.conflator.conflate(batch.tokens(), batch.prices(), batch.timestamps(), count);
+        }
+        if (c.directTouched.length < table.monitorCount()) {
+            c.directTouched = new PositionMonitorV2[table.monitorCount()];
+        }
+        String previousUserId = CurrentUserContext.getUserId();
+        // Replayed receive times are recorded epoch nanos, not nanoTime: never traced
+        final boolean traced = tickPipelineConfig.isLatencyTracingEnabled() && c.ticker != ReplayFeedConnection.INSTANCE;
+        try {
+            CurrentUserContext.setUserIdFast(c.userId);
+            if (traced) {
+                LatencyTracer.beginTick(c.userId, receivedAt);
+            }
+            table.dispatch(batch.tokens(), batch.prices(), count, c.directTouched);
+        } finally {
+            if (traced) {
+                LatencyTracer.endTick();
+            }
+            if (previousUserId != null && !previousUserId.isBlank()) {
+                CurrentUserContext.setUserIdFast(previousUserId);
+            } else {
+                CurrentUserContext.clear();
+            }
+        }
+    }
+
     private void resubscribeAll(UserWSContext c) {
-        Set<Long> allTokens = c.instrumentToExecutions.keySet();
-        if (!allTokens.isEmpty()) {
-            log.info("[user={}] Resubscribing to {} instruments.", c.userId, allTokens.size());
-            subscribe(c, new ArrayList<>(allTokens));
+        Map<SubscriptionModeRegistry.Mode, List<Long>> tokensByMode;
+        synchronized (c.dispatchLock) {
+            tokensByMode = c.subscriptionModes.snapshot();
+        }
+        if (tokensByMode.isEmpty()) {
+            return;
+        }
+        ArrayList<Long> allTokens = new ArrayList<>();
+        tokensByMode.values().forEach(allTokens::addAll);
+        log.info("[user={}] Resubscribing to {} instruments ({}).", c.userId, allTokens.size(), tokensByMode.keySet());
+        try {
+            c.ticker.subscribe(allTokens);
+            setModes(c, tokensByMode);
+        } catch (Exception e) {
+            log.error("[user={}] Error resubscribing: {}", c.userId, e.getMessage(), e);
         }
     }
 
@@ -653,9 +975,13 @@ public class WebSocketService implements DisposableBean {
         log.info("Shutting down WebSocketService (per-user contexts).");
         for (UserWSContext c : contexts.values()) {
             try { disconnect(c); } catch (Exception ignore) {}
+            stopEvaluator(c);
             if (c.reconnectScheduler != null) {
                 c.reconnectScheduler.shutdownNow();
             }
         }
+        if (shardPool != null) {
+            shardPool.stop();
+        }
     }
 }
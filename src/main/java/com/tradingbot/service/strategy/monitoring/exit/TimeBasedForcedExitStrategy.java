@@ -1,10 +1,9 @@
 package com.tradingbot.service.strategy.monitoring.exit;
 
+import com.tradingbot.util.TradingClock;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 
 /**
  * HFT-optimized time-based forced exit strategy.
@@ -21,7 +20,7 @@ import java.time.ZonedDateTime;
  *
  * <h2>HFT Optimizations</h2>
  * <ul>
- *   <li>Static timezone for fast time conversion</li>
+ *   <li>Time read through {@link TradingClock} (virtual during session replay)</li>
  *   <li>Pre-built exit reason prefix</li>
  *   <li>Early return if not enabled or already triggered</li>
  * </ul>
@@ -34,9 +33,6 @@ public class TimeBasedForcedExitStrategy extends AbstractExitStrategy {
     /** Priority: 0 (highest - evaluated first) */
     private static final int PRIORITY = 0;
 
-    /** IST timezone for market hours comparison */
-    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
-
     /** Pre-built exit reason prefix */
     private static final String EXIT_PREFIX = "TIME_BASED_FORCED_EXIT @ ";
 
@@ -102,13 +98,13 @@ public class TimeBasedForcedExitStrategy extends AbstractExitStrategy {
      */
     private boolean isAfterForcedExitTime() {
         // HFT: Return cached result if checked within the last second
-        final long now = System.nanoTime();
+        final long now = TradingClock.nanoTime();
         if (now - lastTimeCheckNanos < TIME_CHECK_INTERVAL_NANOS) {
             return cachedTimeCheckResult;
         }
         // Re-check actual time
         lastTimeCheckNanos = now;
-        LocalTime currentTime = ZonedDateTime.now(IST).toLocalTime();
+        LocalTime currentTime = TradingClock.timeIst();
         cachedTimeCheckResult = !currentTime.isBefore(forcedExitTime);
         return cachedTimeCheckResult;
     }
@@ -145,6 +141,18 @@ public class TimeBasedForcedExitStrategy extends AbstractExitStrategy {
         return !simulatedTime.isBefore(forcedExitTime);
     }
 
+    /**
+     * Check if {@link #evaluate(ExitContext)} would trigger now, without triggering.
+     * <p>
+     * HFT: Same 1-second cached time check as {@link #evaluate(ExitContext)}; used by
+     * PositionMonitorV2's trigger-band fast path, which skips the strategy chain.
+     *
+     * @return true if the cutoff has passed and the exit has not fired yet
+     */
+    public boolean isExitDue() {
+        return !triggered && isAfterForcedExitTime();
+    }
+
     /**
      * Manually trigger forced exit (for backtest or external triggers).
      *
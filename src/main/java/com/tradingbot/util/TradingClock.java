@@ -0,0 +1,97 @@
+package com.tradingbot.util;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Single source of "now" for trading logic: exit timing, leg timestamps and paper fills.
+ *
+ * <h2>Live</h2>
+ * No clock installed — every method delegates straight to {@link System#currentTimeMillis()},
+ * {@link System#nanoTime()} or {@code now(IST)}, behind one volatile read.
+ *
+ * <h2>Replay</h2>
+ * Session replay installs a {@link VirtualClock} that it advances to each recorded tick's receive
+ * time, so time-based exits, leg-replacement timeouts and fill timestamps follow the recorded
+ * session instead of the wall clock. The clock is process-wide: only one replay may run at a time,
+ * never alongside live monitors, and it must {@link #reset()} when done.
+ *
+ * <p>Persistence, audit and HTTP-facing timestamps intentionally stay on the wall clock.
+ *
+ * @since 6.3
+ */
+public final class TradingClock {
+
+    public static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    private static volatile VirtualClock virtualClock;
+
+    private TradingClock() {}
+
+    /** Epoch millis — virtual during replay. */
+    public static long currentTimeMillis() {
+        VirtualClock v = virtualClock;
+        return v == null ? System.currentTimeMillis() : v.millis();
+    }
+
+    /**
+     * Monotonic nanos for measuring elapsed time — virtual epoch nanos during replay.
+     * Only differences between two readings are meaningful.
+     */
+    public static long nanoTime() {
+        VirtualClock v = virtualClock;
+        return v == null ? System.nanoTime() : v.nanoTime();
+    }
+
+    public static ZonedDateTime nowIst() {
+        VirtualClock v = virtualClock;
+        return v == null ? ZonedDateTime.now(IST) : ZonedDateTime.now(v);
+    }
+
+    public static LocalTime timeIst() {
+        VirtualClock v = virtualClock;
+        return v == null ? LocalTime.now(IST) : LocalTime.now(v);
+    }
+
+    public static LocalDate todayIst() {
+        VirtualClock v = virtualClock;
+        return v == null ? LocalDate.now(IST) : LocalDate.now(v);
+    }
+
+    /** Local date-time in the JVM default zone when live (as {@code LocalDateTime.now()}), IST during replay. */
+    public static LocalDateTime localDateTime() {
+        VirtualClock v = virtualClock;
+        return v == null ? LocalDateTime.now() : LocalDateTime.now(v);
+    }
+
+    /** The installed clock, or the IST system clock when live. */
+    public static Clock clock() {
+        VirtualClock v = virtualClock;
+        return v == null ? Clock.system(IST) : v;
+    }
+
+    /**
+     * Install a virtual clock for the whole process.
+     *
+     * @throws IllegalStateException if another virtual clock is already installed
+     */
+    public static synchronized void install(VirtualClock clock) {
+        if (virtualClock != null) {
+            throw new IllegalStateException("A virtual clock is already installed");
+        }
+        virtualClock = clock;
+    }
+
+    /** Return to the wall clock. */
+    public static synchronized void reset() {
+        virtualClock = null;
+    }
+
+    public static boolean isVirtual() {
+        return virtualClock != null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.tradingbot.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manually advanced clock for session replay, installed through {@link TradingClock#install}.
+ * <p>
+ * Time is held as epoch nanos and only moves forward: {@link #advanceTo} ignores earlier values,
+ * so readers on other threads (exit executors, paper fills) never see time run backwards.
+ * {@link #nanoTime()} returns the same epoch nanos, which keeps elapsed-time arithmetic valid.
+ *
+ * @since 6.3
+ */
+public final class VirtualClock extends Clock {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final AtomicLong epochNanos;
+    private final ZoneId zone;
+
+    public VirtualClock(long startEpochNanos) {
+        this(new AtomicLong(startEpochNanos), TradingClock.IST);
+    }
+
+    private VirtualClock(AtomicLong epochNanos, ZoneId zone) {
+        this.epochNanos = epochNanos;
+        this.zone = zone;
+    }
+
+    /** Move time forward to {@code newEpochNanos}; earlier values are ignored. */
+    public void advanceTo(long newEpochNanos) {
+        epochNanos.accumulateAndGet(newEpochNanos, Math::max);
+    }
+
+    public long epochNanos() {
+        return epochNanos.get();
+    }
+
+    public long nanoTime() {
+        return epochNanos.get();
+    }
+
+    @Override
+    public long millis() {
+        return Math.floorDiv(epochNanos.get(), NANOS_PER_MILLI);
+    }
+
+    @Override
+    public Instant instant() {
+        long nanos = epochNanos.get();
+        return Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /** A view in another zone that shares this clock's time. */
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        return newZone.equals(zone) ? this : new VirtualClock(epochNanos, newZone);
+    }
+}
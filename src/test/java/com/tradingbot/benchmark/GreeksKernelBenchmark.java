@@ -0,0 +1,81 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.service.greeks.GreeksKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: deltas for a 61-strike chain — the former per-strike delta loop (A&amp;S 7.1.26 erf with
+ * {@code exp}, boxed {@code HashMap<Double, Double>} output) vs. {@link GreeksKernel#callDeltas}.
+ * Run via {@link #main} on the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreeksKernelBenchmark {
+
+    private static final double FORWARD = 22000.0;
+    private static final double T = 3.0 / 365.0;
+    private static final int STRIKES = 61;
+
+    private final double[] strikes = new double[STRIKES];
+    private final double[] ivs = new double[STRIKES];
+    private final double[] delta = new double[STRIKES];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < STRIKES; i++) {
+            strikes[i] = FORWARD + (i - STRIKES / 2) * 50;
+            ivs[i] = 0.12 + 0.00004 * Math.pow(i - STRIKES / 2, 2);
+        }
+    }
+
+    @Benchmark
+    public Map<Double, Double> legacyPerStrikeDeltas() {
+        Map<Double, Double> deltas = new HashMap<>();
+        double sqrtT = Math.sqrt(T);
+        for (int i = 0; i < STRIKES; i++) {
+            double iv = ivs[i];
+            double d1 = (Math.log(FORWARD / strikes[i]) + 0.5 * iv * iv * T) / (iv * sqrtT);
+            deltas.put(strikes[i], legacyCumulativeNormalDistribution(d1));
+        }
+        return deltas;
+    }
+
+    @Benchmark
+    public void kernelCallDeltas(Blackhole bh) {
+        GreeksKernel.callDeltas(FORWARD, T, strikes, ivs, STRIKES, delta);
+        bh.consume(delta);
+    }
+
+    /** The CDF formerly copied into MarketDataEngine / DeltaCacheService / BaseStrategy. */
+    private static double legacyCumulativeNormalDistribution(double x) {
+        return 0.5 * (1.0 + legacyErf(x / Math.sqrt(2.0)));
+    }
+
+    private static double legacyErf(double x) {
+        double a1 = 0.254829592, a2 = -0.284496736, a3 = 1.421413741;
+        double a4 = -1.453152027, a5 = 1.061405429, p = 0.3275911;
+        int sign = x < 0 ? -1 : 1;
+        x = Math.abs(x);
+        double t = 1.0 / (1.0 + p * x);
+        double y = 1.0 - (((((a5 * t + a4) * t) + a3) * t + a2) * t + a1) * t * Math.exp(-x * x);
+        return sign * y;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GreeksKernelBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
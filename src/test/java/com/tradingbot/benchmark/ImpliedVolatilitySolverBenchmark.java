@@ -0,0 +1,111 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.service.greeks.BlackScholes;
+import com.tradingbot.service.greeks.ImpliedVolatilitySolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: IV for a 61-strike chain — the former per-strike damped Newton loop (σ₀ = 0.2, up to 50
+ * iterations) vs. the shared batch solver, cold and warm-started from the previous cycle's IVs.
+ * <p>
+ * Every invocation drifts prices slightly (same cost in all three cases), as between two refreshes a
+ * few seconds apart, so the warm start never sees its own answer. Run via {@link #main} on the test
+ * classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImpliedVolatilitySolverBenchmark {
+
+    private static final double R = 0.065;
+    private static final double FORWARD = 22000.0;
+    private static final double T = 3.0 / 365.0;
+    private static final int STRIKES = 61;
+
+    private final double[] strikes = new double[STRIKES];
+    private final double[] basePrices = new double[STRIKES];
+    private final double[] prices = new double[STRIKES];
+    private final double[] previousIvs = new double[STRIKES];
+    private final double[] out = new double[STRIKES];
+    private int cycle;
+
+    @Setup
+    public void setUp() {
+        double sqrtT = Math.sqrt(T);
+        double df = Math.exp(-R * T);
+        for (int i = 0; i < STRIKES; i++) {
+            strikes[i] = FORWARD + (i - STRIKES / 2) * 50;
+            double smile = 0.12 + 0.00004 * Math.pow(i - STRIKES / 2, 2);
+            basePrices[i] = Math.max(0.05, BlackScholes.callPrice(FORWARD, strikes[i], smile, T, sqrtT, df));
+        }
+        ImpliedVolatilitySolver.solveChain(strikes, basePrices, STRIKES, FORWARD, T, R, null, previousIvs);
+    }
+
+    private void nextCycle() {
+        double bump = 1.0 + 0.002 * ((cycle++ & 7) - 4); // ±0.8% price drift between refreshes
+        for (int i = 0; i < STRIKES; i++) {
+            prices[i] = basePrices[i] * bump;
+        }
+    }
+
+    @Benchmark
+    public void legacyPerStrikeLoop(Blackhole bh) {
+        nextCycle();
+        for (int i = 0; i < STRIKES; i++) {
+            bh.consume(legacySolveIV(prices[i], FORWARD, strikes[i], T));
+        }
+    }
+
+    @Benchmark
+    public void batchColdStart(Blackhole bh) {
+        nextCycle();
+        ImpliedVolatilitySolver.solveChain(strikes, prices, STRIKES, FORWARD, T, R, null, out);
+        bh.consume(out);
+    }
+
+    @Benchmark
+    public void batchWarmStart(Blackhole bh) {
+        nextCycle();
+        ImpliedVolatilitySolver.solveChain(strikes, prices, STRIKES, FORWARD, T, R, previousIvs, out);
+        bh.consume(out);
+    }
+
+    /** The per-strike solver formerly in MarketDataEngine / DeltaCacheService. */
+    private static double legacySolveIV(double callPrice, double forward, double strike, double T) {
+        if (T <= 0 || callPrice <= 0) return 0.0;
+        double discountFactor = Math.exp(-R * T);
+        double intrinsic = Math.max(0, forward - strike) * discountFactor;
+        if (callPrice <= intrinsic * 1.001) return 0.01;
+
+        double sigma = 0.2;
+        double sqrtT = Math.sqrt(T);
+        for (int i = 0; i < 50; i++) {
+            double d1 = (Math.log(forward / strike) + 0.5 * sigma * sigma * T) / (sigma * sqrtT);
+            double d2 = d1 - sigma * sqrtT;
+            double theoreticalPrice = discountFactor * (forward * BlackScholes.normCdf(d1)
+                    - strike * BlackScholes.normCdf(d2));
+            double vega = discountFactor * forward * BlackScholes.normPdf(d1) * sqrtT;
+            double priceDiff = theoreticalPrice - callPrice;
+            if (Math.abs(priceDiff) < 0.01) return sigma;
+            if (vega < 1e-10) break;
+            sigma = sigma - 0.5 * priceDiff / vega;
+            sigma = Math.max(0.01, Math.min(3.0, sigma));
+        }
+        return sigma;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ImpliedVolatilitySolverBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.service.strategy.monitoring.DecodedTickBatch;
+import com.tradingbot.service.strategy.monitoring.KiteBinaryTickDecoder;
+import com.tradingbot.service.strategy.monitoring.KiteFrames;
+import com.zerodhatech.models.Tick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: decoding one recorded 42-packet frame (an ATM±10 option chain) in LTP and FULL mode —
+ * {@link KiteBinaryTickDecoder} into a reused {@link DecodedTickBatch} vs. materializing
+ * {@code Tick} objects with a {@code Date} and a fresh {@code ArrayList} per frame, the shape
+ * KiteTicker delivers. Run with {@code -prof gc} to compare allocation. Run via {@link #main} on
+ * the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KiteBinaryTickDecoderBenchmark {
+
+    private static final int CHAIN_TOKENS = 42;
+    private static final long FIRST_TOKEN = 10_000_000L;
+
+    @Param({"8", "184"})
+    public int packetLength;
+
+    private ByteBuffer frame;
+    private final DecodedTickBatch batch = new DecodedTickBatch(CHAIN_TOKENS);
+
+    @Setup
+    public void setUp() {
+        long[] tokens = new long[CHAIN_TOKENS];
+        double[] prices = new double[CHAIN_TOKENS];
+        for (int i = 0; i < CHAIN_TOKENS; i++) {
+            tokens[i] = FIRST_TOKEN + i;
+            prices[i] = 100.0 + i * 0.05;
+        }
+        frame = ByteBuffer.wrap(KiteFrames.frame(packetLength, tokens, prices));
+    }
+
+    @Benchmark
+    public int primitiveDecoder() {
+        frame.rewind();
+        return KiteBinaryTickDecoder.decode(frame, batch, System.nanoTime());
+    }
+
+    @Benchmark
+    public int tickObjects() {
+        frame.rewind();
+        final int packets = frame.getShort() & 0xFFFF;
+        ArrayList<Tick> ticks = new ArrayList<>();
+        for (int p = 0; p < packets; p++) {
+            final int length = frame.getShort() & 0xFFFF;
+            final int start = frame.position();
+            Tick tick = new Tick();
+            tick.setInstrumentToken(frame.getInt(start) & 0xFFFF_FFFFL);
+            tick.setLastTradedPrice(frame.getInt(start + 4) / 100.0);
+            tick.setTickTimestamp(new Date());
+            ticks.add(tick);
+            frame.position(start + length);
+        }
+        return ticks.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KiteBinaryTickDecoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
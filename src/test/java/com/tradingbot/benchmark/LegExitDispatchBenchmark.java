@@ -0,0 +1,163 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.config.StrategyConfig;
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.dto.OrderRequest;
+import com.tradingbot.dto.OrderResponse;
+import com.tradingbot.dto.StrategyRequest;
+import com.tradingbot.model.StrategyExecution;
+import com.tradingbot.model.StrategyStatus;
+import com.tradingbot.service.StrategyService;
+import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.order.OrderStateCache;
+import com.tradingbot.service.strategy.ProtectiveStopService;
+import com.tradingbot.service.strategy.StrategyRestartScheduler;
+import com.tradingbot.service.strategy.monitoring.WebSocketService;
+import com.tradingbot.util.CurrentUserContext;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Order;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.tradingbot.service.TradingConstants.STATUS_SUCCESS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * JMH: exit-completion latency of a 4-leg hedged straddle (CE/PE short + CE/PE hedge) against a
+ * broker stub that answers every {@code placeOrder} and {@code getOrderHistory} call after a
+ * simulated REST round-trip. {@code sequentialBaseline} replays the previous exitAllLegs call
+ * pattern (place + fill lookup per leg, one leg at a time: 8 round-trips); {@code stopStrategy}
+ * runs the real {@link StrategyService#stopStrategy} path (short orders, short fills, hedge orders;
+ * hedge fills resolved off the critical path: 3 round-trips). Run via {@link #main} on the test
+ * classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LegExitDispatchBenchmark {
+
+    private static final String USER_ID = "bench-user";
+
+    /** Simulated broker REST round-trip. */
+    @Param({"1000", "5000"})
+    public long brokerRttMicros;
+
+    private BrokerStub broker;
+    private StrategyService strategyService;
+    private StrategyExecution execution;
+
+    /** Broker stub: every call parks for one round-trip. */
+    static final class BrokerStub extends UnifiedTradingService {
+        private final long rttNanos;
+        final AtomicLong placed = new AtomicLong();
+        final AtomicLong filled = new AtomicLong();
+
+        BrokerStub(long rttNanos) {
+            super(null, null, null, null, null, new OrderStateCache(new TickPipelineConfig()));
+            this.rttNanos = rttNanos;
+        }
+
+        @Override
+        public OrderResponse placeOrder(OrderRequest orderRequest) {
+            LockSupport.parkNanos(rttNanos);
+            return new OrderResponse("X" + placed.incrementAndGet(), STATUS_SUCCESS, "Order placed successfully");
+        }
+
+        @Override
+        public List<Order> getOrderHistory(String orderId) {
+            LockSupport.parkNanos(rttNanos);
+            Order order = new Order();
+            order.orderId = orderId;
+            order.averagePrice = "101.5";
+            filled.incrementAndGet();
+            return List.of(order);
+        }
+
+        @Override
+        public boolean isPaperTradingEnabled() {
+            return true;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        CurrentUserContext.setUserId(USER_ID);
+        broker = new BrokerStub(TimeUnit.MICROSECONDS.toNanos(brokerRttMicros));
+        // Protective stops disabled (default): release() is a map miss
+        ProtectiveStopService protectiveStopService = new ProtectiveStopService(broker, null, new StrategyConfig());
+        strategyService = new StrategyService(null, broker, null, mock(WebSocketService.class), null, null,
+                null, null, null, null, protectiveStopService);
+        ReflectionTestUtils.setField(strategyService, "strategyRestartScheduler", mock(StrategyRestartScheduler.class));
+
+        StrategyRequest request = new StrategyRequest();
+        request.setInstrumentType("NIFTY");
+        request.setLots(1);
+        execution = strategyService.createAndRegisterExecution(request, USER_ID, null);
+        List<StrategyExecution.OrderLeg> legs = new ArrayList<>();
+        legs.add(leg("E1", "NIFTY24500CE", "CE_SHORT"));
+        legs.add(leg("E2", "NIFTY24500PE", "PE_SHORT"));
+        legs.add(leg("E3", "NIFTY24800CE", "CE_HEDGE"));
+        legs.add(leg("E4", "NIFTY24200PE", "PE_HEDGE"));
+        execution.setOrderLegs(legs);
+    }
+
+    private static StrategyExecution.OrderLeg leg(String orderId, String symbol, String optionType) {
+        return StrategyExecution.OrderLeg.builder()
+                .orderId(orderId)
+                .tradingSymbol(symbol)
+                .optionType(optionType)
+                .quantity(75)
+                .entryPrice(100.0)
+                .entryTransactionType(optionType.endsWith("_SHORT") ? "SELL" : "BUY")
+                .build();
+    }
+
+    /** Let background fill lookups drain so they never overlap the next measured exit. */
+    @TearDown(Level.Invocation)
+    public void awaitFills() {
+        while (broker.filled.get() < broker.placed.get()) {
+            LockSupport.parkNanos(50_000L);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        CurrentUserContext.clear();
+    }
+
+    @Benchmark
+    public Object sequentialBaseline() throws Exception {
+        Double last = null;
+        for (StrategyExecution.OrderLeg leg : execution.getOrderLegs()) {
+            OrderRequest exitOrder = new OrderRequest();
+            exitOrder.setTradingSymbol(leg.getTradingSymbol());
+            OrderResponse response = broker.placeOrder(exitOrder);
+            last = strategyService.resolveOrderFillPrice(response.getOrderId());
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object stopStrategy() throws KiteException {
+        execution.setStatus(StrategyStatus.ACTIVE);
+        return strategyService.stopStrategy(execution.getExecutionId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LegExitDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
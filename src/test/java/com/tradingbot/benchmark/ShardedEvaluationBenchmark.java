@@ -0,0 +1,120 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.service.strategy.monitoring.DecodedTickBatch;
+import com.tradingbot.service.strategy.monitoring.MonitorShardPool;
+import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
+import com.tradingbot.service.strategy.monitoring.ShardedDispatchTable;
+import com.tradingbot.service.strategy.monitoring.ShardedTickRouter;
+import com.tradingbot.service.strategy.monitoring.TickDispatchTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: time to fully evaluate one 42-token chain batch against 1, 10, 100 and 1000 straddle
+ * monitors — on one thread ({@link TickDispatchTable}, as the per-user evaluator does) vs. routed
+ * across a {@link MonitorShardPool} (one shard per spare core) and waited on until every shard has
+ * drained. Sharding pays a fixed handoff cost, so it should only win once a batch touches enough
+ * monitors. Run via {@link #main} on the test classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedEvaluationBenchmark {
+
+    /** 21 strikes × CE/PE; monitors spread their two legs across this chain. */
+    private static final int CHAIN_TOKENS = 42;
+    private static final long FIRST_TOKEN = 10_000_000L;
+
+    @Param({"1", "10", "100", "1000"})
+    public int monitors;
+
+    private final Map<String, PositionMonitorV2> activeMonitors = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> instrumentToExecutions = new ConcurrentHashMap<>();
+    private TickDispatchTable table;
+    private PositionMonitorV2[] touched;
+    private MonitorShardPool pool;
+    private ShardedTickRouter router;
+    private final DecodedTickBatch batch = new DecodedTickBatch(CHAIN_TOKENS);
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        for (int m = 0; m < monitors; m++) {
+            String executionId = "exec-" + m;
+            // Points far away from entry: exits never fire, so every batch is fully evaluated
+            PositionMonitorV2 monitor = new PositionMonitorV2(executionId, 1_000.0, 1_000.0,
+                    PositionMonitorV2.PositionDirection.SHORT);
+            long callToken = FIRST_TOKEN + (2L * m) % CHAIN_TOKENS;
+            long putToken = callToken + 1;
+            monitor.addLeg(executionId + "-ce", "CE" + callToken, callToken, 100.0, 75, "CE");
+            monitor.addLeg(executionId + "-pe", "PE" + putToken, putToken, 100.0, 75, "PE");
+            activeMonitors.put(executionId, monitor);
+            instrumentToExecutions.computeIfAbsent(callToken, k -> new CopyOnWriteArraySet<>()).add(executionId);
+            instrumentToExecutions.computeIfAbsent(putToken, k -> new CopyOnWriteArraySet<>()).add(executionId);
+        }
+        table = TickDispatchTable.build(instrumentToExecutions, activeMonitors);
+        touched = new PositionMonitorV2[table.monitorCount()];
+
+        TickPipelineConfig config = new TickPipelineConfig();
+        config.setWaitStrategy(TickPipelineConfig.WAIT_BUSY_SPIN);
+        config.setLatencyTracingEnabled(false);
+        // Leave one core to the benchmark (producer) thread
+        config.setEvaluatorShards(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        pool = new MonitorShardPool(config);
+        pool.start();
+        ShardedDispatchTable shardedTable = ShardedDispatchTable.build(instrumentToExecutions, activeMonitors, pool);
+        router = pool.newRouter("bench-user", () -> shardedTable);
+    }
+
+    @TearDown
+    public void tearDown() {
+        router.stop();
+        pool.stop();
+    }
+
+    /** Alternate prices so every batch moves the legs and is really evaluated. */
+    private void nextBatch() {
+        flip = !flip;
+        final double ltp = flip ? 100.0 : 100.05;
+        final long now = System.nanoTime();
+        batch.clear();
+        for (int i = 0; i < CHAIN_TOKENS; i++) {
+            batch.add(FIRST_TOKEN + i, ltp, now);
+        }
+    }
+
+    @Benchmark
+    public int singleThread() {
+        nextBatch();
+        return table.dispatch(batch.tokens(), batch.prices(), batch.size(), touched);
+    }
+
+    @Benchmark
+    public long sharded() {
+        nextBatch();
+        router.publish(batch);
+        long pending;
+        while ((pending = router.pendingTicks()) != 0) {
+            Thread.onSpinWait();
+        }
+        return pending;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ShardedEvaluationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
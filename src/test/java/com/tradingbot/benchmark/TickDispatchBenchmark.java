@@ -0,0 +1,115 @@
+package com.tradingbot.benchmark;
+
+import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
+import com.tradingbot.service.strategy.monitoring.TickDispatchTable;
+import com.zerodhatech.models.Tick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: WebSocket tick-batch dispatch to 1, 10 and 100 straddle monitors — the former
+ * {@code Map<Long, Set<String>>} + {@code activeMonitors} lookup with a lazily allocated
+ * {@code HashSet} vs. {@link TickDispatchTable}. Monitors are real {@link PositionMonitorV2}s, so
+ * the numbers include leg price updates and exit evaluation. Run via {@link #main} on the test
+ * classpath.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TickDispatchBenchmark {
+
+    /** 21 strikes × CE/PE; monitors spread their two legs across this chain. */
+    private static final int CHAIN_TOKENS = 42;
+    private static final long FIRST_TOKEN = 10_000_000L;
+
+    @Param({"1", "10", "100"})
+    public int monitors;
+
+    private final Map<String, PositionMonitorV2> activeMonitors = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> instrumentToExecutions = new ConcurrentHashMap<>();
+    private TickDispatchTable table;
+    private final ArrayList<Tick> batch = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int m = 0; m < monitors; m++) {
+            String executionId = "exec-" + m;
+            // Points far away from entry: exits never fire, so every batch is fully evaluated
+            PositionMonitorV2 monitor = new PositionMonitorV2(executionId, 1_000.0, 1_000.0,
+                    PositionMonitorV2.PositionDirection.SHORT);
+            long callToken = FIRST_TOKEN + (2L * m) % CHAIN_TOKENS;
+            long putToken = callToken + 1;
+            monitor.addLeg(executionId + "-ce", "CE" + callToken, callToken, 100.0, 75, "CE");
+            monitor.addLeg(executionId + "-pe", "PE" + putToken, putToken, 100.0, 75, "PE");
+            activeMonitors.put(executionId, monitor);
+            instrumentToExecutions.computeIfAbsent(callToken, k -> new CopyOnWriteArraySet<>()).add(executionId);
+            instrumentToExecutions.computeIfAbsent(putToken, k -> new CopyOnWriteArraySet<>()).add(executionId);
+        }
+        table = TickDispatchTable.build(instrumentToExecutions, activeMonitors);
+        for (int i = 0; i < CHAIN_TOKENS; i++) {
+            Tick tick = new Tick();
+            tick.setInstrumentToken(FIRST_TOKEN + i);
+            tick.setLastTradedPrice(100.0);
+            batch.add(tick);
+        }
+    }
+
+    @Benchmark
+    public int legacyBoxedDispatch() {
+        PositionMonitorV2 singleMonitor = null;
+        Set<PositionMonitorV2> monitorsToUpdate = null;
+        for (int i = 0; i < batch.size(); i++) {
+            final Set<String> executions = instrumentToExecutions.get(batch.get(i).getInstrumentToken());
+            if (executions == null || executions.isEmpty()) continue;
+            for (String executionId : executions) {
+                final PositionMonitorV2 monitor = activeMonitors.get(executionId);
+                if (monitor == null || !monitor.isActive()) continue;
+                if (singleMonitor == null && monitorsToUpdate == null) {
+                    singleMonitor = monitor;
+                } else if (singleMonitor != null && singleMonitor != monitor) {
+                    monitorsToUpdate = new HashSet<>(4);
+                    monitorsToUpdate.add(singleMonitor);
+                    monitorsToUpdate.add(monitor);
+                    singleMonitor = null;
+                } else if (monitorsToUpdate != null) {
+                    monitorsToUpdate.add(monitor);
+                }
+            }
+        }
+        if (singleMonitor != null) {
+            singleMonitor.updatePriceWithDifferenceCheck(batch);
+            return 1;
+        }
+        if (monitorsToUpdate != null) {
+            for (PositionMonitorV2 monitor : monitorsToUpdate) {
+                monitor.updatePriceWithDifferenceCheck(batch);
+            }
+            return monitorsToUpdate.size();
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public int dispatchTable() {
+        return table.dispatch(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TickDispatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
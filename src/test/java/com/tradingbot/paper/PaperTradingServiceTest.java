@@ -2,12 +2,15 @@ package com.tradingbot.paper;
 
 import com.tradingbot.config.PaperTradingConfig;
 import com.tradingbot.config.PersistenceConfig;
+import com.tradingbot.config.TickPipelineConfig;
 import com.tradingbot.dto.OrderRequest;
 import com.tradingbot.service.TradingService;
 import com.tradingbot.paper.ZerodhaChargeCalculator;
+import com.tradingbot.service.order.OrderStateCache;
 import com.tradingbot.service.persistence.TradePersistenceService;
 import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
 import com.zerodhatech.models.LTPQuote;
+import com.zerodhatech.models.Order;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -26,6 +29,7 @@ public class PaperTradingServiceTest {
     private TradingService tradingService;
     private ZerodhaChargeCalculator chargeCalculator;
     private PersistenceConfig persistenceConfig;
+    private OrderStateCache orderStateCache;
 
     @BeforeEach
     void setup() {
@@ -53,8 +57,9 @@ public class PaperTradingServiceTest {
                         .stampDuty(java.math.BigDecimal.ZERO)
                         .totalCharges(java.math.BigDecimal.ZERO)
                         .build());
+        orderStateCache = new OrderStateCache(new TickPipelineConfig());
         paperTradingService = new PaperTradingService(config, tradingService, chargeCalculator, persistenceConfig,
-                Mockito.mock(TradePersistenceService.class));
+                Mockito.mock(TradePersistenceService.class), orderStateCache);
     }
 
     private void stubLtp(double price) {
@@ -143,4 +148,71 @@ public class PaperTradingServiceTest {
         assertEquals(500.0, pos.getRealised(), 1e-6, "Realised PnL for closed short should be positive 500");
         assertEquals(500.0, pos.getPnl(), 1e-6, "Total PnL should match realised PnL for closed short");
     }
+
+    private OrderRequest stopBuy(String symbol, int qty, double triggerPrice) {
+        return OrderRequest.builder()
+                .tradingSymbol(symbol)
+                .exchange("NFO")
+                .transactionType("BUY")
+                .quantity(qty)
+                .product("MIS")
+                .orderType("SL-M")
+                .triggerPrice(triggerPrice)
+                .validity("DAY")
+                .build();
+    }
+
+    @Test
+    void restingStopTriggersOnlyOnceItsPriceIsReached() throws Exception {
+        String userId = "U_STOP";
+        stubLtp(110.0);
+        paperTradingService.placeOrder(marketSell("TESTSYM", 50), userId);
+
+        stubLtp(100.0);
+        String stopId = paperTradingService.placeOrder(stopBuy("TESTSYM", 50, 120.0), userId).getOrderId();
+        assertEquals("OPEN", paperTradingService.getOrderById(stopId, userId).orElseThrow().getStatus());
+
+        assertTrue(paperTradingService.onPriceUpdate("TESTSYM", 119.95).isEmpty());
+        assertTrue(paperTradingService.onPriceUpdate("OTHERSYM", 500.0).isEmpty());
+
+        assertEquals(List.of(stopId), paperTradingService.onPriceUpdate("TESTSYM", 121.0));
+        PaperOrder filled = paperTradingService.getOrderById(stopId, userId).orElseThrow();
+        assertEquals("COMPLETE", filled.getStatus());
+        assertEquals(121.0, filled.getAveragePrice(), 1e-9);
+        assertEquals(0, paperTradingService.getPositions(userId).get(0).getQuantity());
+
+        // Filled once: later prices and cancels no longer touch it
+        assertTrue(paperTradingService.onPriceUpdate("TESTSYM", 130.0).isEmpty());
+        assertEquals("FAILED", paperTradingService.cancelOrder(stopId, userId).getStatus());
+    }
+
+    @Test
+    void cancelledRestingStopNeverTriggers() throws Exception {
+        String userId = "U_CANCEL";
+        stubLtp(100.0);
+        String stopId = paperTradingService.placeOrder(stopBuy("TESTSYM", 50, 120.0), userId).getOrderId();
+
+        assertEquals("SUCCESS", paperTradingService.cancelOrder(stopId, userId).getStatus());
+
+        assertTrue(paperTradingService.onPriceUpdate("TESTSYM", 125.0).isEmpty());
+        assertEquals("CANCELLED", paperTradingService.getOrderById(stopId, userId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void orderTransitionsArePublishedAsOrderUpdates() throws Exception {
+        String userId = "U_UPDATES";
+        stubLtp(100.0);
+        String stopId = paperTradingService.placeOrder(stopBuy("TESTSYM", 50, 120.0), userId).getOrderId();
+
+        // Resting: cached as OPEN, not final, so no fill is handed out
+        assertEquals("OPEN", orderStateCache.latest(userId, stopId).status);
+        assertNull(orderStateCache.awaitFinalState(userId, stopId));
+
+        paperTradingService.onPriceUpdate("TESTSYM", 121.0);
+        Order fill = orderStateCache.awaitFinalState(userId, stopId);
+        assertNotNull(fill);
+        assertEquals("COMPLETE", fill.status);
+        assertEquals(121.0, Double.parseDouble(fill.averagePrice), 1e-9);
+        assertNull(orderStateCache.latest("U_OTHER", stopId));
+    }
 }
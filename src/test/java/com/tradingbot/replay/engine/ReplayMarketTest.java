@@ -0,0 +1,64 @@
+package com.tradingbot.replay.engine;
+
+import com.tradingbot.replay.config.ReplayConfig;
+import com.zerodhatech.models.LTPQuote;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ReplayMarket recorded-price lookups.
+ */
+class ReplayMarketTest {
+
+    private ReplayMarket market;
+
+    @BeforeEach
+    void setUp() {
+        ReplayConfig config = new ReplayConfig();
+        config.setMaxTokens(4);
+        market = new ReplayMarket(config);
+    }
+
+    @Test
+    void testInactiveUntilOpenedAndOnlyForReplayUser() {
+        assertFalse(market.isActiveFor("replay"));
+        market.open("replay");
+        assertTrue(market.isActiveFor("replay"));
+        assertFalse(market.isActiveFor("live-user"));
+        assertFalse(market.isActiveFor(null));
+        market.close();
+        assertFalse(market.isActiveFor("replay"));
+    }
+
+    @Test
+    void testServesLatestRecordedPrice() {
+        market.open("replay");
+        assertTrue(market.registerSymbol("NIFTY25MAR22500CE", 111));
+        market.onTick(111, 120.5, 1_700_000_000_000L);
+        market.onTick(111, 118.0, 1_700_000_000_100L);
+        market.onTick(999, 50.0, 1_700_000_000_100L); // not registered — ignored
+
+        Map<String, LTPQuote> quotes = market.getLTP(new String[]{"NFO:NIFTY25MAR22500CE", "NFO:UNKNOWN"});
+        assertEquals(1, quotes.size());
+        LTPQuote quote = quotes.get("NFO:NIFTY25MAR22500CE");
+        assertEquals(118.0, quote.lastPrice, 1e-9);
+        assertEquals(111, quote.instrumentToken);
+    }
+
+    @Test
+    void testOmitsInstrumentsThatHaveNotTicked() {
+        market.open("replay");
+        market.registerSymbol("NIFTY25MAR22500PE", 222);
+        assertTrue(market.getLTP(new String[]{"NFO:NIFTY25MAR22500PE"}).isEmpty());
+    }
+
+    @Test
+    void testSingleOpenReplay() {
+        market.open("replay");
+        assertThrows(IllegalStateException.class, () -> market.open("other"));
+    }
+}
@@ -0,0 +1,256 @@
+package com.tradingbot.replay.service;
+
+import com.tradingbot.config.PaperTradingConfig;
+import com.tradingbot.config.PersistenceConfig;
+import com.tradingbot.config.StrategyConfig;
+import com.tradingbot.config.TickJournalConfig;
+import com.tradingbot.config.TickPipelineConfig;
+import com.tradingbot.model.StrategyExecution;
+import com.tradingbot.paper.PaperTradingService;
+import com.tradingbot.paper.ZerodhaChargeCalculator;
+import com.tradingbot.replay.config.ReplayConfig;
+import com.tradingbot.replay.dto.ReplayRequest;
+import com.tradingbot.replay.dto.ReplayResult;
+import com.tradingbot.replay.engine.ReplayMarket;
+import com.tradingbot.service.InstrumentCacheService;
+import com.tradingbot.service.StrategyService;
+import com.tradingbot.service.TradingService;
+import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.journal.TickJournal;
+import com.tradingbot.service.journal.TickJournalFile;
+import com.tradingbot.service.order.OrderStateCache;
+import com.tradingbot.service.persistence.TradePersistenceService;
+import com.tradingbot.service.strategy.MonitoringSetupHelper;
+import com.tradingbot.service.strategy.ProtectiveStopService;
+import com.tradingbot.service.strategy.SellATMStraddleStrategy;
+import com.tradingbot.service.strategy.StraddleExitHandler;
+import com.tradingbot.service.strategy.monitoring.WebSocketService;
+import com.tradingbot.util.TradingClock;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Instrument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * End-to-end tests for session replay: a fixture tick journal run through ReplayService →
+ * ReplayEngine → WebSocketService.replayTicks → PositionMonitorV2 → paper broker.
+ */
+class ReplayServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+    private static final String CE_SYMBOL = "NIFTY2631222500CE";
+    private static final String PE_SYMBOL = "NIFTY2631222500PE";
+    private static final long CE_TOKEN = 111L;
+    private static final long PE_TOKEN = 222L;
+    /** Recorded in every frame but never registered or monitored. */
+    private static final long OTHER_TOKEN = 333L;
+    private static final int SOURCE = 1;
+    private static final long FRAME_NANOS = 500_000_000L;
+    /** 09:15:00 IST on {@link #DAY}: the journal's open-time anchor. */
+    private static final long OPEN_EPOCH_MILLIS = DAY.atTime(9, 15).atZone(TradingClock.IST).toInstant().toEpochMilli();
+
+    @TempDir
+    Path journalDir;
+
+    private ReplayConfig replayConfig;
+    private WebSocketService webSocketService;
+    private StraddleExitHandler exitHandler;
+    private ReplayService replayService;
+
+    @BeforeEach
+    void setUp() throws KiteException, IOException {
+        writeJournal(journalDir.resolve("ticks-20260310-1.jnl"));
+
+        replayConfig = new ReplayConfig();
+        replayConfig.setEnabled(true);
+        replayConfig.setDirectory(journalDir.toString());
+        replayConfig.setSettleTimeoutMs(2_000);
+        replayConfig.setMaxTokens(64);
+
+        PaperTradingConfig paperConfig = new PaperTradingConfig();
+        paperConfig.setApplyBrokerageCharges(false);
+        paperConfig.setEnableExecutionDelay(false);
+        PersistenceConfig persistenceConfig = new PersistenceConfig();
+        persistenceConfig.setEnabled(false);
+        TickPipelineConfig tickPipelineConfig = new TickPipelineConfig();
+        OrderStateCache orderStateCache = new OrderStateCache(tickPipelineConfig);
+        StrategyConfig strategyConfig = new StrategyConfig();
+
+        // Every price the paper broker reads comes from the journal through the replay market
+        ReplayMarket replayMarket = new ReplayMarket(replayConfig);
+        TradingService tradingService = new TradingService(null, null, null, replayMarket);
+        PaperTradingService paperTradingService = new PaperTradingService(paperConfig, tradingService,
+                new ZerodhaChargeCalculator(), persistenceConfig, mock(TradePersistenceService.class), orderStateCache);
+        UnifiedTradingService unifiedTradingService = new UnifiedTradingService(paperConfig, paperTradingService,
+                tradingService, persistenceConfig, null, orderStateCache);
+        webSocketService = new WebSocketService(null, null, persistenceConfig, null, tickPipelineConfig,
+                new TickJournal(new TickJournalConfig()), orderStateCache);
+
+        ProtectiveStopService protectiveStopService =
+                new ProtectiveStopService(unifiedTradingService, paperTradingService, strategyConfig);
+        StrategyService strategyService = new StrategyService(tradingService, unifiedTradingService, null,
+                webSocketService, null, persistenceConfig, null, null, null, null, protectiveStopService);
+        exitHandler = spy(new StraddleExitHandler(unifiedTradingService, strategyService, webSocketService));
+        MonitoringSetupHelper monitoringSetupHelper = new MonitoringSetupHelper(unifiedTradingService,
+                webSocketService, strategyConfig, protectiveStopService);
+        SellATMStraddleStrategy strategy = new SellATMStraddleStrategy(tradingService, unifiedTradingService, null,
+                webSocketService, strategyConfig, strategyService, null, null, null, exitHandler, null,
+                monitoringSetupHelper, null, null, null);
+
+        Instrument call = instrument(CE_SYMBOL, CE_TOKEN, "CE");
+        Instrument put = instrument(PE_SYMBOL, PE_TOKEN, "PE");
+        InstrumentCacheService instrumentCacheService = mock(InstrumentCacheService.class);
+        when(instrumentCacheService.findInstrument("NFO", CE_SYMBOL)).thenReturn(Optional.of(call));
+        when(instrumentCacheService.findInstrument("NFO", PE_SYMBOL)).thenReturn(Optional.of(put));
+        when(instrumentCacheService.getInstruments("NFO")).thenReturn(List.of(call, put));
+
+        replayService = new ReplayService(replayConfig, new TickJournalConfig(), replayMarket, webSocketService,
+                strategy, strategyService, instrumentCacheService, paperTradingService, unifiedTradingService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayService.destroy();
+        TradingClock.reset();
+    }
+
+    private static Instrument instrument(String symbol, long token, String type) {
+        Instrument instrument = new Instrument();
+        instrument.tradingsymbol = symbol;
+        instrument.instrument_token = token;
+        instrument.name = "NIFTY";
+        instrument.exchange = "NFO";
+        instrument.instrument_type = type;
+        instrument.strike = "22500";
+        instrument.lot_size = 75;
+        return instrument;
+    }
+
+    /**
+     * One frame every 500 ms from 09:19:00 IST. CE 100 / PE 80 until the 09:20 entry; then the legs
+     * move against each other for ten frames (straddle flat), after which CE decays 0.5 per frame
+     * until the straddle has gained 2 points at 09:20:07. Frames continue to 09:21.
+     */
+    private static void writeJournal(Path path) throws IOException {
+        final long entryOffset = TimeUnit.MINUTES.toNanos(5);
+        try (TickJournalFile file = TickJournalFile.create(path, DAY, 1 << 16)) {
+            for (long receiveNanos = TimeUnit.MINUTES.toNanos(4); receiveNanos <= TimeUnit.MINUTES.toNanos(6);
+                 receiveNanos += FRAME_NANOS) {
+                final long k = Math.max(0, (receiveNanos - entryOffset) / FRAME_NANOS);
+                final double ce;
+                final double pe;
+                if (k <= 10) {
+                    ce = 100.0 + 0.25 * k;
+                    pe = 80.0 - 0.25 * k;
+                } else {
+                    ce = 102.5 - 0.5 * (k - 10);
+                    pe = 77.5;
+                }
+                final long exchangeTimestamp = OPEN_EPOCH_MILLIS + receiveNanos / 1_000_000L;
+                file.append(CE_TOKEN, SOURCE, exchangeTimestamp, receiveNanos, ce, 0, 0);
+                file.append(OTHER_TOKEN, SOURCE, exchangeTimestamp, receiveNanos, 42.0, 0, 0);
+                file.append(PE_TOKEN, SOURCE, exchangeTimestamp, receiveNanos, pe, 0, 0);
+            }
+        }
+        // Pin the open-time anchors so receive time 0 is 09:15:00 IST on DAY
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer anchors = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            anchors.putLong(OPEN_EPOCH_MILLIS).putLong(0L).flip();
+            channel.write(anchors, 16);
+        }
+    }
+
+    private static ReplayRequest request() {
+        return ReplayRequest.builder()
+                .tradingDay(DAY)
+                .instrumentType("NIFTY")
+                .callSymbol(CE_SYMBOL)
+                .putSymbol(PE_SYMBOL)
+                .slTargetMode("points")
+                .stopLossPoints(3.0)
+                .targetPoints(2.0)
+                .entryTime("09:20")
+                .endTime("10:00")
+                .build();
+    }
+
+    // ==================== DETERMINISM ====================
+
+    @Test
+    void testSameJournalReplaysToSameOutcome() {
+        ReplayResult first = replayService.run(request());
+        assertFalse(TradingClock.isVirtual(), "virtual clock left installed after COMPLETED");
+        ReplayResult second = replayService.run(request());
+        assertFalse(TradingClock.isVirtual(), "virtual clock left installed after COMPLETED");
+
+        assertEquals(ReplayResult.ReplayStatus.COMPLETED, first.getStatus(), first.getErrorMessage());
+        assertEquals("TARGET_HIT", first.getCompletionReason());
+        assertEquals("09:20:00.000", first.getEntryTime());
+        assertEquals("09:20:07.000", first.getExitTime());
+        // CE sold 100.0, bought back 100.5; PE sold 80.0, bought back 77.5; 75 each
+        assertEquals(150.0, first.getRealizedPnl(), 1e-9);
+
+        assertEquals(first.getStatus(), second.getStatus());
+        assertEquals(first.getExecutionStatus(), second.getExecutionStatus());
+        assertEquals(first.getCompletionReason(), second.getCompletionReason());
+        assertEquals(first.getEntryTime(), second.getEntryTime());
+        assertEquals(first.getExitTime(), second.getExitTime());
+        assertEquals(first.getRealizedPnl(), second.getRealizedPnl());
+        assertEquals(first.getTicksRead(), second.getTicksRead());
+        assertEquals(first.getBatchesDispatched(), second.getBatchesDispatched());
+        assertEquals(first.getVirtualDurationMs(), second.getVirtualDurationMs());
+        assertNotEquals(first.getExecutionId(), second.getExecutionId());
+
+        assertEquals(first.getLegs().size(), second.getLegs().size());
+        for (int i = 0; i < first.getLegs().size(); i++) {
+            StrategyExecution.OrderLeg a = first.getLegs().get(i);
+            StrategyExecution.OrderLeg b = second.getLegs().get(i);
+            assertEquals(a.getTradingSymbol(), b.getTradingSymbol());
+            assertEquals(a.getEntryPrice(), b.getEntryPrice());
+            assertEquals(a.getExitPrice(), b.getExitPrice());
+            assertEquals(a.getRealizedPnl(), b.getRealizedPnl());
+            assertEquals(a.getLifecycleState(), b.getLifecycleState());
+        }
+    }
+
+    // ==================== FAILURE ====================
+
+    @Test
+    void testSettleTimeoutFailsReplayAndUninstallsClock() {
+        replayConfig.setSettleTimeoutMs(300);
+        // Exit accepted but never completed: the monitor is inactive and no completion is recorded
+        doNothing().when(exitHandler).exitAllLegs(anyString(), anyString(), any(), any());
+
+        long start = System.nanoTime();
+        ReplayResult result = replayService.run(request());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(ReplayResult.ReplayStatus.FAILED, result.getStatus());
+        assertEquals("Timed out at 09:20:07.000 IST waiting for exit orders", result.getErrorMessage());
+        assertNull(result.getExitTime());
+        assertNotNull(result.getExecutionId());
+        assertTrue(elapsedMs >= 300, "replay failed after " + elapsedMs + " ms");
+
+        assertFalse(TradingClock.isVirtual(), "virtual clock left installed after FAILED");
+        assertFalse(replayService.isRunning());
+        assertEquals(0, webSocketService.getTotalActiveMonitorsCount());
+        verify(exitHandler, times(1)).exitAllLegs(anyString(), anyString(), any(), any());
+    }
+}
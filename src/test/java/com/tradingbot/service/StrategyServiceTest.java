@@ -0,0 +1,239 @@
+package com.tradingbot.service;
+
+import com.tradingbot.config.StrategyConfig;
+import com.tradingbot.dto.OrderRequest;
+import com.tradingbot.dto.OrderResponse;
+import com.tradingbot.dto.StrategyRequest;
+import com.tradingbot.model.StrategyExecution;
+import com.tradingbot.model.StrategyExecution.LegLifecycleState;
+import com.tradingbot.model.StrategyStatus;
+import com.tradingbot.service.strategy.ProtectiveStopService;
+import com.tradingbot.service.strategy.StrategyRestartScheduler;
+import com.tradingbot.service.strategy.monitoring.WebSocketService;
+import com.tradingbot.util.CurrentUserContext;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.tradingbot.service.TradingConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for StrategyService exit ordering — short legs are closed before hedges, the hedge phase
+ * waits for the short legs' fills (bounded), results keep leg order and one failing leg does
+ * not stop the others.
+ */
+class StrategyServiceTest {
+
+    private static final String USER = "exit-user";
+    private static final String CE_SHORT = "NIFTY24500CE";
+    private static final String PE_SHORT = "NIFTY24500PE";
+    private static final String CE_HEDGE = "NIFTY24800CE";
+    private static final String PE_HEDGE = "NIFTY24200PE";
+    private static final List<String> SHORT_SYMBOLS = List.of(CE_SHORT, PE_SHORT);
+
+    private UnifiedTradingService tradingService;
+    private StrategyService strategyService;
+    private StrategyExecution execution;
+
+    /** Broker events in arrival order: "place:SYMBOL" and "fill:SYMBOL". */
+    private List<String> events;
+    /** Short-leg fill lookups block until this opens. */
+    private CountDownLatch shortFillsReleased;
+
+    @BeforeEach
+    void setUp() throws KiteException, IOException {
+        CurrentUserContext.setUserId(USER);
+        events = Collections.synchronizedList(new ArrayList<>());
+        shortFillsReleased = new CountDownLatch(1);
+
+        tradingService = mock(UnifiedTradingService.class);
+        when(tradingService.isPaperTradingEnabled()).thenReturn(true);
+        when(tradingService.placeOrder(any(OrderRequest.class))).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            events.add("place:" + request.getTradingSymbol());
+            return new OrderResponse("X-" + request.getTradingSymbol(), STATUS_SUCCESS, "Order placed successfully");
+        });
+        when(tradingService.getFinalOrderState(anyString())).thenAnswer(invocation -> {
+            String symbol = ((String) invocation.getArgument(0)).substring(2);
+            if (SHORT_SYMBOLS.contains(symbol)) {
+                shortFillsReleased.await(30, TimeUnit.SECONDS);
+            }
+            events.add("fill:" + symbol);
+            Order order = new Order();
+            order.status = STATUS_COMPLETE;
+            order.averagePrice = "90.0";
+            return order;
+        });
+
+        // Protective stops disabled (default): release() finds no stop
+        ProtectiveStopService protectiveStopService = new ProtectiveStopService(tradingService, null, new StrategyConfig());
+        strategyService = new StrategyService(null, tradingService, null, mock(WebSocketService.class), null, null,
+                null, null, null, null, protectiveStopService);
+        ReflectionTestUtils.setField(strategyService, "strategyRestartScheduler", mock(StrategyRestartScheduler.class));
+
+        StrategyRequest request = new StrategyRequest();
+        request.setInstrumentType("NIFTY");
+        request.setLots(1);
+        execution = strategyService.createAndRegisterExecution(request, USER, null);
+        List<StrategyExecution.OrderLeg> legs = new ArrayList<>();
+        legs.add(leg("E1", CE_SHORT, "CE_SHORT"));
+        legs.add(leg("E2", PE_SHORT, "PE_SHORT"));
+        legs.add(leg("E3", CE_HEDGE, "CE_HEDGE"));
+        legs.add(leg("E4", PE_HEDGE, "PE_HEDGE"));
+        execution.setOrderLegs(legs);
+        execution.setStatus(StrategyStatus.ACTIVE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Never leave a fill lookup parked on the shared fill-resolution pool
+        shortFillsReleased.countDown();
+        CurrentUserContext.clear();
+    }
+
+    private static StrategyExecution.OrderLeg leg(String orderId, String symbol, String optionType) {
+        return StrategyExecution.OrderLeg.builder()
+                .orderId(orderId)
+                .tradingSymbol(symbol)
+                .optionType(optionType)
+                .quantity(75)
+                .entryPrice(100.0)
+                .entryTransactionType(optionType.endsWith("_SHORT") ? TRANSACTION_SELL : TRANSACTION_BUY)
+                .build();
+    }
+
+    private CompletableFuture<Map<String, Object>> stopAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            CurrentUserContext.setUserId(USER);
+            try {
+                return strategyService.stopStrategy(execution.getExecutionId());
+            } catch (KiteException e) {
+                throw new IllegalStateException(e.getMessage());
+            } finally {
+                CurrentUserContext.clear();
+            }
+        });
+    }
+
+    private void awaitEvents(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(events.size() >= count, "broker events so far: " + events);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, String>> exitOrders(Map<String, Object> result) {
+        return (List<Map<String, String>>) result.get("exitOrders");
+    }
+
+    // ==================== PHASE ORDERING ====================
+
+    @Test
+    void testHedgesAreNotSentBeforeShortFillsResolve() throws Exception {
+        CompletableFuture<Map<String, Object>> stop = stopAsync();
+
+        awaitEvents(2);
+        Thread.sleep(200);
+        assertEquals(List.of("place:" + CE_SHORT, "place:" + PE_SHORT), events.stream().sorted().toList());
+        assertFalse(stop.isDone());
+
+        shortFillsReleased.countDown();
+        Map<String, Object> result = stop.get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, result.get("successCount"));
+        int lastShortFill = Math.max(events.indexOf("fill:" + CE_SHORT), events.indexOf("fill:" + PE_SHORT));
+        int firstHedgePlace = Math.min(events.indexOf("place:" + CE_HEDGE), events.indexOf("place:" + PE_HEDGE));
+        assertTrue(lastShortFill >= 0 && lastShortFill < firstHedgePlace, "broker events: " + events);
+    }
+
+    @Test
+    void testShortFillWaitCapReleasesHedgePhase() throws Exception {
+        strategyService.setShortFillWaitMs(200);
+
+        long start = System.nanoTime();
+        Map<String, Object> result = stopAsync().get(5, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Short fills never resolved, yet both hedges were closed once the cap expired
+        assertTrue(elapsedMs >= 200, "hedge phase started after " + elapsedMs + " ms");
+        assertEquals(4, result.get("successCount"));
+        assertEquals(0, result.get("failureCount"));
+        assertTrue(events.contains("place:" + CE_HEDGE));
+        assertTrue(events.contains("place:" + PE_HEDGE));
+        assertFalse(events.contains("fill:" + CE_SHORT));
+        assertEquals(StrategyStatus.COMPLETED, execution.getStatus());
+    }
+
+    // ==================== RESULTS ====================
+
+    @Test
+    void testExitOrdersKeepLegOrder() throws Exception, KiteException {
+        // First leg of each phase acknowledges last, so completion order is the reverse of leg order
+        when(tradingService.placeOrder(any(OrderRequest.class))).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            if (CE_SHORT.equals(request.getTradingSymbol()) || CE_HEDGE.equals(request.getTradingSymbol())) {
+                Thread.sleep(100);
+            }
+            events.add("place:" + request.getTradingSymbol());
+            return new OrderResponse("X-" + request.getTradingSymbol(), STATUS_SUCCESS, "Order placed successfully");
+        });
+        shortFillsReleased.countDown();
+
+        Map<String, Object> result = stopAsync().get(5, TimeUnit.SECONDS);
+
+        List<Map<String, String>> exitOrders = exitOrders(result);
+        assertEquals(List.of(CE_SHORT, PE_SHORT, CE_HEDGE, PE_HEDGE),
+                exitOrders.stream().map(order -> order.get("tradingSymbol")).toList());
+        for (Map<String, String> order : exitOrders) {
+            assertEquals("X-" + order.get("tradingSymbol"), order.get("exitOrderId"));
+        }
+        assertTrue(events.indexOf("place:" + PE_SHORT) < events.indexOf("place:" + CE_SHORT), "broker events: " + events);
+    }
+
+    @Test
+    void testFailingLegIsCountedAndOthersStillExit() throws Exception, KiteException {
+        when(tradingService.placeOrder(any(OrderRequest.class))).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            if (PE_SHORT.equals(request.getTradingSymbol())) {
+                throw new IOException("connection reset");
+            }
+            events.add("place:" + request.getTradingSymbol());
+            return new OrderResponse("X-" + request.getTradingSymbol(), STATUS_SUCCESS, "Order placed successfully");
+        });
+        shortFillsReleased.countDown();
+
+        Map<String, Object> result = stopAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(4, result.get("totalLegs"));
+        assertEquals(3, result.get("successCount"));
+        assertEquals(1, result.get("failureCount"));
+        Map<String, String> failed = exitOrders(result).get(1);
+        assertEquals(PE_SHORT, failed.get("tradingSymbol"));
+        assertEquals(STATUS_FAILED, failed.get("status"));
+        assertTrue(failed.get("message").contains("connection reset"));
+
+        List<StrategyExecution.OrderLeg> legs = execution.getOrderLegs();
+        assertEquals(LegLifecycleState.EXITED, legs.get(0).getLifecycleState());
+        assertEquals(LegLifecycleState.EXIT_FAILED, legs.get(1).getLifecycleState());
+        assertEquals(LegLifecycleState.EXITED, legs.get(2).getLifecycleState());
+        assertEquals(LegLifecycleState.EXITED, legs.get(3).getLifecycleState());
+        verify(tradingService, times(4)).placeOrder(any(OrderRequest.class));
+    }
+}
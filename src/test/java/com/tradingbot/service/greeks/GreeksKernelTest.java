@@ -0,0 +1,170 @@
+package com.tradingbot.service.greeks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Accuracy tests for GreeksKernel and the BlackScholes CDFs against a reference implementation —
+ * a full-precision erf series and closed-form prices built on it — plus a finite-difference check
+ * that the delta is the derivative it claims to be.
+ */
+class GreeksKernelTest {
+
+    private static final double R = 0.065;
+    private static final double F = 22000.0;
+    private static final double[] EXPIRIES = {0.5 / 365.0, 3.0 / 365.0, 30.0 / 365.0};
+    private static final double[] VOLS = {0.08, 0.15, 0.35};
+
+    // ==================== Reference ====================
+
+    /**
+     * erf(x) = 2/√π · e^(−x²) · Σ 2ⁿ x^(2n+1) / (1·3·…·(2n+1)) — all terms positive, so no
+     * cancellation; accurate to ~1e-15 over the range used here.
+     */
+    private static double refErf(double x) {
+        double ax = Math.abs(x);
+        if (ax > 6.0) return Math.signum(x);
+        double term = ax;
+        double sum = ax;
+        for (int n = 1; n < 400 && term > 1e-18 * sum; n++) {
+            term *= 2.0 * ax * ax / (2 * n + 1);
+            sum += term;
+        }
+        return Math.copySign(2.0 / Math.sqrt(Math.PI) * Math.exp(-ax * ax) * sum, x);
+    }
+
+    private static double refCdf(double x) {
+        return 0.5 * (1.0 + refErf(x / Math.sqrt(2.0)));
+    }
+
+    private static double refPdf(double x) {
+        return Math.exp(-0.5 * x * x) / Math.sqrt(2.0 * Math.PI);
+    }
+
+    private static double refD1(double f, double k, double sigma, double t) {
+        return (Math.log(f / k) + 0.5 * sigma * sigma * t) / (sigma * Math.sqrt(t));
+    }
+
+    private static double refPrice(double f, double k, double sigma, double t) {
+        double d1 = refD1(f, k, sigma, t);
+        double d2 = d1 - sigma * Math.sqrt(t);
+        return Math.exp(-R * t) * (f * refCdf(d1) - k * refCdf(d2));
+    }
+
+    private static double[] chain(int n) {
+        double[] strikes = new double[n];
+        for (int i = 0; i < n; i++) strikes[i] = F + (i - n / 2) * 100;
+        return strikes;
+    }
+
+    // ==================== Tests ====================
+
+    @Test
+    void testErfWithinPublishedBound() {
+        double maxErr = 0;
+        for (double x = -6.0; x <= 6.0; x += 0.001) {
+            maxErr = Math.max(maxErr, Math.abs(BlackScholes.erf(x) - refErf(x)));
+        }
+        assertTrue(maxErr < 3.5e-7, "max |erf error| = " + maxErr);
+        assertEquals(0.0, BlackScholes.erf(0.0));
+        assertEquals(1.0, BlackScholes.erf(40.0));
+        assertEquals(-1.0, BlackScholes.erf(-40.0));
+        assertEquals(-BlackScholes.erf(0.7), BlackScholes.erf(-0.7));
+    }
+
+    @Test
+    void testPriceGradeCdfMatchesReference() {
+        double maxErr = 0;
+        for (double x = -8.0; x <= 8.0; x += 0.001) {
+            maxErr = Math.max(maxErr, Math.abs(BlackScholes.normCdf(x) - refCdf(x)));
+        }
+        assertTrue(maxErr < 1e-13, "max |N(x) error| = " + maxErr);
+        assertEquals(0.5, BlackScholes.normCdf(0.0), 1e-15);
+        assertEquals(1.0, BlackScholes.normCdf(40.0));
+        assertEquals(0.0, BlackScholes.normCdf(-40.0));
+    }
+
+    @Test
+    void testCallPriceErrorIsBelowSolverTolerance() {
+        // At index-level forwards the CDF error is multiplied by F: it must stay well below the
+        // IV solver's price tolerance, or its convergence check would be decided by noise
+        double maxErr = 0;
+        for (double t : EXPIRIES) {
+            double sqrtT = Math.sqrt(t);
+            double df = Math.exp(-R * t);
+            for (double sigma : VOLS) {
+                for (double k : chain(41)) {
+                    double price = BlackScholes.callPrice(F, k, sigma, t, sqrtT, df);
+                    maxErr = Math.max(maxErr, Math.abs(price - refPrice(F, k, sigma, t)));
+                }
+            }
+        }
+        assertTrue(maxErr < ImpliedVolatilitySolver.PRICE_TOLERANCE / 100, "max |price error| = " + maxErr);
+    }
+
+    @Test
+    void testCallDeltasMatchReferenceAndFiniteDifferences() {
+        double t = 3.0 / 365.0;
+        double sigma = 0.15;
+        double[] strikes = {21500, 21900, 22000, 22100, 22600};
+        int n = strikes.length;
+        double[] ivs = {sigma, sigma, sigma, sigma, sigma};
+        double[] delta = new double[n];
+        GreeksKernel.callDeltas(F, t, strikes, ivs, n, delta);
+
+        double growth = Math.exp(R * t);
+        double hF = 0.5;
+        for (int i = 0; i < n; i++) {
+            double k = strikes[i];
+            // Undiscounted forward delta: e^(rT) · ∂C/∂F
+            double fdDelta = growth * (refPrice(F + hF, k, sigma, t) - refPrice(F - hF, k, sigma, t)) / (2 * hF);
+            assertEquals(refCdf(refD1(F, k, sigma, t)), delta[i], 4e-7, "delta K=" + k);
+            assertEquals(fdDelta, delta[i], 1e-5, "fd delta K=" + k);
+        }
+    }
+
+    @Test
+    void testCallDeltasMatchSingleStrike() {
+        int n = 21;
+        double[] strikes = chain(n);
+        double[] ivs = new double[n];
+        for (int i = 0; i < n; i++) ivs[i] = 0.12 + 0.003 * Math.abs(i - n / 2);
+        double t = 3.0 / 365.0;
+
+        double[] deltas = new double[n];
+        GreeksKernel.callDeltas(F, t, strikes, ivs, n, deltas);
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(deltas[i], GreeksKernel.callDelta(F, strikes[i], ivs[i], t), 1e-12);
+            if (i > 0) assertTrue(deltas[i] < deltas[i - 1], "call delta decreases with strike");
+        }
+        assertEquals(0.5, deltas[n / 2], 0.01);
+    }
+
+    @Test
+    void testNonPositiveExpiryYieldsNaN() {
+        double[] out = {1, 1};
+        GreeksKernel.callDeltas(F, 0.0, new double[]{F, F + 50}, new double[]{0.15, 0.15}, 2, out);
+        assertTrue(Double.isNaN(out[0]) && Double.isNaN(out[1]));
+        assertTrue(Double.isNaN(GreeksKernel.callDelta(F, F, 0.15, -1.0)));
+    }
+
+    @Test
+    void testImpliedForwardIsMedianOfParityEstimates() {
+        double t = 3.0 / 365.0;
+        double growth = Math.exp(R * t);
+        double[] strikes = {21900, 22000, 22100, 22200};
+        // Parity estimates 22010, 22020, 22030 (+ one crossed/zero put that must be ignored)
+        double[] puts = {30, 60, 120, 0};
+        double[] calls = {30 + 110 / growth, 60 + 20 / growth, 120 - 70 / growth, 50};
+        double forward = GreeksKernel.impliedForward(22000, strikes, calls, puts, 4, t, R);
+        assertEquals(22020.0, forward, 1e-9);
+
+        double even = GreeksKernel.impliedForward(22000, strikes, calls, puts, 2, t, R);
+        assertEquals(22015.0, even, 1e-9);
+
+        double fallback = GreeksKernel.impliedForward(22000, strikes, calls, puts, 0, t, R);
+        assertEquals(22000 * growth, fallback, 1e-9);
+    }
+}
@@ -0,0 +1,108 @@
+package com.tradingbot.service.greeks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ImpliedVolatilitySolver and ImpliedVolSeeds — price round-trips across a strike/vol grid,
+ * warm vs. cold start agreement, batch vs. single-strike agreement, and the legacy edge-case contract.
+ */
+class ImpliedVolatilitySolverTest {
+
+    private static final double R = 0.065;
+    private static final double F = 22000.0;
+    private static final double T = 3.0 / 365.0;
+
+    private static double price(double strike, double sigma, double T) {
+        return BlackScholes.callPrice(F, strike, sigma, T, Math.sqrt(T), Math.exp(-R * T));
+    }
+
+    @Test
+    void testRoundTripRecoversVolatilityAcrossChain() {
+        double[] vols = {0.08, 0.12, 0.2, 0.35, 0.6};
+        for (double sigma : vols) {
+            for (int k = -20; k <= 20; k++) {
+                double strike = F + k * 50;
+                double c = price(strike, sigma, T);
+                if (c < 0.05) continue; // below tick size: price carries no IV information
+                double intrinsic = Math.max(0, F - strike) * Math.exp(-R * T);
+                if (c <= intrinsic * 1.001) continue; // short-circuits to MIN_VOL by contract
+                double iv = ImpliedVolatilitySolver.solve(c, F, strike, T, R, Double.NaN);
+                assertEquals(c, price(strike, iv, T), ImpliedVolatilitySolver.PRICE_TOLERANCE,
+                        "strike " + strike + " sigma " + sigma);
+                if (Math.abs(k) <= 4) {
+                    assertEquals(sigma, iv, 1e-5, "strike " + strike + " sigma " + sigma);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWarmAndColdStartAgree() {
+        for (int k = -10; k <= 10; k++) {
+            double strike = F + k * 50;
+            double c = price(strike, 0.15, T);
+            double cold = ImpliedVolatilitySolver.solve(c, F, strike, T, R, Double.NaN);
+            double warm = ImpliedVolatilitySolver.solve(c, F, strike, T, R, 0.16);
+            double farSeed = ImpliedVolatilitySolver.solve(c, F, strike, T, R, 2.5);
+            assertEquals(cold, warm, 1e-4);
+            assertEquals(cold, farSeed, 1e-4);
+        }
+    }
+
+    @Test
+    void testSolveChainMatchesSingleStrike() {
+        int n = 41;
+        double[] strikes = new double[n];
+        double[] prices = new double[n];
+        double[] seeds = new double[n];
+        for (int i = 0; i < n; i++) {
+            strikes[i] = F + (i - 20) * 50;
+            prices[i] = price(strikes[i], 0.13 + 0.002 * Math.abs(i - 20), T);
+            seeds[i] = i % 3 == 0 ? Double.NaN : 0.14;
+        }
+        prices[5] = 0.0;
+
+        double[] out = new double[n];
+        ImpliedVolatilitySolver.solveChain(strikes, prices, n, F, T, R, seeds, out);
+        for (int i = 0; i < n; i++) {
+            double single = prices[i] > 0
+                    ? ImpliedVolatilitySolver.solve(prices[i], F, strikes[i], T, R, seeds[i])
+                    : 0.0;
+            assertEquals(single, out[i], 0.0, "strike " + strikes[i]);
+        }
+    }
+
+    @Test
+    void testEdgeCasesMatchLegacyContract() {
+        assertEquals(0.0, ImpliedVolatilitySolver.solve(100, F, F, 0.0, R, Double.NaN));
+        assertEquals(0.0, ImpliedVolatilitySolver.solve(0.0, F, F, T, R, Double.NaN));
+        double intrinsic = (F - 21500) * Math.exp(-R * T);
+        assertEquals(ImpliedVolatilitySolver.MIN_VOL,
+                ImpliedVolatilitySolver.solve(intrinsic, F, 21500, T, R, Double.NaN));
+        double huge = ImpliedVolatilitySolver.solve(F * 0.9, F, F, T, R, Double.NaN);
+        assertEquals(ImpliedVolatilitySolver.MAX_VOL, huge, 1e-6);
+
+        double[] out = {9, 9};
+        ImpliedVolatilitySolver.solveChain(new double[]{F, F + 50}, new double[]{100, 80}, 2, F, 0.0, R, null, out);
+        assertArrayEquals(new double[]{0.0, 0.0}, out);
+    }
+
+    @Test
+    void testSeedsRoundTripAndExpiryIsolation() {
+        ImpliedVolSeeds seeds = new ImpliedVolSeeds();
+        double[] strikes = {22100, 21900, 22000};
+        seeds.update("NIFTY_2025-01-16", strikes, new double[]{0.14, 0.16, 0.0}, 3);
+
+        double[] out = new double[4];
+        seeds.fill("NIFTY_2025-01-16", new double[]{21900, 22000, 22100, 22200}, 4, out);
+        assertEquals(0.16, out[0]);
+        assertTrue(Double.isNaN(out[1]), "non-positive IVs are not kept as seeds");
+        assertEquals(0.14, out[2]);
+        assertTrue(Double.isNaN(out[3]));
+
+        seeds.fill("NIFTY_2025-01-23", new double[]{21900}, 1, out);
+        assertTrue(Double.isNaN(out[0]), "next expiry starts cold");
+    }
+}
@@ -0,0 +1,149 @@
+package com.tradingbot.service.instrument;
+
+import com.zerodhatech.models.Instrument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for InstrumentMasterStore and the InstrumentMasterFile encoding — round trip, daily
+ * versioning, pruning and corrupt-file handling.
+ */
+class InstrumentMasterStoreTest {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 19);
+
+    private Path dir;
+    private InstrumentMasterStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("instrument-master");
+        store = new InstrumentMasterStore(dir, LocalTime.of(8, 30), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static Instrument option(long token, String symbol, String strike, String type, Date expiry) {
+        Instrument inst = new Instrument();
+        inst.instrument_token = token;
+        inst.exchange_token = token >> 8;
+        inst.tradingsymbol = symbol;
+        inst.name = "NIFTY";
+        inst.last_price = 0.0;
+        inst.tick_size = 0.05;
+        inst.instrument_type = type;
+        inst.segment = "NFO-OPT";
+        inst.exchange = "NFO";
+        inst.strike = strike;
+        inst.lot_size = 75;
+        inst.expiry = expiry;
+        return inst;
+    }
+
+    @Test
+    void testRoundTripPreservesEveryField() {
+        Date expiry = new Date(1742322600000L);
+        Instrument ce = option(12345678L, "NIFTY25MAR22000CE", "22000.0", "CE", expiry);
+        Instrument pe = option(12345679L, "NIFTY25MAR22000PE", "22000.0", "PE", expiry);
+        Instrument index = new Instrument();
+        index.instrument_token = 256265L;
+        index.tradingsymbol = "NIFTY 50";
+        index.exchange = "NSE";
+        index.last_price = 22012.35;
+
+        assertTrue(store.save("NFO", DAY, List.of(ce, pe, index)));
+        InstrumentMasterFile.Contents contents = store.load("NFO", DAY);
+
+        assertNotNull(contents);
+        assertEquals(DAY, contents.tradingDay());
+        List<Instrument> loaded = contents.instruments();
+        assertEquals(3, loaded.size());
+
+        Instrument r = loaded.get(0);
+        assertEquals(12345678L, r.instrument_token);
+        assertEquals(12345678L >> 8, r.exchange_token);
+        assertEquals("NIFTY25MAR22000CE", r.tradingsymbol);
+        assertEquals("NIFTY", r.name);
+        assertEquals(0.05, r.tick_size);
+        assertEquals("CE", r.instrument_type);
+        assertEquals("NFO-OPT", r.segment);
+        assertEquals("NFO", r.exchange);
+        assertEquals("22000.0", r.strike);
+        assertEquals(75, r.lot_size);
+        assertEquals(expiry, r.expiry);
+
+        // Repeated values are decoded once and shared
+        assertSame(r.name, loaded.get(1).name);
+        assertSame(r.strike, loaded.get(1).strike);
+
+        Instrument i = loaded.get(2);
+        assertEquals(22012.35, i.last_price);
+        assertNull(i.expiry);
+        assertNull(i.name);
+        assertNull(i.strike);
+    }
+
+    @Test
+    void testTradingDayRollsAtPublishTime() {
+        assertEquals(DAY.minusDays(1), store.tradingDay(ZonedDateTime.of(DAY, LocalTime.of(8, 29), IST)));
+        assertEquals(DAY, store.tradingDay(ZonedDateTime.of(DAY, LocalTime.of(8, 30), IST)));
+        assertEquals(DAY, store.tradingDay(ZonedDateTime.of(DAY, LocalTime.of(23, 59), IST)));
+    }
+
+    @Test
+    void testOnlyTheRequestedVersionIsServed() {
+        assertTrue(store.save("NFO", DAY.minusDays(1), List.of(option(1, "A", "100.0", "CE", null))));
+
+        assertNull(store.load("NFO", DAY));
+        assertNull(store.load("NSE", DAY.minusDays(1)));
+        assertNotNull(store.load("NFO", DAY.minusDays(1)));
+    }
+
+    @Test
+    void testOldVersionsArePruned() {
+        List<Instrument> one = List.of(option(1, "A", "100.0", "CE", null));
+        store.save("NFO", DAY.minusDays(2), one);
+        store.save("NFO", DAY.minusDays(1), one);
+        store.save("NSE", DAY.minusDays(2), one);
+        store.save("NFO", DAY, one);
+
+        assertFalse(Files.exists(store.pathFor("NFO", DAY.minusDays(2))));
+        assertTrue(Files.exists(store.pathFor("NFO", DAY.minusDays(1))));
+        assertTrue(Files.exists(store.pathFor("NFO", DAY)));
+        // Other exchanges keep their own versions
+        assertTrue(Files.exists(store.pathFor("NSE", DAY.minusDays(2))));
+    }
+
+    @Test
+    void testCorruptFileIsDiscarded() throws IOException {
+        store.save("NFO", DAY, List.of(option(1, "A", "100.0", "CE", null)));
+        Path file = store.pathFor("NFO", DAY);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertNull(store.load("NFO", DAY));
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,160 @@
+package com.tradingbot.service.instrument;
+
+import com.zerodhatech.models.Instrument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for InstrumentRegistry — token/symbol lookups, packed contract keys, per-expiry chains
+ * and materialization back to Kite instruments.
+ */
+class InstrumentRegistryTest {
+
+    /** 2025-03-20 00:00 IST and the following Thursday. */
+    private static final long EXPIRY_1 = 1742409000000L;
+    private static final long EXPIRY_2 = EXPIRY_1 + 7 * 86_400_000L;
+
+    private List<Instrument> dump;
+    private InstrumentRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        dump = new ArrayList<>();
+        // Deliberately unsorted: chains must come back ordered by strike, CE before PE
+        dump.add(option(1003, "NIFTY25MAR22100PE", "NIFTY", "22100.0", "PE", EXPIRY_1));
+        dump.add(option(1001, "NIFTY25MAR22000CE", "NIFTY", "22000.0", "CE", EXPIRY_1));
+        dump.add(option(1002, "NIFTY25MAR22000PE", "NIFTY", "22000.0", "PE", EXPIRY_1));
+        dump.add(option(1004, "NIFTY25MAR22100CE", "NIFTY", "22100.0", "CE", EXPIRY_1));
+        dump.add(option(2001, "NIFTY2532722000CE", "NIFTY", "22000.0", "CE", EXPIRY_2));
+        dump.add(option(3001, "BANKNIFTY25MAR48000CE", "BANKNIFTY", "48000.0", "CE", EXPIRY_1));
+        dump.add(option(4001, "NIFTY25MARFUT", "NIFTY", "0.0", "FUT", EXPIRY_1));
+        Instrument index = new Instrument();
+        index.instrument_token = 256265L;
+        index.tradingsymbol = "NIFTY 50";
+        index.exchange = "NSE";
+        index.segment = "INDICES";
+        index.instrument_type = "EQ";
+        dump.add(index);
+        registry = InstrumentRegistry.build(dump);
+    }
+
+    private static Instrument option(long token, String symbol, String name, String strike, String type, long expiry) {
+        Instrument inst = new Instrument();
+        inst.instrument_token = token;
+        inst.exchange_token = token >> 2;
+        inst.tradingsymbol = symbol;
+        inst.name = name;
+        inst.tick_size = 0.05;
+        inst.instrument_type = type;
+        inst.segment = "FUT".equals(type) ? "NFO-FUT" : "NFO-OPT";
+        inst.exchange = "NFO";
+        inst.strike = strike;
+        inst.lot_size = 75;
+        inst.expiry = new Date(expiry);
+        return inst;
+    }
+
+    @Test
+    void testStrikeTextsBeyondShortRangeRoundTrip() {
+        // All-exchange dumps (CDS/MCX fractional strikes) hold more distinct strike texts than a short id
+        List<Instrument> large = new ArrayList<>();
+        int count = 70_000;
+        for (int i = 0; i < count; i++) {
+            String strike = (1000 + i) + ".25";
+            large.add(option(10_000 + i, "CDS" + i + "CE", "USDINR", strike, "CE", EXPIRY_1));
+        }
+        InstrumentRegistry big = InstrumentRegistry.build(large);
+
+        for (int row : new int[]{0, 32_767, 32_768, 65_535, count - 1}) {
+            Instrument inst = big.instrument(row);
+            assertEquals((1000 + row) + ".25", inst.strike, "row " + row);
+            assertEquals("CE", inst.instrument_type);
+        }
+    }
+
+    @Test
+    void testTokenAndSymbolLookupsReturnSourceRows() {
+        assertEquals(8, registry.size());
+        assertEquals(1, registry.rowOfToken(1001));
+        assertEquals(7, registry.rowOfToken(256265L));
+        assertEquals(2, registry.rowOfSymbol("NIFTY25MAR22000PE"));
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.rowOfToken(9999));
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.rowOfSymbol("MISSING"));
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.rowOfSymbol(null));
+    }
+
+    @Test
+    void testFindOptionByContract() {
+        assertEquals(1001, registry.token(registry.findOption("NIFTY", EXPIRY_1, 22000.0, false)));
+        assertEquals(1002, registry.token(registry.findOption("NIFTY", EXPIRY_1, 22000.0, true)));
+        assertEquals(2001, registry.token(registry.findOption("NIFTY", EXPIRY_2, 22000.0, false)));
+        // Any instant on the expiry's IST day resolves to the same contract
+        assertEquals(1004, registry.token(registry.findOption("NIFTY", EXPIRY_1 + 15 * 3_600_000L, 22100.0, false)));
+
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.findOption("NIFTY", EXPIRY_2, 22000.0, true));
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.findOption("NIFTY", EXPIRY_1, 22050.0, false));
+        assertEquals(InstrumentRegistry.NOT_FOUND, registry.findOption("FINNIFTY", EXPIRY_1, 22000.0, false));
+    }
+
+    @Test
+    void testChainsAreSortedPerExpiryAndExcludeNonOptions() {
+        int[] rows = registry.optionChainRows("NIFTY", EXPIRY_1);
+        assertEquals(4, rows.length);
+        assertEquals(1001, registry.token(rows[0]));
+        assertEquals(1002, registry.token(rows[1]));
+        assertEquals(1004, registry.token(rows[2]));
+        assertEquals(1003, registry.token(rows[3]));
+
+        assertEquals(1, registry.optionChainRows("NIFTY", EXPIRY_2).length);
+        assertEquals(0, registry.optionChainRows("SENSEX", EXPIRY_1).length);
+
+        long[] expiries = registry.optionExpiries("NIFTY");
+        assertEquals(2, expiries.length);
+        assertEquals(EXPIRY_1, expiries[0]);
+        assertEquals(EXPIRY_2, expiries[1]);
+        assertEquals(0, registry.optionExpiries("SENSEX").length);
+    }
+
+    @Test
+    void testInstrumentMaterializesEveryField() {
+        Instrument source = dump.get(2);
+        Instrument r = registry.instrument(2);
+
+        assertNotSame(source, r);
+        assertEquals(source.instrument_token, r.instrument_token);
+        assertEquals(source.exchange_token, r.exchange_token);
+        assertEquals(source.tradingsymbol, r.tradingsymbol);
+        assertEquals(source.name, r.name);
+        assertEquals(source.tick_size, r.tick_size);
+        assertEquals(source.instrument_type, r.instrument_type);
+        assertEquals(source.segment, r.segment);
+        assertEquals(source.exchange, r.exchange);
+        assertEquals(source.strike, r.strike);
+        assertEquals(source.lot_size, r.lot_size);
+        assertEquals(source.expiry, r.expiry);
+
+        Instrument index = registry.instrument(7);
+        assertNull(index.name);
+        assertNull(index.strike);
+        assertNull(index.expiry);
+    }
+
+    @Test
+    void testContractKeyPacksDistinctFields() {
+        int day = InstrumentRegistry.istEpochDay(EXPIRY_1);
+        long ce = InstrumentRegistry.contractKey(0, day, 22000.0, false);
+
+        assertNotEquals(ce, InstrumentRegistry.contractKey(0, day, 22000.0, true));
+        assertNotEquals(ce, InstrumentRegistry.contractKey(1, day, 22000.0, false));
+        assertNotEquals(ce, InstrumentRegistry.contractKey(0, day + 7, 22000.0, false));
+        assertNotEquals(ce, InstrumentRegistry.contractKey(0, day, 22000.05, false));
+        // Parsed-double noise below a paisa maps to the same key
+        assertEquals(ce, InstrumentRegistry.contractKey(0, day, 21999.999999, false));
+    }
+}
@@ -0,0 +1,162 @@
+package com.tradingbot.service.journal;
+
+import com.tradingbot.config.TickJournalConfig;
+import com.tradingbot.service.strategy.monitoring.DecodedTickBatch;
+import com.tradingbot.service.strategy.monitoring.SubscriptionModeRegistry.Mode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TickJournalFile / TickJournalReader encoding and the TickJournal writer thread.
+ */
+class TickJournalTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 19);
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("tick-journal");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    void testRoundTripAcrossSegments() throws IOException {
+        Path path = dir.resolve("ticks.jnl");
+        // 10 records per mapped segment forces several remaps
+        try (TickJournalFile file = TickJournalFile.create(path, DAY, 10L * TickJournalFile.RECORD_BYTES)) {
+            for (int i = 0; i < 35; i++) {
+                file.append(4_000_000_000L + i, 2, 1_700_000_000_000L + i, 1_000L + i, 100.05 + i, 10L * i, 7L * i);
+            }
+        }
+
+        try (TickJournalReader reader = new TickJournalReader(path)) {
+            assertEquals(DAY, reader.tradingDay());
+            assertEquals(35, reader.recordCount());
+            for (int i = 0; i < 35; i++) {
+                assertTrue(reader.next());
+                assertEquals(4_000_000_000L + i, reader.instrumentToken(), "token is unsigned");
+                assertEquals(2, reader.source());
+                assertEquals(1_700_000_000_000L + i, reader.exchangeTimestamp());
+                assertEquals(1_000L + i, reader.receiveNanos());
+                assertEquals(100.05 + i, reader.lastTradedPrice(), 1e-9);
+                assertEquals(10L * i, reader.volume());
+                assertEquals(7L * i, reader.openInterest());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void testUncommittedRecordsAreInvisible() throws IOException {
+        Path path = dir.resolve("ticks.jnl");
+        TickJournalFile file = TickJournalFile.create(path, DAY, 1024);
+        try {
+            file.append(256265, 0, 0, 1, 22_000.5, 0, 0);
+            file.commit();
+            file.append(256265, 0, 0, 2, 22_001.0, 0, 0);
+
+            try (TickJournalReader reader = new TickJournalReader(path)) {
+                assertEquals(1, reader.recordCount());
+                assertTrue(reader.next());
+                assertEquals(22_000.5, reader.lastTradedPrice(), 1e-9);
+                assertFalse(reader.next());
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        Path path = dir.resolve("not-a-journal.jnl");
+        Files.write(path, new byte[TickJournalFile.HEADER_BYTES]);
+        assertThrows(IOException.class, () -> new TickJournalReader(path));
+    }
+
+    @Test
+    void testProducerIsNullWhenDisabled() {
+        TickJournal journal = new TickJournal(config(false));
+        assertNull(journal.producer("ws-user"));
+    }
+
+    @Test
+    void testFeedsSubscribeInJournalModeOnlyWhileEnabled() {
+        assertEquals(Mode.LTP, new TickJournal(config(false)).subscriptionMode());
+        assertEquals(Mode.FULL, new TickJournal(config(true)).subscriptionMode());
+
+        TickJournalConfig quote = config(true);
+        quote.setSubscriptionMode(Mode.QUOTE);
+        assertEquals(Mode.QUOTE, new TickJournal(quote).subscriptionMode());
+    }
+
+    @Test
+    void testWriterJournalsEveryFeedAndStartsNewPartOnRestart() throws IOException {
+        LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+
+        TickJournal journal = new TickJournal(config(true));
+        TickJournal.Producer ws = journal.producer("ws-user");
+        TickJournal.Producer feed = journal.producer("market-data-feed");
+        DecodedTickBatch batch = new DecodedTickBatch(4);
+        batch.add(111, 50.0, 10, 1_700_000_000_000L, 500, 9_000);
+        batch.add(222, 60.0, 11, 1_700_000_000_001L, 600, 8_000);
+        ws.append(batch);
+        feed.append(256265, 0, 12, 22_000.0, 0, 0);
+        journal.destroy();
+
+        List<Path> parts = TickJournal.filesFor(dir, today);
+        assertEquals(1, parts.size());
+        int wsRecords = 0;
+        int feedRecords = 0;
+        try (TickJournalReader reader = new TickJournalReader(parts.get(0))) {
+            assertEquals(3, reader.recordCount());
+            while (reader.next()) {
+                if (reader.instrumentToken() == 256265) {
+                    feedRecords++;
+                } else {
+                    wsRecords++;
+                    if (reader.instrumentToken() == 111) {
+                        assertEquals(500, reader.volume());
+                        assertEquals(9_000, reader.openInterest());
+                        assertEquals(1_700_000_000_000L, reader.exchangeTimestamp());
+                    }
+                }
+            }
+        }
+        assertEquals(2, wsRecords);
+        assertEquals(1, feedRecords);
+
+        TickJournal restarted = new TickJournal(config(true));
+        restarted.producer("ws-user").append(333, 0, 13, 70.0, 0, 0);
+        restarted.destroy();
+        assertEquals(2, TickJournal.filesFor(dir, today).size());
+    }
+
+    private TickJournalConfig config(boolean enabled) {
+        TickJournalConfig config = new TickJournalConfig();
+        config.setEnabled(enabled);
+        config.setDirectory(dir.toString());
+        config.setRingSize(1024);
+        config.setSegmentBytes(64 * 1024);
+        return config;
+    }
+}
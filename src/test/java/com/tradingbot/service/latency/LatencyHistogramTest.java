@@ -0,0 +1,161 @@
+package com.tradingbot.service.latency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LatencyHistogram bucketing/percentiles and LatencyTracer trace propagation.
+ */
+class LatencyHistogramTest {
+
+    @AfterEach
+    void tearDown() {
+        LatencyTracer.reset();
+    }
+
+    @Test
+    void testEmptySnapshot() {
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, new LatencyHistogram().snapshot());
+    }
+
+    @Test
+    void testBucketBoundariesAreContiguous() {
+        long previousHighest = -1;
+        for (int index = 0; index <= LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_NANOS); index++) {
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(previousHighest + 1), "lowest value of bucket " + index);
+            assertEquals(index, LatencyHistogram.bucketIndex(highest), "highest value of bucket " + index);
+            previousHighest = highest;
+        }
+        assertEquals(LatencyHistogram.MAX_TRACKABLE_NANOS, previousHighest);
+    }
+
+    @Test
+    void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500L, snapshot.meanNanos());
+        assertWithin(500_000L, snapshot.p50Nanos());
+        assertWithin(990_000L, snapshot.p99Nanos());
+        assertWithin(999_000L, snapshot.p999Nanos());
+        assertEquals(1_000_000L, snapshot.maxNanos());
+    }
+
+    @Test
+    void testNegativeAndHugeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count());
+        assertEquals(0L, snapshot.p50Nanos());
+        assertEquals(Long.MAX_VALUE, snapshot.maxNanos());
+    }
+
+    @Test
+    void testAddAndReset() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(20);
+        b.record(30);
+
+        a.add(b);
+        assertEquals(3, a.snapshot().count());
+        assertEquals(30, a.max());
+
+        a.reset();
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, a.snapshot());
+    }
+
+    @Test
+    void testConcurrentWritersLoseNothing() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            CompletableFuture<?>[] writers = new CompletableFuture<?>[4];
+            for (int w = 0; w < writers.length; w++) {
+                writers[w] = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        histogram.record(i);
+                    }
+                }, pool);
+            }
+            CompletableFuture.allOf(writers).get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(400_000, histogram.snapshot().count());
+        assertEquals(99_999, histogram.max());
+    }
+
+    @Test
+    void testTracerRecordsOnlyUnderOpenTrace() {
+        LatencyTracer.mark(LatencyStage.EVALUATE); // no trace — ignored
+        assertNull(LatencyTracer.snapshot("trace-user"));
+
+        LatencyTracer.beginTick("trace-user", System.nanoTime());
+        try {
+            LatencyTracer.mark(LatencyStage.EVALUATE);
+            LatencyTracer.mark(LatencyStage.EXIT_CALLBACK);
+        } finally {
+            LatencyTracer.endTick();
+        }
+        LatencyTracer.mark(LatencyStage.EVALUATE); // closed — ignored
+
+        Map<LatencyStage, LatencyHistogram.Snapshot> stages = LatencyTracer.snapshot("trace-user");
+        assertEquals(1, stages.get(LatencyStage.DISPATCH).count());
+        assertEquals(1, stages.get(LatencyStage.EVALUATE).count());
+        assertEquals(1, stages.get(LatencyStage.EXIT_CALLBACK).count());
+        assertEquals(0, stages.get(LatencyStage.ORDER_SUBMIT).count());
+        assertTrue(LatencyTracer.snapshotAllUsers().get(LatencyStage.DISPATCH).count() >= 1);
+    }
+
+    @Test
+    void testTraceFollowsWrappedExitTask() throws Exception {
+        Supplier<Boolean> task;
+        LatencyTracer.beginTick("wrap-user", System.nanoTime());
+        try {
+            task = LatencyTracer.wrapSupplier(() -> {
+                LatencyTracer.mark(LatencyStage.ORDER_SUBMIT);
+                LatencyTracer.mark(LatencyStage.ORDER_ACK);
+                return true;
+            });
+        } finally {
+            LatencyTracer.endTick();
+        }
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(CompletableFuture.supplyAsync(task, pool).get());
+            // The executor thread's own trace is restored (closed) afterwards
+            pool.submit(() -> LatencyTracer.mark(LatencyStage.ORDER_SUBMIT)).get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Map<LatencyStage, LatencyHistogram.Snapshot> stages = LatencyTracer.snapshot("wrap-user");
+        assertEquals(1, stages.get(LatencyStage.ORDER_SUBMIT).count());
+        assertEquals(1, stages.get(LatencyStage.ORDER_ACK).count());
+        assertTrue(stages.get(LatencyStage.ORDER_ACK).maxNanos() >= stages.get(LatencyStage.ORDER_SUBMIT).maxNanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 32,
+                "expected ~" + expected + " (within 1/32) but was " + actual);
+    }
+}
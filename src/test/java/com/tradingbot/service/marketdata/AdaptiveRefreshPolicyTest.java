@@ -0,0 +1,82 @@
+package com.tradingbot.service.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AdaptiveRefreshPolicy — idle back-off, fast-move / expiry tightening and the
+ * market-open pause calculation.
+ */
+class AdaptiveRefreshPolicyTest {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final long HOUR_MS = 3_600_000L;
+
+    private final AdaptiveRefreshPolicy policy =
+            new AdaptiveRefreshPolicy(10.0, 0.5, 0.5, 1000, 60_000, 4.0, 30_000);
+
+    @Test
+    void testBaseIntervalWhenCalmAndRead() {
+        AdaptiveRefreshPolicy.Interval interval = policy.next(5000, 2.0, false, 1000);
+        assertEquals(5000, interval.ms());
+        assertEquals("base", interval.reason());
+
+        // Unknown move (no previous sample) is treated as calm
+        assertEquals("base", policy.next(5000, Double.NaN, false, 1000).reason());
+    }
+
+    @Test
+    void testFastMoveAndExpiryTightenDownToFloor() {
+        assertEquals(new AdaptiveRefreshPolicy.Interval(2500, "fast-move"), policy.next(5000, 12.0, false, 0));
+        assertEquals(new AdaptiveRefreshPolicy.Interval(2500, "expiry"), policy.next(5000, 1.0, true, 0));
+        assertEquals(new AdaptiveRefreshPolicy.Interval(1250, "fast-move+expiry"), policy.next(5000, 12.0, true, 0));
+
+        // Floor at minIntervalMs...
+        assertEquals(1000, policy.next(1500, 50.0, true, 0).ms());
+        // ...but a base already below the floor is never lengthened
+        assertEquals(800, policy.next(800, 50.0, true, 0).ms());
+    }
+
+    @Test
+    void testIdleBacksOffAndOverridesVolatility() {
+        AdaptiveRefreshPolicy.Interval idle = policy.next(5000, 50.0, true, 60_000);
+        assertEquals(new AdaptiveRefreshPolicy.Interval(20_000, "idle"), idle);
+
+        // Capped at maxIdleIntervalMs
+        assertEquals(30_000, policy.next(10_000, 0.0, false, 120_000).ms());
+        // Never below base, even when base exceeds the cap
+        assertEquals(60_000, policy.next(60_000, 0.0, false, 120_000).ms());
+    }
+
+    @Test
+    void testMoveBpsPerMinute() {
+        // 22000 → 22011 (5 bps) in 30s = 10 bps/min
+        assertEquals(10.0, AdaptiveRefreshPolicy.moveBpsPerMinute(22000, 22011, 30_000), 1e-9);
+        assertEquals(10.0, AdaptiveRefreshPolicy.moveBpsPerMinute(22011, 22000, 30_000), 0.01);
+        assertTrue(Double.isNaN(AdaptiveRefreshPolicy.moveBpsPerMinute(Double.NaN, 22000, 30_000)));
+        assertTrue(Double.isNaN(AdaptiveRefreshPolicy.moveBpsPerMinute(22000, 22011, 0)));
+    }
+
+    @Test
+    void testMillisUntilMarketOpen() {
+        // Wednesday 08:15 → same day 09:15
+        ZonedDateTime beforeOpen = ZonedDateTime.of(2025, 3, 19, 8, 15, 0, 0, IST);
+        assertEquals(HOUR_MS, AdaptiveRefreshPolicy.millisUntilMarketOpen(beforeOpen));
+
+        // Wednesday 15:45 → Thursday 09:15
+        ZonedDateTime afterClose = ZonedDateTime.of(2025, 3, 19, 15, 45, 0, 0, IST);
+        assertEquals(17 * HOUR_MS + 30 * 60_000L, AdaptiveRefreshPolicy.millisUntilMarketOpen(afterClose));
+
+        // Friday 16:15 → Monday 09:15
+        ZonedDateTime friday = ZonedDateTime.of(2025, 3, 21, 16, 15, 0, 0, IST);
+        assertEquals(65 * HOUR_MS, AdaptiveRefreshPolicy.millisUntilMarketOpen(friday));
+
+        // Saturday morning → Monday 09:15
+        ZonedDateTime saturday = ZonedDateTime.of(2025, 3, 22, 9, 15, 0, 0, IST);
+        assertEquals(48 * HOUR_MS, AdaptiveRefreshPolicy.millisUntilMarketOpen(saturday));
+    }
+}
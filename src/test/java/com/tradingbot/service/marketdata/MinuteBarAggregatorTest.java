@@ -0,0 +1,168 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.HistoricalData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MinuteBarAggregator — IST minute boundaries, bar finalization, gap detection and
+ * REST backfill merging.
+ */
+class MinuteBarAggregatorTest {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final long TOKEN = 256265L;
+
+    private MinuteBarAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new MinuteBarAggregator(400);
+        aggregator.register(TOKEN);
+    }
+
+    private static long istMs(int day, int hour, int minute, int second) {
+        return LocalDateTime.of(2025, 1, day, hour, minute, second).atZone(IST).toInstant().toEpochMilli();
+    }
+
+    private static HistoricalData restCandle(String timeStamp, double close) {
+        HistoricalData c = new HistoricalData();
+        c.timeStamp = timeStamp;
+        c.open = close - 1;
+        c.high = close + 2;
+        c.low = close - 2;
+        c.close = close;
+        return c;
+    }
+
+    @Test
+    void testTicksBuildOhlcAndFinalizeOnMinuteBoundary() {
+        assertFalse(aggregator.onTick(TOKEN, 22000, istMs(15, 9, 15, 1)));
+        assertFalse(aggregator.onTick(TOKEN, 22010, istMs(15, 9, 15, 20)));
+        assertFalse(aggregator.onTick(TOKEN, 21990, istMs(15, 9, 15, 40)));
+        assertFalse(aggregator.onTick(TOKEN, 22005, istMs(15, 9, 15, 59)));
+        assertEquals(0, aggregator.getBarCount(TOKEN));
+
+        assertTrue(aggregator.onTick(TOKEN, 22007, istMs(15, 9, 16, 0)), "first tick of next minute closes the bar");
+        assertEquals(1, aggregator.getBarCount(TOKEN));
+
+        List<HistoricalData> bars = aggregator.snapshot(TOKEN);
+        assertEquals(2, bars.size(), "finalized bar + forming bar");
+        HistoricalData bar = bars.get(0);
+        assertEquals("2025-01-15T09:15:00+0530", bar.timeStamp);
+        assertEquals(22000, bar.open);
+        assertEquals(22010, bar.high);
+        assertEquals(21990, bar.low);
+        assertEquals(22005, bar.close);
+        assertEquals("2025-01-15T09:16:00+0530", bars.get(1).timeStamp);
+        assertEquals(22007, bars.get(1).close);
+        assertEquals(1, aggregator.getBarsFinalized());
+    }
+
+    @Test
+    void testLiveFromOpenIsCompleteUntilAGap() {
+        aggregator.onTick(TOKEN, 22000, istMs(15, 9, 15, 5));
+        aggregator.onTick(TOKEN, 22001, istMs(15, 9, 16, 5));
+        assertTrue(aggregator.isComplete(TOKEN));
+
+        // No ticks during 09:17 — feed gap
+        aggregator.onTick(TOKEN, 22003, istMs(15, 9, 18, 5));
+        assertFalse(aggregator.isComplete(TOKEN));
+    }
+
+    @Test
+    void testMidSessionStartNeedsBackfill() {
+        aggregator.onTick(TOKEN, 22050, istMs(15, 9, 20, 30));
+        assertFalse(aggregator.isComplete(TOKEN));
+
+        List<HistoricalData> rest = new ArrayList<>();
+        for (int m = 15; m <= 20; m++) {
+            rest.add(restCandle(String.format("2025-01-15T09:%02d:00+0530", m), 22000 + m));
+        }
+        aggregator.backfill(TOKEN, rest, istMs(15, 9, 20, 31));
+
+        assertTrue(aggregator.isComplete(TOKEN));
+        List<HistoricalData> bars = aggregator.snapshot(TOKEN);
+        assertEquals(6, bars.size(), "5 REST bars before the forming minute + live forming bar");
+        assertEquals("2025-01-15T09:15:00+0530", bars.get(0).timeStamp);
+        assertEquals(22019, bars.get(4).close);
+        assertEquals(22050, bars.get(5).close, "forming bar keeps live ticks, not the REST partial");
+    }
+
+    @Test
+    void testBackfillSeedsFormingBarWhenNoTicksYet() {
+        List<HistoricalData> rest = new ArrayList<>();
+        rest.add(restCandle("2025-01-15T09:15:00+0530", 22000));
+        rest.add(restCandle("2025-01-15T09:16:00+0530", 22010));
+        aggregator.backfill(TOKEN, rest, istMs(15, 9, 16, 10));
+
+        assertTrue(aggregator.isComplete(TOKEN));
+        assertEquals(1, aggregator.getBarCount(TOKEN));
+
+        aggregator.onTick(TOKEN, 22030, istMs(15, 9, 16, 30));
+        HistoricalData forming = aggregator.snapshot(TOKEN).get(1);
+        assertEquals(22009, forming.open, "REST partial bar's open is preserved");
+        assertEquals(22030, forming.high);
+        assertEquals(22030, forming.close);
+    }
+
+    @Test
+    void testBackfillWithLaggingHistoryStaysIncomplete() {
+        aggregator.onTick(TOKEN, 22050, istMs(15, 9, 25, 0));
+        List<HistoricalData> rest = new ArrayList<>();
+        rest.add(restCandle("2025-01-15T09:15:00+0530", 22000));
+        rest.add(restCandle("2025-01-15T09:16:00+0530", 22010));
+        aggregator.backfill(TOKEN, rest, istMs(15, 9, 25, 1));
+
+        assertFalse(aggregator.isComplete(TOKEN), "09:17–09:24 still missing");
+    }
+
+    @Test
+    void testRolloverClosesQuietBar() {
+        aggregator.onTick(TOKEN, 22000, istMs(15, 9, 15, 5));
+        assertFalse(aggregator.rollover(TOKEN, istMs(15, 9, 15, 50)));
+        assertTrue(aggregator.rollover(TOKEN, istMs(15, 9, 16, 0)));
+        assertEquals(1, aggregator.getBarCount(TOKEN));
+        assertEquals(1, aggregator.snapshot(TOKEN).size());
+    }
+
+    @Test
+    void testTicksOutsideSessionIgnoredAndNewDayResets() {
+        aggregator.onTick(TOKEN, 21900, istMs(15, 9, 10, 0));
+        assertTrue(aggregator.snapshot(TOKEN).isEmpty(), "pre-open ticks are not bars");
+
+        aggregator.onTick(TOKEN, 22000, istMs(15, 15, 29, 10));
+        assertTrue(aggregator.onTick(TOKEN, 22001, istMs(15, 15, 30, 0)), "close finalizes the last bar");
+        assertEquals(1, aggregator.snapshot(TOKEN).size(), "post-close tick does not open a bar");
+
+        aggregator.onTick(TOKEN, 22100, istMs(16, 9, 15, 2));
+        List<HistoricalData> bars = aggregator.snapshot(TOKEN);
+        assertEquals(1, bars.size());
+        assertEquals("2025-01-16T09:15:00+0530", bars.get(0).timeStamp);
+        assertTrue(aggregator.isComplete(TOKEN));
+    }
+
+    @Test
+    void testUnregisteredTokenAndInvalidPriceIgnored() {
+        assertFalse(aggregator.onTick(999L, 100, istMs(15, 9, 15, 0)));
+        assertTrue(aggregator.snapshot(999L).isEmpty());
+        aggregator.onTick(TOKEN, 0.0, istMs(15, 9, 15, 0));
+        assertTrue(aggregator.snapshot(TOKEN).isEmpty());
+    }
+
+    @Test
+    void testTimestampRoundTrip() {
+        long minute = MinuteBarAggregator.parseEpochMinute("2025-01-15T09:15:00+0530");
+        assertEquals(minute, MinuteBarAggregator.parseEpochMinute("2025-01-15T09:15:00+05:30"));
+        assertEquals(MinuteBarAggregator.epochMinute(istMs(15, 9, 15, 59)), minute);
+        assertEquals("2025-01-15T09:15:00+0530", MinuteBarAggregator.formatTimestamp(minute));
+        assertEquals(-1, MinuteBarAggregator.parseEpochMinute("garbage"));
+    }
+}
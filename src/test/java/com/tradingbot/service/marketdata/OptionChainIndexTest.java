@@ -0,0 +1,95 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.Instrument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OptionChainIndex — per-expiry filtering, strike and symbol lookups and the strike-range
+ * scan used by leg replacement.
+ */
+class OptionChainIndexTest {
+
+    /** 2025-03-20 00:00 IST (a Thursday) and the following week's expiry. */
+    private static final Date EXPIRY = new Date(1742409000000L);
+    private static final Date NEXT_EXPIRY = new Date(EXPIRY.getTime() + 7 * 86_400_000L);
+
+    private static Instrument option(String strike, String type, Date expiry) {
+        Instrument inst = new Instrument();
+        inst.instrument_token = (long) (Double.parseDouble(strike) * 10) + ("PE".equals(type) ? 1 : 0)
+                + (expiry == NEXT_EXPIRY ? 1_000_000L : 0);
+        inst.tradingsymbol = "NIFTY" + (expiry == NEXT_EXPIRY ? "NEXT" : "") + (int) Double.parseDouble(strike) + type;
+        inst.name = "NIFTY";
+        inst.instrument_type = type;
+        inst.strike = strike;
+        inst.expiry = expiry;
+        return inst;
+    }
+
+    /** Unsorted chain: strikes 21500..22500 step 50, both types, plus a next-week contract and a future. */
+    private static List<Instrument> chain() {
+        List<Instrument> chain = new ArrayList<>();
+        for (int i = 20; i >= 0; i--) {
+            double strike = 21500 + ((i * 8) % 21) * 50.0;
+            chain.add(option(String.valueOf(strike), "CE", EXPIRY));
+            chain.add(option(String.valueOf(strike), "PE", EXPIRY));
+        }
+        chain.add(option("22000.0", "CE", NEXT_EXPIRY));
+        Instrument fut = option("0.0", "FUT", EXPIRY);
+        chain.add(fut);
+        return chain;
+    }
+
+    @Test
+    void testKeepsOnlyOptionsOfTheRequestedExpiry() {
+        OptionChainIndex index = OptionChainIndex.of("NIFTY", EXPIRY, chain());
+
+        assertEquals(42, index.size());
+        assertEquals("NIFTY22000CE", index.get(22000.0, "CE").tradingsymbol);
+        assertEquals("NIFTY22000PE", index.get(22000.0, "PE").tradingsymbol);
+        assertNull(index.get(22025.0, "CE"));
+        assertNull(index.bySymbol("NIFTYNEXT22000CE"));
+        assertTrue(index.isSameExpiry(new Date(EXPIRY.getTime() + 15 * 3_600_000L)));
+        assertFalse(index.isSameExpiry(NEXT_EXPIRY));
+    }
+
+    @Test
+    void testStrikeLookupToleratesParseNoise() {
+        OptionChainIndex index = OptionChainIndex.of("NIFTY", EXPIRY, chain());
+
+        assertNotNull(index.get(21999.999999, "CE"));
+        assertEquals(22100.0, index.strikeOf("NIFTY22100PE"));
+        assertEquals(-1.0, index.strikeOf("MISSING"));
+    }
+
+    @Test
+    void testInRangeIsSortedInclusiveAndMutable() {
+        OptionChainIndex index = OptionChainIndex.of("NIFTY", EXPIRY, chain());
+
+        List<Instrument> range = index.inRange("PE", 21900.0, 22100.0);
+        assertEquals(5, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(String.valueOf(21900.0 + i * 50.0), range.get(i).strike);
+            assertEquals("PE", range.get(i).instrument_type);
+        }
+        range.clear();
+        assertEquals(5, index.inRange("PE", 21900.0, 22100.0).size());
+
+        assertTrue(index.inRange("CE", 23000.0, 24000.0).isEmpty());
+    }
+
+    @Test
+    void testNullExpiryKeepsEveryExpiry() {
+        OptionChainIndex index = OptionChainIndex.of("NIFTY", null, chain());
+
+        // Same strike in two expiries: the later row wins, as it did in the per-strategy HashMap
+        assertEquals(42, index.size());
+        assertEquals("NIFTYNEXT22000CE", index.get(22000.0, "CE").tradingsymbol);
+        assertFalse(index.isSameExpiry(EXPIRY));
+    }
+}
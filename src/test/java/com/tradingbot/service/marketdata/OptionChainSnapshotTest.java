@@ -0,0 +1,150 @@
+package com.tradingbot.service.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OptionChainSnapshot — sorting, exact-strike lookups and delta → strike binary search
+ * (checked against the linear scan it replaced).
+ */
+class OptionChainSnapshotTest {
+
+    private static final double ATM = 22000.0;
+
+    /** Synthetic chain: 61 strikes around ATM with a smooth, monotonically decreasing call delta. */
+    private static OptionChainSnapshot buildChain(boolean shuffled) {
+        int n = 61;
+        double[] strikes = new double[n];
+        double[] callMid = new double[n];
+        double[] putMid = new double[n];
+        double[] iv = new double[n];
+        double[] delta = new double[n];
+        for (int i = 0; i < n; i++) {
+            int k = shuffled ? (i * 37) % n : i; // 37 is coprime with 61 → permutation
+            double strike = ATM + (k - 30) * 50.0;
+            strikes[i] = strike;
+            delta[i] = 1.0 / (1.0 + Math.exp((strike - ATM) / 250.0));
+            callMid[i] = 100.0 * delta[i];
+            putMid[i] = 100.0 * (1.0 - delta[i]);
+            iv[i] = 0.15;
+        }
+        return OptionChainSnapshot.of("NIFTY", null, ATM, ATM, 0.01, ATM,
+                strikes, callMid, putMid, iv, delta);
+    }
+
+    /** The pre-snapshot linear scan from MarketDataEngine/BaseStrategy, used as reference. */
+    private static double linearScan(Map<Double, Double> deltaMap, double target, boolean isCE, double atm) {
+        double best = atm;
+        double minDiff = Double.MAX_VALUE;
+        for (Map.Entry<Double, Double> e : deltaMap.entrySet()) {
+            double strike = e.getKey();
+            double effective = isCE ? e.getValue() : 1.0 - e.getValue();
+            if (target < 0.4) {
+                if (isCE && strike < atm) continue;
+                if (!isCE && strike > atm) continue;
+            }
+            double diff = Math.abs(effective - target);
+            if (diff < minDiff) {
+                minDiff = diff;
+                best = strike;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    void testArraysAreSortedByStrike() {
+        OptionChainSnapshot snapshot = buildChain(true);
+        for (int i = 1; i < snapshot.size(); i++) {
+            assertTrue(snapshot.strikeAt(i - 1) < snapshot.strikeAt(i));
+            assertTrue(snapshot.callDeltaAt(i - 1) > snapshot.callDeltaAt(i), "parallel arrays permuted together");
+        }
+    }
+
+    @Test
+    void testExactStrikeLookups() {
+        OptionChainSnapshot snapshot = buildChain(false);
+        assertEquals(0.5, snapshot.callDeltaForStrike(ATM), 1e-12);
+        assertEquals(50.0, snapshot.midForStrike(ATM, true), 1e-9);
+        assertEquals(-0.5, snapshot.putDeltaAt(snapshot.indexOfStrike(ATM)), 1e-12);
+        assertTrue(Double.isNaN(snapshot.callDeltaForStrike(ATM + 25)));
+        assertEquals(0.0, snapshot.midForStrike(ATM + 25, false));
+        assertEquals(-1, snapshot.indexOfStrike(99999));
+    }
+
+    @Test
+    void testAtmStrikeIsClosestToHalfDelta() {
+        assertEquals(ATM, buildChain(true).getAtmStrike());
+    }
+
+    @Test
+    void testFindStrikeForDeltaMatchesLinearScan() {
+        OptionChainSnapshot snapshot = buildChain(false);
+        Map<Double, Double> deltaMap = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            deltaMap.put(snapshot.strikeAt(i), snapshot.callDeltaAt(i));
+        }
+
+        double[] targets = {0.05, 0.1, 0.15, 0.2, 0.25, 0.3, 0.35, 0.4, 0.45, 0.5, 0.07, 0.33};
+        double[] atms = {ATM, ATM + 50, ATM - 100};
+        for (double atm : atms) {
+            for (double target : targets) {
+                assertEquals(linearScan(deltaMap, target, true, atm),
+                        snapshot.findStrikeForDelta(target, true, atm), "CE target " + target + " atm " + atm);
+                assertEquals(linearScan(deltaMap, target, false, atm),
+                        snapshot.findStrikeForDelta(target, false, atm), "PE target " + target + " atm " + atm);
+            }
+        }
+    }
+
+    @Test
+    void testNonMonotonicDeltasFallBackToLinearScan() {
+        // Market-implied deltas around ATM with one model delta out of order far OTM
+        double[] strikes = {21800, 21900, 22000, 22100, 22200, 22300, 22400, 22500};
+        double[] delta = {0.70, 0.60, 0.50, 0.40, 0.30, 0.22, 0.10, 0.16};
+        double[] zeros = new double[strikes.length];
+        OptionChainSnapshot snapshot = OptionChainSnapshot.of("NIFTY", null, ATM, ATM, 0.01, ATM,
+                strikes.clone(), zeros.clone(), zeros.clone(), zeros.clone(), delta.clone());
+        assertFalse(snapshot.isDeltaMonotonic());
+        assertTrue(buildChain(false).isDeltaMonotonic());
+
+        Map<Double, Double> deltaMap = new HashMap<>();
+        for (int i = 0; i < strikes.length; i++) {
+            deltaMap.put(strikes[i], delta[i]);
+        }
+        for (double target : new double[]{0.1, 0.15, 0.2, 0.35}) {
+            assertEquals(linearScan(deltaMap, target, true, ATM),
+                    snapshot.findStrikeForDelta(target, true, ATM), "CE target " + target);
+        }
+        assertEquals(22500.0, snapshot.findStrikeForDelta(0.15, true, ATM));
+    }
+
+    @Test
+    void testOtmSideEnforcedWhenNeighboursAreOnWrongSide() {
+        // ATM far above the 0.3Δ strike: CE must still come from strikes ≥ ATM
+        OptionChainSnapshot snapshot = buildChain(false);
+        double atm = ATM + 500;
+        double strike = snapshot.findStrikeForDelta(0.3, true, atm);
+        assertTrue(strike >= atm);
+        assertEquals(atm, strike);
+    }
+
+    @Test
+    void testEmptyChainReturnsApproximateAtm() {
+        OptionChainSnapshot empty = OptionChainSnapshot.of("NIFTY", null, ATM, ATM, 0.01, ATM,
+                new double[0], new double[0], new double[0], new double[0], new double[0]);
+        assertTrue(empty.isEmpty());
+        assertEquals(ATM, empty.findStrikeForDelta(0.1, true));
+        assertEquals(ATM, empty.getAtmStrike());
+    }
+
+    @Test
+    void testMismatchedArrayLengthsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> OptionChainSnapshot.of("NIFTY", null, ATM, ATM, 0.01, ATM,
+                new double[2], new double[2], new double[1], new double[2], new double[2]));
+    }
+}
@@ -0,0 +1,65 @@
+package com.tradingbot.service.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RefreshTaskStats — outcome counters and latency aggregation.
+ */
+class RefreshTaskStatsTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testEmptyStats() {
+        RefreshTaskStats stats = new RefreshTaskStats();
+        assertEquals(0.0, stats.getAvgLatencyMs());
+        Map<String, Object> map = stats.toMap(1000);
+        assertEquals(0L, map.get("completed"));
+        assertNull(map.get("lastRunAgeMs"));
+        assertNull(map.get("lastError"));
+    }
+
+    @Test
+    void testLatencyAggregatesCompletedAndFailedRuns() {
+        RefreshTaskStats stats = new RefreshTaskStats();
+        stats.recordCompleted(10 * MS, 1000);
+        stats.recordCompleted(30 * MS, 2000);
+        stats.recordFailed(50 * MS, 3000, "Too many requests");
+
+        assertEquals(2, stats.getCompleted());
+        assertEquals(1, stats.getFailed());
+        assertEquals(30.0, stats.getAvgLatencyMs(), 1e-9);
+        assertEquals(50.0, stats.getLastLatencyMs(), 1e-9);
+        assertEquals(50.0, stats.getMaxLatencyMs(), 1e-9);
+
+        Map<String, Object> map = stats.toMap(3500);
+        assertEquals(500L, map.get("lastRunAgeMs"));
+        assertEquals("Too many requests", map.get("lastError"));
+    }
+
+    @Test
+    void testSkippedRunsDoNotAffectLatency() {
+        RefreshTaskStats stats = new RefreshTaskStats();
+        stats.recordCompleted(20 * MS, 1000);
+        stats.recordSkipped(2000);
+        stats.recordSkipped(3000);
+
+        assertEquals(2, stats.getSkipped());
+        assertEquals(20.0, stats.getAvgLatencyMs(), 1e-9);
+        assertEquals(20.0, stats.getLastLatencyMs(), 1e-9);
+        assertEquals(0L, stats.toMap(3000).get("lastRunAgeMs"));
+    }
+
+    @Test
+    void testIntervalDecisionIsReported() {
+        RefreshTaskStats stats = new RefreshTaskStats();
+        stats.recordInterval(2500, "fast-move");
+        Map<String, Object> map = stats.toMap(0);
+        assertEquals(2500L, map.get("intervalMs"));
+        assertEquals("fast-move", map.get("intervalReason"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SingleFlight — concurrent callers share one call, errors propagate to every caller,
+ * and nothing is cached once a call completes.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void testConcurrentCallersShareOneCall() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>();
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(submit(pool, flight, "NSE:NIFTY 50", () -> {
+                invocations.incrementAndGet();
+                leaderEntered.countDown();
+                await(release);
+                return "quote";
+            }));
+            assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(submit(pool, flight, "NSE:NIFTY 50", () -> {
+                    invocations.incrementAndGet();
+                    return "duplicate";
+                }));
+            }
+            waitFor(() -> flight.getDeduplicated() == CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("quote", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, invocations.get());
+        assertEquals(1, flight.getExecuted());
+        assertEquals(CALLERS - 1, flight.getDeduplicated());
+        assertEquals(0, flight.getInFlight());
+    }
+
+    @Test
+    void testFailureReachesEveryWaitingCaller() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>();
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = submit(pool, flight, "k", () -> {
+                leaderEntered.countDown();
+                await(release);
+                throw new KiteException("Too many requests", 429);
+            });
+            assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+            Future<String> follower = submit(pool, flight, "k", () -> "unused");
+            waitFor(() -> flight.getDeduplicated() == 1);
+            release.countDown();
+
+            for (Future<String> caller : List.of(leader, follower)) {
+                ExecutionException error = assertThrows(ExecutionException.class,
+                        () -> caller.get(5, TimeUnit.SECONDS));
+                Throwable kiteError = error.getCause().getCause();
+                assertTrue(kiteError instanceof KiteException);
+                assertEquals("Too many requests", kiteError.getMessage());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, flight.getFailed());
+        assertEquals(0, flight.getInFlight());
+    }
+
+    @Test
+    void testFollowerGivesUpOnHungCall() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>(50);
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = submit(pool, flight, "k", () -> {
+                leaderEntered.countDown();
+                await(release);
+                return "late";
+            });
+            assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+
+            Future<String> follower = submit(pool, flight, "k", () -> "unused");
+            ExecutionException error = assertThrows(ExecutionException.class,
+                    () -> follower.get(5, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof java.net.SocketTimeoutException);
+            assertEquals(1, flight.getFollowerTimeouts());
+
+            release.countDown();
+            assertEquals("late", leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, flight.getInFlight());
+    }
+
+    @Test
+    void testCompletedCallIsNotCached() throws KiteException, IOException {
+        SingleFlight<Integer> flight = new SingleFlight<>();
+        AtomicInteger invocations = new AtomicInteger();
+
+        assertEquals(1, (int) flight.execute("k", invocations::incrementAndGet));
+        assertEquals(2, (int) flight.execute("k", invocations::incrementAndGet));
+        assertEquals(3, (int) flight.execute("other", invocations::incrementAndGet));
+
+        assertEquals(3, flight.getExecuted());
+        assertEquals(0, flight.getDeduplicated());
+        assertEquals(0.0, flight.toMap().get("dedupRatio"));
+    }
+
+    /** Runs a flight on the pool; KiteException is a Throwable, so it is wrapped for Callable. */
+    private static <V> Future<V> submit(ExecutorService pool, SingleFlight<V> flight, String key,
+                                        SingleFlight.Call<V> call) {
+        return pool.submit(() -> {
+            try {
+                return flight.execute(key, call);
+            } catch (KiteException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("interrupted");
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(1);
+        }
+    }
+}
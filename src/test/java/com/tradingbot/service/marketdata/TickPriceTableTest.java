@@ -0,0 +1,35 @@
+package com.tradingbot.service.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TickPriceTable — slot release and reuse by later registrations.
+ */
+class TickPriceTableTest {
+
+    @Test
+    void testReleasedSlotsAreReusedWithoutStalePrices() {
+        TickPriceTable table = new TickPriceTable(2);
+        long now = System.currentTimeMillis();
+        assertTrue(table.register(101L));
+        assertTrue(table.register(102L));
+        assertFalse(table.register(103L));
+        table.update(101L, 250.0, now);
+
+        assertEquals(1, table.retainOnly(Set.of(102L)));
+        assertTrue(Double.isNaN(table.getPrice(101L, 60_000)));
+
+        assertTrue(table.register(103L));
+        assertEquals(2, table.size());
+        assertTrue(Double.isNaN(table.getPrice(103L, 60_000)));
+        assertEquals(0L, table.getLastUpdateMs(103L));
+
+        table.update(101L, 260.0, now); // released token: ignored
+        table.update(103L, 99.5, now);
+        assertEquals(99.5, table.getPrice(103L, 60_000), 1e-9);
+    }
+}
@@ -0,0 +1,213 @@
+package com.tradingbot.service.marketdata;
+
+import com.zerodhatech.models.HistoricalData;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for VwapAccumulator — incremental sums checked against the batch computations they replaced
+ * (MarketDataEngine session VWAP and the V3 detector's last-N-candle VWAP / typical-price SMA).
+ */
+class VwapAccumulatorTest {
+
+    private static final int V3_WINDOW = 15;
+    /** The batch session VWAP is rounded to 4 decimals. */
+    private static final double SESSION_TOLERANCE = 1e-4;
+
+    private static String minuteTimestamp(String day, int minuteOfSession) {
+        int minutes = 9 * 60 + 15 + minuteOfSession;
+        return String.format("%sT%02d:%02d:00+0530", day, minutes / 60, minutes % 60);
+    }
+
+    private static HistoricalData candle(String timeStamp, double high, double low, double close, long volume) {
+        HistoricalData c = new HistoricalData();
+        c.timeStamp = timeStamp;
+        c.open = close;
+        c.high = high;
+        c.low = low;
+        c.close = close;
+        c.volume = volume;
+        return c;
+    }
+
+    private static List<HistoricalData> randomSession(String day, int bars, boolean withVolume, long seed) {
+        Random rnd = new Random(seed);
+        List<HistoricalData> candles = new ArrayList<>(bars);
+        double price = 22000.0;
+        for (int i = 0; i < bars; i++) {
+            price += rnd.nextGaussian() * 8.0;
+            double high = price + rnd.nextDouble() * 6.0;
+            double low = price - rnd.nextDouble() * 6.0;
+            long volume = withVolume ? (rnd.nextInt(10) == 0 ? 0 : 50_000 + rnd.nextInt(500_000)) : 0;
+            candles.add(candle(minuteTimestamp(day, i), high, low, price, volume));
+        }
+        return candles;
+    }
+
+    /** Session VWAP as previously computed by MarketDataEngine.computeVWAPFromCandles. */
+    private static BigDecimal batchSessionVwap(List<HistoricalData> candles) {
+        BigDecimal cumulativeTPV = BigDecimal.ZERO;
+        BigDecimal cumulativeVolume = BigDecimal.ZERO;
+        for (HistoricalData candle : candles) {
+            double typicalPrice = (candle.high + candle.low + candle.close) / 3.0;
+            long volume = candle.volume;
+            if (volume <= 0) continue;
+            BigDecimal vol = BigDecimal.valueOf(volume);
+            cumulativeTPV = cumulativeTPV.add(BigDecimal.valueOf(typicalPrice).multiply(vol));
+            cumulativeVolume = cumulativeVolume.add(vol);
+        }
+        if (cumulativeVolume.compareTo(BigDecimal.ZERO) == 0) return null;
+        return cumulativeTPV.divide(cumulativeVolume, 4, RoundingMode.HALF_UP);
+    }
+
+    /** Windowed VWAP (SMA of typical price without volume) as previously computed by the V3 detector. */
+    private static double batchWindowVwap(List<HistoricalData> candles, int window) {
+        int count = Math.min(window, candles.size());
+        double sumTPxVol = 0;
+        double sumVol = 0;
+        double sumTP = 0;
+        int used = 0;
+        for (int i = candles.size() - count; i < candles.size(); i++) {
+            HistoricalData c = candles.get(i);
+            double tp = (c.high + c.low + c.close) / 3.0;
+            sumTPxVol += tp * c.volume;
+            sumVol += c.volume;
+            sumTP += tp;
+            used++;
+        }
+        if (sumVol > 0) return sumTPxVol / sumVol;
+        return used > 0 ? sumTP / used : -1;
+    }
+
+    private static double windowValue(VwapAccumulator acc) {
+        double vwap = acc.getVwap();
+        return vwap > 0 ? vwap : acc.getTypicalPriceMean();
+    }
+
+    /**
+     * Replays a session as the engine sees it: every refresh returns the bars so far with the last
+     * one still forming (its first, partial version differs from the final one).
+     */
+    private static List<List<HistoricalData>> refreshSnapshots(List<HistoricalData> finalBars) {
+        List<List<HistoricalData>> snapshots = new ArrayList<>();
+        for (int n = 1; n <= finalBars.size(); n++) {
+            List<HistoricalData> partial = new ArrayList<>(finalBars.subList(0, n - 1));
+            HistoricalData last = finalBars.get(n - 1);
+            partial.add(candle(last.timeStamp, last.high - 1.0, last.low + 1.0, last.close + 0.5, last.volume / 3));
+            snapshots.add(partial);
+            snapshots.add(new ArrayList<>(finalBars.subList(0, n)));
+        }
+        return snapshots;
+    }
+
+    @Test
+    void testSessionVwapMatchesBatchOnEveryRefresh() {
+        List<HistoricalData> session = randomSession("2025-01-15", 375, true, 42);
+        VwapAccumulator acc = VwapAccumulator.sessionAnchored();
+
+        for (List<HistoricalData> snapshot : refreshSnapshots(session)) {
+            acc.sync(snapshot);
+            BigDecimal expected = batchSessionVwap(snapshot);
+            if (expected == null) {
+                assertTrue(Double.isNaN(acc.getVwap()));
+            } else {
+                assertEquals(expected.doubleValue(), acc.getVwap(), SESSION_TOLERANCE, "bars=" + snapshot.size());
+            }
+            assertEquals(snapshot.size(), acc.getBarCount());
+        }
+    }
+
+    @Test
+    void testWindowedVwapMatchesV3Batch() {
+        List<HistoricalData> session = randomSession("2025-01-15", 120, true, 7);
+        VwapAccumulator acc = VwapAccumulator.windowed(V3_WINDOW);
+
+        for (List<HistoricalData> snapshot : refreshSnapshots(session)) {
+            acc.sync(snapshot);
+            assertEquals(batchWindowVwap(snapshot, V3_WINDOW), windowValue(acc), 1e-6, "bars=" + snapshot.size());
+            assertEquals(Math.min(V3_WINDOW, snapshot.size()), acc.getBarCount());
+        }
+    }
+
+    @Test
+    void testWindowedTypicalPriceMeanForVolumelessIndex() {
+        List<HistoricalData> session = randomSession("2025-01-15", 60, false, 11);
+        VwapAccumulator acc = VwapAccumulator.windowed(V3_WINDOW);
+
+        for (List<HistoricalData> snapshot : refreshSnapshots(session)) {
+            acc.sync(snapshot);
+            assertTrue(Double.isNaN(acc.getVwap()), "index has no volume");
+            assertEquals(batchWindowVwap(snapshot, V3_WINDOW), acc.getTypicalPriceMean(), 1e-9);
+        }
+    }
+
+    @Test
+    void testNewSessionResetsSums() {
+        VwapAccumulator acc = VwapAccumulator.sessionAnchored();
+        acc.sync(randomSession("2025-01-15", 300, true, 1));
+
+        List<HistoricalData> nextDay = randomSession("2025-01-16", 5, true, 2);
+        acc.sync(nextDay);
+
+        assertEquals(batchSessionVwap(nextDay).doubleValue(), acc.getVwap(), SESSION_TOLERANCE);
+        assertEquals(5, acc.getBarCount());
+    }
+
+    @Test
+    void testRewrittenListTriggersRebuild() {
+        VwapAccumulator acc = VwapAccumulator.sessionAnchored();
+        List<HistoricalData> original = randomSession("2025-01-15", 30, true, 3);
+        acc.sync(original);
+
+        // Same first bar, but a bar inside the consumed range is gone (gap in a re-fetched list)
+        List<HistoricalData> rewritten = new ArrayList<>(randomSession("2025-01-15", 40, true, 3));
+        rewritten.remove(10);
+        acc.sync(rewritten);
+
+        assertEquals(batchSessionVwap(rewritten).doubleValue(), acc.getVwap(), SESSION_TOLERANCE);
+    }
+
+    @Test
+    void testCandlesWithoutTimestampsAreRecomputedEachTime() {
+        VwapAccumulator acc = VwapAccumulator.windowed(V3_WINDOW);
+        List<HistoricalData> a = new ArrayList<>();
+        List<HistoricalData> b = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            a.add(candle(null, 101 + i, 99 + i, 100 + i, 0));
+            b.add(candle(null, 201 + i, 199 + i, 200 + i, 0));
+        }
+        acc.sync(a);
+        assertEquals(batchWindowVwap(a, V3_WINDOW), acc.getTypicalPriceMean(), 1e-9);
+        acc.sync(b);
+        assertEquals(batchWindowVwap(b, V3_WINDOW), acc.getTypicalPriceMean(), 1e-9);
+    }
+
+    @Test
+    void testTradeUpdatesAndEmptyState() {
+        VwapAccumulator acc = VwapAccumulator.sessionAnchored();
+        assertTrue(Double.isNaN(acc.getVwap()));
+        assertTrue(Double.isNaN(acc.getTypicalPriceMean()));
+
+        acc.add(100.0, 10);
+        acc.add(110.0, 30);
+        acc.add(120.0, 0);
+        assertEquals((100.0 * 10 + 110.0 * 30) / 40.0, acc.getVwap(), 1e-12);
+        assertEquals(40.0, acc.getVolume());
+
+        acc.reset();
+        assertEquals(0, acc.getBarCount());
+        assertTrue(Double.isNaN(acc.getVwap()));
+    }
+
+    @Test
+    void testInvalidWindowRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VwapAccumulator.windowed(0));
+    }
+}
@@ -0,0 +1,116 @@
+package com.tradingbot.service.order;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.zerodhatech.models.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.tradingbot.service.TradingConstants.STATUS_COMPLETE;
+import static com.tradingbot.service.TradingConstants.STATUS_REJECTED;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for OrderStateCache — final states are sticky, waits happen only while the stream is live
+ * and a silent stream falls back to the caller after the timeout.
+ */
+class OrderStateCacheTest {
+
+    private static final String USER = "cache-user";
+
+    private OrderStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        TickPipelineConfig config = new TickPipelineConfig();
+        config.setOrderUpdateTimeoutMs(100);
+        cache = new OrderStateCache(config);
+    }
+
+    private static Order order(String orderId, String status, String averagePrice) {
+        Order order = new Order();
+        order.orderId = orderId;
+        order.status = status;
+        order.averagePrice = averagePrice;
+        return order;
+    }
+
+    @Test
+    void testFinalStateIsNotReplacedByLateOpenUpdate() {
+        cache.onOrderUpdate(USER, order("O1", "OPEN", "0"));
+        assertEquals("OPEN", cache.latest(USER, "O1").status);
+
+        cache.onOrderUpdate(USER, order("O1", STATUS_COMPLETE, "101.5"));
+        cache.onOrderUpdate(USER, order("O1", "OPEN", "0"));
+
+        Order latest = cache.latest(USER, "O1");
+        assertEquals(STATUS_COMPLETE, latest.status);
+        assertEquals("101.5", latest.averagePrice);
+        assertSame(latest, cache.awaitFinalState(USER, "O1"));
+    }
+
+    @Test
+    void testNoWaitWhileStreamIsNotLive() {
+        long start = System.nanoTime();
+        assertNull(cache.awaitFinalState(USER, "O2"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1L, cache.toMap().get("notStreaming"));
+    }
+
+    @Test
+    void testSilentStreamTimesOut() {
+        cache.setStreamLive(USER, true);
+        cache.onOrderUpdate(USER, order("O3", "OPEN", "0"));
+
+        assertNull(cache.awaitFinalState(USER, "O3"));
+        assertEquals(1L, cache.toMap().get("silentTimeouts"));
+    }
+
+    @Test
+    void testWaiterReceivesFinalUpdateFromStream() throws Exception {
+        cache.setStreamLive(USER, true);
+        CompletableFuture<Order> waiter = CompletableFuture.supplyAsync(() -> cache.awaitFinalState(USER, "O4"));
+        Thread.sleep(20);
+
+        cache.onOrderUpdate(USER, order("O4", STATUS_REJECTED, "0"));
+
+        Order order = waiter.get(1, TimeUnit.SECONDS);
+        assertNotNull(order);
+        assertEquals(STATUS_REJECTED, order.status);
+    }
+
+    @Test
+    void testOldestOrdersAreEvictedFinalOrNot() {
+        int limit = OrderStateCache.MAX_ORDERS_PER_USER;
+        // Never reaches a final state: must still age out
+        cache.onOrderUpdate(USER, order("STUCK", "OPEN", "0"));
+        for (int i = 0; i < limit; i++) {
+            cache.onOrderUpdate(USER, order("F" + i, i % 2 == 0 ? STATUS_COMPLETE : "OPEN", "1.0"));
+        }
+
+        assertEquals(limit, cache.size(USER));
+        assertNull(cache.latest(USER, "STUCK"));
+        assertNotNull(cache.latest(USER, "F0"));
+        assertNotNull(cache.latest(USER, "F" + (limit - 1)));
+
+        // Updating an existing order does not move it or evict anything
+        cache.onOrderUpdate(USER, order("F1", STATUS_COMPLETE, "2.0"));
+        cache.onOrderUpdate(USER, order("NEW", "OPEN", "0"));
+        assertNull(cache.latest(USER, "F0"));
+        assertEquals("2.0", cache.latest(USER, "F1").averagePrice);
+        assertEquals(limit, cache.size(USER));
+    }
+
+    @Test
+    void testClearDropsUserState() {
+        cache.setStreamLive(USER, true);
+        cache.onOrderUpdate(USER, order("O5", STATUS_COMPLETE, "99.0"));
+
+        cache.clear(USER);
+
+        assertFalse(cache.isStreamLive(USER));
+        assertNull(cache.latest(USER, "O5"));
+    }
+}
@@ -0,0 +1,312 @@
+package com.tradingbot.service.strategy;
+
+import com.tradingbot.config.StrategyConfig;
+import com.tradingbot.dto.OrderRequest;
+import com.tradingbot.dto.OrderResponse;
+import com.tradingbot.paper.PaperTradingService;
+import com.tradingbot.service.UnifiedTradingService;
+import com.tradingbot.service.strategy.monitoring.PositionMonitorV2;
+import com.tradingbot.util.TradingClock;
+import com.tradingbot.util.VirtualClock;
+import com.zerodhatech.kiteconnect.kitehttp.exceptions.KiteException;
+import com.zerodhatech.models.Order;
+import com.zerodhatech.models.Tick;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.tradingbot.service.TradingConstants.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ProtectiveStopService — stop placement, rate-limited modification, release of filled
+ * vs cancelled stops and closing the position when a stop fill is detected. The sync loop is
+ * driven by calling {@code syncAll} directly under a virtual clock.
+ */
+class ProtectiveStopServiceTest {
+
+    private static final String USER = "stop-user";
+    private static final String EXECUTION_ID = "exec-stops";
+    private static final String CALL_SYMBOL = "NIFTY24350CE";
+    private static final String PUT_SYMBOL = "NIFTY24350PE";
+    private static final String CALL_ORDER_ID = "call-order-1";
+    private static final String PUT_ORDER_ID = "put-order-1";
+    private static final String CALL_STOP_ID = "STOP-" + CALL_SYMBOL;
+    private static final String PUT_STOP_ID = "STOP-" + PUT_SYMBOL;
+    private static final long START_NANOS = TimeUnit.SECONDS.toNanos(1_700_000_000L);
+
+    private VirtualClock clock;
+    private StrategyConfig config;
+    private UnifiedTradingService tradingService;
+    private ProtectiveStopService service;
+    private PositionMonitorV2 monitor;
+    private AtomicInteger exits;
+    private AtomicReference<String> exitReason;
+
+    @BeforeEach
+    void setUp() throws KiteException, IOException {
+        clock = new VirtualClock(START_NANOS);
+        TradingClock.install(clock);
+
+        config = new StrategyConfig();
+        config.setProtectiveStopsEnabled(true);
+        // Passes are driven by the test; keep the background loop from running one
+        config.setProtectiveStopSyncIntervalMs(TimeUnit.HOURS.toMillis(1));
+        config.setProtectiveStopModifyIntervalMs(3_000);
+        config.setProtectiveStopMinMovePoints(0.5);
+
+        tradingService = mock(UnifiedTradingService.class);
+        when(tradingService.isPaperTradingEnabled()).thenReturn(false);
+        when(tradingService.placeOrder(any(OrderRequest.class))).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            return new OrderResponse("STOP-" + request.getTradingSymbol(), STATUS_SUCCESS, null);
+        });
+        when(tradingService.modifyOrder(anyString(), any(OrderRequest.class)))
+                .thenAnswer(invocation -> new OrderResponse(invocation.getArgument(0), STATUS_SUCCESS, null));
+        service = new ProtectiveStopService(tradingService, mock(PaperTradingService.class), config);
+
+        // Short straddle, 3 points stop loss: each leg's stop sits 3 points above its entry
+        monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+        monitor.addLeg(CALL_ORDER_ID, CALL_SYMBOL, 12345L, 100.0, 50, "CE");
+        monitor.addLeg(PUT_ORDER_ID, PUT_SYMBOL, 12346L, 80.0, 50, "PE");
+        monitor.setOwnerUserId(USER);
+        exits = new AtomicInteger();
+        exitReason = new AtomicReference<>();
+        monitor.setExitCallback(reason -> {
+            exits.incrementAndGet();
+            exitReason.set(reason);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        TradingClock.reset();
+    }
+
+    private void advanceMillis(long millis) {
+        clock.advanceTo(clock.epochNanos() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private void tick(double callPrice, double putPrice) {
+        ArrayList<Tick> ticks = new ArrayList<>();
+        Tick call = new Tick();
+        call.setInstrumentToken(12345L);
+        call.setLastTradedPrice(callPrice);
+        ticks.add(call);
+        Tick put = new Tick();
+        put.setInstrumentToken(12346L);
+        put.setLastTradedPrice(putPrice);
+        ticks.add(put);
+        monitor.updatePriceWithDifferenceCheck(ticks);
+    }
+
+    private static Order order(String status, String averagePrice) {
+        Order order = new Order();
+        order.status = status;
+        order.averagePrice = averagePrice;
+        return order;
+    }
+
+    private OrderRequest placedStop(String symbol) throws KiteException, IOException {
+        ArgumentCaptor<OrderRequest> requests = ArgumentCaptor.forClass(OrderRequest.class);
+        verify(tradingService, atLeastOnce()).placeOrder(requests.capture());
+        return requests.getAllValues().stream()
+                .filter(request -> symbol.equals(request.getTradingSymbol()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // ==================== PLACEMENT ====================
+
+    @Test
+    void testArmThenSyncPlacesSlmBuyStopAtProtectiveStopPrice() throws KiteException, IOException {
+        service.arm(monitor);
+        service.syncAll();
+
+        verify(tradingService, times(2)).placeOrder(any(OrderRequest.class));
+        OrderRequest callStop = placedStop(CALL_SYMBOL);
+        assertEquals(TRANSACTION_BUY, callStop.getTransactionType());
+        assertEquals(ORDER_TYPE_SL_M, callStop.getOrderType());
+        assertEquals(monitor.protectiveStopPrice(CALL_SYMBOL), callStop.getTriggerPrice(), 1e-9);
+        assertEquals(103.0, callStop.getTriggerPrice(), 1e-9);
+        assertNull(callStop.getPrice());
+        assertEquals(50, callStop.getQuantity());
+        assertEquals(83.0, placedStop(PUT_SYMBOL).getTriggerPrice(), 1e-9);
+        assertEquals(2, service.restingStopCount());
+
+        // A leg is never given a second stop
+        service.syncAll();
+        verify(tradingService, times(2)).placeOrder(any(OrderRequest.class));
+    }
+
+    @Test
+    void testSlOrderTypeAddsLimitBuffer() throws KiteException, IOException {
+        config.setProtectiveStopOrderType(ORDER_TYPE_SL);
+        config.setProtectiveStopLimitBufferPoints(5.0);
+
+        service.arm(monitor);
+        service.syncAll();
+
+        OrderRequest callStop = placedStop(CALL_SYMBOL);
+        assertEquals(ORDER_TYPE_SL, callStop.getOrderType());
+        assertEquals(103.0, callStop.getTriggerPrice(), 1e-9);
+        assertEquals(108.0, callStop.getPrice(), 1e-9);
+    }
+
+    @Test
+    void testNothingPlacedWhenDisabled() throws KiteException, IOException {
+        config.setProtectiveStopsEnabled(false);
+
+        service.arm(monitor);
+        service.syncAll();
+
+        verify(tradingService, never()).placeOrder(any(OrderRequest.class));
+    }
+
+    // ==================== MODIFICATION ====================
+
+    @Test
+    void testNoModifyInsideIntervalOrBelowMinMove() throws KiteException, IOException {
+        service.arm(monitor);
+        service.syncAll();
+
+        // Call 1 point against the position: the put's stop level drops 83 -> 82
+        tick(101.0, 80.0);
+        advanceMillis(1_000);
+        service.syncAll();
+        verify(tradingService, never()).modifyOrder(anyString(), any(OrderRequest.class));
+
+        advanceMillis(2_500);
+        service.syncAll();
+        ArgumentCaptor<OrderRequest> modify = ArgumentCaptor.forClass(OrderRequest.class);
+        verify(tradingService, times(1)).modifyOrder(eq(PUT_STOP_ID), modify.capture());
+        assertEquals(82.0, modify.getValue().getTriggerPrice(), 1e-9);
+
+        // 0.25 points is below min-move-points, however long since the last modify
+        tick(101.25, 80.0);
+        advanceMillis(10_000);
+        service.syncAll();
+        verify(tradingService, times(1)).modifyOrder(anyString(), any(OrderRequest.class));
+
+        tick(102.0, 80.0);
+        service.syncAll();
+        verify(tradingService, times(2)).modifyOrder(eq(PUT_STOP_ID), any(OrderRequest.class));
+        verify(tradingService, never()).modifyOrder(eq(CALL_STOP_ID), any(OrderRequest.class));
+    }
+
+    @Test
+    void testModificationsStopAtMaxModifications() throws KiteException, IOException {
+        config.setProtectiveStopMaxModifications(1);
+        service.arm(monitor);
+        service.syncAll();
+
+        tick(101.0, 80.0);
+        advanceMillis(5_000);
+        service.syncAll();
+        tick(102.0, 80.0);
+        advanceMillis(5_000);
+        service.syncAll();
+
+        verify(tradingService, times(1)).modifyOrder(eq(PUT_STOP_ID), any(OrderRequest.class));
+    }
+
+    // ==================== RELEASE ====================
+
+    @Test
+    void testReleaseOfRestingStopCancelsIt() throws KiteException, IOException {
+        when(tradingService.cancelOrder(CALL_STOP_ID)).thenReturn(new OrderResponse(CALL_STOP_ID, STATUS_SUCCESS, null));
+        service.arm(monitor);
+        service.syncAll();
+
+        ProtectiveStopService.Release release = service.release(CALL_ORDER_ID);
+
+        assertFalse(release.filled());
+        assertSame(ProtectiveStopService.Release.NONE, release);
+        verify(tradingService, times(1)).cancelOrder(CALL_STOP_ID);
+        verify(tradingService, never()).getFinalOrderState(anyString());
+        assertEquals(1, service.restingStopCount());
+
+        // Idempotent: a second release neither cancels again nor reports a fill
+        assertFalse(service.release(CALL_ORDER_ID).filled());
+        verify(tradingService, times(1)).cancelOrder(CALL_STOP_ID);
+    }
+
+    @Test
+    void testReleaseOfFilledStopReturnsItsFill() throws KiteException, IOException {
+        when(tradingService.cancelOrder(PUT_STOP_ID)).thenReturn(new OrderResponse(PUT_STOP_ID, STATUS_FAILED, "Order already executed"));
+        when(tradingService.getFinalOrderState(PUT_STOP_ID)).thenReturn(order(STATUS_COMPLETE, "83.40"));
+        service.arm(monitor);
+        service.syncAll();
+
+        ProtectiveStopService.Release release = service.release(PUT_ORDER_ID);
+
+        assertTrue(release.filled());
+        assertEquals(PUT_STOP_ID, release.stopOrderId());
+        assertEquals(83.4, release.fillPrice(), 1e-9);
+
+        // Same outcome by leg symbol (leg replacement path), without another cancel
+        ProtectiveStopService.Release bySymbol = service.releaseLeg(EXECUTION_ID, PUT_SYMBOL);
+        assertEquals(release, bySymbol);
+        verify(tradingService, times(1)).cancelOrder(PUT_STOP_ID);
+    }
+
+    @Test
+    void testReleaseWithoutStopIsNone() {
+        assertSame(ProtectiveStopService.Release.NONE, service.release(CALL_ORDER_ID));
+        assertSame(ProtectiveStopService.Release.NONE, service.release(null));
+        assertSame(ProtectiveStopService.Release.NONE, service.releaseLeg(EXECUTION_ID, CALL_SYMBOL));
+    }
+
+    // ==================== FILL DETECTION ====================
+
+    @Test
+    void testDetectedFillExitsPositionOnce() throws KiteException, IOException {
+        monitor = spy(monitor);
+        service.arm(monitor);
+        service.syncAll();
+        assertEquals(0, exits.get());
+
+        // The stop filled at the exchange while no tick reached the monitor
+        when(tradingService.getLatestOrderState(eq(CALL_STOP_ID), anyBoolean())).thenReturn(order(STATUS_COMPLETE, "103.40"));
+        advanceMillis(250);
+        service.syncAll();
+
+        assertFalse(monitor.isActive());
+        assertEquals(1, exits.get());
+        assertEquals("PROTECTIVE_STOP_HIT: " + CALL_SYMBOL + " filled @ 103.4", exitReason.get());
+
+        advanceMillis(250);
+        service.syncAll();
+        verify(monitor, times(1)).exitNow(anyString());
+        assertEquals(1, exits.get());
+        assertTrue(service.release(CALL_ORDER_ID).filled());
+        verify(tradingService, never()).cancelOrder(CALL_STOP_ID);
+    }
+
+    @Test
+    void testStopReachedInProcessRequestsExitOnNextTick() throws KiteException, IOException {
+        service.arm(monitor);
+        service.syncAll();
+
+        // Put reaches its 83 stop while the call falls: the position is 2 points down, short of its SL
+        tick(99.0, 83.0);
+        service.syncAll();
+        assertTrue(monitor.isActive());
+        assertEquals(0, exits.get());
+
+        tick(99.0, 83.0);
+        assertFalse(monitor.isActive());
+        assertEquals(1, exits.get());
+        assertTrue(exitReason.get().startsWith("PROTECTIVE_STOP_HIT: " + PUT_SYMBOL));
+    }
+}
@@ -0,0 +1,93 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end test of KiteBinaryTickClient against {@link KiteStubWebSocketServer}: control
+ * messages on the wire, recorded frames decoded into the reused batch and order-update text
+ * messages parsed into Kite orders.
+ */
+class KiteBinaryTickClientTest {
+
+    private KiteStubWebSocketServer server;
+    private KiteBinaryTickClient client;
+    private final BlockingQueue<String> ticks = new LinkedBlockingQueue<>();
+    private final BlockingQueue<Order> orderUpdates = new LinkedBlockingQueue<>();
+    private final CountDownLatch connected = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new KiteStubWebSocketServer();
+        client = new KiteBinaryTickClient(server.uri(),
+                batch -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        ticks.add(batch.tokens()[i] + "=" + batch.prices()[i]);
+                    }
+                },
+                orderUpdates::add,
+                connected::countDown, () -> { }, Throwable::printStackTrace);
+        client.connect();
+        assertTrue(connected.await(5, TimeUnit.SECONDS));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.disconnect();
+        server.close();
+    }
+
+    @Test
+    void testControlMessagesUseKiteProtocol() throws Exception {
+        client.subscribe(new ArrayList<>(List.of(256265L, 260105L)));
+        client.setMode(new ArrayList<>(List.of(256265L)), "ltp");
+        client.unsubscribe(new ArrayList<>(List.of(260105L)));
+
+        assertEquals("{\"a\":\"subscribe\",\"v\":[256265, 260105]}", server.pollText(5, TimeUnit.SECONDS));
+        assertEquals("{\"a\":\"mode\",\"v\":[\"ltp\",[256265]]}", server.pollText(5, TimeUnit.SECONDS));
+        assertEquals("{\"a\":\"unsubscribe\",\"v\":[260105]}", server.pollText(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRecordedFramesAreDecodedInOrder() throws Exception {
+        server.sendBinary(KiteFrames.heartbeat());
+        server.sendBinary(KiteFrames.frame(KiteFrames.LTP_PACKET, new long[]{256265L}, new double[]{24512.35}));
+        server.sendBinary(KiteFrames.frame(KiteFrames.FULL_PACKET,
+                new long[]{12345609L, 12345610L}, new double[]{101.5, 98.25}));
+
+        assertEquals("256265=24512.35", ticks.poll(5, TimeUnit.SECONDS));
+        assertEquals("12345609=101.5", ticks.poll(5, TimeUnit.SECONDS));
+        assertEquals("12345610=98.25", ticks.poll(5, TimeUnit.SECONDS));
+        assertNull(ticks.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testOrderUpdateTextMessagesReachTheOrderHandler() throws Exception {
+        server.sendText("{\"type\":\"error\",\"data\":\"Invalid mode\"}");
+        server.sendText("{\"type\":\"order\",\"data\":{\"order_id\":\"240101000012345\","
+                + "\"status\":\"COMPLETE\",\"tradingsymbol\":\"NIFTY24JAN21500CE\",\"transaction_type\":\"BUY\","
+                + "\"quantity\":75,\"filled_quantity\":75,\"price\":0,\"average_price\":101.5,"
+                + "\"status_message\":null}}");
+
+        Order order = orderUpdates.poll(5, TimeUnit.SECONDS);
+        assertNotNull(order);
+        assertEquals("240101000012345", order.orderId);
+        assertEquals("COMPLETE", order.status);
+        assertEquals("NIFTY24JAN21500CE", order.tradingSymbol);
+        assertEquals(101.5, Double.parseDouble(order.averagePrice), 1e-9);
+        assertEquals("75", order.filledQuantity);
+        assertNull(order.statusMessage);
+        assertNull(orderUpdates.poll(200, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,54 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for KiteBinaryTickDecoder — packet modes, segment price divisors, heartbeats and
+ * truncated frames.
+ */
+class KiteBinaryTickDecoderTest {
+
+    private final DecodedTickBatch batch = new DecodedTickBatch(2);
+
+    @Test
+    void testDecodesTokenAndLtpInEveryMode() {
+        long[] tokens = {256265L, 12345609L, 8963586L};
+        double[] prices = {24512.35, 101.5, 0.05};
+        for (int packetLength : new int[]{KiteFrames.LTP_PACKET, 28, 32, KiteFrames.QUOTE_PACKET, KiteFrames.FULL_PACKET}) {
+            ByteBuffer frame = ByteBuffer.wrap(KiteFrames.frame(packetLength, tokens, prices));
+
+            assertEquals(3, KiteBinaryTickDecoder.decode(frame, batch, 42L), "packet length " + packetLength);
+            assertArrayEquals(tokens, Arrays.copyOf(batch.tokens(), 3));
+            assertArrayEquals(prices, Arrays.copyOf(batch.prices(), 3), 1e-9);
+            assertEquals(42L, batch.timestamps()[2]);
+            assertFalse(frame.hasRemaining());
+        }
+    }
+
+    @Test
+    void testCurrencySegmentsUseTheirDivisors() {
+        long cdsToken = (1234L << 8) | 3;
+        long bcdToken = (1234L << 8) | 6;
+        ByteBuffer frame = ByteBuffer.wrap(KiteFrames.frame(KiteFrames.LTP_PACKET,
+                new long[]{cdsToken, bcdToken}, new double[]{83.1234567, 83.1234}));
+
+        assertEquals(2, KiteBinaryTickDecoder.decode(frame, batch, 0L));
+        assertEquals(83.1234567, batch.prices()[0], 1e-9);
+        assertEquals(83.1234, batch.prices()[1], 1e-9);
+    }
+
+    @Test
+    void testHeartbeatAndTruncatedFrames() {
+        assertEquals(0, KiteBinaryTickDecoder.decode(ByteBuffer.wrap(KiteFrames.heartbeat()), batch, 0L));
+
+        byte[] full = KiteFrames.frame(KiteFrames.QUOTE_PACKET, new long[]{1L, 2L}, new double[]{1.0, 2.0});
+        ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(full, full.length - 10));
+        assertEquals(1, KiteBinaryTickDecoder.decode(truncated, batch, 0L));
+        assertEquals(1L, batch.tokens()[0]);
+    }
+}
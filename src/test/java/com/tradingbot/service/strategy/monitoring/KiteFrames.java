@@ -0,0 +1,35 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Builds Kite binary WebSocket frames for tests and benchmarks ("recorded" frames).
+ * Only token and LTP are filled in; the remaining packet bytes are zero.
+ */
+public final class KiteFrames {
+
+    public static final int LTP_PACKET = 8;
+    public static final int QUOTE_PACKET = 44;
+    public static final int FULL_PACKET = 184;
+
+    private KiteFrames() {
+    }
+
+    /** One frame with a packet of {@code packetLength} bytes per (token, price). Prices in rupees. */
+    public static byte[] frame(int packetLength, long[] tokens, double[] prices) {
+        ByteBuffer buffer = ByteBuffer.allocate(2 + tokens.length * (2 + packetLength));
+        buffer.putShort((short) tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            int start = buffer.position() + 2;
+            buffer.putShort((short) packetLength);
+            buffer.putInt((int) tokens[i]);
+            buffer.putInt((int) Math.round(prices[i] * KiteBinaryTickDecoder.divisor(tokens[i])));
+            buffer.position(start + packetLength);
+        }
+        return buffer.array();
+    }
+
+    public static byte[] heartbeat() {
+        return new byte[]{0};
+    }
+}
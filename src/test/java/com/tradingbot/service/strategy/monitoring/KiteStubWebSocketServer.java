@@ -0,0 +1,178 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimal local WebSocket server (RFC 6455, one client) that stands in for ws.kite.trade: it
+ * emits recorded binary frames and text messages on demand and records the client's text messages
+ * (subscribe / mode / unsubscribe). Lets {@link KiteBinaryTickClient} be tested and
+ * benchmarked offline.
+ */
+public final class KiteStubWebSocketServer implements AutoCloseable {
+
+    private static final String WS_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<String> receivedText = new LinkedBlockingQueue<>();
+    private final Thread acceptThread;
+    private volatile Socket client;
+    private volatile OutputStream out;
+
+    public KiteStubWebSocketServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptAndRead, "kite-stub-ws");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    public URI uri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/");
+    }
+
+    /** Next text message sent by the client, or null after the timeout. */
+    public String pollText(long timeout, TimeUnit unit) throws InterruptedException {
+        return receivedText.poll(timeout, unit);
+    }
+
+    /** Send one recorded frame as a single unmasked binary WebSocket message. */
+    public synchronized void sendBinary(byte[] payload) throws IOException {
+        OutputStream os = awaitClient();
+        os.write(0x82);
+        writeLength(os, payload.length);
+        os.write(payload);
+        os.flush();
+    }
+
+    /** Send one unmasked text WebSocket message (order updates, errors). */
+    public synchronized void sendText(String message) throws IOException {
+        byte[] payload = message.getBytes(StandardCharsets.UTF_8);
+        OutputStream os = awaitClient();
+        os.write(0x81);
+        writeLength(os, payload.length);
+        os.write(payload);
+        os.flush();
+    }
+
+    private OutputStream awaitClient() throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (out == null) {
+            if (System.nanoTime() > deadline) throw new IOException("No client connected");
+            Thread.onSpinWait();
+        }
+        return out;
+    }
+
+    private static void writeLength(OutputStream os, int length) throws IOException {
+        if (length < 126) {
+            os.write(length);
+        } else if (length < 65_536) {
+            os.write(126);
+            os.write(length >>> 8);
+            os.write(length);
+        } else {
+            os.write(127);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                os.write((int) ((long) length >>> shift));
+            }
+        }
+    }
+
+    private void acceptAndRead() {
+        try (Socket socket = serverSocket.accept()) {
+            client = socket;
+            InputStream in = socket.getInputStream();
+            OutputStream os = socket.getOutputStream();
+            handshake(in, os);
+            out = os;
+            readFrames(new DataInputStream(in));
+        } catch (IOException e) {
+            // Closed by the test
+        }
+    }
+
+    private static void handshake(InputStream in, OutputStream os) throws IOException {
+        String key = null;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) throw new IOException("Missing Sec-WebSocket-Key");
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        os.write(response.getBytes(StandardCharsets.US_ASCII));
+        os.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') line.write(b);
+        }
+        if (b == -1 && line.size() == 0) throw new IOException("Connection closed during handshake");
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            byte[] sha1 = MessageDigest.getInstance("SHA-1")
+                    .digest((key + WS_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(sha1);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Client frames are always masked. Text messages are recorded; close ends the loop. */
+    private void readFrames(DataInputStream in) throws IOException {
+        while (true) {
+            int b0 = in.readUnsignedByte();
+            int b1 = in.readUnsignedByte();
+            int opcode = b0 & 0x0F;
+            long length = b1 & 0x7F;
+            if (length == 126) length = in.readUnsignedShort();
+            else if (length == 127) length = in.readLong();
+            byte[] mask = new byte[4];
+            if ((b1 & 0x80) != 0) in.readFully(mask);
+            byte[] payload = new byte[(int) length];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) payload[i] ^= mask[i & 3];
+            if (opcode == 0x1) {
+                receivedText.add(new String(payload, StandardCharsets.UTF_8));
+            } else if (opcode == 0x8) {
+                synchronized (this) {
+                    out.write(0x88);
+                    out.write(0);
+                    out.flush();
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Socket s = client;
+        if (s != null) s.close();
+        serverSocket.close();
+    }
+}
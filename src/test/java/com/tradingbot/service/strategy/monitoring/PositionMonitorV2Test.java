@@ -3,13 +3,18 @@ package com.tradingbot.service.strategy.monitoring;
 import com.tradingbot.model.SlTargetMode;
 import com.tradingbot.service.strategy.monitoring.exit.*;
 import com.zerodhatech.models.Tick;
+import com.tradingbot.util.TradingClock;
+import com.tradingbot.util.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -481,5 +486,212 @@ class PositionMonitorV2Test {
             assertTrue(monitor.isActive());
         }
     }
-}
 
+    @Nested
+    @DisplayName("Trigger Band Tests")
+    class TriggerBandTests {
+
+        @AfterEach
+        void resetClock() {
+            TradingClock.reset();
+        }
+
+        @Test
+        @DisplayName("Exit on an exact band edge after in-band ticks")
+        void shouldExitOnBandEdgeAfterInBandTicks() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.setExitCallback(reason -> exitReason.set(reason));
+
+            // Arms the band, then moves inside it
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0));
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.0, 80.0));
+            monitor.updatePriceWithDifferenceCheck(createTicks(101.0, 80.5));
+            assertTrue(monitor.isActive());
+
+            // Cumulative P&L exactly +2.0 = target
+            monitor.updatePriceWithDifferenceCheck(createTicks(99.0, 79.0));
+
+            assertFalse(monitor.isActive());
+            assertTrue(exitReason.get().contains("CUMULATIVE_TARGET_HIT"));
+        }
+
+        @Test
+        @DisplayName("Trailing stop activation and high-water marks move the band")
+        void shouldFollowTrailingStopState() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 5.0, PositionMonitorV2.PositionDirection.SHORT,
+                    true, 1.0, 0.5);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.setExitCallback(reason -> exitReason.set(reason));
+
+            monitor.updatePriceWithDifferenceCheck(createTicks(99.5, 80.0));  // P&L 0.5
+            monitor.updatePriceWithDifferenceCheck(createTicks(99.0, 80.0));  // 1.0: activates
+            assertTrue(monitor.getTrailingStopStrategy().isActivated());
+            monitor.updatePriceWithDifferenceCheck(createTicks(98.5, 80.0));  // 1.5: new HWM, trail 1.0
+            assertEquals(1.5, monitor.getTrailingStopStrategy().getHighWaterMark(), 1e-9);
+            monitor.updatePriceWithDifferenceCheck(createTicks(98.8, 80.0));  // 1.2: inside band
+            assertTrue(monitor.isActive());
+
+            monitor.updatePriceWithDifferenceCheck(createTicks(99.0, 80.0));  // 1.0: trail hit
+
+            assertFalse(monitor.isActive());
+            assertTrue(exitReason.get().contains("TRAILING_STOPLOSS_HIT"));
+        }
+
+        @Test
+        @DisplayName("Threshold changes invalidate the band")
+        void shouldReevaluateAfterEntryPremiumChange() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 2.0, 2.0, PositionMonitorV2.PositionDirection.SHORT,
+                    false, 0, 0, false, null, true, COMBINED_ENTRY, 0.05, 0.10, SlTargetMode.PREMIUM);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.setExitCallback(reason -> exitReason.set(reason));
+
+            monitor.updatePriceWithDifferenceCheck(createTicks(95.0, 80.0)); // 175: between 171 and 198
+            assertTrue(monitor.isActive());
+
+            // Target level becomes 190 * 0.95 = 180.5; unchanged prices are now below it
+            monitor.setEntryPremium(190.0);
+            monitor.updatePriceWithDifferenceCheck(createTicks(95.0, 80.0));
+
+            assertFalse(monitor.isActive());
+            assertTrue(exitReason.get().contains("PREMIUM_DECAY_TARGET_HIT"));
+        }
+
+        @Test
+        @DisplayName("Forced exit fires while prices stay inside the band")
+        void shouldForceExitInsideBand() {
+            long beforeCutoff = ZonedDateTime.of(2025, 3, 19, 15, 9, 58, 0, TradingClock.IST)
+                    .toInstant().toEpochMilli() * 1_000_000L;
+            VirtualClock clock = new VirtualClock(beforeCutoff);
+            TradingClock.install(clock);
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT,
+                    false, 0, 0, true, LocalTime.of(15, 10), false, 0, 0, 0, SlTargetMode.POINTS);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.setExitCallback(reason -> exitReason.set(reason));
+
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0));
+            assertTrue(monitor.isActive());
+
+            clock.advanceTo(beforeCutoff + 5_000_000_000L);
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0));
+
+            assertFalse(monitor.isActive());
+            assertTrue(exitReason.get().contains("TIME_BASED_FORCED_EXIT"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Protective Stop Level Tests")
+    class ProtectiveStopLevelTests {
+
+        @Test
+        @DisplayName("Points mode: each short leg's stop uses the remaining SL headroom")
+        void shouldPlaceStopAtRemainingPointsHeadroom() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+
+            assertEquals(103.0, monitor.protectiveStopPrice("NIFTY24350CE"), 1e-9);
+
+            // Call moved against the position by 1 point: 2 points left for the put
+            monitor.updatePriceWithDifferenceCheck(createTicks(101.0, 80.0));
+            assertEquals(82.0, monitor.protectiveStopPrice("NIFTY24350PE"), 1e-9);
+            assertTrue(Double.isNaN(monitor.protectiveStopPrice("UNKNOWN")));
+        }
+
+        @Test
+        @DisplayName("Premium mode: stop at the SL premium level; hedge legs get none")
+        void shouldPlaceStopAtPremiumLevelAndSkipHedges() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 2.0, 2.0, PositionMonitorV2.PositionDirection.SHORT,
+                    false, 0, 0, false, null, true, COMBINED_ENTRY, 0.05, 0.10, SlTargetMode.PREMIUM);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.addLeg("hedge-order-1", "NIFTY25000CE", 12347L, 5.0, 50, "CE", -1.0);
+
+            // Combined premium 175 (net of hedge) vs SL level 198
+            assertEquals(123.0, monitor.protectiveStopPrice("NIFTY24350CE"), 1e-9);
+            assertTrue(Double.isNaN(monitor.protectiveStopPrice("NIFTY25000CE")));
+        }
+
+        @Test
+        @DisplayName("Requested exit fires on the next tick, once")
+        void shouldExitOnNextTickAfterRequest() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            monitor.setExitCallback(reason -> exitReason.set(reason));
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0)); // arms the band
+
+            monitor.requestExit("PROTECTIVE_STOP_HIT: NIFTY24350CE @ 103.0");
+            assertTrue(monitor.isActive());
+
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0));
+
+            assertFalse(monitor.isActive());
+            assertEquals("PROTECTIVE_STOP_HIT: NIFTY24350CE @ 103.0", exitReason.get());
+        }
+
+        @Test
+        @DisplayName("Immediate exit needs no tick and supersedes a pending request")
+        void shouldExitImmediatelyWithoutTick() {
+            monitor = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+            monitor.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+            monitor.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+            AtomicInteger exits = new AtomicInteger();
+            monitor.setExitCallback(reason -> {
+                exits.incrementAndGet();
+                exitReason.set(reason);
+            });
+
+            monitor.requestExit("PROTECTIVE_STOP_HIT: NIFTY24350CE @ 103.0");
+            monitor.exitNow("PROTECTIVE_STOP_HIT: NIFTY24350CE filled @ 103.4");
+
+            assertFalse(monitor.isActive());
+            assertEquals("PROTECTIVE_STOP_HIT: NIFTY24350CE filled @ 103.4", exitReason.get());
+
+            monitor.exitNow("again");
+            monitor.updatePriceWithDifferenceCheck(createTicks(100.5, 80.0));
+            assertEquals(1, exits.get());
+        }
+
+        @Test
+        @DisplayName("Immediate exit racing a tick-triggered exit fires the callback once")
+        void shouldExitOnceWhenImmediateExitRacesTick() throws Exception {
+            ArrayList<Tick> stopLossTicks = createTicks(102.0, 81.0);
+            for (int round = 0; round < 2_000; round++) {
+                PositionMonitorV2 racing = new PositionMonitorV2(EXECUTION_ID, 3.0, 2.0, PositionMonitorV2.PositionDirection.SHORT);
+                racing.addLeg("call-order-1", "NIFTY24350CE", 12345L, CALL_ENTRY, 50, "CE");
+                racing.addLeg("put-order-1", "NIFTY24350PE", 12346L, PUT_ENTRY, 50, "PE");
+                AtomicInteger exits = new AtomicInteger();
+                racing.setExitCallback(reason -> exits.incrementAndGet());
+
+                // Spin gate instead of a latch so both threads leave together; the stop thread's head
+                // start is swept across rounds to cover the tick path's length
+                AtomicInteger ready = new AtomicInteger();
+                int headStart = round % 64;
+                Thread stopSync = new Thread(() -> {
+                    ready.incrementAndGet();
+                    while (ready.get() < 2) Thread.yield();
+                    for (int i = 0; i < headStart; i++) Thread.onSpinWait();
+                    racing.exitNow("PROTECTIVE_STOP_HIT: NIFTY24350CE filled @ 103.4");
+                });
+                Thread tick = new Thread(() -> {
+                    ready.incrementAndGet();
+                    while (ready.get() < 2) Thread.yield();
+                    racing.updatePriceWithDifferenceCheck(stopLossTicks);
+                });
+                stopSync.start();
+                tick.start();
+                stopSync.join();
+                tick.join();
+
+                assertFalse(racing.isActive());
+                assertEquals(1, exits.get(), "exit callback count in round " + round);
+            }
+        }
+    }
+}
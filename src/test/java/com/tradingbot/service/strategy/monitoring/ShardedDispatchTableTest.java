@@ -0,0 +1,141 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.tradingbot.config.TickPipelineConfig;
+import com.zerodhatech.models.Tick;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ShardedDispatchTable and MonitorShardPool — single ownership of each monitor, token
+ * routing masks and end-to-end evaluation on the shard threads.
+ */
+class ShardedDispatchTableTest {
+
+    /** Counts evaluated batches and applied prices on the owning shard thread. */
+    private static final class CountingMonitor extends PositionMonitorV2 {
+        int batches;
+        int priceUpdates;
+        volatile Thread evaluatedOn;
+
+        CountingMonitor(String executionId) {
+            super(executionId, 3.0, 2.0);
+        }
+
+        @Override
+        void applyTickPrice(long instrumentToken, double lastTradedPrice) {
+            priceUpdates++;
+        }
+
+        @Override
+        void evaluateAfterTickBatch() {
+            batches++;
+            evaluatedOn = Thread.currentThread();
+        }
+    }
+
+    private MonitorShardPool pool;
+
+    @BeforeEach
+    void setUp() {
+        TickPipelineConfig config = new TickPipelineConfig();
+        config.setEvaluatorShards(4);
+        config.setParkNanos(10_000);
+        config.setLatencyTracingEnabled(false);
+        pool = new MonitorShardPool(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.stop();
+    }
+
+    private static Map<String, PositionMonitorV2> monitors(int count) {
+        Map<String, PositionMonitorV2> monitors = new HashMap<>();
+        for (int m = 0; m < count; m++) {
+            monitors.put("exec-" + m, new CountingMonitor("exec-" + m));
+        }
+        return monitors;
+    }
+
+    @Test
+    void testEachMonitorIsOwnedByExactlyOneShard() {
+        Map<String, PositionMonitorV2> monitors = monitors(32);
+        Map<Long, Set<String>> subscriptions = new HashMap<>();
+        subscriptions.put(101L, monitors.keySet());
+
+        ShardedDispatchTable table = ShardedDispatchTable.build(subscriptions, monitors, pool);
+
+        int owned = 0;
+        long expectedMask = 0L;
+        for (int s = 0; s < pool.shardCount(); s++) {
+            PositionMonitorV2[] shardMonitors = table.shard(s).monitorsFor(101L);
+            if (shardMonitors == null) continue;
+            expectedMask |= 1L << s;
+            for (PositionMonitorV2 monitor : shardMonitors) {
+                assertEquals(s, pool.shardOf(monitor.getExecutionId()));
+                owned++;
+            }
+        }
+        assertEquals(32, owned);
+        assertEquals(expectedMask, table.shardMask(101L));
+        assertEquals(0L, table.shardMask(999L));
+        assertSame(TickDispatchTable.EMPTY, table.shard(pool.shardCount()));
+    }
+
+    @Test
+    void testTokensWithoutLiveMonitorsAreNotRouted() {
+        Map<String, PositionMonitorV2> monitors = monitors(1);
+        Map<Long, Set<String>> subscriptions = new HashMap<>();
+        subscriptions.put(101L, Set.of("exec-0"));
+        subscriptions.put(102L, Set.of("exec-gone"));
+
+        ShardedDispatchTable table = ShardedDispatchTable.build(subscriptions, monitors, pool);
+
+        assertEquals(1, table.tokenCount());
+        assertEquals(1L << pool.shardOf("exec-0"), table.shardMask(101L));
+        assertEquals(0L, table.shardMask(102L));
+        assertSame(ShardedDispatchTable.EMPTY, ShardedDispatchTable.build(Map.of(), monitors, pool));
+    }
+
+    @Test
+    void testRouterEvaluatesEveryMonitorOnItsShardThread() throws InterruptedException {
+        Map<String, PositionMonitorV2> monitors = monitors(16);
+        Map<Long, Set<String>> subscriptions = new HashMap<>();
+        subscriptions.put(101L, monitors.keySet());
+        ShardedDispatchTable table = ShardedDispatchTable.build(subscriptions, monitors, pool);
+
+        pool.start();
+        ShardedTickRouter router = pool.newRouter("shard-user", () -> table);
+        ArrayList<Tick> ticks = new ArrayList<>();
+        for (long token : new long[]{101L, 999L}) {
+            Tick tick = new Tick();
+            tick.setInstrumentToken(token);
+            tick.setLastTradedPrice(100.0);
+            ticks.add(tick);
+        }
+        router.publish(ticks);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (router.pendingTicks() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, router.pendingTicks());
+        assertEquals(1L, router.toMap().get("unroutedTicks"));
+
+        for (PositionMonitorV2 value : monitors.values()) {
+            CountingMonitor monitor = (CountingMonitor) value;
+            assertEquals(1, monitor.priceUpdates);
+            assertEquals(1, monitor.batches);
+            assertEquals("monitor-shard-" + pool.shardOf(monitor.getExecutionId()), monitor.evaluatedOn.getName());
+        }
+        router.stop();
+    }
+}
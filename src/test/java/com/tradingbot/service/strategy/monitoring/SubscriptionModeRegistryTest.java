@@ -0,0 +1,78 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.tradingbot.service.strategy.monitoring.SubscriptionModeRegistry.Changes;
+import com.tradingbot.service.strategy.monitoring.SubscriptionModeRegistry.Mode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SubscriptionModeRegistry — reference-counted upgrade/downgrade and net ticker changes.
+ */
+class SubscriptionModeRegistryTest {
+
+    @Test
+    void testFirstHolderSubscribesInItsMode() {
+        SubscriptionModeRegistry registry = new SubscriptionModeRegistry();
+        Changes changes = new Changes();
+
+        registry.acquire(101L, Mode.LTP, changes);
+        registry.acquire(101L, Mode.LTP, changes);
+
+        assertEquals(List.of(101L), changes.getSubscribe());
+        assertEquals(Map.of(Mode.LTP, List.of(101L)), changes.getModeChanges());
+        assertEquals(Mode.LTP, registry.modeOf(101L));
+    }
+
+    @Test
+    void testFullHolderUpgradesAndDowngradesOnRelease() {
+        SubscriptionModeRegistry registry = new SubscriptionModeRegistry();
+        registry.acquire(101L, Mode.LTP, new Changes());
+
+        Changes upgrade = new Changes();
+        registry.acquire(101L, Mode.FULL, upgrade);
+        assertTrue(upgrade.getSubscribe().isEmpty());
+        assertEquals(Map.of(Mode.FULL, List.of(101L)), upgrade.getModeChanges());
+
+        Changes downgrade = new Changes();
+        registry.release(101L, Mode.FULL, downgrade);
+        assertEquals(Map.of(Mode.LTP, List.of(101L)), downgrade.getModeChanges());
+        assertTrue(downgrade.getUnsubscribe().isEmpty());
+
+        Changes last = new Changes();
+        registry.release(101L, Mode.LTP, last);
+        assertEquals(List.of(101L), last.getUnsubscribe());
+        assertTrue(last.getModeChanges().isEmpty());
+        assertNull(registry.modeOf(101L));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testSubscribeAndReleaseInOneBatchIsANoOp() {
+        SubscriptionModeRegistry registry = new SubscriptionModeRegistry();
+        Changes changes = new Changes();
+
+        registry.acquire(101L, Mode.FULL, changes);
+        registry.release(101L, Mode.FULL, changes);
+        registry.release(102L, Mode.LTP, changes);
+
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void testSnapshotGroupsTokensByEffectiveMode() {
+        SubscriptionModeRegistry registry = new SubscriptionModeRegistry();
+        Changes changes = new Changes();
+        registry.acquire(101L, Mode.LTP, changes);
+        registry.acquire(102L, Mode.LTP, changes);
+        registry.acquire(102L, Mode.FULL, changes);
+
+        Map<Mode, List<Long>> snapshot = registry.snapshot();
+        assertEquals(List.of(101L), snapshot.get(Mode.LTP));
+        assertEquals(List.of(102L), snapshot.get(Mode.FULL));
+        assertEquals(Map.of(Mode.LTP, List.of(101L), Mode.FULL, List.of(102L)), changes.getModeChanges());
+    }
+}
@@ -0,0 +1,70 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Tick;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TickConflator — latest value wins per token, first-appearance order and counters.
+ */
+class TickConflatorTest {
+
+    private static Tick tick(long token, double ltp) {
+        Tick tick = new Tick();
+        tick.setInstrumentToken(token);
+        tick.setLastTradedPrice(ltp);
+        return tick;
+    }
+
+    @Test
+    void testPrimitiveBatchKeepsLatestPricePerToken() {
+        TickConflator conflator = new TickConflator();
+        long[] tokens = {101L, 102L, 101L, 103L, 102L, 101L};
+        double[] prices = {10.0, 20.0, 11.0, 30.0, 21.0, 12.0};
+        long[] timestamps = {1L, 2L, 3L, 4L, 5L, 6L};
+
+        int size = conflator.conflate(tokens, prices, timestamps, tokens.length);
+
+        assertEquals(3, size);
+        assertArrayEquals(new long[]{101L, 102L, 103L}, Arrays.copyOf(tokens, size));
+        assertArrayEquals(new double[]{12.0, 21.0, 30.0}, Arrays.copyOf(prices, size));
+        // Oldest receive time is kept for queue-delay measurement
+        assertArrayEquals(new long[]{1L, 2L, 4L}, Arrays.copyOf(timestamps, size));
+        assertEquals(6, conflator.getReceivedTicks());
+        assertEquals(3, conflator.getDeliveredTicks());
+        assertEquals(3, conflator.getConflatedTicks());
+    }
+
+    @Test
+    void testTickBatchKeepsLatestTickPerToken() {
+        TickConflator conflator = new TickConflator();
+        ArrayList<Tick> ticks = new ArrayList<>();
+        ticks.add(tick(101L, 10.0));
+        ticks.add(tick(102L, 20.0));
+        ticks.add(tick(101L, 11.0));
+
+        ArrayList<Tick> conflated = conflator.conflate(ticks);
+
+        assertEquals(2, conflated.size());
+        assertEquals(101L, conflated.get(0).getInstrumentToken());
+        assertEquals(11.0, conflated.get(0).getLastTradedPrice());
+        assertEquals(20.0, conflated.get(1).getLastTradedPrice());
+        assertEquals(1, conflator.getConflatedTicks());
+    }
+
+    @Test
+    void testDistinctTokensReturnOriginalBatch() {
+        TickConflator conflator = new TickConflator();
+        ArrayList<Tick> ticks = new ArrayList<>();
+        ticks.add(tick(101L, 10.0));
+        ticks.add(tick(102L, 20.0));
+
+        assertSame(ticks, conflator.conflate(ticks));
+        assertEquals(0, conflator.getConflatedTicks());
+        assertEquals(2, conflator.getDeliveredTicks());
+    }
+}
@@ -0,0 +1,126 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import com.zerodhatech.models.Tick;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TickDispatchTable — token fan-out, once-per-batch delivery and skipping of stopped or
+ * unknown monitors.
+ */
+class TickDispatchTableTest {
+
+    /** Counts batches instead of evaluating exits. */
+    private static final class CountingMonitor extends PositionMonitorV2 {
+        int batches;
+        int priceUpdates;
+
+        CountingMonitor(String executionId) {
+            super(executionId, 3.0, 2.0);
+        }
+
+        @Override
+        public void updatePriceWithDifferenceCheck(ArrayList<Tick> ticks) {
+            batches++;
+        }
+
+        @Override
+        void applyTickPrice(long instrumentToken, double lastTradedPrice) {
+            priceUpdates++;
+        }
+
+        @Override
+        void evaluateAfterTickBatch() {
+            batches++;
+        }
+    }
+
+    private static ArrayList<Tick> ticks(long... tokens) {
+        ArrayList<Tick> ticks = new ArrayList<>();
+        for (long token : tokens) {
+            Tick tick = new Tick();
+            tick.setInstrumentToken(token);
+            tick.setLastTradedPrice(100.0);
+            ticks.add(tick);
+        }
+        return ticks;
+    }
+
+    @Test
+    void testEachMonitorGetsTheBatchOnce() {
+        CountingMonitor straddle = new CountingMonitor("exec-1");
+        CountingMonitor strangle = new CountingMonitor("exec-2");
+        Map<String, PositionMonitorV2> monitors = Map.of("exec-1", straddle, "exec-2", strangle);
+        Map<Long, Set<String>> subscriptions = new HashMap<>();
+        subscriptions.put(101L, Set.of("exec-1"));
+        subscriptions.put(102L, Set.of("exec-1", "exec-2"));
+        subscriptions.put(103L, Set.of("exec-2"));
+
+        TickDispatchTable table = TickDispatchTable.build(subscriptions, monitors);
+
+        assertEquals(3, table.tokenCount());
+        assertEquals(2, table.monitorsFor(102L).length);
+        assertEquals(2, table.dispatch(ticks(101L, 102L, 103L, 999L)));
+        assertEquals(1, straddle.batches);
+        assertEquals(1, strangle.batches);
+
+        // A new batch is delivered again
+        assertEquals(1, table.dispatch(ticks(103L)));
+        assertEquals(1, straddle.batches);
+        assertEquals(2, strangle.batches);
+    }
+
+    @Test
+    void testUnknownTokensAndStoppedMonitorsAreSkipped() {
+        CountingMonitor monitor = new CountingMonitor("exec-1");
+        Map<Long, List<String>> subscriptions = Map.of(101L, List.of("exec-1", "exec-gone"));
+
+        TickDispatchTable table = TickDispatchTable.build(subscriptions, Map.of("exec-1", monitor));
+
+        assertEquals(1, table.monitorsFor(101L).length);
+        assertNull(table.monitorsFor(102L));
+        assertEquals(0, table.dispatch(ticks(102L)));
+
+        monitor.stop();
+        assertEquals(0, table.dispatch(ticks(101L)));
+        assertEquals(0, monitor.batches);
+    }
+
+    @Test
+    void testEmptyRegistryYieldsEmptyTable() {
+        assertSame(TickDispatchTable.EMPTY, TickDispatchTable.build(Map.of(), Map.of()));
+        assertEquals(0, TickDispatchTable.EMPTY.dispatch(ticks(101L)));
+    }
+
+    @Test
+    void testPrimitiveBatchAppliesEveryPriceAndEvaluatesOnce() {
+        CountingMonitor straddle = new CountingMonitor("exec-1");
+        CountingMonitor strangle = new CountingMonitor("exec-2");
+        Map<String, PositionMonitorV2> monitors = Map.of("exec-1", straddle, "exec-2", strangle);
+        Map<Long, Set<String>> subscriptions = new HashMap<>();
+        subscriptions.put(101L, Set.of("exec-1"));
+        subscriptions.put(102L, Set.of("exec-1", "exec-2"));
+
+        TickDispatchTable table = TickDispatchTable.build(subscriptions, monitors);
+        assertEquals(2, table.monitorCount());
+
+        PositionMonitorV2[] touched = new PositionMonitorV2[table.monitorCount()];
+        long[] tokens = {101L, 102L, 101L, 999L};
+        double[] prices = {100.0, 90.0, 101.0, 5.0};
+
+        assertEquals(2, table.dispatch(tokens, prices, tokens.length, touched));
+        assertEquals(3, straddle.priceUpdates);
+        assertEquals(1, strangle.priceUpdates);
+        assertEquals(1, straddle.batches);
+        assertEquals(1, strangle.batches);
+        assertNull(touched[0]);
+        assertNull(touched[1]);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tradingbot.service.strategy.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TickRingBuffer — capacity rounding, FIFO drain across wrap-around and full-ring rejection.
+ */
+class TickRingBufferTest {
+
+    private final long[] tokens = new long[16];
+    private final double[] prices = new double[16];
+    private final long[] timestamps = new long[16];
+
+    @Test
+    void testCapacityRoundsUpToPowerOfTwo() {
+        assertEquals(2, new TickRingBuffer(0).capacity());
+        assertEquals(8, new TickRingBuffer(8).capacity());
+        assertEquals(16, new TickRingBuffer(9).capacity());
+    }
+
+    @Test
+    void testFullRingRejectsUntilDrained() {
+        TickRingBuffer ring = new TickRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(100 + i, 10.0 + i, i));
+        }
+        assertFalse(ring.tryPublish(999, 1.0, 9));
+        assertEquals(4, ring.size());
+
+        assertEquals(2, ring.drainTo(tokens, prices, timestamps, 2));
+        assertEquals(100, tokens[0]);
+        assertEquals(101, tokens[1]);
+        assertTrue(ring.tryPublish(104, 14.0, 4));
+    }
+
+    @Test
+    void testDrainPreservesOrderAcrossWrapAround() {
+        TickRingBuffer ring = new TickRingBuffer(4);
+        long next = 0;
+        long expected = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++, next++) {
+                assertTrue(ring.tryPublish(next, next * 0.5, next));
+            }
+            int drained = ring.drainTo(tokens, prices, timestamps, 16);
+            assertEquals(3, drained);
+            for (int i = 0; i < drained; i++, expected++) {
+                assertEquals(expected, tokens[i]);
+                assertEquals(expected * 0.5, prices[i]);
+                assertEquals(expected, timestamps[i]);
+            }
+        }
+        assertEquals(0, ring.drainTo(tokens, prices, timestamps, 16));
+        assertEquals(0, ring.size());
+    }
+}
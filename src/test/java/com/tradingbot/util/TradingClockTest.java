@@ -0,0 +1,73 @@
+package com.tradingbot.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TradingClock / VirtualClock.
+ */
+class TradingClockTest {
+
+    /** 2025-03-19 09:15:00 IST */
+    private static final long OPEN_EPOCH_NANOS = ZonedDateTime.of(2025, 3, 19, 9, 15, 0, 0, TradingClock.IST)
+            .toInstant().toEpochMilli() * 1_000_000L;
+
+    @AfterEach
+    void tearDown() {
+        TradingClock.reset();
+    }
+
+    @Test
+    void testWallClockWhenNoVirtualClock() {
+        assertFalse(TradingClock.isVirtual());
+        long before = System.currentTimeMillis();
+        long now = TradingClock.currentTimeMillis();
+        assertTrue(now >= before && now <= System.currentTimeMillis());
+    }
+
+    @Test
+    void testVirtualClockDrivesIstTime() {
+        VirtualClock clock = new VirtualClock(OPEN_EPOCH_NANOS);
+        TradingClock.install(clock);
+
+        assertTrue(TradingClock.isVirtual());
+        assertEquals(LocalTime.of(9, 15), TradingClock.timeIst());
+        assertEquals(OPEN_EPOCH_NANOS / 1_000_000L, TradingClock.currentTimeMillis());
+
+        long startNanos = TradingClock.nanoTime();
+        clock.advanceTo(OPEN_EPOCH_NANOS + 90_500_000_000L);
+        assertEquals(90_500_000_000L, TradingClock.nanoTime() - startNanos);
+        assertEquals(LocalTime.of(9, 16, 30, 500_000_000), TradingClock.timeIst());
+        assertEquals(TradingClock.IST, TradingClock.nowIst().getZone());
+    }
+
+    @Test
+    void testVirtualClockNeverMovesBackwards() {
+        VirtualClock clock = new VirtualClock(OPEN_EPOCH_NANOS);
+        clock.advanceTo(OPEN_EPOCH_NANOS + 1_000L);
+        clock.advanceTo(OPEN_EPOCH_NANOS);
+        assertEquals(OPEN_EPOCH_NANOS + 1_000L, clock.epochNanos());
+    }
+
+    @Test
+    void testZoneViewSharesTime() {
+        VirtualClock clock = new VirtualClock(OPEN_EPOCH_NANOS);
+        var utc = clock.withZone(ZoneOffset.UTC);
+        clock.advanceTo(OPEN_EPOCH_NANOS + 60_000_000_000L);
+        assertEquals(LocalTime.of(3, 46), LocalTime.now(utc));
+    }
+
+    @Test
+    void testOnlyOneVirtualClock() {
+        TradingClock.install(new VirtualClock(OPEN_EPOCH_NANOS));
+        assertThrows(IllegalStateException.class, () -> TradingClock.install(new VirtualClock(OPEN_EPOCH_NANOS)));
+        TradingClock.reset();
+        assertFalse(TradingClock.isVirtual());
+    }
+}